@@ -5,8 +5,11 @@ import java.util.concurrent.TimeUnit;
 import javax.cache.configuration.MutableConfiguration;
 import javax.cache.expiry.CreatedExpiryPolicy;
 import javax.cache.expiry.Duration;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.hibernate.cache.jcache.ConfigSettings;
 import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.Kryo5Codec;
 import org.redisson.config.ClusterServersConfig;
 import org.redisson.config.Config;
 import org.redisson.config.SingleServerConfig;
@@ -14,6 +17,7 @@ import org.redisson.jcache.configuration.RedissonConfiguration;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
 import org.springframework.cache.annotation.EnableCaching;
@@ -26,20 +30,19 @@ import tech.jhipster.config.cache.PrefixedKeyGenerator;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(L2CacheProperties.class)
 public class CacheConfiguration {
 
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
 
-    @Bean
-    public javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(JHipsterProperties jHipsterProperties) {
-        MutableConfiguration<Object, Object> jcacheConfig = new MutableConfiguration<>();
-
+    @Bean(destroyMethod = "shutdown")
+    public RedissonClient redissonClient(JHipsterProperties jHipsterProperties) {
         URI redisUri = URI.create(jHipsterProperties.getCache().getRedis().getServer()[0]);
 
         Config config = new Config();
-        // Fix Hibernate lazy initialization https://github.com/jhipster/generator-jhipster/issues/22889
-        config.setCodec(new org.redisson.codec.SerializationCodec());
+        // Compact binary entries; Hibernate only caches disassembled state, so no lazy proxies reach the codec
+        config.setCodec(new Kryo5Codec());
         if (jHipsterProperties.getCache().getRedis().isCluster()) {
             ClusterServersConfig clusterServersConfig = config
                 .useClusterServers()
@@ -63,49 +66,93 @@ public class CacheConfiguration {
                 singleServerConfig.setPassword(redisUri.getUserInfo().substring(redisUri.getUserInfo().indexOf(':') + 1));
             }
         }
-        jcacheConfig.setStatisticsEnabled(true);
-        jcacheConfig.setExpiryPolicyFactory(
-            CreatedExpiryPolicy.factoryOf(new Duration(TimeUnit.SECONDS, jHipsterProperties.getCache().getRedis().getExpiration()))
-        );
-        return RedissonConfiguration.fromInstance(Redisson.create(config), jcacheConfig);
+        return Redisson.create(config);
     }
 
+    /**
+     * Hibernate reads and writes the second-level cache through a local Caffeine tier in front of the Redisson
+     * caches created below, see {@link TwoTierCacheManager}.
+     */
     @Bean
-    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cm) {
-        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cm);
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(
+        javax.cache.CacheManager cm,
+        RedissonClient redissonClient,
+        L2CacheProperties l2CacheProperties,
+        MeterRegistry meterRegistry
+    ) {
+        TwoTierCacheManager twoTierCacheManager = new TwoTierCacheManager(
+            cm,
+            redissonClient.getTopic(TwoTierCacheManager.INVALIDATION_TOPIC),
+            l2CacheProperties,
+            meterRegistry
+        );
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, twoTierCacheManager);
     }
 
     @Bean
-    public JCacheManagerCustomizer cacheManagerCustomizer(javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration) {
+    public JCacheManagerCustomizer cacheManagerCustomizer(
+        RedissonClient redissonClient,
+        L2CacheProperties l2CacheProperties,
+        JHipsterProperties jHipsterProperties
+    ) {
         return cm -> {
-            createCache(cm, com.ridehub.booking.domain.Booking.class.getName(), jcacheConfiguration);
-            createCache(cm, com.ridehub.booking.domain.Booking.class.getName() + ".tickets", jcacheConfiguration);
-            createCache(cm, com.ridehub.booking.domain.Booking.class.getName() + ".appliedPromos", jcacheConfiguration);
-            createCache(cm, com.ridehub.booking.domain.Booking.class.getName() + ".pricingSnapshots", jcacheConfiguration);
-            createCache(cm, com.ridehub.booking.domain.Ticket.class.getName(), jcacheConfiguration);
-            createCache(cm, com.ridehub.booking.domain.Ticket.class.getName() + ".exchangedFroms", jcacheConfiguration);
-            createCache(cm, com.ridehub.booking.domain.Ticket.class.getName() + ".exchangedTos", jcacheConfiguration);
-            createCache(cm, com.ridehub.booking.domain.Invoice.class.getName(), jcacheConfiguration);
-            createCache(cm, com.ridehub.booking.domain.PaymentTransaction.class.getName(), jcacheConfiguration);
-            createCache(cm, com.ridehub.booking.domain.PaymentTransaction.class.getName() + ".webhooks", jcacheConfiguration);
-            createCache(cm, com.ridehub.booking.domain.AppliedPromotion.class.getName(), jcacheConfiguration);
-            createCache(cm, com.ridehub.booking.domain.PricingSnapshot.class.getName(), jcacheConfiguration);
-            createCache(cm, com.ridehub.booking.domain.PaymentWebhookLog.class.getName(), jcacheConfiguration);
-            createCache(cm, com.ridehub.booking.domain.FileBooking.class.getName(), jcacheConfiguration);
+            RegionCacheFactory regions = new RegionCacheFactory(cm, redissonClient, l2CacheProperties, jHipsterProperties);
+            regions.createCache(com.ridehub.booking.domain.Booking.class.getName());
+            regions.createCache(com.ridehub.booking.domain.Booking.class.getName() + ".tickets");
+            regions.createCache(com.ridehub.booking.domain.Booking.class.getName() + ".appliedPromos");
+            regions.createCache(com.ridehub.booking.domain.Booking.class.getName() + ".pricingSnapshots");
+            regions.createCache(com.ridehub.booking.domain.Ticket.class.getName());
+            regions.createCache(com.ridehub.booking.domain.Ticket.class.getName() + ".exchangedFroms");
+            regions.createCache(com.ridehub.booking.domain.Ticket.class.getName() + ".exchangedTos");
+            regions.createCache(com.ridehub.booking.domain.Invoice.class.getName());
+            regions.createCache(com.ridehub.booking.domain.PaymentTransaction.class.getName());
+            regions.createCache(com.ridehub.booking.domain.PaymentTransaction.class.getName() + ".webhooks");
+            regions.createCache(com.ridehub.booking.domain.AppliedPromotion.class.getName());
+            regions.createCache(com.ridehub.booking.domain.PricingSnapshot.class.getName());
+            regions.createCache(com.ridehub.booking.domain.PaymentWebhookLog.class.getName());
+            regions.createCache(com.ridehub.booking.domain.FileBooking.class.getName());
             // jhipster-needle-redis-add-entry
         };
     }
 
-    private void createCache(
-        javax.cache.CacheManager cm,
-        String cacheName,
-        javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration
-    ) {
-        javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
-        if (cache != null) {
-            cache.clear();
-        } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+    /**
+     * Creates the Redis tier of a region with the region's own expiry.
+     */
+    private static final class RegionCacheFactory {
+
+        private final javax.cache.CacheManager cm;
+        private final RedissonClient redissonClient;
+        private final L2CacheProperties l2CacheProperties;
+        private final long defaultExpirationSeconds;
+
+        private RegionCacheFactory(
+            javax.cache.CacheManager cm,
+            RedissonClient redissonClient,
+            L2CacheProperties l2CacheProperties,
+            JHipsterProperties jHipsterProperties
+        ) {
+            this.cm = cm;
+            this.redissonClient = redissonClient;
+            this.l2CacheProperties = l2CacheProperties;
+            this.defaultExpirationSeconds = jHipsterProperties.getCache().getRedis().getExpiration();
+        }
+
+        private void createCache(String region) {
+            String cacheName = TwoTierCacheManager.remoteName(region);
+            javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+                return;
+            }
+            Long remoteTtlSeconds = l2CacheProperties.resolve(region).getRemoteTtlSeconds();
+            MutableConfiguration<Object, Object> jcacheConfig = new MutableConfiguration<>();
+            jcacheConfig.setStatisticsEnabled(true);
+            jcacheConfig.setExpiryPolicyFactory(
+                CreatedExpiryPolicy.factoryOf(
+                    new Duration(TimeUnit.SECONDS, remoteTtlSeconds != null ? remoteTtlSeconds : defaultExpirationSeconds)
+                )
+            );
+            cm.createCache(cacheName, RedissonConfiguration.fromInstance(redissonClient, jcacheConfig));
         }
     }
 
@@ -0,0 +1,119 @@
+package com.ridehub.booking.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Hibernate second-level cache regions (see {@link TwoTierCacheManager}).
+ * <p>
+ * Values under {@code l2-cache.defaults} apply to every region; entries under {@code l2-cache.regions.<region>}
+ * override them. Regions are named after the entity relative to the domain package, collections after the
+ * entity and role: {@code Booking}, {@code "[Booking.tickets]"}.
+ * <p>
+ * The versioned entities whose status changes in bulk, {@code Booking} and {@code PaymentTransaction}, have no local
+ * tier unless their region sets {@code local-enabled: true}: a local copy that outlives a change on another node
+ * makes the next update of the row fail its version check.
+ */
+@ConfigurationProperties(prefix = "l2-cache")
+public class L2CacheProperties {
+
+    static final String DOMAIN_PACKAGE = "com.ridehub.booking.domain.";
+
+    static final Set<String> REMOTE_ONLY_REGIONS = Set.of("Booking", "PaymentTransaction");
+
+    private final Settings defaults = Settings.baseline();
+    private final Map<String, Settings> regions = new HashMap<>();
+
+    public Settings getDefaults() {
+        return defaults;
+    }
+
+    public Map<String, Settings> getRegions() {
+        return regions;
+    }
+
+    /**
+     * Resolve the effective settings for a Hibernate region name, falling back to the defaults for unset values.
+     */
+    public Settings resolve(String regionName) {
+        String key = regionName.startsWith(DOMAIN_PACKAGE) ? regionName.substring(DOMAIN_PACKAGE.length()) : regionName;
+        Settings fallback = REMOTE_ONLY_REGIONS.contains(key) ? Settings.remoteOnly().withFallback(defaults) : defaults;
+        Settings override = regions.get(key);
+        return override == null ? fallback : override.withFallback(fallback);
+    }
+
+    /**
+     * Per-region cache settings. Null values mean "inherit from defaults".
+     */
+    public static class Settings {
+
+        /** Whether reads are served from a local (Caffeine) tier at all, or always from Redis. */
+        private Boolean localEnabled;
+
+        /** Entries kept in the local (Caffeine) tier of each node. */
+        private Long localMaxSize;
+
+        /** How long a local entry is served before it is read from Redis again. */
+        private Long localTtlSeconds;
+
+        /** Expiry of the Redis tier; defaults to {@code jhipster.cache.redis.expiration}. */
+        private Long remoteTtlSeconds;
+
+        static Settings baseline() {
+            Settings settings = new Settings();
+            settings.localEnabled = true;
+            settings.localMaxSize = 10_000L;
+            settings.localTtlSeconds = 60L;
+            return settings;
+        }
+
+        static Settings remoteOnly() {
+            Settings settings = new Settings();
+            settings.localEnabled = false;
+            return settings;
+        }
+
+        Settings withFallback(Settings fallback) {
+            Settings merged = new Settings();
+            merged.localEnabled = localEnabled != null ? localEnabled : fallback.localEnabled;
+            merged.localMaxSize = localMaxSize != null ? localMaxSize : fallback.localMaxSize;
+            merged.localTtlSeconds = localTtlSeconds != null ? localTtlSeconds : fallback.localTtlSeconds;
+            merged.remoteTtlSeconds = remoteTtlSeconds != null ? remoteTtlSeconds : fallback.remoteTtlSeconds;
+            return merged;
+        }
+
+        public Boolean getLocalEnabled() {
+            return localEnabled;
+        }
+
+        public void setLocalEnabled(Boolean localEnabled) {
+            this.localEnabled = localEnabled;
+        }
+
+        public Long getLocalMaxSize() {
+            return localMaxSize;
+        }
+
+        public void setLocalMaxSize(Long localMaxSize) {
+            this.localMaxSize = localMaxSize;
+        }
+
+        public Long getLocalTtlSeconds() {
+            return localTtlSeconds;
+        }
+
+        public void setLocalTtlSeconds(Long localTtlSeconds) {
+            this.localTtlSeconds = localTtlSeconds;
+        }
+
+        public Long getRemoteTtlSeconds() {
+            return remoteTtlSeconds;
+        }
+
+        public void setRemoteTtlSeconds(Long remoteTtlSeconds) {
+            this.remoteTtlSeconds = remoteTtlSeconds;
+        }
+    }
+}
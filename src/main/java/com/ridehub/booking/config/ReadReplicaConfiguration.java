@@ -0,0 +1,94 @@
+package com.ridehub.booking.config;
+
+import com.ridehub.booking.security.SecurityUtils;
+import com.ridehub.booking.service.ReplicaRead;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+/**
+ * Sends {@code readOnly} transactions to a read replica and everything else to the primary.
+ * <p>
+ * The application-wide {@link DataSource} is a {@link LazyConnectionDataSourceProxy}: a transaction gets a
+ * physical connection on its first statement, after the transaction manager marked it read-only, and read-only
+ * connections come from {@link ReplicaRoutingDataSource}, which hands out replica connections only inside
+ * {@link ReplicaRead} services. Both Hikari pools are beans of their own, so each reports its
+ * {@code hikaricp.*} and {@code jdbc.connections.*} metrics under its pool name.
+ * <p>
+ * Without {@code datasource-replica.url} none of this is registered and the auto-configured pool is used.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource-replica", name = "url")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource-replica.hikari")
+    public HikariDataSource replicaDataSource(ReadReplicaProperties properties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(properties.getUrl())
+            .username(properties.getUsername())
+            .password(properties.getPassword())
+            .build();
+        dataSource.setPoolName("HikariReplica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+        HikariDataSource primaryDataSource,
+        HikariDataSource replicaDataSource,
+        ReadReplicaProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, properties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        dataSource.setDefaultAutoCommit(primaryDataSource.isAutoCommit());
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaReadAspect replicaReadAspect() {
+        return new ReplicaReadAspect();
+    }
+
+    /**
+     * Remembers users who committed a write, so their next reads see it.
+     */
+    @Bean
+    public TransactionExecutionListener replicaReadYourWritesListener(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new TransactionExecutionListener() {
+            @Override
+            public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+                if (commitFailure == null && !transaction.isReadOnly()) {
+                    SecurityUtils.getCurrentUserLogin().ifPresent(replicaRoutingDataSource::recordWrite);
+                }
+            }
+        };
+    }
+}
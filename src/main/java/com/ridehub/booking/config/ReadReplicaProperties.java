@@ -0,0 +1,75 @@
+package com.ridehub.booking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Read replica used by {@code readOnly} transactions. Routing is off unless {@code url} is set; pool settings
+ * go under {@code datasource-replica.hikari}.
+ */
+@ConfigurationProperties(prefix = "datasource-replica")
+public class ReadReplicaProperties {
+
+    /** JDBC URL of the replica. */
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    /** How long reads of a user stay on the primary after that user committed a write. */
+    private long readYourWritesMillis = 10_000;
+
+    /** Replication lag above which all reads go to the primary. */
+    private long maxLagSeconds = 5;
+
+    /** How often the replication lag is measured. */
+    private long lagCheckMillis = 5_000;
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public long getReadYourWritesMillis() {
+        return readYourWritesMillis;
+    }
+
+    public void setReadYourWritesMillis(long readYourWritesMillis) {
+        this.readYourWritesMillis = readYourWritesMillis;
+    }
+
+    public long getMaxLagSeconds() {
+        return maxLagSeconds;
+    }
+
+    public void setMaxLagSeconds(long maxLagSeconds) {
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public long getLagCheckMillis() {
+        return lagCheckMillis;
+    }
+
+    public void setLagCheckMillis(long lagCheckMillis) {
+        this.lagCheckMillis = lagCheckMillis;
+    }
+}
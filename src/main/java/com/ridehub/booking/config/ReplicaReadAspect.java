@@ -0,0 +1,27 @@
+package com.ridehub.booking.config;
+
+import com.ridehub.booking.service.ReplicaRead;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Lets the {@code readOnly} transactions of {@link ReplicaRead} services use the replica. Runs outside the
+ * transaction advice, so the marking is in place before the transaction takes its connection.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReplicaReadAspect {
+
+    @Around("within(@com.ridehub.booking.service.ReplicaRead *)")
+    public Object allowReplicaReads(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = ReplicaRoutingDataSource.allowReplicaReads();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingDataSource.restoreReplicaReads(previous);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.ridehub.booking.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ridehub.booking.security.SecurityUtils;
+import com.ridehub.booking.service.ReplicaRead;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Source of connections for {@code readOnly} transactions: the replica pool, unless its data may be stale for
+ * the caller. Only the services marked {@link ReplicaRead} use the replica; every other read-only transaction,
+ * e.g. the payment snapshot a webhook or the poller decides on, stays on the primary. Marked reads go to the
+ * primary too while the measured replication lag is unknown or above {@code max-lag-seconds}, and for
+ * {@code read-your-writes-millis} after the current user committed a write.
+ * <p>
+ * Recent writers are tracked per instance, so a user whose next request lands on another replica of this
+ * service is only covered by the lag check.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    enum Pool {
+        PRIMARY,
+        REPLICA,
+    }
+
+    static final String REASON_REPLICA = "replica";
+    static final String REASON_RECENT_WRITE = "recent-write";
+    static final String REASON_REPLICA_LAG = "replica-lag";
+    static final String REASON_PRIMARY_READ = "primary-read";
+
+    /** Set while a {@link ReplicaRead} service runs on this thread. */
+    private static final ThreadLocal<Boolean> REPLICA_READS = new ThreadLocal<>();
+
+    private final DataSource replica;
+    private final long maxLagSeconds;
+    private final Cache<String, Boolean> recentWriters;
+    private final Map<String, Counter> routed;
+
+    /** Seconds the replica is behind the primary; NaN until measured or when replication is stopped. */
+    private volatile double replicaLagSeconds = Double.NaN;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLagSeconds = properties.getMaxLagSeconds();
+        this.recentWriters = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(properties.getReadYourWritesMillis()))
+            .maximumSize(100_000)
+            .build();
+        this.routed = Map.of(
+            REASON_REPLICA,
+            routedCounter(meterRegistry, Pool.REPLICA, REASON_REPLICA),
+            REASON_RECENT_WRITE,
+            routedCounter(meterRegistry, Pool.PRIMARY, REASON_RECENT_WRITE),
+            REASON_REPLICA_LAG,
+            routedCounter(meterRegistry, Pool.PRIMARY, REASON_REPLICA_LAG),
+            REASON_PRIMARY_READ,
+            routedCounter(meterRegistry, Pool.PRIMARY, REASON_PRIMARY_READ)
+        );
+        Gauge.builder("datasource.replica.lag", () -> replicaLagSeconds)
+            .baseUnit("seconds")
+            .description("Replication lag of the read replica; NaN while unknown")
+            .register(meterRegistry);
+
+        setTargetDataSources(Map.of(Pool.PRIMARY, primary, Pool.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    private static Counter routedCounter(MeterRegistry meterRegistry, Pool pool, String reason) {
+        return Counter.builder("datasource.read.routed")
+            .tag("pool", pool.name().toLowerCase(Locale.ROOT))
+            .tag("reason", reason)
+            .description("Read-only connections by pool and routing reason")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String reason = routingReason();
+        routed.get(reason).increment();
+        return REASON_REPLICA.equals(reason) ? Pool.REPLICA : Pool.PRIMARY;
+    }
+
+    String routingReason() {
+        if (!Boolean.TRUE.equals(REPLICA_READS.get())) {
+            return REASON_PRIMARY_READ;
+        }
+        double lag = replicaLagSeconds;
+        if (Double.isNaN(lag) || lag > maxLagSeconds) {
+            return REASON_REPLICA_LAG;
+        }
+        if (SecurityUtils.getCurrentUserLogin().map(login -> recentWriters.getIfPresent(login) != null).orElse(false)) {
+            return REASON_RECENT_WRITE;
+        }
+        return REASON_REPLICA;
+    }
+
+    /**
+     * Let this thread's read-only transactions use the replica; returns the previous setting for
+     * {@link #restoreReplicaReads}.
+     */
+    static boolean allowReplicaReads() {
+        boolean previous = Boolean.TRUE.equals(REPLICA_READS.get());
+        REPLICA_READS.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void restoreReplicaReads(boolean previous) {
+        if (previous) {
+            REPLICA_READS.set(Boolean.TRUE);
+        } else {
+            REPLICA_READS.remove();
+        }
+    }
+
+    /**
+     * Keep the reads of {@code login} on the primary until the replica has caught up with its write.
+     */
+    public void recordWrite(String login) {
+        recentWriters.put(login, Boolean.TRUE);
+    }
+
+    /**
+     * Measure the replication lag. A server without replica status is treated as current; a stopped
+     * replication thread or a failed check make the lag unknown, which sends reads to the primary.
+     */
+    @Scheduled(fixedDelayString = "${datasource-replica.lag-check-millis:5000}")
+    public void refreshReplicaLag() {
+        try (
+            Connection connection = replica.getConnection();
+            Statement statement = connection.createStatement();
+            ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")
+        ) {
+            if (!status.next()) {
+                replicaLagSeconds = 0;
+                return;
+            }
+            long seconds = status.getLong("Seconds_Behind_Source");
+            replicaLagSeconds = status.wasNull() ? Double.NaN : seconds;
+        } catch (SQLException e) {
+            LOG.warn("Could not read replication lag, routing reads to the primary: {}", e.getMessage());
+            replicaLagSeconds = Double.NaN;
+        }
+    }
+
+    double getReplicaLagSeconds() {
+        return replicaLagSeconds;
+    }
+}
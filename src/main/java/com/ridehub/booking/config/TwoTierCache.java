@@ -0,0 +1,326 @@
+package com.ridehub.booking.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.configuration.Configuration;
+import javax.cache.integration.CompletionListener;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.EntryProcessorResult;
+
+/**
+ * A JCache region with a node-local Caffeine tier in front of the shared Redis tier.
+ * <p>
+ * Reads are served locally when possible and fill the local tier from Redis on a miss. Every write goes to Redis
+ * first, then replaces or drops the local entry and announces the key through the {@link InvalidationPublisher}, so
+ * the other nodes drop their copy. An invalidation is asynchronous: another node may serve its old copy until the
+ * message arrives, at most for the region's local TTL.
+ * <p>
+ * A read that misses locally fills the local tier only if its key was not invalidated or written on this node
+ * while Redis was being read; otherwise the value it got may predate the change and is returned but not kept.
+ */
+public class TwoTierCache<K, V> implements Cache<K, V> {
+
+    private static final int STAMP_STRIPES = 1024;
+
+    private final String name;
+    private final Cache<K, V> remote;
+    private final com.github.benmanes.caffeine.cache.Cache<K, V> local;
+    private final CacheManager cacheManager;
+    private final InvalidationPublisher publisher;
+
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter invalidationsReceived;
+
+    // Bumped on every local invalidation or write, per key stripe and for the whole region; see get()
+    private final AtomicLongArray keyStamps = new AtomicLongArray(STAMP_STRIPES);
+    private final AtomicLong regionStamp = new AtomicLong();
+
+    public TwoTierCache(
+        String name,
+        Cache<K, V> remote,
+        com.github.benmanes.caffeine.cache.Cache<K, V> local,
+        CacheManager cacheManager,
+        InvalidationPublisher publisher,
+        MeterRegistry meterRegistry
+    ) {
+        this.name = name;
+        this.remote = remote;
+        this.local = local;
+        this.cacheManager = cacheManager;
+        this.publisher = publisher;
+
+        FunctionCounter.builder("l2.cache.gets", local, c -> c.stats().hitCount())
+            .tags("region", name, "tier", "local", "result", "hit")
+            .description("Second-level cache lookups")
+            .register(meterRegistry);
+        FunctionCounter.builder("l2.cache.gets", local, c -> c.stats().missCount())
+            .tags("region", name, "tier", "local", "result", "miss")
+            .description("Second-level cache lookups")
+            .register(meterRegistry);
+        this.remoteHits = Counter.builder("l2.cache.gets")
+            .tags("region", name, "tier", "remote", "result", "hit")
+            .description("Second-level cache lookups")
+            .register(meterRegistry);
+        this.remoteMisses = Counter.builder("l2.cache.gets")
+            .tags("region", name, "tier", "remote", "result", "miss")
+            .description("Second-level cache lookups")
+            .register(meterRegistry);
+        FunctionCounter.builder("l2.cache.evictions", local, c -> c.stats().evictionCount())
+            .tags("region", name, "tier", "local")
+            .description("Entries evicted from the local tier by size or TTL")
+            .register(meterRegistry);
+        Gauge.builder("l2.cache.size", local, c -> c.estimatedSize())
+            .tags("region", name, "tier", "local")
+            .description("Entries in the local tier")
+            .register(meterRegistry);
+        this.invalidationsReceived = Counter.builder("l2.cache.invalidations")
+            .tags("region", name, "tier", "local")
+            .description("Local entries dropped because another node changed them")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Drop {@code key} from the local tier after another node changed it; a {@code null} key drops the whole
+     * region.
+     */
+    @SuppressWarnings("unchecked")
+    void invalidateLocal(Object key) {
+        invalidationsReceived.increment();
+        if (key == null) {
+            regionStamp.incrementAndGet();
+            local.invalidateAll();
+        } else {
+            keyStamps.incrementAndGet(stripe(key));
+            local.invalidate((K) key);
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        V value = local.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        long stamp = stamp(key);
+        value = remote.get(key);
+        if (value != null) {
+            remoteHits.increment();
+            V read = value;
+            // Atomic with the invalidation of this key: keep the value only if nothing changed it since the read began
+            local.asMap().compute(key, (k, current) -> stamp(k) == stamp ? read : current);
+        } else {
+            remoteMisses.increment();
+        }
+        return value;
+    }
+
+    @Override
+    public Map<K, V> getAll(Set<? extends K> keys) {
+        Map<K, V> values = new HashMap<>();
+        for (K key : keys) {
+            V value = get(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return local.getIfPresent(key) != null || remote.containsKey(key);
+    }
+
+    @Override
+    public void loadAll(Set<? extends K> keys, boolean replaceExistingValues, CompletionListener completionListener) {
+        remote.loadAll(keys, replaceExistingValues, completionListener);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        remote.put(key, value);
+        keyStamps.incrementAndGet(stripe(key));
+        local.put(key, value);
+        publisher.publish(getName(), key);
+    }
+
+    @Override
+    public V getAndPut(K key, V value) {
+        V previous = remote.getAndPut(key, value);
+        keyStamps.incrementAndGet(stripe(key));
+        local.put(key, value);
+        publisher.publish(getName(), key);
+        return previous;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        map.forEach(this::put);
+    }
+
+    @Override
+    public boolean putIfAbsent(K key, V value) {
+        return evictedAfter(key, remote.putIfAbsent(key, value));
+    }
+
+    @Override
+    public boolean remove(K key) {
+        return evictedAfter(key, remote.remove(key));
+    }
+
+    @Override
+    public boolean remove(K key, V oldValue) {
+        return evictedAfter(key, remote.remove(key, oldValue));
+    }
+
+    @Override
+    public V getAndRemove(K key) {
+        return evictedAfter(key, remote.getAndRemove(key));
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        return evictedAfter(key, remote.replace(key, oldValue, newValue));
+    }
+
+    @Override
+    public boolean replace(K key, V value) {
+        return evictedAfter(key, remote.replace(key, value));
+    }
+
+    @Override
+    public V getAndReplace(K key, V value) {
+        return evictedAfter(key, remote.getAndReplace(key, value));
+    }
+
+    @Override
+    public void removeAll(Set<? extends K> keys) {
+        remote.removeAll(keys);
+        keys.forEach(key -> evictedAfter(key, null));
+    }
+
+    @Override
+    public void removeAll() {
+        remote.removeAll();
+        regionStamp.incrementAndGet();
+        local.invalidateAll();
+        publisher.publish(getName(), null);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        regionStamp.incrementAndGet();
+        local.invalidateAll();
+        publisher.publish(getName(), null);
+    }
+
+    @Override
+    public <C extends Configuration<K, V>> C getConfiguration(Class<C> clazz) {
+        return remote.getConfiguration(clazz);
+    }
+
+    @Override
+    public <T> T invoke(K key, EntryProcessor<K, V, T> entryProcessor, Object... arguments) throws EntryProcessorException {
+        return evictedAfter(key, remote.invoke(key, entryProcessor, arguments));
+    }
+
+    @Override
+    public <T> Map<K, EntryProcessorResult<T>> invokeAll(
+        Set<? extends K> keys,
+        EntryProcessor<K, V, T> entryProcessor,
+        Object... arguments
+    ) {
+        Map<K, EntryProcessorResult<T>> results = remote.invokeAll(keys, entryProcessor, arguments);
+        keys.forEach(key -> evictedAfter(key, null));
+        return results;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public CacheManager getCacheManager() {
+        return cacheManager;
+    }
+
+    @Override
+    public void close() {
+        local.invalidateAll();
+        remote.close();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return remote.isClosed();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        if (clazz.isInstance(this)) {
+            return clazz.cast(this);
+        }
+        return remote.unwrap(clazz);
+    }
+
+    @Override
+    public void registerCacheEntryListener(CacheEntryListenerConfiguration<K, V> cacheEntryListenerConfiguration) {
+        remote.registerCacheEntryListener(cacheEntryListenerConfiguration);
+    }
+
+    @Override
+    public void deregisterCacheEntryListener(CacheEntryListenerConfiguration<K, V> cacheEntryListenerConfiguration) {
+        remote.deregisterCacheEntryListener(cacheEntryListenerConfiguration);
+    }
+
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        return remote.iterator();
+    }
+
+    private <T> T evictedAfter(K key, T result) {
+        keyStamps.incrementAndGet(stripe(key));
+        local.invalidate(key);
+        publisher.publish(getName(), key);
+        return result;
+    }
+
+    /**
+     * Changes whenever {@code key}, a key sharing its stripe, or the whole region is invalidated locally. Both parts
+     * only grow, so their sum does too.
+     */
+    private long stamp(Object key) {
+        return regionStamp.get() + keyStamps.get(stripe(key));
+    }
+
+    private static int stripe(Object key) {
+        return Math.floorMod(key.hashCode(), STAMP_STRIPES);
+    }
+
+    /**
+     * Tells the other nodes that a key of a region changed.
+     */
+    @FunctionalInterface
+    public interface InvalidationPublisher {
+        /**
+         * @param region the region name.
+         * @param key the changed key, or {@code null} for the whole region.
+         */
+        void publish(String region, Object key);
+    }
+}
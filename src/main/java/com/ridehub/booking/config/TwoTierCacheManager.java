@@ -0,0 +1,200 @@
+package com.ridehub.booking.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.Serializable;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.Configuration;
+import javax.cache.spi.CachingProvider;
+import org.redisson.api.RTopic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The JCache manager handed to Hibernate as second-level cache: each region is a {@link TwoTierCache} over the
+ * Redisson cache of the same region, with a local tier sized by {@link L2CacheProperties}.
+ * <p>
+ * Changed keys are published on a Redis topic; every other node drops them from its local tier. Messages from
+ * this node are ignored. The Redis tier is keyed {@code <region>:v2}, so entries written with the previous codec
+ * are never read back.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TwoTierCacheManager.class);
+
+    static final String INVALIDATION_TOPIC = "l2-cache:invalidations";
+    private static final String REMOTE_SUFFIX = ":v2";
+
+    private final CacheManager remote;
+    private final RTopic topic;
+    private final L2CacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoTierCache<Object, Object>> caches = new ConcurrentHashMap<>();
+    private final int listenerId;
+
+    public TwoTierCacheManager(CacheManager remote, RTopic topic, L2CacheProperties properties, MeterRegistry meterRegistry) {
+        this.remote = remote;
+        this.topic = topic;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.listenerId = topic.addListener(Invalidation.class, (channel, invalidation) -> onInvalidation(invalidation));
+    }
+
+    /**
+     * Name of the Redis-tier cache of a Hibernate region.
+     */
+    public static String remoteName(String region) {
+        return region + REMOTE_SUFFIX;
+    }
+
+    void onInvalidation(Invalidation invalidation) {
+        if (nodeId.equals(invalidation.origin)) {
+            return;
+        }
+        TwoTierCache<Object, Object> cache = caches.get(invalidation.region);
+        if (cache != null) {
+            cache.invalidateLocal(invalidation.key);
+        }
+    }
+
+    private void publish(String region, Object key) {
+        topic
+            .publishAsync(new Invalidation(nodeId, region, key))
+            .whenComplete((receivers, e) -> {
+                if (e != null) {
+                    LOG.warn("Could not publish L2 invalidation of {} in {}: {}", key, region, e.getMessage());
+                }
+            });
+    }
+
+    private TwoTierCache<Object, Object> wrap(String region, Cache<Object, Object> remoteCache) {
+        L2CacheProperties.Settings settings = properties.resolve(region);
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(settings.getLocalTtlSeconds()))
+            .recordStats();
+        if (Boolean.TRUE.equals(settings.getLocalEnabled())) {
+            builder.maximumSize(settings.getLocalMaxSize());
+        } else {
+            // Remote-only region: a size of zero, evicted on the writing thread, never keeps an entry
+            builder.maximumSize(0).executor(Runnable::run);
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> local = builder.build();
+        return new TwoTierCache<>(region, remoteCache, local, this, this::publish, meterRegistry);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> Cache<K, V> getCache(String cacheName) {
+        TwoTierCache<Object, Object> cache = caches.computeIfAbsent(cacheName, region -> {
+            Cache<Object, Object> remoteCache = remote.getCache(remoteName(region));
+            return remoteCache != null ? wrap(region, remoteCache) : null;
+        });
+        return (Cache<K, V>) cache;
+    }
+
+    @Override
+    public <K, V> Cache<K, V> getCache(String cacheName, Class<K> keyType, Class<V> valueType) {
+        return getCache(cacheName);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V, C extends Configuration<K, V>> Cache<K, V> createCache(String cacheName, C configuration) {
+        Cache<Object, Object> remoteCache = (Cache<Object, Object>) remote.createCache(remoteName(cacheName), configuration);
+        return (Cache<K, V>) caches.computeIfAbsent(cacheName, region -> wrap(region, remoteCache));
+    }
+
+    @Override
+    public Iterable<String> getCacheNames() {
+        return StreamSupport.stream(remote.getCacheNames().spliterator(), false)
+            .filter(name -> name.endsWith(REMOTE_SUFFIX))
+            .map(name -> name.substring(0, name.length() - REMOTE_SUFFIX.length()))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public void destroyCache(String cacheName) {
+        caches.remove(cacheName);
+        remote.destroyCache(remoteName(cacheName));
+    }
+
+    @Override
+    public void enableManagement(String cacheName, boolean enabled) {
+        remote.enableManagement(remoteName(cacheName), enabled);
+    }
+
+    @Override
+    public void enableStatistics(String cacheName, boolean enabled) {
+        remote.enableStatistics(remoteName(cacheName), enabled);
+    }
+
+    @Override
+    public CachingProvider getCachingProvider() {
+        return remote.getCachingProvider();
+    }
+
+    @Override
+    public URI getURI() {
+        return remote.getURI();
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return remote.getClassLoader();
+    }
+
+    @Override
+    public Properties getProperties() {
+        return remote.getProperties();
+    }
+
+    /**
+     * Stops listening for invalidations; the Redis tier belongs to the application cache manager and stays open.
+     */
+    @Override
+    public void close() {
+        topic.removeListener(listenerId);
+        caches.clear();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return remote.isClosed();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        if (clazz.isInstance(this)) {
+            return clazz.cast(this);
+        }
+        return remote.unwrap(clazz);
+    }
+
+    /**
+     * A changed key of a region, published by node {@code origin}; a {@code null} key stands for the whole region.
+     */
+    static final class Invalidation implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String origin;
+        private final String region;
+        private final Object key;
+
+        Invalidation(String origin, String region, Object key) {
+            this.origin = origin;
+            this.region = region;
+            this.key = key;
+        }
+    }
+}
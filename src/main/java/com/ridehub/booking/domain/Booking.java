@@ -12,6 +12,7 @@ import java.util.Set;
 import java.util.UUID;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Filter;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -21,13 +22,15 @@ import org.hibernate.type.SqlTypes;
 @Entity
 @Table(name = "booking")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Filter(name = "notDeleted")
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Booking implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookingSeq")
+    @SequenceGenerator(name = "bookingSeq", sequenceName = "booking_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -81,8 +84,8 @@ public class Booking implements Serializable {
     @Column(name = "updated_at")
     private Instant updatedAt;
 
-    @Column(name = "is_deleted")
-    private Boolean isDeleted;
+    @Column(name = "is_deleted", nullable = false)
+    private Boolean isDeleted = false;
 
     @Column(name = "deleted_at")
     private Instant deletedAt;
@@ -119,6 +122,10 @@ public class Booking implements Serializable {
     @JsonIgnoreProperties(value = { "booking" }, allowSetters = true)
     private Set<PricingSnapshot> pricingSnapshots = new HashSet<>();
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -461,6 +468,22 @@ public class Booking implements Serializable {
         return this;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void defaultIsDeleted() {
+        if (this.isDeleted == null) {
+            this.isDeleted = false;
+        }
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
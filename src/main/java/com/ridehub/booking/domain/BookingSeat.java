@@ -0,0 +1,162 @@
+package com.ridehub.booking.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.util.Objects;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A seat held by a booking.
+ * <p>
+ * The durable copy of the booking's seat list; {@code booking:seats:{id}} in Redis is only a read-through
+ * cache of it. The table is keyed by {@code (booking_id, seat_no)} so a booking's seats are one clustered
+ * range read, and the key is assigned rather than generated so the rows of a booking are inserted in one
+ * JDBC batch.
+ */
+@Entity
+@Table(name = "booking_seat")
+@IdClass(BookingSeat.Key.class)
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class BookingSeat implements Persistable<BookingSeat.Key>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @NotNull
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Id
+    @NotNull
+    @Size(max = 16)
+    @Column(name = "seat_no", length = 16, nullable = false)
+    private String seatNo;
+
+    @NotNull
+    @Column(name = "trip_id", nullable = false)
+    private Long tripId;
+
+    // Rows are written once and never updated, so a fresh instance is always new
+    @Transient
+    private boolean isNew = true;
+
+    public BookingSeat() {}
+
+    public BookingSeat(Long bookingId, Long tripId, String seatNo) {
+        this.bookingId = bookingId;
+        this.tripId = tripId;
+        this.seatNo = seatNo;
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(bookingId, seatNo);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    public Long getBookingId() {
+        return this.bookingId;
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public String getSeatNo() {
+        return this.seatNo;
+    }
+
+    public void setSeatNo(String seatNo) {
+        this.seatNo = seatNo;
+    }
+
+    public Long getTripId() {
+        return this.tripId;
+    }
+
+    public void setTripId(Long tripId) {
+        this.tripId = tripId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BookingSeat)) {
+            return false;
+        }
+        BookingSeat other = (BookingSeat) o;
+        return bookingId != null && seatNo != null && bookingId.equals(other.bookingId) && seatNo.equals(other.seatNo);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BookingSeat{" +
+            "bookingId=" + getBookingId() +
+            ", seatNo='" + getSeatNo() + "'" +
+            ", tripId=" + getTripId() +
+            "}";
+    }
+
+    /**
+     * Primary key of {@link BookingSeat}.
+     */
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long bookingId;
+        private String seatNo;
+
+        public Key() {}
+
+        public Key(Long bookingId, String seatNo) {
+            this.bookingId = bookingId;
+            this.seatNo = seatNo;
+        }
+
+        public Long getBookingId() {
+            return bookingId;
+        }
+
+        public String getSeatNo() {
+            return seatNo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(bookingId, other.bookingId) && Objects.equals(seatNo, other.seatNo);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bookingId, seatNo);
+        }
+    }
+}
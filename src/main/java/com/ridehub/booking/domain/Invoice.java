@@ -9,6 +9,7 @@ import java.time.Instant;
 import java.util.UUID;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Filter;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -18,13 +19,15 @@ import org.hibernate.type.SqlTypes;
 @Entity
 @Table(name = "invoice")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Filter(name = "notDeleted")
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Invoice implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invoiceSeq")
+    @SequenceGenerator(name = "invoiceSeq", sequenceName = "invoice_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -51,8 +54,8 @@ public class Invoice implements Serializable {
     @Column(name = "updated_at")
     private Instant updatedAt;
 
-    @Column(name = "is_deleted")
-    private Boolean isDeleted;
+    @Column(name = "is_deleted", nullable = false)
+    private Boolean isDeleted = false;
 
     @Column(name = "deleted_at")
     private Instant deletedAt;
@@ -229,6 +232,14 @@ public class Invoice implements Serializable {
         return this;
     }
 
+    @PrePersist
+    @PreUpdate
+    void defaultIsDeleted() {
+        if (this.isDeleted == null) {
+            this.isDeleted = false;
+        }
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
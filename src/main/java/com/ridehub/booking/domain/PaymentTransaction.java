@@ -13,6 +13,7 @@ import java.util.Set;
 import java.util.UUID;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Filter;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -22,13 +23,15 @@ import org.hibernate.type.SqlTypes;
 @Entity
 @Table(name = "payment_transaction")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Filter(name = "notDeleted")
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class PaymentTransaction implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "paymentTransactionSeq")
+    @SequenceGenerator(name = "paymentTransactionSeq", sequenceName = "payment_transaction_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -70,8 +73,8 @@ public class PaymentTransaction implements Serializable {
     @Column(name = "updated_at")
     private Instant updatedAt;
 
-    @Column(name = "is_deleted")
-    private Boolean isDeleted;
+    @Column(name = "is_deleted", nullable = false)
+    private Boolean isDeleted = false;
 
     @Column(name = "deleted_at")
     private Instant deletedAt;
@@ -89,6 +92,10 @@ public class PaymentTransaction implements Serializable {
     @OneToOne(fetch = FetchType.LAZY, mappedBy = "paymentTransaction")
     private Booking booking;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -323,6 +330,22 @@ public class PaymentTransaction implements Serializable {
         return this;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void defaultIsDeleted() {
+        if (this.isDeleted == null) {
+            this.isDeleted = false;
+        }
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
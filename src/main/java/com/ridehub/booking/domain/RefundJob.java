@@ -0,0 +1,336 @@
+package com.ridehub.booking.domain;
+
+import com.ridehub.booking.domain.enumeration.RefundJobStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A queued refund, executed asynchronously against the payment gateway.
+ * <p>
+ * One row per refund of a ticket ({@code ticketId} set) or of a whole payment transaction. Rows are
+ * picked up by {@code RefundWorker} when {@code nextAttemptAt} is due.
+ */
+@Entity
+@Table(name = "refund_job")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class RefundJob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refundJobSeq")
+    @SequenceGenerator(name = "refundJobSeq", sequenceName = "refund_job_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "ticket_id")
+    private Long ticketId;
+
+    @NotNull
+    @Column(name = "payment_transaction_id", nullable = false)
+    private Long paymentTransactionId;
+
+    @NotNull
+    @Size(max = 32)
+    @Column(name = "provider", length = 32, nullable = false)
+    private String provider;
+
+    @NotNull
+    @Size(max = 80)
+    @Column(name = "order_ref", length = 80, nullable = false)
+    private String orderRef;
+
+    @NotNull
+    @Column(name = "amount", precision = 21, scale = 2, nullable = false)
+    private BigDecimal amount;
+
+    @Size(max = 255)
+    @Column(name = "reason")
+    private String reason;
+
+    @Size(max = 64)
+    @Column(name = "source", length = 64)
+    private String source;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16, nullable = false)
+    private RefundJobStatus status;
+
+    @Size(max = 80)
+    @Column(name = "gateway_refund_id", length = 80)
+    private String gatewayRefundId;
+
+    @NotNull
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @NotNull
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Size(max = 512)
+    @Column(name = "last_error", length = 512)
+    private String lastError;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public RefundJob id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTicketId() {
+        return this.ticketId;
+    }
+
+    public RefundJob ticketId(Long ticketId) {
+        this.setTicketId(ticketId);
+        return this;
+    }
+
+    public void setTicketId(Long ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public Long getPaymentTransactionId() {
+        return this.paymentTransactionId;
+    }
+
+    public RefundJob paymentTransactionId(Long paymentTransactionId) {
+        this.setPaymentTransactionId(paymentTransactionId);
+        return this;
+    }
+
+    public void setPaymentTransactionId(Long paymentTransactionId) {
+        this.paymentTransactionId = paymentTransactionId;
+    }
+
+    public String getProvider() {
+        return this.provider;
+    }
+
+    public RefundJob provider(String provider) {
+        this.setProvider(provider);
+        return this;
+    }
+
+    public void setProvider(String provider) {
+        this.provider = provider;
+    }
+
+    public String getOrderRef() {
+        return this.orderRef;
+    }
+
+    public RefundJob orderRef(String orderRef) {
+        this.setOrderRef(orderRef);
+        return this;
+    }
+
+    public void setOrderRef(String orderRef) {
+        this.orderRef = orderRef;
+    }
+
+    public BigDecimal getAmount() {
+        return this.amount;
+    }
+
+    public RefundJob amount(BigDecimal amount) {
+        this.setAmount(amount);
+        return this;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getReason() {
+        return this.reason;
+    }
+
+    public RefundJob reason(String reason) {
+        this.setReason(reason);
+        return this;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public String getSource() {
+        return this.source;
+    }
+
+    public RefundJob source(String source) {
+        this.setSource(source);
+        return this;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public RefundJobStatus getStatus() {
+        return this.status;
+    }
+
+    public RefundJob status(RefundJobStatus status) {
+        this.setStatus(status);
+        return this;
+    }
+
+    public void setStatus(RefundJobStatus status) {
+        this.status = status;
+    }
+
+    public String getGatewayRefundId() {
+        return this.gatewayRefundId;
+    }
+
+    public RefundJob gatewayRefundId(String gatewayRefundId) {
+        this.setGatewayRefundId(gatewayRefundId);
+        return this;
+    }
+
+    public void setGatewayRefundId(String gatewayRefundId) {
+        this.gatewayRefundId = gatewayRefundId;
+    }
+
+    public Integer getAttempts() {
+        return this.attempts;
+    }
+
+    public RefundJob attempts(Integer attempts) {
+        this.setAttempts(attempts);
+        return this;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return this.nextAttemptAt;
+    }
+
+    public RefundJob nextAttemptAt(Instant nextAttemptAt) {
+        this.setNextAttemptAt(nextAttemptAt);
+        return this;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return this.lastError;
+    }
+
+    public RefundJob lastError(String lastError) {
+        this.setLastError(lastError);
+        return this;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public RefundJob createdAt(Instant createdAt) {
+        this.setCreatedAt(createdAt);
+        return this;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return this.updatedAt;
+    }
+
+    public RefundJob updatedAt(Instant updatedAt) {
+        this.setUpdatedAt(updatedAt);
+        return this;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return this.completedAt;
+    }
+
+    public RefundJob completedAt(Instant completedAt) {
+        this.setCompletedAt(completedAt);
+        return this;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RefundJob)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((RefundJob) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RefundJob{" +
+            "id=" + getId() +
+            ", ticketId=" + getTicketId() +
+            ", paymentTransactionId=" + getPaymentTransactionId() +
+            ", provider='" + getProvider() + "'" +
+            ", orderRef='" + getOrderRef() + "'" +
+            ", amount='" + getAmount() + "'" +
+            ", reason='" + getReason() + "'" +
+            ", source='" + getSource() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", gatewayRefundId='" + getGatewayRefundId() + "'" +
+            ", attempts=" + getAttempts() +
+            ", nextAttemptAt='" + getNextAttemptAt() + "'" +
+            ", lastError='" + getLastError() + "'" +
+            ", createdAt='" + getCreatedAt() + "'" +
+            ", updatedAt='" + getUpdatedAt() + "'" +
+            ", completedAt='" + getCompletedAt() + "'" +
+            "}";
+    }
+}
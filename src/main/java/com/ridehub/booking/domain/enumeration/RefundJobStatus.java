@@ -0,0 +1,12 @@
+package com.ridehub.booking.domain.enumeration;
+
+/**
+ * The RefundJobStatus enumeration.
+ */
+public enum RefundJobStatus {
+    QUEUED,
+    SUBMITTED,
+    COMPLETED,
+    FAILED,
+    CANCELED,
+}
@@ -1,4 +1,11 @@
 /**
  * Domain objects.
+ * <p>
+ * Soft-deleted rows are hidden from every query on entities annotated with {@code @Filter(name = "notDeleted")}.
+ * The filter is enabled in every session, so queries must not repeat the {@code is_deleted} predicate;
+ * loading by id still returns a soft-deleted row.
  */
+@FilterDef(name = "notDeleted", defaultCondition = "is_deleted = false", autoEnabled = true)
 package com.ridehub.booking.domain;
+
+import org.hibernate.annotations.FilterDef;
@@ -2,11 +2,26 @@ package com.ridehub.booking.repository;
 
 import com.ridehub.booking.domain.AppliedPromotion;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+
 /**
  * Spring Data JPA repository for the AppliedPromotion entity.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AppliedPromotionRepository extends JpaRepository<AppliedPromotion, Long>, JpaSpecificationExecutor<AppliedPromotion> {}
+public interface AppliedPromotionRepository extends JpaRepository<AppliedPromotion, Long>, JpaSpecificationExecutor<AppliedPromotion> {
+
+    /**
+     * Copy the applied promotions of the given bookings to {@code applied_promotion_archive} (see {@code ArchivalService}).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO applied_promotion_archive SELECT * FROM applied_promotion WHERE booking_id IN :bookingIds", nativeQuery = true)
+    int copyToArchiveByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM applied_promotion WHERE booking_id IN :bookingIds", nativeQuery = true)
+    int deleteArchivedByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+}
@@ -2,12 +2,18 @@ package com.ridehub.booking.repository;
 
 import com.ridehub.booking.domain.Booking;
 import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Spring Data JPA repository for the Booking entity.
@@ -17,15 +23,179 @@ import java.util.List;
 public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
 
     /**
-     * Find all bookings that are awaiting payment and have expired.
+     * Keyset page of expired bookings in the given status, ordered by id, for chunked expiry. Only bookings
+     * whose id falls into one of {@code shards} ({@code id mod shardCount}) are returned. Expiry runs with the
+     * {@code notDeleted} filter disabled, so soft-deleted bookings are included.
      */
-    @Query("SELECT b FROM Booking b WHERE b.status = :status AND b.expiresAt IS NOT NULL AND b.expiresAt < :now")
-    List<Booking> findExpiredAwaitingPaymentBookings(@Param("status") BookingStatus status, @Param("now") Instant now);
+    @Query(
+        "SELECT b.id AS id, b.bookingCode AS bookingCode, b.tripId AS tripId, b.lockGroupId AS lockGroupId, b.isDeleted AS deleted " +
+        "FROM Booking b " +
+        "WHERE b.status = :status AND b.expiresAt IS NOT NULL AND b.expiresAt < :now AND b.id > :afterId " +
+        "AND MOD(b.id, :shardCount) IN :shards ORDER BY b.id"
+    )
+    List<ExpiredBookingView> findExpiredChunk(@Param("status") BookingStatus status, @Param("now") Instant now,
+            @Param("afterId") Long afterId, @Param("shardCount") int shardCount, @Param("shards") Collection<Integer> shards,
+            Pageable pageable);
+
+    @Query(
+        "SELECT b.id AS id, b.bookingCode AS bookingCode, b.tripId AS tripId, b.lockGroupId AS lockGroupId, b.isDeleted AS deleted " +
+        "FROM Booking b " +
+        "WHERE b.id IN :ids AND b.status = :status AND b.expiresAt IS NOT NULL AND b.expiresAt < :now ORDER BY b.id"
+    )
+    List<ExpiredBookingView> findExpiredByIds(@Param("ids") Collection<Long> ids, @Param("status") BookingStatus status,
+            @Param("now") Instant now);
+
+    /**
+     * Bookings in the given status that have not expired yet, used to seed the expiry index.
+     */
+    @Query("SELECT b.id AS id, b.expiresAt AS expiresAt FROM Booking b WHERE b.status = :status AND b.expiresAt >= :now ORDER BY b.expiresAt")
+    List<PendingExpiryView> findPendingExpiries(@Param("status") BookingStatus status, @Param("now") Instant now, Pageable pageable);
+
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.status = :status AND b.expiresAt IS NOT NULL AND b.expiresAt < :now")
+    long countExpired(@Param("status") BookingStatus status, @Param("now") Instant now);
+
+    /**
+     * Lock the bookings among {@code ids} that are still in one of {@code statuses}, in id order. A set-based
+     * status change that updates exactly the returned ids changes exactly those rows, so callers know which
+     * bookings they moved without matching on the update's timestamp.
+     */
+    @Query(
+        value = "SELECT b.id FROM booking b WHERE b.id IN :ids AND b.status IN :statuses ORDER BY b.id FOR UPDATE",
+        nativeQuery = true
+    )
+    List<Long> lockIdsInStatuses(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<String> statuses);
+
+    /**
+     * Projection used to seed the booking expiry index.
+     */
+    interface PendingExpiryView {
+        Long getId();
+
+        Instant getExpiresAt();
+    }
+
+    /**
+     * Projection used by expired-booking cleanup.
+     */
+    interface ExpiredBookingView {
+        Long getId();
+
+        String getBookingCode();
+
+        Long getTripId();
+
+        String getLockGroupId();
+
+        Boolean getDeleted();
+    }
+
+    /**
+     * Keyset chunk of bookings of a trip in the given statuses, ordered by id, with their payment reference.
+     */
+    @Query("SELECT b.id AS id, b.status AS status, pt.id AS paymentTransactionId, pt.status AS paymentStatus FROM Booking b LEFT JOIN b.paymentTransaction pt WHERE b.tripId = :tripId AND b.id > :afterId AND b.status IN :statuses ORDER BY b.id")
+    List<TripBookingView> findTripBookingChunk(@Param("tripId") Long tripId, @Param("afterId") Long afterId,
+            @Param("statuses") List<BookingStatus> statuses, Pageable pageable);
+
+    /**
+     * Set-based status change for a chunk of bookings; rows no longer in {@code fromStatuses} are left alone.
+     * The status updates are native and synchronize on a space of their own, so Hibernate leaves the Booking
+     * cache region alone; callers lock the touched entries through {@code SecondLevelCacheLocks} instead.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "booking_status"))
+    @Query(
+        value = "UPDATE booking b SET b.status = :status, b.updated_at = :now, b.version = b.version + 1 WHERE b.id IN :ids AND b.status IN :fromStatuses",
+        nativeQuery = true
+    )
+    int updateStatusForIds(@Param("ids") List<Long> ids, @Param("fromStatuses") Collection<String> fromStatuses,
+            @Param("status") String status, @Param("now") Instant now);
 
     /**
-     * Find expired awaiting payment bookings with default status.
+     * Versioned conditional status change: succeeds only if the row still has the status and version the
+     * caller read. Use through {@code StatusTransitionService}, which validates the transition.
      */
-    default List<Booking> findExpiredAwaitingPaymentBookings(Instant now) {
-        return findExpiredAwaitingPaymentBookings(BookingStatus.AWAITING_PAYMENT, now);
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "booking_status"))
+    @Query(
+        value = "UPDATE booking b SET b.status = :to, b.updated_at = :now, b.version = b.version + 1 WHERE b.id = :id AND b.status = :from AND b.version = :version",
+        nativeQuery = true
+    )
+    int updateStatusIfCurrent(@Param("id") Long id, @Param("from") String from, @Param("version") Long version,
+            @Param("to") String to, @Param("now") Instant now);
+
+    @Query("SELECT b.status AS status, b.version AS version FROM Booking b WHERE b.id = :id")
+    Optional<StatusVersionView> findStatusAndVersion(@Param("id") Long id);
+
+    /**
+     * Bookings per status, the source of the status counters behind {@code /count} (see {@code StatusCounters}).
+     */
+    @Query("SELECT b.status AS status, COUNT(b) AS count FROM Booking b GROUP BY b.status")
+    List<StatusCount> countByStatus();
+
+    @Query("SELECT b FROM Booking b WHERE b.paymentTransaction.id = :paymentTransactionId")
+    Optional<Booking> findByPaymentTransactionId(@Param("paymentTransactionId") Long paymentTransactionId);
+
+    /**
+     * Lock the next keyset chunk of bookings ready for the archive: in one of {@code statuses}, created and last
+     * changed before {@code cutoff}, with a payment (if any) that is settled as well, no open refund job, and no
+     * ticket referenced by a ticket of another booking. Soft-deleted rows are archived too.
+     */
+    @Query(
+        value = "SELECT b.id FROM booking b LEFT JOIN payment_transaction p ON p.id = b.payment_transaction_id " +
+        "WHERE b.id > :afterId AND MOD(b.id, :shardCount) IN :shards AND b.status IN :statuses " +
+        "AND b.created_at < :cutoff AND COALESCE(b.updated_at, b.created_at) < :cutoff " +
+        "AND (p.id IS NULL OR (p.status IN :paymentStatuses AND COALESCE(p.updated_at, p.created_at) < :cutoff)) " +
+        "AND NOT EXISTS (SELECT 1 FROM ticket t JOIN ticket o ON o.original_ticket_id = t.id WHERE t.booking_id = b.id AND o.booking_id <> b.id) " +
+        "AND NOT EXISTS (SELECT 1 FROM ticket t JOIN ticket o ON o.exchanged_ticket_id = t.id WHERE t.booking_id = b.id AND o.booking_id <> b.id) " +
+        "AND NOT EXISTS (SELECT 1 FROM refund_job r WHERE r.payment_transaction_id = b.payment_transaction_id AND r.status IN :openRefundStatuses) " +
+        "AND NOT EXISTS (SELECT 1 FROM ticket t JOIN refund_job r ON r.ticket_id = t.id WHERE t.booking_id = b.id AND r.status IN :openRefundStatuses) " +
+        "ORDER BY b.id LIMIT :limit FOR UPDATE",
+        nativeQuery = true
+    )
+    List<Long> lockArchivableChunk(@Param("afterId") long afterId, @Param("cutoff") Instant cutoff,
+            @Param("statuses") Collection<String> statuses, @Param("paymentStatuses") Collection<String> paymentStatuses,
+            @Param("openRefundStatuses") Collection<String> openRefundStatuses, @Param("shardCount") int shardCount,
+            @Param("shards") Collection<Integer> shards, @Param("limit") int limit);
+
+    @Query(value = "SELECT b.payment_transaction_id FROM booking b WHERE b.id IN :ids AND b.payment_transaction_id IS NOT NULL", nativeQuery = true)
+    List<Long> findPaymentTransactionIdsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Copy the given bookings to {@code booking_archive} (see {@code ArchivalService}).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO booking_archive SELECT * FROM booking WHERE id IN :ids", nativeQuery = true)
+    int copyToArchive(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM booking WHERE id IN :ids", nativeQuery = true)
+    int deleteArchived(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Current status and version of a booking.
+     */
+    interface StatusVersionView {
+        BookingStatus getStatus();
+
+        Long getVersion();
+    }
+
+    interface StatusCount {
+        BookingStatus getStatus();
+
+        long getCount();
+    }
+
+    /**
+     * Projection used by trip cancellation.
+     */
+    interface TripBookingView {
+        Long getId();
+
+        BookingStatus getStatus();
+
+        Long getPaymentTransactionId();
+
+        PaymentStatus getPaymentStatus();
     }
 }
@@ -0,0 +1,31 @@
+package com.ridehub.booking.repository;
+
+import com.ridehub.booking.domain.BookingSeat;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the BookingSeat entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface BookingSeatRepository extends JpaRepository<BookingSeat, BookingSeat.Key> {
+
+        @Query("SELECT s.seatNo FROM BookingSeat s WHERE s.bookingId = :bookingId ORDER BY s.seatNo")
+        List<String> findSeatNosByBookingId(@Param("bookingId") Long bookingId);
+
+        @Query("SELECT s FROM BookingSeat s WHERE s.bookingId IN :bookingIds ORDER BY s.bookingId, s.seatNo")
+        List<BookingSeat> findByBookingIdIn(@Param("bookingIds") Collection<Long> bookingIds);
+
+        /**
+         * Copy the seat rows of the given bookings to {@code booking_seat_archive}; deleting the booking removes
+         * the hot rows through the cascading foreign key.
+         */
+        @Modifying
+        @Query(value = "INSERT INTO booking_seat_archive SELECT * FROM booking_seat WHERE booking_id IN :bookingIds", nativeQuery = true)
+        int copyToArchiveByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+}
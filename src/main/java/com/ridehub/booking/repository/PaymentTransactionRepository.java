@@ -3,11 +3,16 @@ package com.ridehub.booking.repository;
 import com.ridehub.booking.domain.PaymentTransaction;
 import com.ridehub.booking.domain.enumeration.PaymentMethod;
 import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,32 +25,120 @@ public interface PaymentTransactionRepository
                 extends JpaRepository<PaymentTransaction, Long>, JpaSpecificationExecutor<PaymentTransaction> {
 
         /**
-         * Find PaymentTransaction by transaction ID.
+         * Find PaymentTransaction by transaction ID, with its booking in the same select (callers work on both,
+         * and the inverse one-to-one would otherwise cost a second query).
          */
+        @EntityGraph(attributePaths = "booking")
         Optional<PaymentTransaction> findByTransactionId(String transactionId);
 
         /**
-         * Find PaymentTransaction by transaction ID (excluding deleted ones).
+         * Transaction IDs by method, multiple statuses and created after date.
          */
-        @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.transactionId = :transactionId AND (pt.isDeleted = false OR pt.isDeleted IS NULL)")
-        Optional<PaymentTransaction> findByTransactionIdAndIsDeletedFalseOrIsDeletedIsNull(
-                        @Param("transactionId") String transactionId);
+        @Query("SELECT pt.transactionId FROM PaymentTransaction pt WHERE pt.method = :method AND pt.status IN :statuses AND pt.createdAt > :createdAfter")
+        List<String> findTransactionIdsByMethodAndStatusInAndCreatedAtAfter(@Param("method") PaymentMethod method,
+                        @Param("statuses") List<PaymentStatus> statuses, @Param("createdAfter") Instant createdAfter);
 
         /**
-         * Find transactions by method, multiple statuses, created after date, and not
-         * deleted.
+         * Keyset page of reconciliation fields for one payment method and creation window, ordered by id.
          */
-        @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.method = :method AND pt.status IN :statuses AND pt.createdAt > :createdAfter AND (pt.isDeleted = false OR pt.isDeleted IS NULL)")
-        List<PaymentTransaction> findByMethodAndStatusInAndCreatedAtAfterAndIsDeletedFalseOrIsDeletedIsNull(
+        @Query("SELECT pt.id AS id, pt.transactionId AS transactionId, pt.amount AS amount, pt.status AS status FROM PaymentTransaction pt WHERE pt.method = :method AND pt.createdAt >= :from AND pt.createdAt < :to AND pt.id > :afterId ORDER BY pt.id")
+        List<ReconciliationView> findReconciliationPage(
                         @Param("method") PaymentMethod method,
-                        @Param("statuses") List<PaymentStatus> statuses,
-                        @Param("createdAfter") Instant createdAfter);
+                        @Param("from") Instant from,
+                        @Param("to") Instant to,
+                        @Param("afterId") Long afterId,
+                        Pageable pageable);
 
         /**
-         * Find transactions by multiple statuses and not deleted.
+         * Versioned conditional status change: succeeds only if the row still has the status and version the
+         * caller read. Use through {@code StatusTransitionService}, which validates the transition. Native and on
+         * a query space of its own, so Hibernate does not clear the PaymentTransaction cache region; the caller
+         * locks the entry through {@code SecondLevelCacheLocks}.
          */
-        @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.status IN :statuses AND (pt.isDeleted = false OR pt.isDeleted IS NULL)")
-        List<PaymentTransaction> findByStatusInAndIsDeletedFalseOrIsDeletedIsNull(
-                        @Param("statuses") List<PaymentStatus> statuses);
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "payment_transaction_status"))
+        @Query(
+                value = "UPDATE payment_transaction pt SET pt.status = :to, pt.updated_at = :now, pt.version = pt.version + 1 WHERE pt.id = :id AND pt.status = :from AND pt.version = :version",
+                nativeQuery = true
+        )
+        int updateStatusIfCurrent(@Param("id") Long id, @Param("from") String from, @Param("version") Long version,
+                        @Param("to") String to, @Param("now") Instant now);
+
+        @Query("SELECT pt.status AS status, pt.version AS version FROM PaymentTransaction pt WHERE pt.id = :id")
+        Optional<StatusVersionView> findStatusAndVersion(@Param("id") Long id);
+
+        @Query("SELECT pt.amount FROM PaymentTransaction pt WHERE pt.id = :id")
+        Optional<BigDecimal> findAmountById(@Param("id") Long id);
+
+        /**
+         * Lock the given payment transactions, in id order so concurrent callers cannot deadlock. Refund enqueues
+         * take this lock before reading the jobs already queued against a payment, so two of them cannot both
+         * see the full amount as refundable.
+         */
+        @Query(value = "SELECT p.id FROM payment_transaction p WHERE p.id IN :ids ORDER BY p.id FOR UPDATE", nativeQuery = true)
+        List<Long> lockByIds(@Param("ids") Collection<Long> ids);
+
+        /**
+         * Payment transactions per status, the source of the status counters behind {@code /count}.
+         */
+        @Query("SELECT pt.status AS status, COUNT(pt) AS count FROM PaymentTransaction pt GROUP BY pt.status")
+        List<StatusCount> countByStatus();
+
+        /**
+         * Lock the next keyset chunk of settled payment transactions without a booking (bookings take their
+         * payment along, see {@code BookingRepository.lockArchivableChunk}) and without an open refund job.
+         */
+        @Query(
+                value = "SELECT p.id FROM payment_transaction p WHERE p.id > :afterId AND MOD(p.id, :shardCount) IN :shards " +
+                "AND p.status IN :statuses AND p.created_at < :cutoff AND COALESCE(p.updated_at, p.created_at) < :cutoff " +
+                "AND NOT EXISTS (SELECT 1 FROM booking b WHERE b.payment_transaction_id = p.id) " +
+                "AND NOT EXISTS (SELECT 1 FROM refund_job r WHERE r.payment_transaction_id = p.id AND r.status IN :openRefundStatuses) " +
+                "ORDER BY p.id LIMIT :limit FOR UPDATE",
+                nativeQuery = true
+        )
+        List<Long> lockArchivableChunk(@Param("afterId") long afterId, @Param("cutoff") Instant cutoff,
+                        @Param("statuses") Collection<String> statuses,
+                        @Param("openRefundStatuses") Collection<String> openRefundStatuses,
+                        @Param("shardCount") int shardCount, @Param("shards") Collection<Integer> shards,
+                        @Param("limit") int limit);
+
+        /**
+         * Copy the given payment transactions to {@code payment_transaction_archive} (see {@code ArchivalService}).
+         */
+        @Modifying
+        @Query(value = "INSERT INTO payment_transaction_archive SELECT * FROM payment_transaction WHERE id IN :ids", nativeQuery = true)
+        int copyToArchive(@Param("ids") Collection<Long> ids);
+
+        @Modifying
+        @Query(value = "DELETE FROM payment_transaction WHERE id IN :ids", nativeQuery = true)
+        int deleteArchived(@Param("ids") Collection<Long> ids);
+
+        /**
+         * Current status and version of a payment transaction.
+         */
+        interface StatusVersionView {
+                PaymentStatus getStatus();
+
+                Long getVersion();
+        }
+
+        interface StatusCount {
+                PaymentStatus getStatus();
+
+                long getCount();
+        }
+
+        /**
+         * Projection used by payment reconciliation.
+         */
+        interface ReconciliationView {
+                Long getId();
+
+                String getTransactionId();
+
+                BigDecimal getAmount();
+
+                PaymentStatus getStatus();
+        }
 
 }
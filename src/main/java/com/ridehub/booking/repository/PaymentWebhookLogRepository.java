@@ -2,7 +2,9 @@ package com.ridehub.booking.repository;
 
 import com.ridehub.booking.domain.PaymentWebhookLog;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 
 /**
@@ -16,4 +18,16 @@ public interface PaymentWebhookLogRepository extends JpaRepository<PaymentWebhoo
      * Find PaymentWebhookLog by payload hash for idempotency check.
      */
     Optional<PaymentWebhookLog> findByPayloadHash(String payloadHash);
+
+    /**
+     * Copy the webhook logs of the given payment transactions to {@code payment_webhook_log_archive} (see
+     * {@code ArchivalService}).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO payment_webhook_log_archive SELECT * FROM payment_webhook_log WHERE payment_transaction_id IN :paymentTransactionIds", nativeQuery = true)
+    int copyToArchiveByPaymentTransactionIds(@Param("paymentTransactionIds") Collection<Long> paymentTransactionIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM payment_webhook_log WHERE payment_transaction_id IN :paymentTransactionIds", nativeQuery = true)
+    int deleteArchivedByPaymentTransactionIds(@Param("paymentTransactionIds") Collection<Long> paymentTransactionIds);
 }
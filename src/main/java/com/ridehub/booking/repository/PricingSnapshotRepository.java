@@ -2,11 +2,26 @@ package com.ridehub.booking.repository;
 
 import com.ridehub.booking.domain.PricingSnapshot;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+
 /**
  * Spring Data JPA repository for the PricingSnapshot entity.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface PricingSnapshotRepository extends JpaRepository<PricingSnapshot, Long>, JpaSpecificationExecutor<PricingSnapshot> {}
+public interface PricingSnapshotRepository extends JpaRepository<PricingSnapshot, Long>, JpaSpecificationExecutor<PricingSnapshot> {
+
+    /**
+     * Copy the pricing snapshots of the given bookings to {@code pricing_snapshot_archive} (see {@code ArchivalService}).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO pricing_snapshot_archive SELECT * FROM pricing_snapshot WHERE booking_id IN :bookingIds", nativeQuery = true)
+    int copyToArchiveByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM pricing_snapshot WHERE booking_id IN :bookingIds", nativeQuery = true)
+    int deleteArchivedByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+}
@@ -0,0 +1,109 @@
+package com.ridehub.booking.repository;
+
+import com.ridehub.booking.domain.RefundJob;
+import com.ridehub.booking.domain.enumeration.RefundJobStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the RefundJob entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface RefundJobRepository extends JpaRepository<RefundJob, Long> {
+
+        /**
+         * Due jobs in the given status whose id falls into one of {@code shards} ({@code id mod shardCount}),
+         * grouped by gateway so they can be submitted per provider.
+         */
+        @Query(
+            "SELECT j FROM RefundJob j WHERE j.status = :status AND j.nextAttemptAt <= :now " +
+            "AND MOD(j.id, :shardCount) IN :shards ORDER BY j.provider, j.nextAttemptAt"
+        )
+        List<RefundJob> findDue(@Param("status") RefundJobStatus status, @Param("now") Instant now,
+                @Param("shardCount") int shardCount, @Param("shards") Collection<Integer> shards, Pageable pageable);
+
+        /**
+         * Claim a job for this node by pushing its next attempt to the lease deadline; returns 0 if another
+         * node claimed it first.
+         */
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query("UPDATE RefundJob j SET j.nextAttemptAt = :leaseUntil WHERE j.id = :id AND j.status = :status AND j.nextAttemptAt <= :now")
+        int claim(@Param("id") Long id, @Param("status") RefundJobStatus status, @Param("now") Instant now,
+                        @Param("leaseUntil") Instant leaseUntil);
+
+        /**
+         * Job for a ticket in one of {@code statuses}, if any. Like the other reads of {@code RefundQueueService}
+         * this is a locking read: it runs under the payment row lock and must see the jobs committed by the
+         * enqueue that held the lock before, which the transaction's snapshot may predate.
+         */
+        @Lock(LockModeType.PESSIMISTIC_READ)
+        boolean existsByTicketIdAndStatusIn(Long ticketId, List<RefundJobStatus> statuses);
+
+        @Lock(LockModeType.PESSIMISTIC_READ)
+        boolean existsByPaymentTransactionIdAndTicketIdIsNullAndStatusIn(Long paymentTransactionId, List<RefundJobStatus> statuses);
+
+        /**
+         * Total amount of the jobs of a payment transaction, ticket and whole-transaction jobs alike, in one of
+         * {@code statuses}; zero if there are none.
+         */
+        @Query("SELECT COALESCE(SUM(j.amount), 0) FROM RefundJob j WHERE j.paymentTransactionId = :id AND j.status IN :statuses")
+        BigDecimal sumAmountByPaymentTransactionIdAndStatusIn(@Param("id") Long paymentTransactionId,
+                        @Param("statuses") Collection<RefundJobStatus> statuses);
+
+        /**
+         * Total amount of the jobs in one of {@code statuses} per payment transaction among {@code ids}; payments
+         * without such jobs are left out. A locking read, see {@link #existsByTicketIdAndStatusIn}.
+         */
+        @Lock(LockModeType.PESSIMISTIC_READ)
+        @Query("SELECT j.paymentTransactionId AS paymentTransactionId, SUM(j.amount) AS amount FROM RefundJob j WHERE j.paymentTransactionId IN :ids AND j.status IN :statuses GROUP BY j.paymentTransactionId")
+        List<TransactionAmount> sumAmountByPaymentTransactionIds(@Param("ids") Collection<Long> ids,
+                        @Param("statuses") Collection<RefundJobStatus> statuses);
+
+        /**
+         * Cancel the queued jobs of the tickets of the given bookings that no worker has claimed (a claim pushes
+         * the next attempt past {@code now}).
+         */
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query(
+            "UPDATE RefundJob j SET j.status = :canceled, j.lastError = :reason, j.updatedAt = :now, j.completedAt = :now " +
+            "WHERE j.status = :queued AND j.nextAttemptAt <= :now " +
+            "AND j.ticketId IN (SELECT t.id FROM Ticket t WHERE t.booking.id IN :bookingIds)"
+        )
+        int cancelQueuedTicketJobs(@Param("bookingIds") Collection<Long> bookingIds, @Param("queued") RefundJobStatus queued,
+                        @Param("canceled") RefundJobStatus canceled, @Param("reason") String reason, @Param("now") Instant now);
+
+        @Query("SELECT j.status AS status, j.provider AS provider, COUNT(j) AS count FROM RefundJob j GROUP BY j.status, j.provider")
+        List<StatusCount> countByStatusAndProvider();
+
+        @Query("SELECT j.status AS status, j.provider AS provider, COUNT(j) AS count FROM RefundJob j WHERE j.source = :source GROUP BY j.status, j.provider")
+        List<StatusCount> countByStatusAndProviderForSource(@Param("source") String source);
+
+        /**
+         * Refund amount of one payment transaction.
+         */
+        interface TransactionAmount {
+                Long getPaymentTransactionId();
+
+                BigDecimal getAmount();
+        }
+
+        /**
+         * Projection used by refund progress reporting.
+         */
+        interface StatusCount {
+                RefundJobStatus getStatus();
+
+                String getProvider();
+
+                long getCount();
+        }
+}
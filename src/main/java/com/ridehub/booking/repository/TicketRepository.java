@@ -1,8 +1,14 @@
 package com.ridehub.booking.repository;
 
 import com.ridehub.booking.domain.Ticket;
+import com.ridehub.booking.domain.enumeration.AvroTicketStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,4 +24,69 @@ public interface TicketRepository extends JpaRepository<Ticket, Long>, JpaSpecif
     Optional<Ticket> findByTicketCode(String ticketCode);
 
     List<Ticket> findByBookingId(Long bookingId);
+
+    /**
+     * Ticket and booking code of a ticket, the keys it is cached under (see {@code TicketLookupCache}).
+     */
+    @Query("SELECT t.ticketCode AS ticketCode, b.bookingCode AS bookingCode FROM Ticket t LEFT JOIN t.booking b WHERE t.id = :id")
+    Optional<LookupKeysView> findLookupKeysById(@Param("id") Long id);
+
+    @Query("SELECT t.ticketCode FROM Ticket t WHERE t.booking.id IN :bookingIds")
+    List<String> findTicketCodesByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Query("SELECT t.id FROM Ticket t WHERE t.booking.id IN :bookingIds")
+    List<Long> findIdsByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    /**
+     * Tickets per status, the source of the status counters behind {@code /count}.
+     */
+    @Query("SELECT t.status AS status, COUNT(t) AS count FROM Ticket t GROUP BY t.status")
+    List<StatusCount> countByStatus();
+
+    /**
+     * Set-based status change for all tickets of the given bookings, skipping tickets already in
+     * {@code excludedStatuses}. Native, like the booking status updates, so the Ticket cache region survives
+     * it; the caller locks the entries of {@link #findIdsByBookingIds} through {@code SecondLevelCacheLocks}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "ticket_status"))
+    @Query(
+        value = "UPDATE ticket t SET t.status = :status, t.updated_at = :now WHERE t.booking_id IN :bookingIds AND (t.status IS NULL OR t.status NOT IN :excludedStatuses)",
+        nativeQuery = true
+    )
+    int updateStatusForBookings(@Param("bookingIds") List<Long> bookingIds,
+            @Param("excludedStatuses") Collection<String> excludedStatuses,
+            @Param("status") String status, @Param("now") Instant now);
+
+    /**
+     * Copy the tickets of the given bookings to {@code ticket_archive} (see {@code ArchivalService}).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ticket_archive SELECT * FROM ticket WHERE booking_id IN :bookingIds", nativeQuery = true)
+    int copyToArchiveByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    /**
+     * Drop exchange links between the tickets of the given bookings, so they can be deleted in one statement.
+     * The archive copy keeps the links.
+     */
+    @Modifying
+    @Query(value = "UPDATE ticket SET original_ticket_id = NULL, exchanged_ticket_id = NULL WHERE booking_id IN :bookingIds " +
+        "AND (original_ticket_id IS NOT NULL OR exchanged_ticket_id IS NOT NULL)", nativeQuery = true)
+    int clearExchangeLinksByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM ticket WHERE booking_id IN :bookingIds", nativeQuery = true)
+    int deleteArchivedByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    interface StatusCount {
+        AvroTicketStatus getStatus();
+
+        long getCount();
+    }
+
+    interface LookupKeysView {
+        String getTicketCode();
+
+        String getBookingCode();
+    }
 }
@@ -3,6 +3,7 @@ package com.ridehub.booking.service;
 import com.ridehub.booking.domain.*; // for static metamodels
 import com.ridehub.booking.domain.AppliedPromotion;
 import com.ridehub.booking.repository.AppliedPromotionRepository;
+import com.ridehub.booking.service.count.CountService;
 import com.ridehub.booking.service.criteria.AppliedPromotionCriteria;
 import com.ridehub.booking.service.dto.AppliedPromotionDTO;
 import com.ridehub.booking.service.mapper.AppliedPromotionMapper;
@@ -23,6 +24,7 @@ import tech.jhipster.service.QueryService;
  */
 @Service
 @Transactional(readOnly = true)
+@ReplicaRead
 public class AppliedPromotionQueryService extends QueryService<AppliedPromotion> {
 
     private static final Logger LOG = LoggerFactory.getLogger(AppliedPromotionQueryService.class);
@@ -31,12 +33,16 @@ public class AppliedPromotionQueryService extends QueryService<AppliedPromotion>
 
     private final AppliedPromotionMapper appliedPromotionMapper;
 
+    private final CountService countService;
+
     public AppliedPromotionQueryService(
         AppliedPromotionRepository appliedPromotionRepository,
-        AppliedPromotionMapper appliedPromotionMapper
+        AppliedPromotionMapper appliedPromotionMapper,
+        CountService countService
     ) {
         this.appliedPromotionRepository = appliedPromotionRepository;
         this.appliedPromotionMapper = appliedPromotionMapper;
+        this.countService = countService;
     }
 
     /**
@@ -52,15 +58,27 @@ public class AppliedPromotionQueryService extends QueryService<AppliedPromotion>
     }
 
     /**
-     * Return the number of matching entities in the database.
+     * Return the number of matching entities, from a count cached for a few seconds.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the number of matching entities.
      */
     @Transactional(readOnly = true)
     public long countByCriteria(AppliedPromotionCriteria criteria) {
-        LOG.debug("count by criteria : {}", criteria);
-        final Specification<AppliedPromotion> specification = createSpecification(criteria);
-        return appliedPromotionRepository.count(specification);
+        return countByCriteria(criteria, false);
+    }
+
+    /**
+     * Return the number of matching entities, from a count cached for a few seconds.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param approximate Whether a table statistics estimate is good enough when nothing is filtered.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(AppliedPromotionCriteria criteria, boolean approximate) {
+        LOG.debug("count by criteria : {}, approximate: {}", criteria, approximate);
+        return countService.count(AppliedPromotion.class, criteria, approximate, () ->
+            appliedPromotionRepository.count(createSpecification(criteria))
+        );
     }
 
     /**
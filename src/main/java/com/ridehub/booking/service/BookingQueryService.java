@@ -3,10 +3,15 @@ package com.ridehub.booking.service;
 import com.ridehub.booking.domain.*; // for static metamodels
 import com.ridehub.booking.domain.Booking;
 import com.ridehub.booking.repository.BookingRepository;
+import com.ridehub.booking.service.count.CountService;
 import com.ridehub.booking.service.criteria.BookingCriteria;
 import com.ridehub.booking.service.dto.BookingDTO;
+import com.ridehub.booking.service.keyset.CursorSlice;
+import com.ridehub.booking.service.keyset.KeysetQueryService;
 import com.ridehub.booking.service.mapper.BookingMapper;
 import jakarta.persistence.criteria.JoinType;
+import java.util.Set;
+import java.util.function.LongSupplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -14,7 +19,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import tech.jhipster.service.QueryService;
 
 /**
  * Service for executing complex queries for {@link Booking} entities in the database.
@@ -24,21 +28,30 @@ import tech.jhipster.service.QueryService;
  */
 @Service
 @Transactional(readOnly = true)
-public class BookingQueryService extends QueryService<Booking> {
+@ReplicaRead
+public class BookingQueryService extends KeysetQueryService<Booking> {
 
     private static final Logger LOG = LoggerFactory.getLogger(BookingQueryService.class);
 
+    /** Non-null, indexed properties that {@link #scrollByCriteria} can sort by. */
+    private static final Set<String> KEYSET_SORTABLE = Set.of("createdAt", "bookedAt", "bookingCode");
+
     private final BookingRepository bookingRepository;
 
     private final BookingMapper bookingMapper;
 
-    public BookingQueryService(BookingRepository bookingRepository, BookingMapper bookingMapper) {
+    private final CountService countService;
+
+    public BookingQueryService(BookingRepository bookingRepository, BookingMapper bookingMapper, CountService countService) {
+        super(Booking.class, KEYSET_SORTABLE);
         this.bookingRepository = bookingRepository;
         this.bookingMapper = bookingMapper;
+        this.countService = countService;
     }
 
     /**
      * Return a {@link Page} of {@link BookingDTO} which matches the criteria from the database.
+     * The total is counted like {@link #countByCriteria(BookingCriteria)}, so it may lag behind the page by a few seconds.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
@@ -47,19 +60,61 @@ public class BookingQueryService extends QueryService<Booking> {
     public Page<BookingDTO> findByCriteria(BookingCriteria criteria, Pageable page) {
         LOG.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Booking> specification = createSpecification(criteria);
-        return bookingRepository.findAll(specification, page).map(bookingMapper::toDto);
+        return page(bookingRepository, specification, page, () -> countByCriteria(criteria)).map(bookingMapper::toDto);
+    }
+
+    /**
+     * Return a keyset-paginated {@link CursorSlice} of {@link BookingDTO} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The cursor returned with the previous slice, or {@code null} for the first one.
+     * @param page The slice size and sort; the page number is ignored.
+     * @return the matching entities, without a total count.
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort.
+     */
+    @Transactional(readOnly = true)
+    public CursorSlice<BookingDTO> scrollByCriteria(BookingCriteria criteria, String cursor, Pageable page) {
+        LOG.debug("scroll by criteria : {}, cursor: {}, page: {}", criteria, cursor, page);
+        final Specification<Booking> specification = createSpecification(criteria);
+        return scroll(bookingRepository, specification, cursor, page, bookingMapper::toDto);
     }
 
     /**
-     * Return the number of matching entities in the database.
+     * Return the number of matching entities, from the status counters or a count cached for a few seconds.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the number of matching entities.
      */
     @Transactional(readOnly = true)
     public long countByCriteria(BookingCriteria criteria) {
-        LOG.debug("count by criteria : {}", criteria);
-        final Specification<Booking> specification = createSpecification(criteria);
-        return bookingRepository.count(specification);
+        return countByCriteria(criteria, false);
+    }
+
+    /**
+     * Return the number of matching entities, from the status counters or a count cached for a few seconds.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param approximate Whether a table statistics estimate is good enough when nothing is filtered.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(BookingCriteria criteria, boolean approximate) {
+        LOG.debug("count by criteria : {}, approximate: {}", criteria, approximate);
+        final LongSupplier exact = () -> bookingRepository.count(createSpecification(criteria));
+        if (isStatusOnly(criteria)) {
+            return countService.countByStatus(Booking.class, criteria, criteria == null ? null : criteria.getStatus(), approximate, exact);
+        }
+        return countService.count(Booking.class, criteria, approximate, exact);
+    }
+
+    /**
+     * Whether the criteria filter on nothing but the status.
+     */
+    private static boolean isStatusOnly(BookingCriteria criteria) {
+        if (criteria == null) {
+            return true;
+        }
+        BookingCriteria statusOnly = new BookingCriteria();
+        statusOnly.setStatus(criteria.getStatus());
+        statusOnly.setDistinct(criteria.getDistinct());
+        return statusOnly.equals(criteria);
     }
 
     /**
@@ -3,25 +3,60 @@ package com.ridehub.booking.service;
 import com.ridehub.booking.domain.Booking;
 import com.ridehub.booking.domain.enumeration.BookingStatus;
 import com.ridehub.booking.repository.BookingRepository;
+import com.ridehub.booking.repository.BookingRepository.ExpiredBookingView;
+import com.ridehub.booking.service.cluster.ShardAssignment;
+import com.ridehub.booking.service.cluster.ShardLeaseManager;
+import com.ridehub.booking.service.count.StatusCounters;
+import com.ridehub.booking.service.expiry.BookingExpiryIndex;
+import com.ridehub.booking.service.state.SecondLevelCacheLocks;
 import com.ridehub.msroute.client.api.SeatLockResourceMsrouteApi;
 import com.ridehub.msroute.client.model.SeatLockActionRequestDTO;
 import com.ridehub.msroute.client.model.SeatLockActionResponseDTO;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for handling booking timeouts and expiration.
+ * <p>
+ * Bookings are normally expired within about a second of their deadline by
+ * {@link com.ridehub.booking.service.expiry.BookingExpiryService}, which calls {@link #expireBookings}. The
+ * periodic scan is a safety net for bookings the expiry index missed: it cancels expired bookings in
+ * keyset-paged chunks, each with a short transaction of its own and one set-based UPDATE. Seat locks of the
+ * canceled bookings are then released booking by booking, a few trips at a time. With several replicas each
+ * scans only the booking-id shards it holds a lease on (see {@link ShardLeaseManager}).
+ * <p>
+ * Expiry runs with the {@code notDeleted} filter off: a soft-deleted booking still holds its seat locks on
+ * ms-route until it is canceled.
  */
 @Service
 @Transactional
@@ -29,87 +64,324 @@ public class BookingScheduler {
 
     private final Logger log = LoggerFactory.getLogger(BookingScheduler.class);
 
+    static final int CHUNK_SIZE = 500;
+    static final int SEAT_RELEASE_CONCURRENCY = 4;
+    static final String EXPIRY_SCAN_JOB = "booking-expiry-scan";
+    static final int EXPIRY_SCAN_SHARDS = 16;
+
+    private static final String BOOKING_SESSION_KEY_PREFIX = "booking:sess:";
+    private static final String SOFT_DELETE_FILTER = "notDeleted";
+
     private final BookingRepository bookingRepository;
     private final SeatLockResourceMsrouteApi seatLockResourceMsrouteApi;
     private final StringRedisTemplate redisTemplate;
+    private final BookingExpiryIndex expiryIndex;
+    private final BookingSeatService bookingSeatService;
+    private final ShardLeaseManager shardLeaseManager;
+    private final StatusCounters statusCounters;
+    private final SecondLevelCacheLocks cacheLocks;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor seatReleaseExecutor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Timer runTimer;
+    private final Counter chunkCounter;
+    private final Counter canceledCounter;
+    private final Counter skippedCounter;
+    private final Counter failureCounter;
 
     public BookingScheduler(
             BookingRepository bookingRepository,
             SeatLockResourceMsrouteApi seatLockResourceMsrouteApi,
-            StringRedisTemplate redisTemplate) {
+            StringRedisTemplate redisTemplate,
+            BookingExpiryIndex expiryIndex,
+            BookingSeatService bookingSeatService,
+            ShardLeaseManager shardLeaseManager,
+            StatusCounters statusCounters,
+            SecondLevelCacheLocks cacheLocks,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
         this.bookingRepository = bookingRepository;
         this.seatLockResourceMsrouteApi = seatLockResourceMsrouteApi;
         this.redisTemplate = redisTemplate;
+        this.expiryIndex = expiryIndex;
+        this.bookingSeatService = bookingSeatService;
+        this.shardLeaseManager = shardLeaseManager;
+        this.shardLeaseManager.register(EXPIRY_SCAN_JOB, EXPIRY_SCAN_SHARDS);
+        this.statusCounters = statusCounters;
+        this.cacheLocks = cacheLocks;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.seatReleaseExecutor = new ThreadPoolExecutor(SEAT_RELEASE_CONCURRENCY, SEAT_RELEASE_CONCURRENCY, 60,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "booking-expiry-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.seatReleaseExecutor.allowCoreThreadTimeOut(true);
+
+        this.runTimer = Timer.builder("booking.expiry.run")
+                .description("Duration of an expired-booking cleanup run")
+                .register(meterRegistry);
+        this.chunkCounter = Counter.builder("booking.expiry.chunks")
+                .description("Chunks processed by expired-booking cleanup")
+                .register(meterRegistry);
+        this.canceledCounter = Counter.builder("booking.expiry.rows")
+                .tag("outcome", "canceled")
+                .description("Expired bookings examined by cleanup")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("booking.expiry.rows")
+                .tag("outcome", "skipped")
+                .description("Expired bookings examined by cleanup")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("booking.expiry.failures")
+                .description("Canceled bookings whose seat locks could not be released")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        seatReleaseExecutor.shutdownNow();
     }
 
     /**
-     * Scheduled task to handle expired bookings.
-     * Runs every minute to check for expired bookings.
+     * Safety-net scan for expired bookings the expiry index did not handle (e.g. created before the index
+     * existed, or lost with Redis).
      */
-    @Scheduled(fixedRate = 60000) // Run every minute
+    @Scheduled(fixedRate = 300000, initialDelay = 60000) // Run every 5 minutes
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void handleExpiredBookings() {
-        log.info("Starting expired bookings cleanup task at {}", Instant.now());
+        ShardAssignment assignment = shardLeaseManager.assignment(EXPIRY_SCAN_JOB);
+        if (assignment.isEmpty()) {
+            log.debug("No expiry scan shards owned by this node, skipping");
+            return;
+        }
+        cleanup(assignment);
+    }
 
+    private void cleanup(ShardAssignment assignment) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Expired bookings cleanup already running, skipping");
+            return;
+        }
+        Timer.Sample sample = Timer.start();
+        RunStats stats = new RunStats();
         try {
-            // Find all AWAITING_PAYMENT bookings that have expired
+            log.info("Starting expired bookings cleanup task at {} for shards {}", Instant.now(), assignment);
             Instant now = Instant.now();
-            List<Booking> expiredBookings = bookingRepository.findExpiredAwaitingPaymentBookings(now);
-            if (expiredBookings.isEmpty()) {
+            long afterId = 0L;
+            while (true) {
+                long from = afterId;
+                ChunkResult chunk = transactionTemplate.execute(status -> cancelChunk(from, now, assignment));
+                if (chunk == null || chunk.size == 0) {
+                    break;
+                }
+                stats.chunks++;
+                stats.canceled += chunk.canceled.size();
+                stats.skipped += chunk.size - chunk.canceled.size();
+                stats.failed += finishCanceled(chunk.canceled);
+                afterId = chunk.lastId;
+                if (chunk.size < CHUNK_SIZE) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Critical error during expired bookings cleanup", e);
+        } finally {
+            long nanos = sample.stop(runTimer);
+            chunkCounter.increment(stats.chunks);
+            canceledCounter.increment(stats.canceled);
+            skippedCounter.increment(stats.skipped);
+            failureCounter.increment(stats.failed);
+            running.set(false);
+            if (stats.chunks == 0) {
                 log.debug("No expired bookings found");
-                return;
+            } else {
+                log.info("Expired bookings cleanup completed in {}ms. Chunks: {}, Canceled: {}, Skipped: {}, Seat release failures: {}",
+                        TimeUnit.NANOSECONDS.toMillis(nanos), stats.chunks, stats.canceled, stats.skipped, stats.failed);
             }
+        }
+    }
+
+    /**
+     * Expire the given bookings now, if they are still awaiting payment and past their deadline.
+     *
+     * @return number of bookings canceled
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int expireBookings(List<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        Instant now = Instant.now();
+        ChunkResult chunk = transactionTemplate.execute(status -> {
+            includeSoftDeleted();
+            return cancelRows(bookingRepository.findExpiredByIds(bookingIds, BookingStatus.AWAITING_PAYMENT, now));
+        });
+        if (chunk == null) {
+            return 0;
+        }
+        canceledCounter.increment(chunk.canceled.size());
+        skippedCounter.increment(bookingIds.size() - chunk.canceled.size());
+        failureCounter.increment(finishCanceled(chunk.canceled));
+        return chunk.canceled.size();
+    }
 
-            log.info("Found {} expired bookings to process", expiredBookings.size());
+    private ChunkResult cancelChunk(long afterId, Instant now, ShardAssignment assignment) {
+        includeSoftDeleted();
+        return cancelRows(bookingRepository.findExpiredChunk(BookingStatus.AWAITING_PAYMENT, now, afterId,
+                assignment.getShardCount(), assignment.getShards(), PageRequest.of(0, CHUNK_SIZE)));
+    }
 
-            int canceledCount = 0;
-            int failedCount = 0;
+    /**
+     * Cancel expired bookings with a single UPDATE. The rows still in AWAITING_PAYMENT are locked first and
+     * exactly those are updated, so bookings that left it since they were read (e.g. a payment confirmed them)
+     * are skipped and {@code canceled} holds the rows this UPDATE changed.
+     */
+    private ChunkResult cancelRows(List<ExpiredBookingView> rows) {
+        ChunkResult result = new ChunkResult();
+        result.size = rows.size();
+        if (rows.isEmpty()) {
+            return result;
+        }
+        result.lastId = rows.get(rows.size() - 1).getId();
 
-            for (Booking booking : expiredBookings) {
-                try {
-                    // IMPROVED: Try to cancel seat locks FIRST (before updating booking status)
-                    if (booking.getLockGroupId() != null && booking.getTripId() != null) {
-                        cancelSeatLocks(booking);
-                        log.debug("Successfully canceled seat locks for booking: {}", booking.getBookingCode());
-                    }
+        List<Long> ids = rows.stream().map(ExpiredBookingView::getId).toList();
+        List<String> fromStatuses = List.of(BookingStatus.AWAITING_PAYMENT.name());
+        List<Long> cancelIds = bookingRepository.lockIdsInStatuses(ids, fromStatuses);
+        if (cancelIds.isEmpty()) {
+            return result;
+        }
+        cacheLocks.lockForUpdate(Booking.class, cancelIds);
+        bookingRepository.updateStatusForIds(cancelIds, fromStatuses, BookingStatus.CANCELED.name(), Instant.now());
+        if (cancelIds.size() == rows.size()) {
+            result.canceled = rows;
+        } else {
+            Set<Long> canceledIds = new HashSet<>(cancelIds);
+            result.canceled = rows.stream().filter(row -> canceledIds.contains(row.getId())).toList();
+        }
+        // Soft-deleted bookings are not counted
+        long counted = result.canceled.stream().filter(row -> !Boolean.TRUE.equals(row.getDeleted())).count();
+        statusCounters.moved(Booking.class, BookingStatus.AWAITING_PAYMENT, BookingStatus.CANCELED, counted);
+        return result;
+    }
 
-                    // Only update booking status if seat lock cancellation succeeds
-                    booking.setStatus(BookingStatus.CANCELED);
-                    booking.setUpdatedAt(now);
-                    bookingRepository.save(booking);
+    /**
+     * Turn off the {@code notDeleted} filter for the rest of the current transaction, so soft-deleted bookings
+     * are expired and release their seats as well.
+     */
+    private void includeSoftDeleted() {
+        entityManager.unwrap(Session.class).disableFilter(SOFT_DELETE_FILTER);
+    }
 
-                    // Remove booking session from Redis
-                    String sessionKey = "booking:sess:" + booking.getId();
-                    redisTemplate.delete(sessionKey);
-                    redisTemplate.delete("booking:seats:" + booking.getId());
+    /**
+     * Drop canceled bookings from the expiry index and release their seats.
+     *
+     * @return number of bookings whose seats could not be released
+     */
+    private int finishCanceled(List<ExpiredBookingView> canceled) {
+        if (canceled.isEmpty()) {
+            return 0;
+        }
+        try {
+            expiryIndex.removeAll(canceled.stream().map(ExpiredBookingView::getId).toList());
+        } catch (Exception e) {
+            log.warn("Could not remove {} canceled bookings from the expiry index: {}", canceled.size(), e.getMessage());
+        }
+        return releaseSeats(canceled);
+    }
 
-                    canceledCount++;
-                    log.debug("Successfully canceled expired booking: {}", booking.getBookingCode());
+    /**
+     * Release the seat locks of canceled bookings with one ms-route call per booking, at most
+     * {@link #SEAT_RELEASE_CONCURRENCY} trips at a time.
+     *
+     * @return number of bookings whose seats could not be released
+     */
+    private int releaseSeats(List<ExpiredBookingView> canceled) {
+        if (canceled.isEmpty()) {
+            return 0;
+        }
+        redisTemplate.delete(canceled.stream().map(row -> BOOKING_SESSION_KEY_PREFIX + row.getId()).toList());
 
-                } catch (Exception e) {
-                    failedCount++;
-                    log.error("Failed to cancel expired booking: {} - Error: {}", booking.getBookingCode(),
-                            e.getMessage(), e);
+        Map<Long, List<ExpiredBookingView>> byTrip = new LinkedHashMap<>();
+        for (ExpiredBookingView row : canceled) {
+            if (row.getLockGroupId() != null && row.getTripId() != null) {
+                byTrip.computeIfAbsent(row.getTripId(), tripId -> new ArrayList<>()).add(row);
+            }
+        }
 
-                    // Mark for manual review if seat lock cancellation failed
-                    markForManualReview(booking, "Scheduler cleanup failed: " + e.getMessage());
-                }
+        // One cache round trip (plus one query for misses) for the seat lists of the whole chunk
+        List<ExpiredBookingView> releasable = byTrip.values().stream().flatMap(List::stream).toList();
+        Map<Long, List<String>> seatsByBooking;
+        try {
+            seatsByBooking = bookingSeatService.getSeatNos(releasable.stream().map(ExpiredBookingView::getId).toList());
+        } catch (Exception e) {
+            log.error("Could not load seat lists of {} canceled bookings", releasable.size(), e);
+            for (ExpiredBookingView row : releasable) {
+                markForManualReview(row.getId(), row.getBookingCode(), "Seat list lookup failed: " + e.getMessage());
             }
+            return releasable.size();
+        }
 
-            log.info("Expired bookings cleanup completed. Canceled: {}, Failed: {}, Total: {}",
-                    canceledCount, failedCount, expiredBookings.size());
+        List<CompletableFuture<Integer>> releases = byTrip.entrySet().stream()
+                .map(trip -> CompletableFuture.supplyAsync(
+                        () -> releaseTripSeats(trip.getKey(), trip.getValue(), seatsByBooking), seatReleaseExecutor))
+                .toList();
+        return releases.stream().mapToInt(CompletableFuture::join).sum();
+    }
 
-        } catch (Exception e) {
-            log.error("Critical error during expired bookings cleanup", e);
+    /**
+     * Release the seat locks of a trip's canceled bookings one booking at a time, so ms-route can check that
+     * each lock still belongs to that booking and a seat re-locked by a newer booking is left alone.
+     *
+     * @return number of bookings whose seats could not be released
+     */
+    private int releaseTripSeats(Long tripId, List<ExpiredBookingView> bookings, Map<Long, List<String>> seatsByBooking) {
+        List<Long> released = new ArrayList<>(bookings.size());
+        int failed = 0;
+        for (ExpiredBookingView booking : bookings) {
+            List<String> seatNos = seatsByBooking.getOrDefault(booking.getId(), List.of());
+            if (seatNos.isEmpty()) {
+                log.warn("Seat list not found for expired booking {} of trip {}", booking.getBookingCode(), tripId);
+                continue;
+            }
+            try {
+                SeatLockActionRequestDTO body = new SeatLockActionRequestDTO();
+                body.setBookingId(booking.getId());
+                body.setTripId(tripId);
+                body.setSeatNumbers(seatNos);
+
+                SeatLockActionResponseDTO res = seatLockResourceMsrouteApi.cancelSeatLocks(body);
+                if (res == null || res.getStatus() == null || !"CONFIRMED".equalsIgnoreCase(res.getStatus())) {
+                    throw new IllegalStateException(res != null ? res.getMessage() : "null response");
+                }
+                released.add(booking.getId());
+            } catch (Exception e) {
+                log.error("Failed to release seat locks of expired booking {} on trip {}: {}", booking.getBookingCode(),
+                        tripId, e.getMessage(), e);
+                markForManualReview(booking.getId(), booking.getBookingCode(), "Scheduler cleanup failed: " + e.getMessage());
+                failed++;
+            }
         }
+        if (!released.isEmpty()) {
+            bookingSeatService.evict(released);
+            log.debug("Released seats of {} expired bookings on trip {}", released.size(), tripId);
+        }
+        return failed;
     }
 
     /**
      * Manual method to trigger expired bookings cleanup.
-     * Useful for testing or manual intervention.
+     * Useful for testing or manual intervention. Covers all shards regardless of lease ownership.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void triggerExpiredBookingsCleanup() {
         log.info("Manually triggering expired bookings cleanup");
-        handleExpiredBookings();
+        cleanup(ShardAssignment.all(EXPIRY_SCAN_SHARDS));
     }
 
     /**
@@ -118,9 +390,7 @@ public class BookingScheduler {
      */
     @Transactional(readOnly = true)
     public long getExpiredBookingsCount() {
-        Instant now = Instant.now();
-        List<Booking> expiredBookings = bookingRepository.findExpiredAwaitingPaymentBookings(now);
-        return expiredBookings.size();
+        return bookingRepository.countExpired(BookingStatus.AWAITING_PAYMENT, Instant.now());
     }
 
     /**
@@ -151,73 +421,35 @@ public class BookingScheduler {
         log.debug("Set booking {} to expire at {}", booking.getBookingCode(), expiresAt);
     }
 
-    /**
-     * Cancel seat locks for a booking using ms-route API.
-     */
-    private void cancelSeatLocks(Booking booking) {
-        try {
-            // Load seat numbers for the booking from Redis
-            List<String> seatNos = loadSeatNosForBooking(booking);
-            
-            if (seatNos.isEmpty())
-                return;
-
-            SeatLockActionRequestDTO body = new SeatLockActionRequestDTO();
-            body.setBookingId(booking.getId());
-            body.setTripId(booking.getTripId());
-            body.setSeatNumbers(seatNos);
-
-            SeatLockActionResponseDTO res = seatLockResourceMsrouteApi.cancelSeatLocks(body);
-            if (res == null || res.getStatus() == null || !"CONFIRMED".equalsIgnoreCase(res.getStatus())) {
-                log.warn("Seat cancel returned non-OK for booking {}: {}",
-                        booking.getBookingCode(), res != null ? res.getMessage() : "null response");
-            } else {
-                log.debug("Successfully canceled seat locks for booking: {}", booking.getBookingCode());
-            }
-        } catch (Exception e) {
-            log.error("Failed to cancel seat locks for booking: {}", booking.getBookingCode(), e);
-        }
-    }
-
-    /**
-     * Load the seat numbers for this booking from Redis.
-     */
-    @SuppressWarnings("unchecked")
-    private List<String> loadSeatNosForBooking(Booking booking) {
-        // Try Redis first: e.g., "booking:seats:{bookingId}" holding List<String>
-        String key = "booking:seats:" + booking.getId();
-        Object obj = redisTemplate.opsForValue().get(key);
-        if (obj instanceof List<?> raw) {
-            List<String> seats = raw.stream()
-                    .filter(Objects::nonNull)
-                    .map(Object::toString)
-                    .toList();
-            if (!seats.isEmpty()) {
-                return seats;
-            }
-        }
-
-        // If not in Redis, fallback to empty list and log warning
-        log.warn("Seat list not found for booking {} (expected in Redis key {})",
-                booking.getId(), key);
-        return List.of();
-    }
-
     /**
      * Mark a booking for manual review due to cleanup failures.
      * This stores the booking ID and reason in Redis for admin review.
      */
-    private void markForManualReview(Booking booking, String reason) {
+    private void markForManualReview(Long bookingId, String bookingCode, String reason) {
         try {
-            String reviewKey = "booking:review:" + booking.getId();
+            String reviewKey = "booking:review:" + bookingId;
             String reviewData = String.format("{\"bookingCode\":\"%s\",\"reason\":\"%s\",\"timestamp\":\"%s\"}",
-                    booking.getBookingCode(), reason.replace("\"", "\\\""), Instant.now().toString());
+                    bookingCode, reason.replace("\"", "\\\""), Instant.now().toString());
 
             redisTemplate.opsForValue().set(reviewKey, reviewData, Duration.ofDays(7)); // Keep for 7 days
-            log.warn("Marked booking {} for manual review: {}", booking.getBookingCode(), reason);
+            log.warn("Marked booking {} for manual review: {}", bookingCode, reason);
         } catch (Exception e) {
-            log.error("Failed to mark booking {} for manual review: {}", booking.getBookingCode(), e.getMessage(), e);
+            log.error("Failed to mark booking {} for manual review: {}", bookingCode, e.getMessage(), e);
         }
     }
 
+    private static final class ChunkResult {
+
+        private int size;
+        private long lastId;
+        private List<ExpiredBookingView> canceled = List.of();
+    }
+
+    private static final class RunStats {
+
+        private int chunks;
+        private int canceled;
+        private int skipped;
+        private int failed;
+    }
 }
@@ -0,0 +1,149 @@
+package com.ridehub.booking.service;
+
+import com.ridehub.booking.domain.BookingSeat;
+import com.ridehub.booking.repository.BookingSeatRepository;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Seat lists of bookings.
+ * <p>
+ * The {@code booking_seat} table is the source of truth; {@code booking:seats:{bookingId}} (comma-separated
+ * seat numbers) is a read-through cache in front of it. Lookups never fail because a cache entry expired:
+ * a miss is one indexed read, after which the entry is cached again.
+ */
+@Service
+@Transactional
+public class BookingSeatService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BookingSeatService.class);
+
+    private static final String SEATS_KEY_PREFIX = "booking:seats:";
+    static final Duration CACHE_TTL = Duration.ofMinutes(30);
+
+    private final BookingSeatRepository bookingSeatRepository;
+    private final StringRedisTemplate redis;
+
+    public BookingSeatService(BookingSeatRepository bookingSeatRepository, StringRedisTemplate redis) {
+        this.bookingSeatRepository = bookingSeatRepository;
+        this.redis = redis;
+    }
+
+    /**
+     * Persist the seats of a new booking; the rows go out in one JDBC batch with the rest of the booking's
+     * inserts. The cache entry is written once the transaction commits.
+     */
+    public void saveSeats(Long bookingId, Long tripId, List<String> seatNos) {
+        List<String> seats = normalize(seatNos);
+        if (seats.isEmpty()) {
+            return;
+        }
+        bookingSeatRepository.saveAll(seats.stream().map(seatNo -> new BookingSeat(bookingId, tripId, seatNo)).toList());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        cache(Map.of(bookingId, seats));
+                    }
+                }
+            );
+        } else {
+            cache(Map.of(bookingId, seats));
+        }
+    }
+
+    /**
+     * Seat numbers of a booking, empty if it has none.
+     */
+    @Transactional(readOnly = true)
+    public List<String> getSeatNos(Long bookingId) {
+        return getSeatNos(List.of(bookingId)).getOrDefault(bookingId, List.of());
+    }
+
+    /**
+     * Seat numbers of several bookings: one Redis round trip, plus one query for the cache misses. Bookings
+     * without seats are absent from the result.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<String>> getSeatNos(Collection<Long> bookingIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(bookingIds));
+        Map<Long, List<String>> result = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return result;
+        }
+
+        List<Long> misses = new ArrayList<>();
+        List<String> cached = readCache(ids);
+        for (int i = 0; i < ids.size(); i++) {
+            String value = cached != null ? cached.get(i) : null;
+            List<String> seats = value != null ? normalize(Arrays.asList(value.split(","))) : List.of();
+            if (seats.isEmpty()) {
+                misses.add(ids.get(i));
+            } else {
+                result.put(ids.get(i), seats);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            Map<Long, List<String>> loaded = new LinkedHashMap<>();
+            for (BookingSeat seat : bookingSeatRepository.findByBookingIdIn(misses)) {
+                loaded.computeIfAbsent(seat.getBookingId(), id -> new ArrayList<>()).add(seat.getSeatNo());
+            }
+            result.putAll(loaded);
+            cache(loaded);
+        }
+        return result;
+    }
+
+    /**
+     * Drop cached seat lists of bookings that no longer hold their seats; the rows stay as history.
+     */
+    public void evict(Collection<Long> bookingIds) {
+        try {
+            redis.delete(bookingIds.stream().map(id -> SEATS_KEY_PREFIX + id).toList());
+        } catch (Exception e) {
+            LOG.warn("Could not evict {} cached seat lists: {}", bookingIds.size(), e.getMessage());
+        }
+    }
+
+    private List<String> readCache(List<Long> ids) {
+        try {
+            return redis.opsForValue().multiGet(ids.stream().map(id -> SEATS_KEY_PREFIX + id).toList());
+        } catch (Exception e) {
+            LOG.warn("Could not read {} seat lists from cache: {}", ids.size(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void cache(Map<Long, List<String>> seatsByBooking) {
+        try {
+            for (Map.Entry<Long, List<String>> entry : seatsByBooking.entrySet()) {
+                redis.opsForValue().set(SEATS_KEY_PREFIX + entry.getKey(), String.join(",", entry.getValue()), CACHE_TTL);
+            }
+        } catch (Exception e) {
+            LOG.warn("Could not cache {} seat lists: {}", seatsByBooking.size(), e.getMessage());
+        }
+    }
+
+    private static List<String> normalize(List<String> seatNos) {
+        if (seatNos == null) {
+            return List.of();
+        }
+        return seatNos.stream().filter(seat -> seat != null && !seat.isBlank()).map(String::trim).distinct().toList();
+    }
+}
@@ -3,6 +3,7 @@ package com.ridehub.booking.service;
 import com.ridehub.booking.domain.*; // for static metamodels
 import com.ridehub.booking.domain.FileBooking;
 import com.ridehub.booking.repository.FileBookingRepository;
+import com.ridehub.booking.service.count.CountService;
 import com.ridehub.booking.service.criteria.FileBookingCriteria;
 import com.ridehub.booking.service.dto.FileBookingDTO;
 import com.ridehub.booking.service.mapper.FileBookingMapper;
@@ -23,6 +24,7 @@ import tech.jhipster.service.QueryService;
  */
 @Service
 @Transactional(readOnly = true)
+@ReplicaRead
 public class FileBookingQueryService extends QueryService<FileBooking> {
 
     private static final Logger LOG = LoggerFactory.getLogger(FileBookingQueryService.class);
@@ -31,9 +33,16 @@ public class FileBookingQueryService extends QueryService<FileBooking> {
 
     private final FileBookingMapper fileBookingMapper;
 
-    public FileBookingQueryService(FileBookingRepository fileBookingRepository, FileBookingMapper fileBookingMapper) {
+    private final CountService countService;
+
+    public FileBookingQueryService(
+        FileBookingRepository fileBookingRepository,
+        FileBookingMapper fileBookingMapper,
+        CountService countService
+    ) {
         this.fileBookingRepository = fileBookingRepository;
         this.fileBookingMapper = fileBookingMapper;
+        this.countService = countService;
     }
 
     /**
@@ -49,15 +58,27 @@ public class FileBookingQueryService extends QueryService<FileBooking> {
     }
 
     /**
-     * Return the number of matching entities in the database.
+     * Return the number of matching entities, from a count cached for a few seconds.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the number of matching entities.
      */
     @Transactional(readOnly = true)
     public long countByCriteria(FileBookingCriteria criteria) {
-        LOG.debug("count by criteria : {}", criteria);
-        final Specification<FileBooking> specification = createSpecification(criteria);
-        return fileBookingRepository.count(specification);
+        return countByCriteria(criteria, false);
+    }
+
+    /**
+     * Return the number of matching entities, from a count cached for a few seconds.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param approximate Whether a table statistics estimate is good enough when nothing is filtered.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(FileBookingCriteria criteria, boolean approximate) {
+        LOG.debug("count by criteria : {}, approximate: {}", criteria, approximate);
+        return countService.count(FileBooking.class, criteria, approximate, () ->
+            fileBookingRepository.count(createSpecification(criteria))
+        );
     }
 
     /**
@@ -3,6 +3,7 @@ package com.ridehub.booking.service;
 import com.ridehub.booking.domain.*; // for static metamodels
 import com.ridehub.booking.domain.Invoice;
 import com.ridehub.booking.repository.InvoiceRepository;
+import com.ridehub.booking.service.count.CountService;
 import com.ridehub.booking.service.criteria.InvoiceCriteria;
 import com.ridehub.booking.service.dto.InvoiceDTO;
 import com.ridehub.booking.service.mapper.InvoiceMapper;
@@ -23,6 +24,7 @@ import tech.jhipster.service.QueryService;
  */
 @Service
 @Transactional(readOnly = true)
+@ReplicaRead
 public class InvoiceQueryService extends QueryService<Invoice> {
 
     private static final Logger LOG = LoggerFactory.getLogger(InvoiceQueryService.class);
@@ -31,9 +33,12 @@ public class InvoiceQueryService extends QueryService<Invoice> {
 
     private final InvoiceMapper invoiceMapper;
 
-    public InvoiceQueryService(InvoiceRepository invoiceRepository, InvoiceMapper invoiceMapper) {
+    private final CountService countService;
+
+    public InvoiceQueryService(InvoiceRepository invoiceRepository, InvoiceMapper invoiceMapper, CountService countService) {
         this.invoiceRepository = invoiceRepository;
         this.invoiceMapper = invoiceMapper;
+        this.countService = countService;
     }
 
     /**
@@ -49,15 +54,27 @@ public class InvoiceQueryService extends QueryService<Invoice> {
     }
 
     /**
-     * Return the number of matching entities in the database.
+     * Return the number of matching entities, from a count cached for a few seconds.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the number of matching entities.
      */
     @Transactional(readOnly = true)
     public long countByCriteria(InvoiceCriteria criteria) {
-        LOG.debug("count by criteria : {}", criteria);
-        final Specification<Invoice> specification = createSpecification(criteria);
-        return invoiceRepository.count(specification);
+        return countByCriteria(criteria, false);
+    }
+
+    /**
+     * Return the number of matching entities, from a count cached for a few seconds.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param approximate Whether a table statistics estimate is good enough when nothing is filtered.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(InvoiceCriteria criteria, boolean approximate) {
+        LOG.debug("count by criteria : {}, approximate: {}", criteria, approximate);
+        return countService.count(Invoice.class, criteria, approximate, () ->
+            invoiceRepository.count(createSpecification(criteria))
+        );
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.ridehub.booking.service;
 
+import com.ridehub.booking.service.payment.http.GatewayFailures;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,7 +9,9 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.RestClientException;
 
@@ -24,6 +27,9 @@ public class PaymentGatewayService {
 
     private final Logger log = LoggerFactory.getLogger(PaymentGatewayService.class);
 
+    /** Header with the caller's key for a refund; the gateway answers a repeated key with the first refund. */
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final RestTemplate restTemplate;
 
     @Value("${app.payment-gateway.base-url:http://localhost:8082}")
@@ -42,9 +48,10 @@ public class PaymentGatewayService {
      * @param orderRef the original order reference
      * @param amount the refund amount
      * @param reason the reason for refund
+     * @param idempotencyKey stable key of the refund, sent again with every retry so the gateway can spot duplicates
      * @return RefundResult containing success status and details
      */
-    public RefundResult processRefund(String orderRef, BigDecimal amount, String reason) {
+    public RefundResult processRefund(String orderRef, BigDecimal amount, String reason, String idempotencyKey) {
         log.debug("Processing refund for order: {}, amount: {}, reason: {}", orderRef, amount, reason);
         
         try {
@@ -62,6 +69,7 @@ public class PaymentGatewayService {
             if (apiKey != null && !apiKey.isEmpty()) {
                 headers.set("Authorization", "Bearer " + apiKey);
             }
+            headers.set(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
             
             HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
             
@@ -80,7 +88,10 @@ public class PaymentGatewayService {
                 
                 if ("SUCCESS".equals(status) || "COMPLETED".equals(status)) {
                     log.info("Successfully processed refund for order: {}. Refund ID: {}", orderRef, refundId);
-                    return new RefundResult(true, refundId, null);
+                    return new RefundResult(true, refundId, null, true, false);
+                } else if ("PENDING".equals(status) || "PROCESSING".equals(status)) {
+                    log.info("Refund accepted for order: {}. Refund ID: {}, status: {}", orderRef, refundId, status);
+                    return new RefundResult(true, refundId, null, false, false);
                 } else {
                     String errorMessage = (String) responseBody.get("message");
                     log.warn("Refund failed for order: {}. Status: {}, Message: {}", orderRef, status, errorMessage);
@@ -89,12 +100,28 @@ public class PaymentGatewayService {
             } else {
                 log.error("Unexpected response when processing refund for order: {}. Status: {}", 
                     orderRef, response.getStatusCode());
-                return new RefundResult(false, null, "Unexpected response from payment gateway");
+                return RefundResult.outcomeUnknown("Unexpected response from payment gateway");
             }
             
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                log.warn("Payment gateway throttled refund for order: {}", orderRef);
+                return new RefundResult(false, null, "Payment gateway rate limit", false, true);
+            }
+            if (e.getStatusCode() == HttpStatus.CONFLICT) {
+                // The same idempotency key is still being processed
+                log.warn("Refund for order: {} is already in progress at the payment gateway", orderRef);
+                return RefundResult.outcomeUnknown("Refund already in progress at payment gateway");
+            }
+            log.error("Payment gateway rejected refund for order: {}. Status: {}", orderRef, e.getStatusCode());
+            return new RefundResult(false, null, "Refund rejected by payment gateway: " + e.getStatusCode());
         } catch (RestClientException e) {
-            log.error("Failed to process refund for order: {} due to communication error", orderRef, e);
-            return new RefundResult(false, null, "Communication error with payment gateway");
+            if (GatewayFailures.isConnectFailure(e)) {
+                log.warn("Could not connect to payment gateway to refund order: {}", orderRef, e);
+                return new RefundResult(false, null, "Could not connect to payment gateway", false, true);
+            }
+            log.error("Refund for order: {} may have reached the payment gateway, outcome unknown", orderRef, e);
+            return RefundResult.outcomeUnknown("Communication error with payment gateway");
         } catch (Exception e) {
             log.error("Unexpected error when processing refund for order: {}", orderRef, e);
             return new RefundResult(false, null, "Unexpected error occurred");
@@ -104,8 +131,8 @@ public class PaymentGatewayService {
     /**
      * Check refund status by refund ID.
      * 
-     * @param refundId the refund ID to check
-     * @return RefundStatus containing current status
+     * @param refundId the refund ID to check, or the idempotency key of a refund whose submission response was lost
+     * @return RefundStatus containing current status, {@code NOT_FOUND} if the gateway has no such refund
      */
     public RefundStatus checkRefundStatus(String refundId) {
         log.debug("Checking refund status for refund ID: {}", refundId);
@@ -130,15 +157,19 @@ public class PaymentGatewayService {
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 Map<String, Object> responseBody = response.getBody();
                 String status = (String) responseBody.get("status");
-                BigDecimal amount = new BigDecimal(responseBody.get("amount").toString());
+                BigDecimal amount = responseBody.get("amount") != null ? new BigDecimal(responseBody.get("amount").toString()) : null;
+                String gatewayRefundId = responseBody.get("refundId") != null ? responseBody.get("refundId").toString() : refundId;
                 
-                return new RefundStatus(refundId, status, amount);
+                return new RefundStatus(gatewayRefundId, status, amount);
             } else {
                 log.error("Failed to check refund status for refund ID: {}. Status: {}", 
                     refundId, response.getStatusCode());
                 return new RefundStatus(refundId, "UNKNOWN", null);
             }
             
+        } catch (HttpClientErrorException.NotFound e) {
+            log.debug("Payment gateway has no refund: {}", refundId);
+            return new RefundStatus(refundId, RefundStatus.NOT_FOUND, null);
         } catch (RestClientException e) {
             log.error("Failed to check refund status for refund ID: {} due to communication error", refundId, e);
             return new RefundStatus(refundId, "ERROR", null);
@@ -155,13 +186,6 @@ public class PaymentGatewayService {
     public RefundResult simulateRefund(String orderRef, BigDecimal amount, String reason) {
         log.info("Simulating refund for order: {}, amount: {}", orderRef, amount);
         
-        // Simulate processing delay
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-        
         // Generate a mock refund ID
         String refundId = "REF-" + System.currentTimeMillis();
         
@@ -169,7 +193,7 @@ public class PaymentGatewayService {
         boolean success = Math.random() < 0.9;
         
         if (success) {
-            return new RefundResult(true, refundId, null);
+            return new RefundResult(true, refundId, null, true, false);
         } else {
             return new RefundResult(false, null, "Simulated refund failure");
         }
@@ -182,11 +206,39 @@ public class PaymentGatewayService {
         private final boolean success;
         private final String refundId;
         private final String errorMessage;
+        private final boolean completed;
+        private final boolean retryable;
+        private final boolean outcomeUnknown;
 
         public RefundResult(boolean success, String refundId, String errorMessage) {
+            this(success, refundId, errorMessage, success, false);
+        }
+
+        public RefundResult(boolean success, String refundId, String errorMessage, boolean completed, boolean retryable) {
+            this(success, refundId, errorMessage, completed, retryable, false);
+        }
+
+        private RefundResult(
+            boolean success,
+            String refundId,
+            String errorMessage,
+            boolean completed,
+            boolean retryable,
+            boolean outcomeUnknown
+        ) {
             this.success = success;
             this.refundId = refundId;
             this.errorMessage = errorMessage;
+            this.completed = completed;
+            this.retryable = retryable;
+            this.outcomeUnknown = outcomeUnknown;
+        }
+
+        /**
+         * The request may have reached the gateway but no answer came back (read timeout, broken response).
+         */
+        public static RefundResult outcomeUnknown(String errorMessage) {
+            return new RefundResult(false, null, errorMessage, false, false, true);
         }
 
         public boolean isSuccess() {
@@ -200,12 +252,36 @@ public class PaymentGatewayService {
         public String getErrorMessage() {
             return errorMessage;
         }
+
+        /**
+         * Whether the gateway finished the refund synchronously; otherwise it must be polled by refund ID.
+         */
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        /**
+         * Whether a failed submission never reached the gateway, or was refused before any refund, and may simply be sent again.
+         */
+        public boolean isRetryable() {
+            return retryable;
+        }
+
+        /**
+         * Whether the gateway may have accepted the refund; look it up by idempotency key before sending it again.
+         */
+        public boolean isOutcomeUnknown() {
+            return outcomeUnknown;
+        }
     }
 
     /**
      * Status class for refund status checks.
      */
     public static class RefundStatus {
+        /** Status reported when the gateway does not know the refund. */
+        public static final String NOT_FOUND = "NOT_FOUND";
+
         private final String refundId;
         private final String status;
         private final BigDecimal amount;
@@ -1,7 +1,10 @@
 package com.ridehub.booking.service;
 
+import com.ridehub.booking.domain.PaymentTransaction;
+import com.ridehub.booking.service.payment.PaymentOutcome;
 import com.ridehub.booking.service.vm.InitiatePaymentRequestVM;
 import com.ridehub.booking.service.vm.PaymentInitiationResultVM;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service Interface for managing Payment operations.
@@ -18,6 +21,19 @@ public interface PaymentService {
      */
     PaymentInitiationResultVM initiatePayment(InitiatePaymentRequestVM request, String returnUrl, String ipAddress);
 
+    /**
+     * Initiate payment for a booking without holding the calling thread while the gateway responds.
+     * The INITIATED transaction is persisted before the gateway call; if the call fails the transaction
+     * is marked FAILED and the future completes exceptionally.
+     *
+     * @param request the payment initiation request
+     * @param returnUrl the return URL from configuration
+     * @param ipAddress the client IP address
+     * @return a future completed with the payment initiation result
+     */
+    CompletableFuture<PaymentInitiationResultVM> initiatePaymentAsync(InitiatePaymentRequestVM request, String returnUrl,
+            String ipAddress);
+
     /**
      * Process payment webhook from gateway.
      *
@@ -28,4 +44,24 @@ public interface PaymentService {
      */
     String processWebhook(String provider, String payload, String signature);
 
+    /**
+     * Apply a gateway-reported payment outcome to its transaction and booking.
+     * Idempotent on {@code (transactionId, status)}; no webhook log entry is written.
+     *
+     * @param outcome the observed outcome
+     * @return processing result message
+     */
+    String applyPaymentOutcome(PaymentOutcome outcome);
+
+    /**
+     * Same as {@link #applyPaymentOutcome(PaymentOutcome)} for callers that already read the transaction.
+     * Must be called outside a database transaction: the outcome is applied in short local commits around
+     * the ms-route calls.
+     *
+     * @param transaction the payment transaction as read by the caller
+     * @param outcome the observed outcome
+     * @return processing result message
+     */
+    String applyPaymentOutcome(PaymentTransaction transaction, PaymentOutcome outcome);
+
 }
@@ -3,17 +3,23 @@ package com.ridehub.booking.service;
 import com.ridehub.booking.domain.*; // for static metamodels
 import com.ridehub.booking.domain.PaymentTransaction;
 import com.ridehub.booking.repository.PaymentTransactionRepository;
+import com.ridehub.booking.service.count.CountService;
 import com.ridehub.booking.service.criteria.PaymentTransactionCriteria;
+import com.ridehub.booking.service.criteria.PaymentTransactionCriteria.PaymentStatusFilter;
 import com.ridehub.booking.service.dto.PaymentTransactionDTO;
+import com.ridehub.booking.service.keyset.CursorSlice;
+import com.ridehub.booking.service.keyset.KeysetQueryService;
 import com.ridehub.booking.service.mapper.PaymentTransactionMapper;
 import jakarta.persistence.criteria.JoinType;
 import java.util.List;
+import java.util.Set;
+import java.util.function.LongSupplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import tech.jhipster.service.QueryService;
 
 /**
  * Service for executing complex queries for {@link PaymentTransaction} entities in the database.
@@ -23,20 +29,29 @@ import tech.jhipster.service.QueryService;
  */
 @Service
 @Transactional(readOnly = true)
-public class PaymentTransactionQueryService extends QueryService<PaymentTransaction> {
+@ReplicaRead
+public class PaymentTransactionQueryService extends KeysetQueryService<PaymentTransaction> {
 
     private static final Logger LOG = LoggerFactory.getLogger(PaymentTransactionQueryService.class);
 
+    /** Non-null, indexed properties that {@link #scrollByCriteria} can sort by. */
+    private static final Set<String> KEYSET_SORTABLE = Set.of("createdAt", "transactionId");
+
     private final PaymentTransactionRepository paymentTransactionRepository;
 
     private final PaymentTransactionMapper paymentTransactionMapper;
 
+    private final CountService countService;
+
     public PaymentTransactionQueryService(
         PaymentTransactionRepository paymentTransactionRepository,
-        PaymentTransactionMapper paymentTransactionMapper
+        PaymentTransactionMapper paymentTransactionMapper,
+        CountService countService
     ) {
+        super(PaymentTransaction.class, KEYSET_SORTABLE);
         this.paymentTransactionRepository = paymentTransactionRepository;
         this.paymentTransactionMapper = paymentTransactionMapper;
+        this.countService = countService;
     }
 
     /**
@@ -52,15 +67,58 @@ public class PaymentTransactionQueryService extends QueryService<PaymentTransact
     }
 
     /**
-     * Return the number of matching entities in the database.
+     * Return a keyset-paginated {@link CursorSlice} of {@link PaymentTransactionDTO} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The cursor returned with the previous slice, or {@code null} for the first one.
+     * @param page The slice size and sort; the page number is ignored.
+     * @return the matching entities, without a total count.
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort.
+     */
+    @Transactional(readOnly = true)
+    public CursorSlice<PaymentTransactionDTO> scrollByCriteria(PaymentTransactionCriteria criteria, String cursor, Pageable page) {
+        LOG.debug("scroll by criteria : {}, cursor: {}, page: {}", criteria, cursor, page);
+        final Specification<PaymentTransaction> specification = createSpecification(criteria);
+        return scroll(paymentTransactionRepository, specification, cursor, page, paymentTransactionMapper::toDto);
+    }
+
+    /**
+     * Return the number of matching entities, from the status counters or a count cached for a few seconds.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the number of matching entities.
      */
     @Transactional(readOnly = true)
     public long countByCriteria(PaymentTransactionCriteria criteria) {
-        LOG.debug("count by criteria : {}", criteria);
-        final Specification<PaymentTransaction> specification = createSpecification(criteria);
-        return paymentTransactionRepository.count(specification);
+        return countByCriteria(criteria, false);
+    }
+
+    /**
+     * Return the number of matching entities, from the status counters or a count cached for a few seconds.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param approximate Whether a table statistics estimate is good enough when nothing is filtered.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(PaymentTransactionCriteria criteria, boolean approximate) {
+        LOG.debug("count by criteria : {}, approximate: {}", criteria, approximate);
+        final LongSupplier exact = () -> paymentTransactionRepository.count(createSpecification(criteria));
+        if (isStatusOnly(criteria)) {
+            PaymentStatusFilter status = criteria == null ? null : criteria.getStatus();
+            return countService.countByStatus(PaymentTransaction.class, criteria, status, approximate, exact);
+        }
+        return countService.count(PaymentTransaction.class, criteria, approximate, exact);
+    }
+
+    /**
+     * Whether the criteria filter on nothing but the status.
+     */
+    private static boolean isStatusOnly(PaymentTransactionCriteria criteria) {
+        if (criteria == null) {
+            return true;
+        }
+        PaymentTransactionCriteria statusOnly = new PaymentTransactionCriteria();
+        statusOnly.setStatus(criteria.getStatus());
+        statusOnly.setDistinct(criteria.getDistinct());
+        return statusOnly.equals(criteria);
     }
 
     /**
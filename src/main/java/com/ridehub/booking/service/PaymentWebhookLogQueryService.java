@@ -3,6 +3,7 @@ package com.ridehub.booking.service;
 import com.ridehub.booking.domain.*; // for static metamodels
 import com.ridehub.booking.domain.PaymentWebhookLog;
 import com.ridehub.booking.repository.PaymentWebhookLogRepository;
+import com.ridehub.booking.service.count.CountService;
 import com.ridehub.booking.service.criteria.PaymentWebhookLogCriteria;
 import com.ridehub.booking.service.dto.PaymentWebhookLogDTO;
 import com.ridehub.booking.service.mapper.PaymentWebhookLogMapper;
@@ -23,6 +24,7 @@ import tech.jhipster.service.QueryService;
  */
 @Service
 @Transactional(readOnly = true)
+@ReplicaRead
 public class PaymentWebhookLogQueryService extends QueryService<PaymentWebhookLog> {
 
     private static final Logger LOG = LoggerFactory.getLogger(PaymentWebhookLogQueryService.class);
@@ -31,12 +33,16 @@ public class PaymentWebhookLogQueryService extends QueryService<PaymentWebhookLo
 
     private final PaymentWebhookLogMapper paymentWebhookLogMapper;
 
+    private final CountService countService;
+
     public PaymentWebhookLogQueryService(
         PaymentWebhookLogRepository paymentWebhookLogRepository,
-        PaymentWebhookLogMapper paymentWebhookLogMapper
+        PaymentWebhookLogMapper paymentWebhookLogMapper,
+        CountService countService
     ) {
         this.paymentWebhookLogRepository = paymentWebhookLogRepository;
         this.paymentWebhookLogMapper = paymentWebhookLogMapper;
+        this.countService = countService;
     }
 
     /**
@@ -52,15 +58,27 @@ public class PaymentWebhookLogQueryService extends QueryService<PaymentWebhookLo
     }
 
     /**
-     * Return the number of matching entities in the database.
+     * Return the number of matching entities, from a count cached for a few seconds.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the number of matching entities.
      */
     @Transactional(readOnly = true)
     public long countByCriteria(PaymentWebhookLogCriteria criteria) {
-        LOG.debug("count by criteria : {}", criteria);
-        final Specification<PaymentWebhookLog> specification = createSpecification(criteria);
-        return paymentWebhookLogRepository.count(specification);
+        return countByCriteria(criteria, false);
+    }
+
+    /**
+     * Return the number of matching entities, from a count cached for a few seconds.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param approximate Whether a table statistics estimate is good enough when nothing is filtered.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(PaymentWebhookLogCriteria criteria, boolean approximate) {
+        LOG.debug("count by criteria : {}, approximate: {}", criteria, approximate);
+        return countService.count(PaymentWebhookLog.class, criteria, approximate, () ->
+            paymentWebhookLogRepository.count(createSpecification(criteria))
+        );
     }
 
     /**
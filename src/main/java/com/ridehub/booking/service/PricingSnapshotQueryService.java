@@ -3,6 +3,7 @@ package com.ridehub.booking.service;
 import com.ridehub.booking.domain.*; // for static metamodels
 import com.ridehub.booking.domain.PricingSnapshot;
 import com.ridehub.booking.repository.PricingSnapshotRepository;
+import com.ridehub.booking.service.count.CountService;
 import com.ridehub.booking.service.criteria.PricingSnapshotCriteria;
 import com.ridehub.booking.service.dto.PricingSnapshotDTO;
 import com.ridehub.booking.service.mapper.PricingSnapshotMapper;
@@ -23,6 +24,7 @@ import tech.jhipster.service.QueryService;
  */
 @Service
 @Transactional(readOnly = true)
+@ReplicaRead
 public class PricingSnapshotQueryService extends QueryService<PricingSnapshot> {
 
     private static final Logger LOG = LoggerFactory.getLogger(PricingSnapshotQueryService.class);
@@ -31,9 +33,16 @@ public class PricingSnapshotQueryService extends QueryService<PricingSnapshot> {
 
     private final PricingSnapshotMapper pricingSnapshotMapper;
 
-    public PricingSnapshotQueryService(PricingSnapshotRepository pricingSnapshotRepository, PricingSnapshotMapper pricingSnapshotMapper) {
+    private final CountService countService;
+
+    public PricingSnapshotQueryService(
+        PricingSnapshotRepository pricingSnapshotRepository,
+        PricingSnapshotMapper pricingSnapshotMapper,
+        CountService countService
+    ) {
         this.pricingSnapshotRepository = pricingSnapshotRepository;
         this.pricingSnapshotMapper = pricingSnapshotMapper;
+        this.countService = countService;
     }
 
     /**
@@ -49,15 +58,27 @@ public class PricingSnapshotQueryService extends QueryService<PricingSnapshot> {
     }
 
     /**
-     * Return the number of matching entities in the database.
+     * Return the number of matching entities, from a count cached for a few seconds.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the number of matching entities.
      */
     @Transactional(readOnly = true)
     public long countByCriteria(PricingSnapshotCriteria criteria) {
-        LOG.debug("count by criteria : {}", criteria);
-        final Specification<PricingSnapshot> specification = createSpecification(criteria);
-        return pricingSnapshotRepository.count(specification);
+        return countByCriteria(criteria, false);
+    }
+
+    /**
+     * Return the number of matching entities, from a count cached for a few seconds.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param approximate Whether a table statistics estimate is good enough when nothing is filtered.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(PricingSnapshotCriteria criteria, boolean approximate) {
+        LOG.debug("count by criteria : {}, approximate: {}", criteria, approximate);
+        return countService.count(PricingSnapshot.class, criteria, approximate, () ->
+            pricingSnapshotRepository.count(createSpecification(criteria))
+        );
     }
 
     /**
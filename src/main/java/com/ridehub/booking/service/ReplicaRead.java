@@ -0,0 +1,19 @@
+package com.ridehub.booking.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service whose {@code readOnly} transactions may be served by the read replica.
+ * <p>
+ * Only listing, search and count services qualify: a few seconds of replication lag there shows a slightly
+ * older page. Reads that decide a payment, booking or ticket transition must see the latest commit and stay
+ * unmarked, which keeps them on the primary.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaRead {}
@@ -3,17 +3,22 @@ package com.ridehub.booking.service;
 import com.ridehub.booking.domain.*; // for static metamodels
 import com.ridehub.booking.domain.Ticket;
 import com.ridehub.booking.repository.TicketRepository;
+import com.ridehub.booking.service.count.CountService;
 import com.ridehub.booking.service.criteria.TicketCriteria;
 import com.ridehub.booking.service.dto.TicketDTO;
+import com.ridehub.booking.service.keyset.CursorSlice;
+import com.ridehub.booking.service.keyset.KeysetQueryService;
 import com.ridehub.booking.service.mapper.TicketMapper;
 import jakarta.persistence.criteria.JoinType;
 import java.util.List;
+import java.util.Set;
+import java.util.function.LongSupplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import tech.jhipster.service.QueryService;
 
 /**
  * Service for executing complex queries for {@link Ticket} entities in the database.
@@ -23,17 +28,25 @@ import tech.jhipster.service.QueryService;
  */
 @Service
 @Transactional(readOnly = true)
-public class TicketQueryService extends QueryService<Ticket> {
+@ReplicaRead
+public class TicketQueryService extends KeysetQueryService<Ticket> {
 
     private static final Logger LOG = LoggerFactory.getLogger(TicketQueryService.class);
 
+    /** Non-null, indexed properties that {@link #scrollByCriteria} can sort by. */
+    private static final Set<String> KEYSET_SORTABLE = Set.of("createdAt", "ticketCode");
+
     private final TicketRepository ticketRepository;
 
     private final TicketMapper ticketMapper;
 
-    public TicketQueryService(TicketRepository ticketRepository, TicketMapper ticketMapper) {
+    private final CountService countService;
+
+    public TicketQueryService(TicketRepository ticketRepository, TicketMapper ticketMapper, CountService countService) {
+        super(Ticket.class, KEYSET_SORTABLE);
         this.ticketRepository = ticketRepository;
         this.ticketMapper = ticketMapper;
+        this.countService = countService;
     }
 
     /**
@@ -49,15 +62,57 @@ public class TicketQueryService extends QueryService<Ticket> {
     }
 
     /**
-     * Return the number of matching entities in the database.
+     * Return a keyset-paginated {@link CursorSlice} of {@link TicketDTO} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The cursor returned with the previous slice, or {@code null} for the first one.
+     * @param page The slice size and sort; the page number is ignored.
+     * @return the matching entities, without a total count.
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort.
+     */
+    @Transactional(readOnly = true)
+    public CursorSlice<TicketDTO> scrollByCriteria(TicketCriteria criteria, String cursor, Pageable page) {
+        LOG.debug("scroll by criteria : {}, cursor: {}, page: {}", criteria, cursor, page);
+        final Specification<Ticket> specification = createSpecification(criteria);
+        return scroll(ticketRepository, specification, cursor, page, ticketMapper::toDto);
+    }
+
+    /**
+     * Return the number of matching entities, from the status counters or a count cached for a few seconds.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the number of matching entities.
      */
     @Transactional(readOnly = true)
     public long countByCriteria(TicketCriteria criteria) {
-        LOG.debug("count by criteria : {}", criteria);
-        final Specification<Ticket> specification = createSpecification(criteria);
-        return ticketRepository.count(specification);
+        return countByCriteria(criteria, false);
+    }
+
+    /**
+     * Return the number of matching entities, from the status counters or a count cached for a few seconds.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param approximate Whether a table statistics estimate is good enough when nothing is filtered.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(TicketCriteria criteria, boolean approximate) {
+        LOG.debug("count by criteria : {}, approximate: {}", criteria, approximate);
+        final LongSupplier exact = () -> ticketRepository.count(createSpecification(criteria));
+        if (isStatusOnly(criteria)) {
+            return countService.countByStatus(Ticket.class, criteria, criteria == null ? null : criteria.getStatus(), approximate, exact);
+        }
+        return countService.count(Ticket.class, criteria, approximate, exact);
+    }
+
+    /**
+     * Whether the criteria filter on nothing but the status.
+     */
+    private static boolean isStatusOnly(TicketCriteria criteria) {
+        if (criteria == null) {
+            return true;
+        }
+        TicketCriteria statusOnly = new TicketCriteria();
+        statusOnly.setStatus(criteria.getStatus());
+        statusOnly.setDistinct(criteria.getDistinct());
+        return statusOnly.equals(criteria);
     }
 
     /**
@@ -0,0 +1,536 @@
+package com.ridehub.booking.service;
+
+import com.ridehub.booking.domain.Booking;
+import com.ridehub.booking.domain.Ticket;
+import com.ridehub.booking.domain.enumeration.AvroTicketStatus;
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import com.ridehub.booking.repository.BookingRepository;
+import com.ridehub.booking.repository.TicketRepository;
+import com.ridehub.booking.service.cluster.ShardAssignment;
+import com.ridehub.booking.service.cluster.ShardLeaseManager;
+import com.ridehub.booking.service.count.StatusCounters;
+import com.ridehub.booking.service.payment.refund.RefundQueueService;
+import com.ridehub.booking.service.state.SecondLevelCacheLocks;
+import com.ridehub.booking.service.ticket.TicketLookupCache;
+import com.ridehub.msroute.client.api.SeatLockResourceMsrouteApi;
+import com.ridehub.msroute.client.model.SeatLockActionRequestDTO;
+import com.ridehub.msroute.client.model.SeatLockActionResponseDTO;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Cancels every booking and ticket of a trip as one background job.
+ * <p>
+ * Bookings are streamed in keyset chunks ordered by id. Each chunk is one short transaction: set-based
+ * UPDATEs for bookings and tickets, plus refund jobs for what is left of the paid bookings' payments after
+ * their tickets' own refunds. Seat numbers are collected into a
+ * Redis set and released in a single ms-route call once all chunks are done. Job state (cursor, counters,
+ * phase) lives in a Redis hash; chunks are idempotent, so a job interrupted by a crash is picked up again
+ * from its cursor by {@link #resumeInterruptedJobs()}.
+ */
+@Service
+public class TripCancellationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TripCancellationService.class);
+
+    private static final String JOB_KEY_PREFIX = "trip:cancel:job:";
+    private static final String SEATS_KEY_PREFIX = "trip:cancel:seats:";
+    private static final String LOCK_KEY_PREFIX = "trip:cancel:lock:";
+    private static final String ACTIVE_JOBS_KEY = "trip:cancel:jobs";
+    private static final String REFUND_SOURCE_PREFIX = "trip-cancel:";
+
+    // Renewed after every chunk and before the seat release, so it only has to outlast one ms-route call
+    private static final Duration LOCK_TTL = Duration.ofMinutes(2);
+    // KEYS[1] = lock, ARGV[1] = token; deletes the lock only while this token still holds it
+    private static final DefaultRedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+        Long.class
+    );
+    // KEYS[1] = lock, ARGV[1] = token, ARGV[2] = ttl millis; extends the lock only while this token still holds it
+    private static final DefaultRedisScript<Long> RENEW_LOCK_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end return 0",
+        Long.class
+    );
+    private static final int CHUNK_SIZE = 500;
+    private static final String RESUME_JOB = "trip-cancel-resume";
+    private static final int RESUME_SHARDS = 16;
+
+    private static final List<BookingStatus> CANCELLABLE_STATUSES = List.of(
+        BookingStatus.DRAFT,
+        BookingStatus.AWAITING_PAYMENT,
+        BookingStatus.PAID,
+        BookingStatus.CONFIRMED,
+        BookingStatus.RECOVERY_FAILED_SEAT_LOCKS
+    );
+
+    private static final List<String> CANCELLABLE_STATUS_NAMES = CANCELLABLE_STATUSES.stream().map(Enum::name).toList();
+
+    private static final List<String> SETTLED_TICKET_STATUSES = List.of(
+        AvroTicketStatus.CANCELLED.name(),
+        AvroTicketStatus.EXPIRED.name(),
+        AvroTicketStatus.REFUND_COMPLETED.name(),
+        AvroTicketStatus.EXCHANGE_COMPLETED.name()
+    );
+
+    public enum JobStatus {
+        RUNNING,
+        RELEASING_SEATS,
+        COMPLETED,
+        FAILED,
+    }
+
+    private final BookingRepository bookingRepository;
+    private final TicketRepository ticketRepository;
+    private final RefundQueueService refundQueueService;
+    private final SeatLockResourceMsrouteApi seatLockResourceMsrouteApi;
+    private final StringRedisTemplate redis;
+    private final BookingSeatService bookingSeatService;
+    private final ShardLeaseManager shardLeaseManager;
+    private final TicketLookupCache ticketLookupCache;
+    private final StatusCounters statusCounters;
+    private final SecondLevelCacheLocks cacheLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+
+    public TripCancellationService(
+        BookingRepository bookingRepository,
+        TicketRepository ticketRepository,
+        RefundQueueService refundQueueService,
+        SeatLockResourceMsrouteApi seatLockResourceMsrouteApi,
+        StringRedisTemplate redis,
+        BookingSeatService bookingSeatService,
+        ShardLeaseManager shardLeaseManager,
+        TicketLookupCache ticketLookupCache,
+        StatusCounters statusCounters,
+        SecondLevelCacheLocks cacheLocks,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.ticketRepository = ticketRepository;
+        this.refundQueueService = refundQueueService;
+        this.seatLockResourceMsrouteApi = seatLockResourceMsrouteApi;
+        this.redis = redis;
+        this.bookingSeatService = bookingSeatService;
+        this.shardLeaseManager = shardLeaseManager;
+        this.ticketLookupCache = ticketLookupCache;
+        this.statusCounters = statusCounters;
+        this.cacheLocks = cacheLocks;
+        this.shardLeaseManager.register(RESUME_JOB, RESUME_SHARDS);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(2, r -> {
+            Thread thread = new Thread(r, "trip-cancel-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start (or resume) the cancellation of a trip in the background.
+     *
+     * @return the current progress of the job
+     */
+    public TripCancellationProgress startCancellation(Long tripId, String reason) {
+        String jobKey = JOB_KEY_PREFIX + tripId;
+        Map<Object, Object> existing = redis.opsForHash().entries(jobKey);
+        JobStatus status = existing.isEmpty() ? null : JobStatus.valueOf((String) existing.get("status"));
+
+        if (isActive(status) && Boolean.TRUE.equals(redis.hasKey(LOCK_KEY_PREFIX + tripId))) {
+            LOG.info("Cancellation of trip {} already running", tripId);
+            return getProgress(tripId);
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        if (status == null || status == JobStatus.COMPLETED) {
+            // Fresh run; a completed job may be re-run to pick up bookings created since
+            redis.delete(jobKey);
+            fields.put("cursor", "0");
+            fields.put("bookingsCanceled", "0");
+            fields.put("ticketsCanceled", "0");
+            fields.put("refundsQueued", "0");
+            fields.put("seatsMissing", "0");
+            fields.put("chunks", "0");
+            fields.put("startedAt", Instant.now().toString());
+        }
+        fields.put("status", status == JobStatus.RELEASING_SEATS ? status.name() : JobStatus.RUNNING.name());
+        fields.put("reason", reason != null ? reason : "Trip canceled");
+        fields.put("updatedAt", Instant.now().toString());
+        redis.opsForHash().putAll(jobKey, fields);
+        redis.opsForHash().delete(jobKey, "error", "finishedAt");
+        redis.opsForSet().add(ACTIVE_JOBS_KEY, tripId.toString());
+
+        executor.execute(() -> run(tripId));
+        return getProgress(tripId);
+    }
+
+    /**
+     * Progress of the cancellation job of a trip, or {@code null} if none was started.
+     */
+    public TripCancellationProgress getProgress(Long tripId) {
+        Map<Object, Object> fields = redis.opsForHash().entries(JOB_KEY_PREFIX + tripId);
+        if (fields.isEmpty()) {
+            return null;
+        }
+        return new TripCancellationProgress(tripId, fields, refundQueueService.getProgress(REFUND_SOURCE_PREFIX + tripId));
+    }
+
+    /**
+     * Resume jobs whose worker died: active in Redis but no longer holding the lock. Each node only resumes
+     * the trips in the shards it owns, so a dead worker's jobs are spread over the remaining replicas.
+     */
+    @Scheduled(initialDelay = 30000, fixedDelay = 60000)
+    public void resumeInterruptedJobs() {
+        ShardAssignment assignment = shardLeaseManager.assignment(RESUME_JOB);
+        if (assignment.isEmpty()) {
+            return;
+        }
+        try {
+            Set<String> active = redis.opsForSet().members(ACTIVE_JOBS_KEY);
+            if (active == null) {
+                return;
+            }
+            for (String tripId : active) {
+                if (!assignment.owns(Long.parseLong(tripId))) {
+                    continue;
+                }
+                Object status = redis.opsForHash().get(JOB_KEY_PREFIX + tripId, "status");
+                if (status == null || !isActive(JobStatus.valueOf((String) status))) {
+                    redis.opsForSet().remove(ACTIVE_JOBS_KEY, tripId);
+                } else if (!Boolean.TRUE.equals(redis.hasKey(LOCK_KEY_PREFIX + tripId))) {
+                    LOG.warn("Resuming interrupted cancellation of trip {}", tripId);
+                    executor.execute(() -> run(Long.valueOf(tripId)));
+                }
+            }
+        } catch (Exception e) {
+            LOG.error("Error resuming trip cancellation jobs", e);
+        }
+    }
+
+    private void run(Long tripId) {
+        String lockKey = LOCK_KEY_PREFIX + tripId;
+        String token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(lockKey, token, LOCK_TTL))) {
+            LOG.debug("Cancellation of trip {} is owned by another worker", tripId);
+            return;
+        }
+
+        String jobKey = JOB_KEY_PREFIX + tripId;
+        long started = System.currentTimeMillis();
+        try {
+            String reason = (String) redis.opsForHash().get(jobKey, "reason");
+            if (JobStatus.RUNNING.name().equals(redis.opsForHash().get(jobKey, "status"))) {
+                if (!cancelBookings(tripId, reason, lockKey, token)) {
+                    LOG.warn("Cancellation of trip {} lost its lock, leaving it to the new owner", tripId);
+                    return;
+                }
+                redis.opsForHash().put(jobKey, "status", JobStatus.RELEASING_SEATS.name());
+            }
+            // A full TTL for the ms-route call, however long the chunks took
+            if (!renewLock(lockKey, token)) {
+                LOG.warn("Cancellation of trip {} lost its lock before releasing seats", tripId);
+                return;
+            }
+            releaseSeats(tripId);
+
+            redis.opsForHash().put(jobKey, "status", JobStatus.COMPLETED.name());
+            redis.opsForHash().put(jobKey, "finishedAt", Instant.now().toString());
+            redis.opsForSet().remove(ACTIVE_JOBS_KEY, tripId.toString());
+            LOG.info("Cancellation of trip {} completed in {} ms", tripId, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            LOG.error("Cancellation of trip {} failed", tripId, e);
+            redis.opsForHash().put(jobKey, "status", JobStatus.FAILED.name());
+            redis.opsForHash().put(jobKey, "error", String.valueOf(e.getMessage()));
+            redis.opsForSet().remove(ACTIVE_JOBS_KEY, tripId.toString());
+        } finally {
+            redis.opsForHash().put(jobKey, "updatedAt", Instant.now().toString());
+            redis.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), token);
+        }
+    }
+
+    /**
+     * Cancel the trip's bookings chunk by chunk from the stored cursor.
+     *
+     * @return {@code false} if the lock was lost to another worker between chunks
+     */
+    private boolean cancelBookings(Long tripId, String reason, String lockKey, String token) {
+        String jobKey = JOB_KEY_PREFIX + tripId;
+        Object storedCursor = redis.opsForHash().get(jobKey, "cursor");
+        long cursor = storedCursor != null ? Long.parseLong((String) storedCursor) : 0L;
+
+        while (true) {
+            long afterId = cursor;
+            ChunkResult chunk = transactionTemplate.execute(tx -> cancelChunk(tripId, afterId, reason));
+            if (chunk == null || chunk.size == 0) {
+                return true;
+            }
+            cursor = chunk.lastId;
+
+            // Progress is recorded after the chunk commits; replaying a chunk is harmless
+            redis.opsForHash().increment(jobKey, "bookingsCanceled", chunk.bookings);
+            redis.opsForHash().increment(jobKey, "ticketsCanceled", chunk.tickets);
+            redis.opsForHash().increment(jobKey, "refundsQueued", chunk.refunds);
+            redis.opsForHash().increment(jobKey, "seatsMissing", chunk.seatsMissing);
+            redis.opsForHash().increment(jobKey, "chunks", 1);
+            redis.opsForHash().put(jobKey, "cursor", Long.toString(cursor));
+            redis.opsForHash().put(jobKey, "updatedAt", Instant.now().toString());
+            if (!renewLock(lockKey, token)) {
+                return false;
+            }
+
+            if (chunk.size < CHUNK_SIZE) {
+                return true;
+            }
+        }
+    }
+
+    private boolean renewLock(String lockKey, String token) {
+        Long renewed = redis.execute(RENEW_LOCK_SCRIPT, List.of(lockKey), token, Long.toString(LOCK_TTL.toMillis()));
+        return renewed != null && renewed == 1L;
+    }
+
+    private ChunkResult cancelChunk(Long tripId, long afterId, String reason) {
+        List<BookingRepository.TripBookingView> bookings = bookingRepository.findTripBookingChunk(
+            tripId,
+            afterId,
+            CANCELLABLE_STATUSES,
+            PageRequest.of(0, CHUNK_SIZE)
+        );
+        ChunkResult result = new ChunkResult();
+        result.size = bookings.size();
+        if (bookings.isEmpty()) {
+            return result;
+        }
+
+        List<Long> bookingIds = new ArrayList<>(bookings.size());
+        Map<Long, Long> paidTransactionIds = new HashMap<>();
+        for (BookingRepository.TripBookingView booking : bookings) {
+            bookingIds.add(booking.getId());
+            if (booking.getPaymentTransactionId() != null && booking.getPaymentStatus() == PaymentStatus.SUCCESS) {
+                paidTransactionIds.put(booking.getId(), booking.getPaymentTransactionId());
+            }
+        }
+        result.lastId = bookingIds.get(bookingIds.size() - 1);
+
+        // Seats are collected before the status change so a crash never loses them
+        result.seatsMissing = collectSeats(tripId, bookingIds);
+
+        Instant now = Instant.now();
+        // Some bookings may have left the cancellable statuses since they were read (e.g. refunded or canceled by
+        // another path); the rows locked here are the ones this chunk cancels and refunds, and no one else can
+        // move them before it commits
+        List<Long> cancelIds = bookingRepository.lockIdsInStatuses(bookingIds, CANCELLABLE_STATUS_NAMES);
+        paidTransactionIds.keySet().retainAll(cancelIds);
+        if (!cancelIds.isEmpty()) {
+            cacheLocks.lockForUpdate(Booking.class, cancelIds);
+            result.bookings = bookingRepository.updateStatusForIds(cancelIds, CANCELLABLE_STATUS_NAMES, BookingStatus.CANCELED.name(), now);
+        }
+        cacheLocks.lockForUpdate(Ticket.class, ticketRepository.findIdsByBookingIds(bookingIds));
+        result.tickets = ticketRepository.updateStatusForBookings(bookingIds, SETTLED_TICKET_STATUSES, AvroTicketStatus.CANCELLED.name(), now);
+        if (result.tickets > 0) {
+            ticketLookupCache.evictTickets(ticketRepository.findTicketCodesByBookingIds(bookingIds));
+            statusCounters.invalidate(Ticket.class);
+        }
+        if (result.bookings > 0) {
+            // Canceled from several statuses at once, so the counters are rebuilt rather than moved
+            statusCounters.invalidate(Booking.class);
+        }
+        // Queued ticket refunds of the refunded bookings are taken over by their payment's refund; submitted and
+        // completed ones are subtracted from it
+        refundQueueService.cancelQueuedTicketRefunds(paidTransactionIds.keySet(), "Superseded by trip cancellation");
+        result.refunds = refundQueueService.enqueueTransactionRefunds(
+            paidTransactionIds.values(),
+            reason,
+            REFUND_SOURCE_PREFIX + tripId
+        );
+
+        LOG.debug(
+            "Trip {} chunk after id {}: {} bookings, {} tickets canceled, {} refunds queued",
+            tripId,
+            afterId,
+            result.bookings,
+            result.tickets,
+            result.refunds
+        );
+        return result;
+    }
+
+    /**
+     * Add the seats held by the given bookings to the trip's release set.
+     *
+     * @return number of bookings whose seat list was not found
+     */
+    private int collectSeats(Long tripId, List<Long> bookingIds) {
+        Map<Long, List<String>> seatsByBooking = bookingSeatService.getSeatNos(bookingIds);
+        List<String> seats = seatsByBooking.values().stream().flatMap(List::stream).toList();
+        if (!seats.isEmpty()) {
+            redis.opsForSet().add(SEATS_KEY_PREFIX + tripId, seats.toArray(new String[0]));
+        }
+        return bookingIds.size() - seatsByBooking.size();
+    }
+
+    private void releaseSeats(Long tripId) {
+        String seatsKey = SEATS_KEY_PREFIX + tripId;
+        Set<String> seats = redis.opsForSet().members(seatsKey);
+        if (seats == null || seats.isEmpty()) {
+            redis.opsForHash().put(JOB_KEY_PREFIX + tripId, "seatsReleased", "0");
+            return;
+        }
+
+        SeatLockActionRequestDTO body = new SeatLockActionRequestDTO();
+        body.setTripId(tripId);
+        body.setSeatNumbers(new ArrayList<>(seats));
+        SeatLockActionResponseDTO res = seatLockResourceMsrouteApi.cancelSeatLocks(body);
+        if (res == null || res.getStatus() == null || !"CONFIRMED".equalsIgnoreCase(res.getStatus())) {
+            throw new IllegalStateException(
+                "Seat release for trip " + tripId + " failed: " + (res != null ? res.getMessage() : "null response")
+            );
+        }
+        redis.opsForHash().put(JOB_KEY_PREFIX + tripId, "seatsReleased", Integer.toString(seats.size()));
+        redis.delete(seatsKey);
+        LOG.info("Released {} seats of trip {} in one call", seats.size(), tripId);
+    }
+
+    private static boolean isActive(JobStatus status) {
+        return status == JobStatus.RUNNING || status == JobStatus.RELEASING_SEATS;
+    }
+
+    private static final class ChunkResult {
+
+        private int size;
+        private long lastId;
+        private int bookings;
+        private int tickets;
+        private int refunds;
+        private int seatsMissing;
+    }
+
+    /**
+     * Snapshot of a trip cancellation job.
+     */
+    public static class TripCancellationProgress {
+
+        private final Long tripId;
+        private final String status;
+        private final String reason;
+        private final long bookingsCanceled;
+        private final long ticketsCanceled;
+        private final long refundsQueued;
+        private final long seatsReleased;
+        private final long seatsMissing;
+        private final long chunks;
+        private final long cursor;
+        private final String startedAt;
+        private final String updatedAt;
+        private final String finishedAt;
+        private final String error;
+        private final RefundQueueService.RefundProgress refunds;
+
+        TripCancellationProgress(Long tripId, Map<Object, Object> fields, RefundQueueService.RefundProgress refunds) {
+            this.tripId = tripId;
+            this.status = (String) fields.get("status");
+            this.reason = (String) fields.get("reason");
+            this.bookingsCanceled = asLong(fields.get("bookingsCanceled"));
+            this.ticketsCanceled = asLong(fields.get("ticketsCanceled"));
+            this.refundsQueued = asLong(fields.get("refundsQueued"));
+            this.seatsReleased = asLong(fields.get("seatsReleased"));
+            this.seatsMissing = asLong(fields.get("seatsMissing"));
+            this.chunks = asLong(fields.get("chunks"));
+            this.cursor = asLong(fields.get("cursor"));
+            this.startedAt = (String) fields.get("startedAt");
+            this.updatedAt = (String) fields.get("updatedAt");
+            this.finishedAt = (String) fields.get("finishedAt");
+            this.error = (String) fields.get("error");
+            this.refunds = refunds;
+        }
+
+        private static long asLong(Object value) {
+            return value != null ? Long.parseLong(Objects.toString(value)) : 0L;
+        }
+
+        public Long getTripId() {
+            return tripId;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public long getBookingsCanceled() {
+            return bookingsCanceled;
+        }
+
+        public long getTicketsCanceled() {
+            return ticketsCanceled;
+        }
+
+        public long getRefundsQueued() {
+            return refundsQueued;
+        }
+
+        public long getSeatsReleased() {
+            return seatsReleased;
+        }
+
+        public long getSeatsMissing() {
+            return seatsMissing;
+        }
+
+        public long getChunks() {
+            return chunks;
+        }
+
+        public long getCursor() {
+            return cursor;
+        }
+
+        public String getStartedAt() {
+            return startedAt;
+        }
+
+        public String getUpdatedAt() {
+            return updatedAt;
+        }
+
+        public String getFinishedAt() {
+            return finishedAt;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public RefundQueueService.RefundProgress getRefunds() {
+            return refunds;
+        }
+    }
+}
@@ -4,20 +4,48 @@ import com.ridehub.booking.domain.PaymentTransaction;
 import com.ridehub.booking.domain.enumeration.PaymentMethod;
 import com.ridehub.booking.domain.enumeration.PaymentStatus;
 import com.ridehub.booking.repository.PaymentTransactionRepository;
+import com.ridehub.booking.service.cluster.ShardAssignment;
+import com.ridehub.booking.service.cluster.ShardLeaseManager;
+import com.ridehub.booking.service.payment.PaymentOutcome;
+import com.ridehub.booking.service.payment.http.TokenBucketRateLimiter;
+import com.ridehub.booking.service.payment.vnpay.VNPayConfig;
+import com.ridehub.booking.service.payment.vnpay.VNPayPollSchedule;
 import com.ridehub.booking.service.payment.vnpay.VNPayService;
+import com.ridehub.booking.service.state.StatusTransitionService;
 import com.ridehub.booking.domain.Booking;
 import com.ridehub.booking.domain.enumeration.BookingStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Service for auto-polling VNPay transactions to handle payment status updates
@@ -30,182 +58,373 @@ public class VNPayPollingService {
     private static final Logger LOG = LoggerFactory.getLogger(VNPayPollingService.class);
     
     private static final String POLLING_IP_ADDRESS = "127.0.0.1";
-    private static final int MAX_POLLING_ATTEMPTS = 30; // 30 attempts = 1 hour with 2-minute intervals
+    private static final String POLLING_SOURCE = "VNPAY_POLL";
+    private static final int MAX_POLLING_ATTEMPTS = 40; // ~6 hours along the VNPayPollSchedule backoff curve
     private static final int POLLING_TIMEOUT_HOURS = 24; // Stop polling after 24 hours
-    
+    private static final int CLAIM_BATCH_SIZE = 200;
+    private static final String POLL_JOB = "vnpay-poll";
+    private static final int POLL_SHARDS = 16;
+    private static final Duration DUPLICATE_REQUEST_BACKOFF = Duration.ofMinutes(10);
+    private static final Duration RATE_LIMIT_MAX_WAIT = Duration.ofSeconds(30);
+    private static final Duration CYCLE_TIMEOUT = Duration.ofSeconds(110); // below the claim lease
+
+    // VNPay codes signalling we query too often: 94 = duplicate request, 20/21 = duplicate (see determinePaymentStatus)
+    private static final Set<String> BACK_PRESSURE_CODES = Set.of("94", "20", "21");
+
+    private enum PollOutcome {
+        SKIPPED,
+        UNCHANGED,
+        SUCCEEDED,
+        FAILED,
+        UPDATED,
+    }
+
+    private static final class PollTarget {
+
+        private final PaymentTransaction transaction;
+        private final boolean bookingExpired;
+
+        private PollTarget(PaymentTransaction transaction, boolean bookingExpired) {
+            this.transaction = transaction;
+            this.bookingExpired = bookingExpired;
+        }
+    }
+
     private final PaymentTransactionRepository paymentTransactionRepository;
     private final VNPayService vnPayService;
     private final PaymentService paymentService;
-    
-    // Cache to track polling attempts and avoid excessive API calls
-    private final Map<String, Integer> pollingAttempts = new ConcurrentHashMap<>();
-    private final Map<String, Instant> lastPollTime = new ConcurrentHashMap<>();
+    private final StatusTransitionService statusTransitionService;
+    private final VNPayPollSchedule pollSchedule;
+    private final ShardLeaseManager shardLeaseManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final ThreadPoolExecutor pollExecutor;
+    private final Map<String, CompletableFuture<?>> perTransactionTail = new ConcurrentHashMap<>();
+    private final Timer cycleTimer;
+    private final Counter backPressureCounter;
 
     public VNPayPollingService(PaymentTransactionRepository paymentTransactionRepository,
                                VNPayService vnPayService,
-                               PaymentService paymentService) {
+                               PaymentService paymentService,
+                               VNPayPollSchedule pollSchedule,
+                               VNPayConfig vnPayConfig,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               StatusTransitionService statusTransitionService,
+                               ShardLeaseManager shardLeaseManager) {
         this.paymentTransactionRepository = paymentTransactionRepository;
         this.vnPayService = vnPayService;
         this.paymentService = paymentService;
+        this.statusTransitionService = statusTransitionService;
+        this.pollSchedule = pollSchedule;
+        this.shardLeaseManager = shardLeaseManager;
+        this.shardLeaseManager.register(POLL_JOB, POLL_SHARDS);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.rateLimiter = new TokenBucketRateLimiter(vnPayConfig.getPollingRatePerSecond(), vnPayConfig.getPollingBurst());
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        int threads = Math.max(1, vnPayConfig.getPollingThreads());
+        this.pollExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "vnpay-poller-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pollExecutor.allowCoreThreadTimeOut(true);
+
+        this.cycleTimer = Timer.builder("vnpay.poll.cycle")
+            .description("Duration of a VNPay polling cycle")
+            .register(meterRegistry);
+        this.backPressureCounter = Counter.builder("vnpay.poll.backpressure")
+            .description("VNPay responses treated as back-pressure (duplicate request)")
+            .register(meterRegistry);
+        Gauge.builder("vnpay.poll.queue.depth", pollExecutor, e -> e.getQueue().size())
+            .description("VNPay polls waiting for a worker thread")
+            .register(meterRegistry);
+        Gauge.builder("vnpay.poll.active", pollExecutor, ThreadPoolExecutor::getActiveCount)
+            .description("VNPay polls currently running")
+            .register(meterRegistry);
+        Gauge.builder("vnpay.poll.rate", rateLimiter, TokenBucketRateLimiter::getRatePerSecond)
+            .description("Current VNPay query rate limit (requests/second)")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pollExecutor.shutdownNow();
     }
 
     /**
-     * Auto-poll VNPay transactions every 2 minutes to check for payment status updates.
+     * Poll VNPay transactions whose next poll time has come.
      * This replaces IPN functionality in test mode.
+     * <p>
+     * Due transactions are claimed from the shared Redis schedule, so each transaction is polled by one
+     * node only and the cycle costs nothing when nothing is due. Claimed transactions are queried in
+     * parallel on a bounded worker pool, throttled by an adaptive token bucket; work for the same
+     * transaction always runs in submission order.
+     * <p>
+     * The configured rate is a budget for the whole cluster: each node gets the share of it matching the
+     * poll shards it holds (see {@link ShardLeaseManager}) and claims a proportional batch, and a node without
+     * shards does not poll at all.
      */
-    @Scheduled(fixedRate = 120000) // 2 minutes = 120000 milliseconds
+    @Scheduled(fixedDelay = 10000) // 10 seconds; work is bounded by due entries
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void pollPendingTransactions() {
-        LOG.debug("Starting VNPay transaction polling cycle");
-        
+        ShardAssignment assignment = shardLeaseManager.assignment(POLL_JOB);
+        if (assignment.isEmpty()) {
+            LOG.debug("VNPay polling cycle: no poll shards owned by this node");
+            return;
+        }
+        rateLimiter.setShare(assignment.getShare());
+
+        List<String> dueTransactionIds;
         try {
-            // Find VNPay transactions that are still in INITIATED or PROCESSING status
-            // and were created within the last 24 hours
-            Instant cutoffTime = Instant.now().minus(POLLING_TIMEOUT_HOURS, ChronoUnit.HOURS);
-            
-            List<PaymentTransaction> pendingTransactions = paymentTransactionRepository
-                .findByMethodAndStatusInAndCreatedAtAfterAndIsDeletedFalseOrIsDeletedIsNull(
-                    PaymentMethod.VNPAY,
-                    List.of(PaymentStatus.INITIATED, PaymentStatus.PROCESSING),
-                    cutoffTime
-                );
-            
-            LOG.info("Found {} pending VNPay transactions to poll", pendingTransactions.size());
-            
-            int processedCount = 0;
-            int successCount = 0;
-            int failedCount = 0;
-            
-            for (PaymentTransaction transaction : pendingTransactions) {
-                try {
-                    // Check if the associated booking has expired before polling
-                    if (isBookingExpired(transaction)) {
-                        LOG.info("Skipping polling for transaction {} - associated booking has expired", 
-                            transaction.getTransactionId());
-                        
-                        // Mark the transaction as failed since the booking expired
-                        markTransactionAsFailedForExpiredBooking(transaction);
-                        processedCount++;
-                        failedCount++;
-                        continue;
-                    }
-                    
-                    if (shouldPollTransaction(transaction)) {
-                        boolean updated = pollAndUpdateTransaction(transaction);
-                        if (updated) {
-                            processedCount++;
-                            if (transaction.getStatus() == PaymentStatus.SUCCESS) {
-                                successCount++;
-                            } else if (transaction.getStatus() == PaymentStatus.FAILED) {
-                                failedCount++;
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    LOG.error("Error polling transaction {}: {}", transaction.getTransactionId(), e.getMessage(), e);
-                }
+            dueTransactionIds = pollSchedule.claimDue(Math.max(1, (int) Math.ceil(CLAIM_BATCH_SIZE * assignment.getShare())));
+        } catch (Exception e) {
+            LOG.error("Could not claim due VNPay transactions from poll schedule", e);
+            return;
+        }
+
+        if (dueTransactionIds.isEmpty()) {
+            LOG.debug("VNPay polling cycle: nothing due");
+            return;
+        }
+
+        LOG.info("Claimed {} due VNPay transactions to poll", dueTransactionIds.size());
+        Timer.Sample cycle = Timer.start();
+
+        Instant cutoffTime = Instant.now().minus(POLLING_TIMEOUT_HOURS, ChronoUnit.HOURS);
+        List<CompletableFuture<PollOutcome>> polls = new ArrayList<>(dueTransactionIds.size());
+        for (String transactionId : dueTransactionIds) {
+            polls.add(submitInOrder(transactionId, () -> pollDueTransaction(transactionId, cutoffTime)));
+        }
+
+        try {
+            CompletableFuture.allOf(polls.toArray(new CompletableFuture[0])).get(CYCLE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOG.warn("VNPay polling cycle exceeded {}s; unfinished polls continue in the background", CYCLE_TIMEOUT.toSeconds());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            // individual failures are logged and rescheduled by pollDueTransaction
+        }
+
+        Map<PollOutcome, Long> outcomes = new EnumMap<>(PollOutcome.class);
+        for (CompletableFuture<PollOutcome> poll : polls) {
+            PollOutcome outcome = poll.isDone() && !poll.isCompletedExceptionally() ? poll.join() : PollOutcome.SKIPPED;
+            outcomes.merge(outcome, 1L, Long::sum);
+        }
+        cycle.stop(cycleTimer);
+
+        long processedCount = outcomes.getOrDefault(PollOutcome.SUCCEEDED, 0L)
+            + outcomes.getOrDefault(PollOutcome.FAILED, 0L)
+            + outcomes.getOrDefault(PollOutcome.UPDATED, 0L);
+        if (processedCount > 0) {
+            LOG.info("VNPay polling cycle completed: {} transactions processed, {} succeeded, {} failed",
+                processedCount, outcomes.getOrDefault(PollOutcome.SUCCEEDED, 0L), outcomes.getOrDefault(PollOutcome.FAILED, 0L));
+        } else {
+            LOG.debug("VNPay polling cycle completed: no transactions updated");
+        }
+    }
+
+    /**
+     * Run {@code task} on the poll executor after any earlier task for the same transaction has finished.
+     */
+    private <T> CompletableFuture<T> submitInOrder(String transactionId, Supplier<T> task) {
+        CompletableFuture<T>[] submitted = new CompletableFuture[1];
+        perTransactionTail.compute(transactionId, (id, tail) -> {
+            CompletableFuture<?> previous = tail != null ? tail : CompletableFuture.completedFuture(null);
+            submitted[0] = previous.handle((r, e) -> null).thenApplyAsync(ignored -> task.get(), pollExecutor);
+            return submitted[0];
+        });
+        CompletableFuture<T> future = submitted[0];
+        future.whenComplete((r, e) -> perTransactionTail.remove(transactionId, future));
+        return future;
+    }
+
+    /**
+     * Poll one claimed transaction: wait for a rate-limit token, read the transaction and its booking in a
+     * short read-only transaction, then query VNPay and apply the result with no transaction open, so a
+     * slow gateway never holds a pooled connection.
+     */
+    private PollOutcome pollDueTransaction(String transactionId, Instant cutoffTime) {
+        try {
+            if (!rateLimiter.acquire(RATE_LIMIT_MAX_WAIT)) {
+                LOG.debug("VNPay rate limit reached, deferring transaction {}", transactionId);
+                pollSchedule.reschedule(transactionId, 0);
+                return PollOutcome.SKIPPED;
             }
-            
-            if (processedCount > 0) {
-                LOG.info("VNPay polling cycle completed: {} transactions processed, {} succeeded, {} failed", 
-                    processedCount, successCount, failedCount);
-            } else {
-                LOG.debug("VNPay polling cycle completed: no transactions updated");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return PollOutcome.SKIPPED;
+        }
+
+        try {
+            PollTarget target = readPollTarget(transactionId);
+            PaymentTransaction transaction = target != null ? target.transaction : null;
+
+            if (!isPollable(transaction, cutoffTime)) {
+                LOG.debug("Removing transaction {} from poll schedule - no longer pending", transactionId);
+                pollSchedule.remove(transactionId);
+                return PollOutcome.SKIPPED;
             }
-            
+
+            // Check if the associated booking has expired before polling
+            if (target.bookingExpired) {
+                LOG.info("Skipping polling for transaction {} - associated booking has expired",
+                    transactionId);
+
+                // Mark the transaction as failed since the booking expired
+                markTransactionAsFailedForExpiredBooking(transaction);
+                return PollOutcome.FAILED;
+            }
+
+            return pollAndUpdateTransaction(transaction);
         } catch (Exception e) {
-            LOG.error("Error in VNPay polling cycle", e);
+            LOG.error("Error polling transaction {}: {}", transactionId, e.getMessage(), e);
+            pollSchedule.reschedule(transactionId, 0);
+            return PollOutcome.SKIPPED;
         }
     }
 
     /**
-     * Check if a transaction should be polled based on attempt limits and timing.
+     * Transaction to poll and whether its booking has expired, or {@code null} if it does not exist.
      */
-    private boolean shouldPollTransaction(PaymentTransaction transaction) {
-        String transactionId = transaction.getTransactionId();
-        
-        // Check if we've exceeded max polling attempts
-        Integer attempts = pollingAttempts.getOrDefault(transactionId, 0);
-        if (attempts >= MAX_POLLING_ATTEMPTS) {
-            LOG.debug("Skipping transaction {} - max polling attempts reached", transactionId);
-            return false;
+    private PollTarget readPollTarget(String transactionId) {
+        return transactionTemplate.execute(status -> paymentTransactionRepository
+            .findByTransactionId(transactionId)
+            .map(transaction -> new PollTarget(transaction, isBookingExpired(transaction)))
+            .orElse(null));
+    }
+
+    /**
+     * Query VNPay and feed the response code into the rate limiter.
+     */
+    private VNPayService.VNPayQueryResult queryVNPay(PaymentTransaction transaction) {
+        VNPayService.VNPayQueryResult result = vnPayService.queryTransaction(transaction, POLLING_IP_ADDRESS);
+        if (result != null && BACK_PRESSURE_CODES.contains(result.getResponseCode())) {
+            backPressureCounter.increment();
+            rateLimiter.onBackPressure();
+            LOG.warn("VNPay back-pressure (code {}) - lowering query rate to {}/s",
+                result.getResponseCode(), String.format("%.2f", rateLimiter.getRatePerSecond()));
+        } else {
+            rateLimiter.onSuccess();
         }
-        
-        // Check if we've polled this transaction recently (to avoid rate limiting)
-        Instant lastPoll = lastPollTime.get(transactionId);
-        if (lastPoll != null && lastPoll.isAfter(Instant.now().minus(90, ChronoUnit.SECONDS))) {
-            LOG.debug("Skipping transaction {} - polled recently", transactionId);
-            return false;
+        return result;
+    }
+
+    /**
+     * Seed the poll schedule with pending VNPay transactions that are not in it yet (created before this
+     * node started, or lost with Redis). Existing entries keep their backoff position. Each node seeds the
+     * transactions in its own poll shards.
+     */
+    @Scheduled(initialDelay = 60000, fixedRate = 1800000) // 30 minutes
+    public void seedPollSchedule() {
+        ShardAssignment assignment = shardLeaseManager.assignment(POLL_JOB);
+        if (assignment.isEmpty()) {
+            return;
         }
-        
-        return true;
+        try {
+            Instant cutoffTime = Instant.now().minus(POLLING_TIMEOUT_HOURS, ChronoUnit.HOURS);
+            List<String> pendingIds = paymentTransactionRepository
+                .findTransactionIdsByMethodAndStatusInAndCreatedAtAfter(
+                    PaymentMethod.VNPAY,
+                    List.of(PaymentStatus.INITIATED, PaymentStatus.PROCESSING),
+                    cutoffTime
+                )
+                .stream()
+                .filter(assignment::owns)
+                .collect(Collectors.toList());
+
+            int added = pollSchedule.scheduleAll(pendingIds);
+            if (added > 0) {
+                LOG.info("Seeded VNPay poll schedule with {} pending transactions", added);
+            }
+        } catch (Exception e) {
+            LOG.error("Error seeding VNPay poll schedule", e);
+        }
+    }
+
+    private boolean isPollable(PaymentTransaction transaction, Instant cutoffTime) {
+        return transaction != null
+            && transaction.getMethod() == PaymentMethod.VNPAY
+            && (transaction.getStatus() == PaymentStatus.INITIATED || transaction.getStatus() == PaymentStatus.PROCESSING)
+            && (transaction.getCreatedAt() == null || transaction.getCreatedAt().isAfter(cutoffTime));
     }
 
     /**
-     * Poll a single transaction and update its status if needed.
+     * Poll a single transaction and update its status if needed. Must run outside a database transaction.
      */
-    private boolean pollAndUpdateTransaction(PaymentTransaction transaction) {
+    private PollOutcome pollAndUpdateTransaction(PaymentTransaction transaction) {
         String transactionId = transaction.getTransactionId();
         String orderRef = transaction.getOrderRef();
-        
-        LOG.debug("Polling VNPay transaction: {} for order: {}", transactionId, orderRef);
-        
+
+        // Update polling tracking
+        int attempts = pollSchedule.recordAttempt(transactionId);
+        if (attempts > MAX_POLLING_ATTEMPTS) {
+            LOG.debug("Removing transaction {} from poll schedule - max polling attempts reached", transactionId);
+            pollSchedule.remove(transactionId);
+            return PollOutcome.UNCHANGED;
+        }
+
+        LOG.debug("Polling VNPay transaction: {} for order: {} (attempt {})", transactionId, orderRef, attempts);
+
         try {
-            // Update polling tracking
-            pollingAttempts.put(transactionId, pollingAttempts.getOrDefault(transactionId, 0) + 1);
-            lastPollTime.put(transactionId, Instant.now());
-            
             // Query transaction status from VNPay using PaymentTransaction data
-            VNPayService.VNPayQueryResult queryResult = vnPayService.queryTransaction(
-                transaction, 
-                POLLING_IP_ADDRESS
-            );
-            
+            VNPayService.VNPayQueryResult queryResult = queryVNPay(transaction);
+
             if (queryResult.isSuccess()) {
-                LOG.info("VNPay query successful for transaction {}: status={}, amount={}, code={}", 
+                LOG.info("VNPay query successful for transaction {}: status={}, amount={}, code={}",
                     transactionId, queryResult.getTransactionStatus(), queryResult.getAmount(), queryResult.getResponseCode());
-                
+
                 // Determine the new payment status based on VNPay response
                 PaymentStatus newStatus = determinePaymentStatus(queryResult);
-                
+
                 // Only update if status has changed
                 if (newStatus != transaction.getStatus()) {
-                    LOG.info("Updating transaction {} status from {} to {}", 
+                    LOG.info("Updating transaction {} status from {} to {}",
                         transactionId, transaction.getStatus(), newStatus);
-                    
-           
-                    
-                    // Synthesize webhook event for the status change
-                    synthesizeWebhookEvent(transaction, queryResult);
-                    
-                    // Clean up polling tracking for completed transactions
-                    if (newStatus == PaymentStatus.SUCCESS || newStatus == PaymentStatus.FAILED) {
-                        pollingAttempts.remove(transactionId);
-                        lastPollTime.remove(transactionId);
+
+                    // Apply the status change directly; no synthetic webhook round trip
+                    PaymentOutcome outcome = new PaymentOutcome(transactionId, newStatus, queryResult.getAmount(),
+                        POLLING_SOURCE, queryResult.getResponseCode());
+                    String result = paymentService.applyPaymentOutcome(transaction, outcome);
+                    LOG.info("Polled outcome applied for transaction {}: result={}", transactionId, result);
+
+                    // Stop polling completed transactions
+                    if (newStatus != PaymentStatus.PROCESSING && newStatus != PaymentStatus.INITIATED) {
+                        pollSchedule.remove(transactionId);
+                    } else {
+                        pollSchedule.reschedule(transactionId, attempts);
                     }
-                    
-                    return true;
+
+                    if (newStatus == PaymentStatus.SUCCESS) {
+                        return PollOutcome.SUCCEEDED;
+                    }
+                    return newStatus == PaymentStatus.FAILED ? PollOutcome.FAILED : PollOutcome.UPDATED;
                 } else {
                     LOG.debug("Transaction {} status unchanged: {}", transactionId, newStatus);
-                    
-                    // If this was a duplicate request (code=94) and status is unchanged, 
+
+                    // If this was a duplicate request (code=94) and status is unchanged,
                     // we should back off to avoid repeated duplicate requests
                     if ("94".equals(queryResult.getResponseCode())) {
                         LOG.debug("Duplicate request detected for transaction {}, backing off polling", transactionId);
-                        // Increase the polling attempt count to trigger backoff
-                        pollingAttempts.put(transactionId, MAX_POLLING_ATTEMPTS - 5);
-                        return false;
+                        pollSchedule.reschedule(transactionId, DUPLICATE_REQUEST_BACKOFF);
+                        return PollOutcome.UNCHANGED;
                     }
                 }
             } else {
-                LOG.warn("VNPay query failed for transaction {}: code={}, message={}", 
+                LOG.warn("VNPay query failed for transaction {}: code={}, message={}",
                     transactionId, queryResult.getResponseCode(), queryResult.getMessage());
             }
-            
+
         } catch (Exception e) {
             LOG.error("Error polling VNPay transaction {}: {}", transactionId, e.getMessage(), e);
         }
-        
-        return false;
+
+        pollSchedule.reschedule(transactionId, attempts);
+        return PollOutcome.UNCHANGED;
     }
 
     /**
@@ -240,68 +459,26 @@ public class VNPayPollingService {
         }
     }
 
-    /**
-     * Synthesize a webhook event for the transaction status change.
-     * This mimics what would happen with a real VNPay IPN webhook.
-     */
-    private void synthesizeWebhookEvent(PaymentTransaction transaction, VNPayService.VNPayQueryResult queryResult) {
-        try {
-            LOG.debug("Synthesizing webhook event for transaction {}: status={}", 
-                transaction.getTransactionId(), transaction.getStatus());
-            
-            // Build webhook payload that mimics VNPay IPN format
-            StringBuilder webhookPayload = new StringBuilder();
-            webhookPayload.append("vnp_TxnRef=").append(transaction.getTransactionId());
-            webhookPayload.append("&vnp_OrderInfo=").append("Payment for booking: " + transaction.getOrderRef());
-            webhookPayload.append("&vnp_ResponseCode=").append(queryResult.getResponseCode());
-            webhookPayload.append("&vnp_TransactionStatus=").append(queryResult.getTransactionStatus());
-            
-            if (queryResult.getAmount() != null) {
-                // VNPay returns amount in the smallest currency unit (e.g., VND * 100)
-                long amountInSmallestUnit = queryResult.getAmount().multiply(new java.math.BigDecimal("100")).longValue();
-                webhookPayload.append("&vnp_Amount=").append(amountInSmallestUnit);
-            }
-            
-            if (transaction.getGatewayCreateDate() != null) {
-                webhookPayload.append("&vnp_PayDate=").append(transaction.getGatewayCreateDate());
-            }
-            
-            webhookPayload.append("&vnp_BankCode=VNPAY");
-            webhookPayload.append("&vnp_CardType=ATM");
-            
-            // Generate a synthetic signature (in real scenario this would come from VNPay)
-            String syntheticSignature = "POLLING_SYNTHESIZED_" + System.currentTimeMillis();
-            
-            // Process the synthetic webhook through the existing payment service
-            String result = paymentService.processWebhook("VNPAY", webhookPayload.toString(), syntheticSignature);
-            
-            LOG.info("Synthesized webhook processed for transaction {}: result={}", 
-                transaction.getTransactionId(), result);
-            
-        } catch (Exception e) {
-            LOG.error("Error synthesizing webhook event for transaction {}: {}", 
-                transaction.getTransactionId(), e.getMessage(), e);
-        }
-    }
-
     /**
      * Manual trigger for polling a specific transaction (for testing/admin purposes).
+     * Runs on the poll executor so it is ordered with any scheduled poll of the same transaction.
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean pollSpecificTransaction(String transactionId) {
         LOG.info("Manual polling triggered for transaction: {}", transactionId);
-        
-        return paymentTransactionRepository
-            .findByTransactionIdAndIsDeletedFalseOrIsDeletedIsNull(transactionId)
-            .map(transaction -> {
-                if (transaction.getMethod() == PaymentMethod.VNPAY) {
-                    return pollAndUpdateTransaction(transaction);
-                } else {
-                    LOG.warn("Transaction {} is not a VNPay transaction", transactionId);
-                    return false;
-                }
-            })
-            .orElse(false);
+
+        return submitInOrder(transactionId, () -> {
+            PollTarget target = readPollTarget(transactionId);
+            if (target == null) {
+                return false;
+            }
+            if (target.transaction.getMethod() != PaymentMethod.VNPAY) {
+                LOG.warn("Transaction {} is not a VNPay transaction", transactionId);
+                return false;
+            }
+            PollOutcome outcome = pollAndUpdateTransaction(target.transaction);
+            return outcome != PollOutcome.UNCHANGED && outcome != PollOutcome.SKIPPED;
+        }).join();
     }
 
     /**
@@ -368,7 +545,7 @@ public class VNPayPollingService {
             // This prevents the race condition where payment succeeded but DB was down
             VNPayService.VNPayQueryResult vnPayResult = null;
             try {
-                vnPayResult = vnPayService.queryTransaction(transaction, POLLING_IP_ADDRESS);
+                vnPayResult = queryVNPay(transaction);
                 
                 if (vnPayResult.isSuccess() && "00".equals(vnPayResult.getResponseCode())) {
                     // CRITICAL: Payment actually succeeded at VNPay but booking expired!
@@ -379,8 +556,11 @@ public class VNPayPollingService {
                         vnPayResult.getTransactionStatus());
                     
                     // Mark with special status for manual recovery
-                    transaction.setStatus(PaymentStatus.PAYMENT_SUCCESS_BUT_BOOKING_EXPIRED);
-                    transaction.setUpdatedAt(Instant.now());
+                    if (!statusTransitionService.transition(transaction, PaymentStatus.PAYMENT_SUCCESS_BUT_BOOKING_EXPIRED)) {
+                        LOG.warn("Transaction {} changed concurrently, not marking it PAYMENT_SUCCESS_BUT_BOOKING_EXPIRED",
+                            transaction.getTransactionId());
+                        return;
+                    }
                     
                     String criticalNote = String.format(
                         "🚨 CRITICAL: Payment succeeded (VNPay: %s, Amount: %s) but booking expired on %s. " +
@@ -402,8 +582,7 @@ public class VNPayPollingService {
                     
                     // Clean up polling tracking
                     String transactionId = transaction.getTransactionId();
-                    pollingAttempts.remove(transactionId);
-                    lastPollTime.remove(transactionId);
+                    pollSchedule.remove(transactionId);
                     
                     LOG.error("🚨 CRITICAL: Transaction {} marked as PAYMENT_SUCCESS_BUT_BOOKING_EXPIRED. " +
                         "Manual recovery required to compensate customer!", 
@@ -417,8 +596,9 @@ public class VNPayPollingService {
                 
                 // If we can't reach VNPay, don't mark as failed immediately
                 // Mark for manual review instead
-                transaction.setStatus(PaymentStatus.REQUIRES_MANUAL_REVIEW);
-                transaction.setUpdatedAt(Instant.now());
+                if (!statusTransitionService.transition(transaction, PaymentStatus.REQUIRES_MANUAL_REVIEW)) {
+                    return;
+                }
                 
                 String reviewNote = String.format(
                     "Booking expired but VNPay status could not be verified (Error: %s). " +
@@ -437,8 +617,7 @@ public class VNPayPollingService {
                 
                 // Clean up polling tracking
                 String transactionId = transaction.getTransactionId();
-                pollingAttempts.remove(transactionId);
-                lastPollTime.remove(transactionId);
+                pollSchedule.remove(transactionId);
                 
                 LOG.warn("Transaction {} marked as REQUIRES_MANUAL_REVIEW due to booking expiration " +
                     "and unable to verify VNPay status", transaction.getTransactionId());
@@ -453,8 +632,10 @@ public class VNPayPollingService {
                     transaction.getTransactionId(), vnPayResult.getResponseCode(), vnPayResult.getTransactionStatus());
                 
                 // Update transaction status to FAILED
-                transaction.setStatus(PaymentStatus.FAILED);
-                transaction.setUpdatedAt(Instant.now());
+                if (!statusTransitionService.transition(transaction, PaymentStatus.FAILED)) {
+                    LOG.info("Transaction {} changed concurrently, not marking it failed", transaction.getTransactionId());
+                    return;
+                }
                 
                 // Add a note about the expiration and VNPay confirmation
                 String existingNote = transaction.getGatewayNote();
@@ -475,8 +656,7 @@ public class VNPayPollingService {
                 
                 // Clean up polling tracking
                 String transactionId = transaction.getTransactionId();
-                pollingAttempts.remove(transactionId);
-                lastPollTime.remove(transactionId);
+                pollSchedule.remove(transactionId);
                 
                 LOG.info("Successfully marked transaction {} as failed due to booking expiration " +
                     "(confirmed by VNPay: {}/{})", 
@@ -489,8 +669,9 @@ public class VNPayPollingService {
                 LOG.warn("VNPay query failed for transaction {} - marking for manual review", 
                     transaction.getTransactionId());
                 
-                transaction.setStatus(PaymentStatus.REQUIRES_MANUAL_REVIEW);
-                transaction.setUpdatedAt(Instant.now());
+                if (!statusTransitionService.transition(transaction, PaymentStatus.REQUIRES_MANUAL_REVIEW)) {
+                    return;
+                }
                 
                 String reviewNote = String.format(
                     "Booking expired and VNPay query failed (Response: %s). " +
@@ -509,8 +690,7 @@ public class VNPayPollingService {
                 
                 // Clean up polling tracking
                 String transactionId = transaction.getTransactionId();
-                pollingAttempts.remove(transactionId);
-                lastPollTime.remove(transactionId);
+                pollSchedule.remove(transactionId);
                 
                 LOG.warn("Transaction {} marked as REQUIRES_MANUAL_REVIEW due to booking expiration " +
                     "and VNPay query failure", transaction.getTransactionId());
@@ -522,38 +702,18 @@ public class VNPayPollingService {
             
             // Last resort - mark for manual review
             try {
-                transaction.setStatus(PaymentStatus.REQUIRES_MANUAL_REVIEW);
-                transaction.setUpdatedAt(Instant.now());
+                if (!statusTransitionService.transition(transaction, PaymentStatus.REQUIRES_MANUAL_REVIEW)) {
+                    return;
+                }
                 transaction.setGatewayNote("Processing error during expiration handling - manual review required");
                 paymentTransactionRepository.save(transaction);
                 
                 String transactionId = transaction.getTransactionId();
-                pollingAttempts.remove(transactionId);
-                lastPollTime.remove(transactionId);
+                pollSchedule.remove(transactionId);
             } catch (Exception saveException) {
                 LOG.error("Failed to mark transaction {} for manual review: {}", 
                     transaction.getTransactionId(), saveException.getMessage());
             }
         }
     }
-
-    /**
-     * Clean up old polling tracking data to prevent memory leaks.
-     */
-    @Scheduled(fixedRate = 3600000) // 1 hour
-    public void cleanupPollingTracking() {
-        LOG.debug("Cleaning up old polling tracking data");
-        
-        Instant cutoff = Instant.now().minus(2, ChronoUnit.HOURS);
-        
-        // Remove entries older than 2 hours
-        pollingAttempts.entrySet().removeIf(entry -> {
-            Instant lastPoll = lastPollTime.get(entry.getKey());
-            return lastPoll == null || lastPoll.isBefore(cutoff);
-        });
-        
-        lastPollTime.entrySet().removeIf(entry -> entry.getValue().isBefore(cutoff));
-        
-        LOG.debug("Polling tracking cleanup completed");
-    }
 }
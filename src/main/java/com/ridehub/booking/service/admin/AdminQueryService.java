@@ -0,0 +1,322 @@
+package com.ridehub.booking.service.admin;
+
+import com.ridehub.booking.domain.Booking;
+import com.ridehub.booking.domain.Booking_;
+import com.ridehub.booking.domain.PaymentTransaction;
+import com.ridehub.booking.domain.PaymentTransaction_;
+import com.ridehub.booking.domain.PaymentWebhookLog;
+import com.ridehub.booking.domain.PaymentWebhookLog_;
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import com.ridehub.booking.service.ReplicaRead;
+import com.ridehub.booking.service.archive.ArchiveQueryService;
+import com.ridehub.booking.service.dto.admin.AdminBookingDTO;
+import com.ridehub.booking.service.dto.admin.AdminPaymentTransactionDTO;
+import com.ridehub.booking.service.dto.admin.AdminWebhookLogDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Read side of the admin endpoints: projection queries that select flat admin DTOs with one constructor
+ * expression, joining the related row where the DTO needs its columns.
+ * <p>
+ * No entities are loaded, so nothing is lazily initialized during serialization and the inverse
+ * {@code PaymentTransaction.booking} one-to-one is never fetched row by row: a page costs one select plus one
+ * count, whatever its size. Date ranges reaching past the hot window are answered by {@link ArchiveQueryService}.
+ */
+@Service
+@Transactional(readOnly = true)
+@ReplicaRead
+public class AdminQueryService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdminQueryService.class);
+
+    private final EntityManager em;
+    private final ArchiveQueryService archiveQueryService;
+
+    public AdminQueryService(EntityManager em, ArchiveQueryService archiveQueryService) {
+        this.em = em;
+        this.archiveQueryService = archiveQueryService;
+    }
+
+    public Page<AdminBookingDTO> findBookings(
+        BookingStatus status,
+        UUID customerId,
+        Long tripId,
+        Instant createdFrom,
+        Instant createdTo,
+        Pageable pageable
+    ) {
+        LOG.debug("Admin bookings - status: {}, customerId: {}, tripId: {}, created: [{}, {})", status, customerId, tripId, createdFrom, createdTo);
+        if (archiveQueryService.includesArchive(createdFrom, createdTo)) {
+            return archiveQueryService.findBookings(status, customerId, tripId, createdFrom, createdTo, pageable);
+        }
+
+        Specification<Booking> specification = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (status != null) {
+                predicates.add(cb.equal(root.get(Booking_.status), status));
+            }
+            if (customerId != null) {
+                predicates.add(cb.equal(root.get(Booking_.customerId), customerId));
+            }
+            if (tripId != null) {
+                predicates.add(cb.equal(root.get(Booking_.tripId), tripId));
+            }
+            createdBetween(cb, root.get(Booking_.createdAt), createdFrom, createdTo, predicates);
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+        return findPage(Booking.class, AdminBookingDTO.class, specification, AdminQueryService::bookingColumns, pageable);
+    }
+
+    public Optional<AdminBookingDTO> findBooking(Long id) {
+        LOG.debug("Admin booking : {}", id);
+        Specification<Booking> specification = (root, query, cb) -> cb.equal(root.get(Booking_.id), id);
+        return findOne(Booking.class, AdminBookingDTO.class, specification, AdminQueryService::bookingColumns);
+    }
+
+    public Page<AdminPaymentTransactionDTO> findPaymentTransactions(
+        PaymentStatus status,
+        String orderRef,
+        Long bookingId,
+        Instant createdFrom,
+        Instant createdTo,
+        Pageable pageable
+    ) {
+        LOG.debug(
+            "Admin payment transactions - status: {}, orderRef: {}, bookingId: {}, created: [{}, {})",
+            status,
+            orderRef,
+            bookingId,
+            createdFrom,
+            createdTo
+        );
+        if (archiveQueryService.includesArchive(createdFrom, createdTo)) {
+            return archiveQueryService.findPaymentTransactions(status, orderRef, bookingId, createdFrom, createdTo, pageable);
+        }
+
+        Specification<PaymentTransaction> specification = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (status != null) {
+                predicates.add(cb.equal(root.get(PaymentTransaction_.status), status));
+            }
+            if (orderRef != null && !orderRef.trim().isEmpty()) {
+                predicates.add(cb.like(cb.lower(root.get(PaymentTransaction_.orderRef)), "%" + orderRef.toLowerCase(Locale.ROOT) + "%"));
+            }
+            if (bookingId != null) {
+                // Subquery on the owning side, so the count query needs no join
+                var subquery = query.subquery(Long.class);
+                Root<Booking> booking = subquery.from(Booking.class);
+                subquery
+                    .select(booking.get(Booking_.paymentTransaction).get(PaymentTransaction_.id))
+                    .where(cb.equal(booking.get(Booking_.id), bookingId));
+                predicates.add(root.get(PaymentTransaction_.id).in(subquery));
+            }
+            createdBetween(cb, root.get(PaymentTransaction_.createdAt), createdFrom, createdTo, predicates);
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+        return findPage(PaymentTransaction.class, AdminPaymentTransactionDTO.class, specification, AdminQueryService::paymentColumns, pageable);
+    }
+
+    public Optional<AdminPaymentTransactionDTO> findPaymentTransaction(Long id) {
+        LOG.debug("Admin payment transaction : {}", id);
+        Specification<PaymentTransaction> specification = (root, query, cb) -> cb.equal(root.get(PaymentTransaction_.id), id);
+        return findOne(PaymentTransaction.class, AdminPaymentTransactionDTO.class, specification, AdminQueryService::paymentColumns);
+    }
+
+    /**
+     * Payment transactions in one of {@code statuses}, oldest first, with their booking.
+     */
+    public List<AdminPaymentTransactionDTO> findPaymentTransactionsByStatus(Collection<PaymentStatus> statuses) {
+        LOG.debug("Admin payment transactions in statuses : {}", statuses);
+        Specification<PaymentTransaction> specification = (root, query, cb) -> root.get(PaymentTransaction_.status).in(statuses);
+        return select(
+            PaymentTransaction.class,
+            AdminPaymentTransactionDTO.class,
+            specification,
+            AdminQueryService::paymentColumns,
+            Sort.by(PaymentTransaction_.CREATED_AT, PaymentTransaction_.ID)
+        ).getResultList();
+    }
+
+    public Page<AdminWebhookLogDTO> findWebhookLogs(String provider, String status, Instant createdFrom, Instant createdTo, Pageable pageable) {
+        LOG.debug("Admin webhook logs - provider: {}, status: {}, created: [{}, {})", provider, status, createdFrom, createdTo);
+        if (archiveQueryService.includesArchive(createdFrom, createdTo)) {
+            return archiveQueryService.findWebhookLogs(provider, status, createdFrom, createdTo, pageable);
+        }
+
+        Specification<PaymentWebhookLog> specification = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (provider != null && !provider.trim().isEmpty()) {
+                predicates.add(cb.like(cb.lower(root.get(PaymentWebhookLog_.provider)), "%" + provider.toLowerCase(Locale.ROOT) + "%"));
+            }
+            if (status != null && !status.trim().isEmpty()) {
+                predicates.add(
+                    cb.like(cb.lower(root.get(PaymentWebhookLog_.processingStatus)), "%" + status.toLowerCase(Locale.ROOT) + "%")
+                );
+            }
+            createdBetween(cb, root.get(PaymentWebhookLog_.createdAt), createdFrom, createdTo, predicates);
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+        return findPage(PaymentWebhookLog.class, AdminWebhookLogDTO.class, specification, AdminQueryService::webhookLogColumns, pageable);
+    }
+
+    private static Selection<?>[] bookingColumns(Root<Booking> root) {
+        Join<Booking, PaymentTransaction> payment = root.join(Booking_.paymentTransaction, JoinType.LEFT);
+        return new Selection<?>[] {
+            root.get(Booking_.id),
+            root.get(Booking_.bookingCode),
+            root.get(Booking_.status),
+            root.get(Booking_.quantity),
+            root.get(Booking_.totalAmount),
+            root.get(Booking_.bookedAt),
+            root.get(Booking_.customerId),
+            root.get(Booking_.tripId),
+            root.get(Booking_.lockGroupId),
+            root.get(Booking_.expiresAt),
+            root.get(Booking_.createdAt),
+            root.get(Booking_.updatedAt),
+            root.get(Booking_.invoice).get("id"),
+            payment.get(PaymentTransaction_.id),
+            payment.get(PaymentTransaction_.status),
+            payment.get(PaymentTransaction_.method),
+        };
+    }
+
+    private static Selection<?>[] paymentColumns(Root<PaymentTransaction> root) {
+        Join<PaymentTransaction, Booking> booking = root.join(PaymentTransaction_.booking, JoinType.LEFT);
+        return new Selection<?>[] {
+            root.get(PaymentTransaction_.id),
+            root.get(PaymentTransaction_.transactionId),
+            root.get(PaymentTransaction_.orderRef),
+            root.get(PaymentTransaction_.method),
+            root.get(PaymentTransaction_.status),
+            root.get(PaymentTransaction_.amount),
+            root.get(PaymentTransaction_.time),
+            root.get(PaymentTransaction_.gatewayNote),
+            root.get(PaymentTransaction_.createdAt),
+            root.get(PaymentTransaction_.updatedAt),
+            booking.get(Booking_.id),
+            booking.get(Booking_.bookingCode),
+            booking.get(Booking_.status),
+            booking.get(Booking_.customerId),
+            booking.get(Booking_.totalAmount),
+            booking.get(Booking_.expiresAt),
+        };
+    }
+
+    private static Selection<?>[] webhookLogColumns(Root<PaymentWebhookLog> root) {
+        Join<PaymentWebhookLog, PaymentTransaction> payment = root.join(PaymentWebhookLog_.paymentTransaction, JoinType.LEFT);
+        return new Selection<?>[] {
+            root.get(PaymentWebhookLog_.id),
+            root.get(PaymentWebhookLog_.provider),
+            root.get(PaymentWebhookLog_.payloadHash),
+            root.get(PaymentWebhookLog_.receivedAt),
+            root.get(PaymentWebhookLog_.processingStatus),
+            root.get(PaymentWebhookLog_.createdAt),
+            root.get(PaymentWebhookLog_.updatedAt),
+            payment.get(PaymentTransaction_.id),
+            payment.get(PaymentTransaction_.transactionId),
+            payment.get(PaymentTransaction_.orderRef),
+            payment.get(PaymentTransaction_.status),
+        };
+    }
+
+    private static void createdBetween(
+        CriteriaBuilder cb,
+        Path<Instant> createdAt,
+        Instant createdFrom,
+        Instant createdTo,
+        List<Predicate> predicates
+    ) {
+        if (createdFrom != null) {
+            predicates.add(cb.greaterThanOrEqualTo(createdAt, createdFrom));
+        }
+        if (createdTo != null) {
+            predicates.add(cb.lessThan(createdAt, createdTo));
+        }
+    }
+
+    private <E, D> Page<D> findPage(
+        Class<E> entityType,
+        Class<D> dtoType,
+        Specification<E> specification,
+        Function<Root<E>, Selection<?>[]> columns,
+        Pageable pageable
+    ) {
+        TypedQuery<D> query = select(entityType, dtoType, specification, columns, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(entityType, specification));
+    }
+
+    private <E, D> Optional<D> findOne(
+        Class<E> entityType,
+        Class<D> dtoType,
+        Specification<E> specification,
+        Function<Root<E>, Selection<?>[]> columns
+    ) {
+        return select(entityType, dtoType, specification, columns, Sort.unsorted()).setMaxResults(1).getResultStream().findFirst();
+    }
+
+    private <E, D> TypedQuery<D> select(
+        Class<E> entityType,
+        Class<D> dtoType,
+        Specification<E> specification,
+        Function<Root<E>, Selection<?>[]> columns,
+        Sort sort
+    ) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<D> query = cb.createQuery(dtoType);
+        Root<E> root = query.from(entityType);
+        query.select(cb.construct(dtoType, columns.apply(root)));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return em.createQuery(query);
+    }
+
+    private <E> long count(Class<E> entityType, Specification<E> specification) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<E> root = query.from(entityType);
+        query.select(cb.count(root));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return em.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,57 @@
+package com.ridehub.booking.service.archive;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hot/cold archival configuration properties.
+ */
+@Component
+@ConfigurationProperties(prefix = "archival")
+public class ArchivalConfig {
+
+    /** Run the nightly archival job on this node. */
+    private boolean enabled = true;
+
+    /**
+     * Age in days after which settled bookings and payments move to the archive tables. Admin date-range reads
+     * use the same value to decide whether to include the archive, so it should only ever be lowered.
+     */
+    private int hotDays = 180;
+
+    /** Bookings (or payment transactions) moved per transaction. */
+    private int batchSize = 500;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getHotDays() {
+        return hotDays;
+    }
+
+    public void setHotDays(int hotDays) {
+        this.hotDays = hotDays;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Rows created before this instant may already be archived.
+     */
+    public Instant cutoff(Instant now) {
+        return now.minus(Duration.ofDays(hotDays));
+    }
+}
@@ -0,0 +1,277 @@
+package com.ridehub.booking.service.archive;
+
+import com.ridehub.booking.domain.Booking;
+import com.ridehub.booking.domain.PaymentTransaction;
+import com.ridehub.booking.domain.Ticket;
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import com.ridehub.booking.domain.enumeration.RefundJobStatus;
+import com.ridehub.booking.repository.AppliedPromotionRepository;
+import com.ridehub.booking.repository.BookingRepository;
+import com.ridehub.booking.repository.BookingSeatRepository;
+import com.ridehub.booking.repository.PaymentTransactionRepository;
+import com.ridehub.booking.repository.PaymentWebhookLogRepository;
+import com.ridehub.booking.repository.PricingSnapshotRepository;
+import com.ridehub.booking.repository.TicketRepository;
+import com.ridehub.booking.service.cluster.ShardAssignment;
+import com.ridehub.booking.service.cluster.ShardLeaseManager;
+import com.ridehub.booking.service.count.StatusCounters;
+import com.ridehub.booking.service.ticket.TicketLookupCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves settled bookings and payments older than {@code archival.hot-days} from the hot tables to their
+ * {@code *_archive} copies, so admin lists and scheduler scans work on a small working set.
+ * <p>
+ * A booking moves together with its tickets, seats, applied promotions, pricing snapshots, payment transaction
+ * and that transaction's webhook logs; payment transactions without a booking move with their webhook logs.
+ * Each keyset chunk is one transaction that locks the chunk, copies every row and deletes the hot rows child
+ * first, so a reader sees a booking either hot or archived, never half of it. Invoices, refund jobs and files
+ * stay in the hot tables.
+ * <p>
+ * Bookings with an open refund job or with a ticket that a ticket of another booking was exchanged from or to
+ * are left alone. With several replicas each node archives only the booking-id shards it holds a lease on.
+ */
+@Service
+@Transactional
+public class ArchivalService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ArchivalService.class);
+
+    static final String ARCHIVAL_JOB = "hot-cold-archival";
+    static final int ARCHIVAL_SHARDS = 16;
+
+    /** Booking states that no longer change once the trip is long past. */
+    static final List<String> SETTLED_BOOKING_STATUSES = List.of(
+        BookingStatus.CONFIRMED.name(),
+        BookingStatus.CANCELED.name(),
+        BookingStatus.REFUNDED.name()
+    );
+
+    static final List<String> SETTLED_PAYMENT_STATUSES = List.of(
+        PaymentStatus.SUCCESS.name(),
+        PaymentStatus.FAILED.name(),
+        PaymentStatus.REFUNDED.name()
+    );
+
+    static final List<String> OPEN_REFUND_JOB_STATUSES = List.of(RefundJobStatus.QUEUED.name(), RefundJobStatus.SUBMITTED.name());
+
+    private final BookingRepository bookingRepository;
+    private final TicketRepository ticketRepository;
+    private final BookingSeatRepository bookingSeatRepository;
+    private final AppliedPromotionRepository appliedPromotionRepository;
+    private final PricingSnapshotRepository pricingSnapshotRepository;
+    private final PaymentTransactionRepository paymentTransactionRepository;
+    private final PaymentWebhookLogRepository paymentWebhookLogRepository;
+    private final ShardLeaseManager shardLeaseManager;
+    private final TicketLookupCache ticketLookupCache;
+    private final StatusCounters statusCounters;
+    private final ArchivalConfig config;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Timer runTimer;
+    private final Counter bookingCounter;
+    private final Counter paymentCounter;
+
+    public ArchivalService(
+        BookingRepository bookingRepository,
+        TicketRepository ticketRepository,
+        BookingSeatRepository bookingSeatRepository,
+        AppliedPromotionRepository appliedPromotionRepository,
+        PricingSnapshotRepository pricingSnapshotRepository,
+        PaymentTransactionRepository paymentTransactionRepository,
+        PaymentWebhookLogRepository paymentWebhookLogRepository,
+        ShardLeaseManager shardLeaseManager,
+        TicketLookupCache ticketLookupCache,
+        StatusCounters statusCounters,
+        ArchivalConfig config,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.ticketRepository = ticketRepository;
+        this.bookingSeatRepository = bookingSeatRepository;
+        this.appliedPromotionRepository = appliedPromotionRepository;
+        this.pricingSnapshotRepository = pricingSnapshotRepository;
+        this.paymentTransactionRepository = paymentTransactionRepository;
+        this.paymentWebhookLogRepository = paymentWebhookLogRepository;
+        this.shardLeaseManager = shardLeaseManager;
+        this.shardLeaseManager.register(ARCHIVAL_JOB, ARCHIVAL_SHARDS);
+        this.ticketLookupCache = ticketLookupCache;
+        this.statusCounters = statusCounters;
+        this.config = config;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.runTimer = Timer.builder("archival.run").description("Duration of a hot/cold archival run").register(meterRegistry);
+        this.bookingCounter = Counter.builder("archival.rows")
+            .tag("table", "booking")
+            .description("Rows moved to the archive tables")
+            .register(meterRegistry);
+        this.paymentCounter = Counter.builder("archival.rows")
+            .tag("table", "payment_transaction")
+            .description("Rows moved to the archive tables")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${archival.cron:0 30 3 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void archiveScheduled() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        ShardAssignment assignment = shardLeaseManager.assignment(ARCHIVAL_JOB);
+        if (assignment.isEmpty()) {
+            LOG.debug("No archival shards owned by this node, skipping");
+            return;
+        }
+        archive(assignment);
+    }
+
+    /**
+     * Archive everything that is due now, across all shards regardless of lease ownership.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ArchivalReport archiveNow() {
+        return archive(ShardAssignment.all(ARCHIVAL_SHARDS));
+    }
+
+    private ArchivalReport archive(ShardAssignment assignment) {
+        if (!running.compareAndSet(false, true)) {
+            LOG.info("Archival already running, skipping");
+            return new ArchivalReport(0, 0);
+        }
+        Timer.Sample sample = Timer.start();
+        Instant cutoff = config.cutoff(Instant.now());
+        long bookings = 0;
+        long payments = 0;
+        try {
+            LOG.info("Archiving bookings and payments settled before {} for shards {}", cutoff, assignment);
+            bookings = archiveChunks((afterId, limit) -> archiveBookingChunk(afterId, cutoff, assignment, limit));
+            payments = archiveChunks((afterId, limit) -> archivePaymentChunk(afterId, cutoff, assignment, limit));
+        } catch (Exception e) {
+            LOG.error("Archival run failed", e);
+        } finally {
+            long nanos = sample.stop(runTimer);
+            bookingCounter.increment(bookings);
+            paymentCounter.increment(payments);
+            running.set(false);
+            // Committed chunks are gone from the hot tables even if the run failed half way
+            statusCounters.invalidate(Booking.class);
+            statusCounters.invalidate(Ticket.class);
+            statusCounters.invalidate(PaymentTransaction.class);
+            LOG.info("Archival completed in {}ms. Bookings: {}, payment transactions without booking: {}",
+                TimeUnit.NANOSECONDS.toMillis(nanos), bookings, payments);
+        }
+        return new ArchivalReport(bookings, payments);
+    }
+
+    private long archiveChunks(ChunkArchiver archiver) {
+        int limit = config.getBatchSize();
+        long afterId = 0L;
+        long archived = 0;
+        while (true) {
+            long from = afterId;
+            List<Long> ids = transactionTemplate.execute(status -> archiver.archive(from, limit));
+            if (ids == null || ids.isEmpty()) {
+                return archived;
+            }
+            archived += ids.size();
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < limit) {
+                return archived;
+            }
+        }
+    }
+
+    private List<Long> archiveBookingChunk(long afterId, Instant cutoff, ShardAssignment assignment, int limit) {
+        List<Long> ids = bookingRepository.lockArchivableChunk(afterId, cutoff, SETTLED_BOOKING_STATUSES, SETTLED_PAYMENT_STATUSES,
+            OPEN_REFUND_JOB_STATUSES, assignment.getShardCount(), assignment.getShards(), limit);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        List<Long> paymentIds = bookingRepository.findPaymentTransactionIdsByIds(ids);
+        // archived tickets are no longer found by code, so cached lookups must go with them
+        ticketLookupCache.evictTickets(ticketRepository.findTicketCodesByBookingIds(ids));
+
+        ticketRepository.copyToArchiveByBookingIds(ids);
+        bookingSeatRepository.copyToArchiveByBookingIds(ids);
+        appliedPromotionRepository.copyToArchiveByBookingIds(ids);
+        pricingSnapshotRepository.copyToArchiveByBookingIds(ids);
+        bookingRepository.copyToArchive(ids);
+
+        ticketRepository.clearExchangeLinksByBookingIds(ids);
+        ticketRepository.deleteArchivedByBookingIds(ids);
+        appliedPromotionRepository.deleteArchivedByBookingIds(ids);
+        pricingSnapshotRepository.deleteArchivedByBookingIds(ids);
+        // booking_seat rows go with their booking (ON DELETE CASCADE)
+        bookingRepository.deleteArchived(ids);
+
+        if (!paymentIds.isEmpty()) {
+            movePayments(paymentIds);
+        }
+        return ids;
+    }
+
+    private List<Long> archivePaymentChunk(long afterId, Instant cutoff, ShardAssignment assignment, int limit) {
+        List<Long> ids = paymentTransactionRepository.lockArchivableChunk(afterId, cutoff, SETTLED_PAYMENT_STATUSES,
+            OPEN_REFUND_JOB_STATUSES, assignment.getShardCount(), assignment.getShards(), limit);
+        if (!ids.isEmpty()) {
+            movePayments(ids);
+        }
+        return ids;
+    }
+
+    private void movePayments(List<Long> ids) {
+        paymentWebhookLogRepository.copyToArchiveByPaymentTransactionIds(ids);
+        paymentTransactionRepository.copyToArchive(ids);
+        paymentWebhookLogRepository.deleteArchivedByPaymentTransactionIds(ids);
+        paymentTransactionRepository.deleteArchived(ids);
+    }
+
+    @FunctionalInterface
+    private interface ChunkArchiver {
+        /**
+         * Archive the chunk after {@code afterId} in the current transaction.
+         *
+         * @return ids of the archived rows, ascending
+         */
+        List<Long> archive(long afterId, int limit);
+    }
+
+    /**
+     * Rows moved by an archival run.
+     */
+    public static final class ArchivalReport {
+
+        private final long bookings;
+        private final long paymentTransactions;
+
+        public ArchivalReport(long bookings, long paymentTransactions) {
+            this.bookings = bookings;
+            this.paymentTransactions = paymentTransactions;
+        }
+
+        public long getBookings() {
+            return bookings;
+        }
+
+        public long getPaymentTransactions() {
+            return paymentTransactions;
+        }
+    }
+}
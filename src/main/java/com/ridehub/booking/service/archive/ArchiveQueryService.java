@@ -0,0 +1,442 @@
+package com.ridehub.booking.service.archive;
+
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.domain.enumeration.PaymentMethod;
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import com.ridehub.booking.service.ReplicaRead;
+import com.ridehub.booking.service.dto.admin.AdminBookingDTO;
+import com.ridehub.booking.service.dto.admin.AdminPaymentTransactionDTO;
+import com.ridehub.booking.service.dto.admin.AdminWebhookLogDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Admin list queries over a hot table and its {@code *_archive} copy (see {@link ArchivalService}).
+ * <p>
+ * A page is read in steps: the ids of the page come from a {@code UNION ALL} of both tables, then the columns of
+ * those rows and of their related rows are selected by id from both tables into the same flat admin DTOs the hot
+ * reads return, a fixed number of statements per page. No entities are loaded, so archived rows never reach the
+ * persistence context or the second-level cache. Rows move between the tables in a single transaction, so
+ * within one snapshot a row is in exactly one of them.
+ */
+@Service
+@Transactional(readOnly = true)
+@ReplicaRead
+public class ArchiveQueryService {
+
+    private static final Set<String> BOOKING_SORT = Set.of(
+        "id",
+        "bookingCode",
+        "status",
+        "quantity",
+        "totalAmount",
+        "bookedAt",
+        "tripId",
+        "expiresAt",
+        "createdAt",
+        "updatedAt"
+    );
+    private static final Set<String> PAYMENT_SORT = Set.of(
+        "id",
+        "transactionId",
+        "orderRef",
+        "method",
+        "status",
+        "amount",
+        "time",
+        "createdAt",
+        "updatedAt"
+    );
+    private static final Set<String> WEBHOOK_SORT = Set.of("id", "provider", "receivedAt", "processingStatus", "createdAt", "updatedAt");
+
+    /** Stand-in for a missing related row, so absent columns read as {@code null}. */
+    private static final Object[] NO_ROW = new Object[8];
+
+    private final EntityManager em;
+    private final ArchivalConfig config;
+
+    public ArchiveQueryService(EntityManager em, ArchivalConfig config) {
+        this.em = em;
+        this.config = config;
+    }
+
+    /**
+     * Whether a creation-date range reaches back to rows that may already be archived. Requests without a
+     * range read the hot tables only.
+     */
+    public boolean includesArchive(Instant createdFrom, Instant createdTo) {
+        if (createdFrom == null && createdTo == null) {
+            return false;
+        }
+        return createdFrom == null || createdFrom.isBefore(config.cutoff(Instant.now()));
+    }
+
+    public Page<AdminBookingDTO> findBookings(
+        BookingStatus status,
+        UUID customerId,
+        Long tripId,
+        Instant createdFrom,
+        Instant createdTo,
+        Pageable pageable
+    ) {
+        Conditions conditions = new Conditions(createdFrom, createdTo)
+            .equal("status", status != null ? status.name() : null)
+            .equal("customer_id", customerId != null ? customerId.toString() : null)
+            .equal("trip_id", tripId);
+        return findPage("booking", conditions, pageable, BOOKING_SORT, ids -> {
+            List<Object[]> bookings = select(
+                "booking",
+                "id",
+                ids,
+                column("id", Long.class),
+                column("booking_code", String.class),
+                column("status", String.class),
+                column("quantity", Integer.class),
+                column("total_amount", BigDecimal.class),
+                column("booked_at", Instant.class),
+                column("customer_id", String.class),
+                column("trip_id", Long.class),
+                column("lock_group_id", String.class),
+                column("expires_at", Instant.class),
+                column("created_at", Instant.class),
+                column("updated_at", Instant.class),
+                column("invoice_id", Long.class),
+                column("payment_transaction_id", Long.class)
+            );
+            Map<Long, Object[]> payments = byKey(
+                select(
+                    "payment_transaction",
+                    "id",
+                    keys(bookings, 13),
+                    column("id", Long.class),
+                    column("status", String.class),
+                    column("method", String.class)
+                )
+            );
+            return bookings
+                .stream()
+                .map(row -> {
+                    Object[] payment = payments.getOrDefault((Long) row[13], NO_ROW);
+                    return new AdminBookingDTO(
+                        (Long) row[0],
+                        (String) row[1],
+                        enumValue(BookingStatus.class, row[2]),
+                        (Integer) row[3],
+                        (BigDecimal) row[4],
+                        (Instant) row[5],
+                        row[6] != null ? UUID.fromString((String) row[6]) : null,
+                        (Long) row[7],
+                        (String) row[8],
+                        (Instant) row[9],
+                        (Instant) row[10],
+                        (Instant) row[11],
+                        (Long) row[12],
+                        (Long) row[13],
+                        enumValue(PaymentStatus.class, payment[1]),
+                        enumValue(PaymentMethod.class, payment[2])
+                    );
+                })
+                .toList();
+        }, AdminBookingDTO::getId);
+    }
+
+    public Page<AdminPaymentTransactionDTO> findPaymentTransactions(
+        PaymentStatus status,
+        String orderRef,
+        Long bookingId,
+        Instant createdFrom,
+        Instant createdTo,
+        Pageable pageable
+    ) {
+        Conditions conditions = new Conditions(createdFrom, createdTo)
+            .equal("status", status != null ? status.name() : null)
+            .containsIgnoreCase("order_ref", orderRef);
+        if (bookingId != null) {
+            conditions.add(
+                "id IN (SELECT payment_transaction_id FROM booking WHERE id = :bookingId " +
+                "UNION ALL SELECT payment_transaction_id FROM booking_archive WHERE id = :bookingId)",
+                "bookingId",
+                bookingId
+            );
+        }
+        return findPage("payment_transaction", conditions, pageable, PAYMENT_SORT, ids -> {
+            List<Object[]> payments = select(
+                "payment_transaction",
+                "id",
+                ids,
+                column("id", Long.class),
+                column("transaction_id", String.class),
+                column("order_ref", String.class),
+                column("method", String.class),
+                column("status", String.class),
+                column("amount", BigDecimal.class),
+                column("time", Instant.class),
+                column("gateway_note", String.class),
+                column("created_at", Instant.class),
+                column("updated_at", Instant.class)
+            );
+            // Keyed by payment transaction: booking.payment_transaction_id is unique
+            Map<Long, Object[]> bookings = byKey(
+                select(
+                    "booking",
+                    "payment_transaction_id",
+                    ids,
+                    column("payment_transaction_id", Long.class),
+                    column("id", Long.class),
+                    column("booking_code", String.class),
+                    column("status", String.class),
+                    column("customer_id", String.class),
+                    column("total_amount", BigDecimal.class),
+                    column("expires_at", Instant.class)
+                )
+            );
+            return payments
+                .stream()
+                .map(row -> {
+                    Object[] booking = bookings.getOrDefault((Long) row[0], NO_ROW);
+                    return new AdminPaymentTransactionDTO(
+                        (Long) row[0],
+                        (String) row[1],
+                        (String) row[2],
+                        enumValue(PaymentMethod.class, row[3]),
+                        enumValue(PaymentStatus.class, row[4]),
+                        (BigDecimal) row[5],
+                        (Instant) row[6],
+                        (String) row[7],
+                        (Instant) row[8],
+                        (Instant) row[9],
+                        (Long) booking[1],
+                        (String) booking[2],
+                        enumValue(BookingStatus.class, booking[3]),
+                        booking[4] != null ? UUID.fromString((String) booking[4]) : null,
+                        (BigDecimal) booking[5],
+                        (Instant) booking[6]
+                    );
+                })
+                .toList();
+        }, AdminPaymentTransactionDTO::getId);
+    }
+
+    public Page<AdminWebhookLogDTO> findWebhookLogs(String provider, String status, Instant createdFrom, Instant createdTo, Pageable pageable) {
+        Conditions conditions = new Conditions(createdFrom, createdTo)
+            .containsIgnoreCase("provider", provider)
+            .containsIgnoreCase("processing_status", status);
+        return findPage("payment_webhook_log", conditions, pageable, WEBHOOK_SORT, ids -> {
+            List<Object[]> logs = select(
+                "payment_webhook_log",
+                "id",
+                ids,
+                column("id", Long.class),
+                column("provider", String.class),
+                column("payload_hash", String.class),
+                column("received_at", Instant.class),
+                column("processing_status", String.class),
+                column("created_at", Instant.class),
+                column("updated_at", Instant.class),
+                column("payment_transaction_id", Long.class)
+            );
+            Map<Long, Object[]> payments = byKey(
+                select(
+                    "payment_transaction",
+                    "id",
+                    keys(logs, 7),
+                    column("id", Long.class),
+                    column("transaction_id", String.class),
+                    column("order_ref", String.class),
+                    column("status", String.class)
+                )
+            );
+            return logs
+                .stream()
+                .map(row -> {
+                    Object[] payment = payments.getOrDefault((Long) row[7], NO_ROW);
+                    return new AdminWebhookLogDTO(
+                        (Long) row[0],
+                        (String) row[1],
+                        (String) row[2],
+                        (Instant) row[3],
+                        (String) row[4],
+                        (Instant) row[5],
+                        (Instant) row[6],
+                        (Long) row[7],
+                        (String) payment[1],
+                        (String) payment[2],
+                        enumValue(PaymentStatus.class, payment[3])
+                    );
+                })
+                .toList();
+        }, AdminWebhookLogDTO::getId);
+    }
+
+    /**
+     * Page through the union of {@code table} and its archive: count, then the ids of the page, then the rows of
+     * those ids through {@code rows}, returned in page order.
+     */
+    private <T> Page<T> findPage(
+        String table,
+        Conditions conditions,
+        Pageable pageable,
+        Set<String> sortable,
+        Function<List<Long>, List<T>> rows,
+        Function<T, Long> idOf
+    ) {
+        String where = conditions.where();
+        String union = "SELECT * FROM " + table + where + " UNION ALL SELECT * FROM " + table + "_archive" + where;
+
+        Query count = em.createNativeQuery("SELECT COUNT(*) FROM (" + union + ") x");
+        conditions.bind(count);
+        long total = ((Number) count.getSingleResult()).longValue();
+        if (total == 0) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+
+        Query page = em.createNativeQuery("SELECT x.id FROM (" + union + ") x ORDER BY " + orderBy(pageable.getSort(), sortable));
+        conditions.bind(page);
+        if (pageable.isPaged()) {
+            page.setFirstResult((int) pageable.getOffset());
+            page.setMaxResults(pageable.getPageSize());
+        }
+        List<Long> ids = ((List<?>) page.getResultList()).stream().map(id -> ((Number) id).longValue()).toList();
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+
+        Map<Long, T> byId = rows.apply(ids).stream().collect(Collectors.toMap(idOf, row -> row, (a, b) -> a));
+        List<T> content = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Typed columns of the rows of {@code table} and its archive whose {@code keyColumn} is one of {@code keys}.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Object[]> select(String table, String keyColumn, Collection<Long> keys, Column... columns) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        String select = Arrays.stream(columns).map(Column::name).collect(Collectors.joining(", ", "SELECT ", " FROM "));
+        NativeQuery<Object[]> query = em
+            .createNativeQuery(
+                select + table + " WHERE " + keyColumn + " IN :keys UNION ALL " + select + table + "_archive WHERE " + keyColumn + " IN :keys"
+            )
+            .unwrap(NativeQuery.class);
+        for (Column column : columns) {
+            query.addScalar(column.name(), column.type());
+        }
+        query.setParameter("keys", keys);
+        return query.getResultList();
+    }
+
+    private static Column column(String name, Class<?> type) {
+        return new Column(name, type);
+    }
+
+    private static List<Long> keys(List<Object[]> rows, int index) {
+        return rows.stream().map(row -> (Long) row[index]).filter(Objects::nonNull).distinct().toList();
+    }
+
+    /**
+     * Rows keyed by their first column.
+     */
+    private static Map<Long, Object[]> byKey(List<Object[]> rows) {
+        return rows.stream().collect(Collectors.toMap(row -> (Long) row[0], row -> row, (a, b) -> a));
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, Object value) {
+        return value != null ? Enum.valueOf(type, (String) value) : null;
+    }
+
+    private record Column(String name, Class<?> type) {}
+
+    /**
+     * ORDER BY for the requested sort; properties that are not sortable columns are ignored, and id breaks
+     * ties so pages are stable. Without a sort the newest rows come first.
+     */
+    static String orderBy(Sort sort, Set<String> sortable) {
+        List<String> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (sortable.contains(order.getProperty()) && !"id".equals(order.getProperty())) {
+                orders.add("x." + column(order.getProperty()) + (order.isAscending() ? " ASC" : " DESC"));
+            }
+        }
+        Sort.Order idOrder = sort.getOrderFor("id");
+        if (orders.isEmpty() && idOrder == null) {
+            orders.add("x.created_at DESC");
+        }
+        orders.add("x.id" + (idOrder != null && idOrder.isAscending() ? " ASC" : " DESC"));
+        return String.join(", ", orders);
+    }
+
+    static String column(String property) {
+        return property.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * WHERE clause shared by the hot and the archive half of a union; named parameters are bound once for both.
+     */
+    private static final class Conditions {
+
+        private final List<String> clauses = new ArrayList<>();
+        private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+        Conditions(Instant createdFrom, Instant createdTo) {
+            clauses.add("is_deleted = false");
+            if (createdFrom != null) {
+                add("created_at >= :createdFrom", "createdFrom", createdFrom);
+            }
+            if (createdTo != null) {
+                add("created_at < :createdTo", "createdTo", createdTo);
+            }
+        }
+
+        Conditions equal(String column, Object value) {
+            if (value != null) {
+                String name = "p" + parameters.size();
+                add(column + " = :" + name, name, value);
+            }
+            return this;
+        }
+
+        Conditions containsIgnoreCase(String column, String value) {
+            if (value != null && !value.trim().isEmpty()) {
+                String name = "p" + parameters.size();
+                add("LOWER(" + column + ") LIKE :" + name, name, "%" + value.toLowerCase(Locale.ROOT) + "%");
+            }
+            return this;
+        }
+
+        void add(String clause, String name, Object value) {
+            clauses.add(clause);
+            parameters.put(name, value);
+        }
+
+        String where() {
+            return " WHERE " + String.join(" AND ", clauses);
+        }
+
+        void bind(Query query) {
+            parameters.forEach(query::setParameter);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.ridehub.booking.service.cluster;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shard-lease configuration for scheduled jobs shared by all replicas.
+ */
+@Component
+@ConfigurationProperties(prefix = "cluster-scheduling")
+public class ClusterSchedulingConfig {
+
+    /** How often a node renews its heartbeat and shard leases. */
+    private long heartbeatMillis = 5_000;
+
+    /** Lifetime of a heartbeat or shard lease; a node that stops renewing loses its shards after this. */
+    private long leaseMillis = 15_000;
+
+    public long getHeartbeatMillis() {
+        return heartbeatMillis;
+    }
+
+    public void setHeartbeatMillis(long heartbeatMillis) {
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    public long getLeaseMillis() {
+        return leaseMillis;
+    }
+
+    public void setLeaseMillis(long leaseMillis) {
+        this.leaseMillis = leaseMillis;
+    }
+}
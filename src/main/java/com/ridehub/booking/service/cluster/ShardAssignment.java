@@ -0,0 +1,79 @@
+package com.ridehub.booking.service.cluster;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The shards of one job currently owned by this node. Work items are mapped to shards by
+ * {@code floorMod(key, shardCount)}, the same function as {@code MOD(id, :shardCount)} in queries.
+ */
+public final class ShardAssignment {
+
+    private final int shardCount;
+    private final Set<Integer> shards;
+
+    ShardAssignment(int shardCount, Set<Integer> shards) {
+        this.shardCount = shardCount;
+        this.shards = Collections.unmodifiableSet(new TreeSet<>(shards));
+    }
+
+    /**
+     * Every shard, for work that must cover the whole keyspace (e.g. a manual run).
+     */
+    public static ShardAssignment all(int shardCount) {
+        Set<Integer> shards = new TreeSet<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards.add(shard);
+        }
+        return new ShardAssignment(shardCount, shards);
+    }
+
+    public static int shardOf(long key, int shardCount) {
+        return (int) Math.floorMod(key, (long) shardCount);
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Owned shard numbers, for {@code MOD(id, :shardCount) IN :shards} filters.
+     */
+    public List<Integer> getShards() {
+        return new ArrayList<>(shards);
+    }
+
+    public boolean ownsShard(int shard) {
+        return shards.contains(shard);
+    }
+
+    public boolean owns(long key) {
+        return shards.contains(shardOf(key, shardCount));
+    }
+
+    /**
+     * Owner of string keys such as gateway transaction ids.
+     */
+    public boolean owns(String key) {
+        return owns(key.hashCode());
+    }
+
+    public boolean isEmpty() {
+        return shards.isEmpty();
+    }
+
+    /**
+     * Owned fraction of the keyspace, used to split cluster-wide budgets such as gateway rate limits.
+     */
+    public double getShare() {
+        return shardCount == 0 ? 0 : (double) shards.size() / shardCount;
+    }
+
+    @Override
+    public String toString() {
+        return shards + "/" + shardCount;
+    }
+}
@@ -0,0 +1,251 @@
+package com.ridehub.booking.service.cluster;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+/**
+ * Redis-backed shard ownership for scheduled jobs that every replica runs.
+ * <p>
+ * Each job registers a fixed number of hash shards. Live nodes heartbeat into {@code cluster:nodes}; on every
+ * heartbeat a node renews the leases ({@code cluster:lease:{job}:n}) it holds, gives up any above its fair
+ * share of {@code ceil(shards / liveNodes)} and takes free ones up to it. A node that dies stops renewing and
+ * its shards are picked up by the others within one lease. Jobs then only touch the work items in their
+ * owned shards, so adding replicas splits scheduled work instead of repeating it.
+ * <p>
+ * When the leases cannot be renewed (e.g. Redis is unreachable) a node keeps its shards only until they
+ * would have expired, so two nodes never believe they own the same shard for longer than one lease.
+ * <p>
+ * The heartbeat runs on its own thread rather than the shared scheduling pool: the jobs it guards can hold
+ * every pool thread for longer than a lease, and a renewal queued behind them would let the leases lapse.
+ */
+@Service
+public class ShardLeaseManager {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ShardLeaseManager.class);
+
+    static final String NODES_KEY = "cluster:nodes";
+    private static final String LEASE_KEY_PREFIX = "cluster:lease:";
+
+    /**
+     * KEYS = shard leases of one job, ARGV[1] = node id, ARGV[2] = lease millis, ARGV[3] = target shard
+     * count, ARGV[4] = scan offset. Renews own leases up to the target, releases the rest, then takes free
+     * leases until the target is reached. Returns the owned shard numbers.
+     */
+    private static final DefaultRedisScript<List> REBALANCE_SCRIPT = new DefaultRedisScript<>(
+        "local node, ttl, target, start = ARGV[1], ARGV[2], tonumber(ARGV[3]), tonumber(ARGV[4]) " +
+        "local n = #KEYS " +
+        "local owned = {} " +
+        "for i = 1, n do " +
+        "  if redis.call('GET', KEYS[i]) == node then " +
+        "    if #owned < target then redis.call('PEXPIRE', KEYS[i], ttl) table.insert(owned, i - 1) " +
+        "    else redis.call('DEL', KEYS[i]) end " +
+        "  end " +
+        "end " +
+        "for j = 0, n - 1 do " +
+        "  if #owned >= target then break end " +
+        "  local i = ((start + j) % n) + 1 " +
+        "  if redis.call('SET', KEYS[i], node, 'NX', 'PX', ttl) then table.insert(owned, i - 1) end " +
+        "end " +
+        "return owned",
+        List.class
+    );
+
+    private final StringRedisTemplate redis;
+    private final ClusterSchedulingConfig config;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+
+    private final Map<String, Integer> shardCounts = new ConcurrentHashMap<>();
+    private final Map<String, Owned> owned = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService heartbeatExecutor;
+
+    public ShardLeaseManager(StringRedisTemplate redis, ClusterSchedulingConfig config, MeterRegistry meterRegistry) {
+        this.redis = redis;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.nodeId = resolveHostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "shard-lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Declare a sharded job. Until the first heartbeat after registration the node owns none of its shards.
+     */
+    public void register(String job, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be positive");
+        }
+        if (shardCounts.putIfAbsent(job, shardCount) == null) {
+            Gauge.builder("cluster.shards.owned", () -> assignment(job).getShards().size())
+                .tag("job", job)
+                .description("Shards of a scheduled job owned by this node")
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Shards of {@code job} this node currently owns; empty if the job is unknown or the leases lapsed.
+     */
+    public ShardAssignment assignment(String job) {
+        Integer shardCount = shardCounts.get(job);
+        if (shardCount == null) {
+            return new ShardAssignment(0, Set.of());
+        }
+        Owned current = owned.get(job);
+        if (current == null || current.validUntil < System.currentTimeMillis()) {
+            return new ShardAssignment(shardCount, Set.of());
+        }
+        return current.assignment;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        start();
+    }
+
+    /**
+     * Heartbeat now and then every {@code heartbeat-millis} on the dedicated heartbeat thread.
+     */
+    void start() {
+        heartbeatExecutor.scheduleWithFixedDelay(
+            () -> {
+                try {
+                    heartbeat();
+                } catch (Exception e) {
+                    // An escaping exception would cancel every later heartbeat
+                    LOG.warn("Cluster heartbeat of node {} failed: {}", nodeId, e.getMessage());
+                }
+            },
+            0,
+            config.getHeartbeatMillis(),
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Announce this node and rebalance the shard leases of every registered job.
+     */
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        long validUntil = now + config.getLeaseMillis();
+        int liveNodes;
+        try {
+            redis.opsForZSet().add(NODES_KEY, nodeId, now);
+            redis.opsForZSet().removeRangeByScore(NODES_KEY, Double.NEGATIVE_INFINITY, now - config.getLeaseMillis());
+            Long count = redis.opsForZSet().zCard(NODES_KEY);
+            liveNodes = count != null && count > 0 ? count.intValue() : 1;
+        } catch (Exception e) {
+            LOG.warn("Cluster heartbeat failed; keeping current shards until their leases lapse: {}", e.getMessage());
+            return;
+        }
+
+        for (Map.Entry<String, Integer> job : shardCounts.entrySet()) {
+            try {
+                rebalance(job.getKey(), job.getValue(), liveNodes, validUntil);
+            } catch (Exception e) {
+                LOG.warn("Could not rebalance shards of job {}: {}", job.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rebalance(String job, int shardCount, int liveNodes, long validUntil) {
+        List<String> keys = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            // Hash tag keeps all leases of a job in one cluster slot for the script
+            keys.add(LEASE_KEY_PREFIX + "{" + job + "}:" + shard);
+        }
+        int target = (shardCount + liveNodes - 1) / liveNodes;
+        int offset = Math.floorMod(nodeId.hashCode(), shardCount);
+        List<Long> shards = redis.execute(
+            REBALANCE_SCRIPT,
+            keys,
+            nodeId,
+            String.valueOf(config.getLeaseMillis()),
+            String.valueOf(target),
+            String.valueOf(offset)
+        );
+
+        Set<Integer> mine = new HashSet<>();
+        if (shards != null) {
+            for (Long shard : shards) {
+                mine.add(shard.intValue());
+            }
+        }
+        ShardAssignment assignment = new ShardAssignment(shardCount, mine);
+        Owned previous = owned.put(job, new Owned(assignment, validUntil));
+        if (previous == null || !previous.assignment.getShards().equals(assignment.getShards())) {
+            LOG.info("Node {} owns shards {} of job {} ({} live nodes)", nodeId, assignment, job, liveNodes);
+        }
+    }
+
+    /**
+     * Hand this node's shards back on shutdown so the other nodes take them over at their next heartbeat
+     * instead of waiting for the leases to expire.
+     */
+    @PreDestroy
+    public void release() {
+        // Stop heartbeating first so no renewal takes the leases back after they are handed over
+        heartbeatExecutor.shutdownNow();
+        owned.clear();
+        try {
+            for (Map.Entry<String, Integer> job : shardCounts.entrySet()) {
+                for (int shard = 0; shard < job.getValue(); shard++) {
+                    String key = LEASE_KEY_PREFIX + "{" + job.getKey() + "}:" + shard;
+                    if (nodeId.equals(redis.opsForValue().get(key))) {
+                        redis.delete(key);
+                    }
+                }
+            }
+            redis.opsForZSet().remove(NODES_KEY, nodeId);
+        } catch (Exception e) {
+            LOG.warn("Could not release shard leases of node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+
+    private static final class Owned {
+
+        private final ShardAssignment assignment;
+        private final long validUntil;
+
+        private Owned(ShardAssignment assignment, long validUntil) {
+            this.assignment = assignment;
+            this.validUntil = validUntil;
+        }
+    }
+}
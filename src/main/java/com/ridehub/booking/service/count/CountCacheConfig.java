@@ -0,0 +1,72 @@
+package com.ridehub.booking.service.count;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Count cache configuration properties (see {@link CountService}).
+ */
+@Component
+@ConfigurationProperties(prefix = "count-cache")
+public class CountCacheConfig {
+
+    /** Answer counts from the status counters and the count cache; when off every count hits the database. */
+    private boolean enabled = true;
+
+    /** How long an exact count by criteria is reused on this node. */
+    private int exactTtlSeconds = 10;
+
+    /** How long a table statistics estimate ({@code approximate=true}) is reused on this node. */
+    private int approximateTtlSeconds = 300;
+
+    /**
+     * Lifetime of the per-status counters in Redis. Counters are rebuilt from the database when they expire,
+     * which also drops any drift from changes made outside the application.
+     */
+    private int counterTtlSeconds = 900;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getExactTtlSeconds() {
+        return exactTtlSeconds;
+    }
+
+    public void setExactTtlSeconds(int exactTtlSeconds) {
+        this.exactTtlSeconds = exactTtlSeconds;
+    }
+
+    public int getApproximateTtlSeconds() {
+        return approximateTtlSeconds;
+    }
+
+    public void setApproximateTtlSeconds(int approximateTtlSeconds) {
+        this.approximateTtlSeconds = approximateTtlSeconds;
+    }
+
+    public int getCounterTtlSeconds() {
+        return counterTtlSeconds;
+    }
+
+    public void setCounterTtlSeconds(int counterTtlSeconds) {
+        this.counterTtlSeconds = counterTtlSeconds;
+    }
+
+    public Duration exactTtl() {
+        return Duration.ofSeconds(exactTtlSeconds);
+    }
+
+    public Duration approximateTtl() {
+        return Duration.ofSeconds(approximateTtlSeconds);
+    }
+
+    public Duration counterTtl() {
+        return Duration.ofSeconds(counterTtlSeconds);
+    }
+}
@@ -0,0 +1,211 @@
+package com.ridehub.booking.service.count;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ridehub.booking.service.ReplicaRead;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Table;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.Filter;
+
+/**
+ * Answers {@code /count} requests and the totals of paged lists without a {@code COUNT(*)} per request.
+ * <p>
+ * Criteria that filter on nothing but status are answered from the {@link StatusCounters} of bookings,
+ * tickets and payment transactions. Any other criteria get an exact count that this node reuses for
+ * {@code count-cache.exact-ttl-seconds}, so a dashboard polling a count or a user paging through a list costs
+ * one query per interval. With {@code approximate} set, unfiltered counts of the other tables come from the
+ * InnoDB table statistics, which are free but can be off by a large margin and only refresh every
+ * {@code information_schema_stats_expiry}.
+ */
+@Service
+@Transactional(readOnly = true)
+@ReplicaRead
+public class CountService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CountService.class);
+
+    private static final int MAX_CACHED_COUNTS = 10_000;
+
+    private final StatusCounters statusCounters;
+    private final CountCacheConfig config;
+    private final EntityManager entityManager;
+
+    private final Cache<CountKey, Long> exactCounts;
+    private final Cache<Class<?>, Long> estimates;
+    /** Criteria without any filter, per criteria class. */
+    private final ConcurrentMap<Class<?>, Criteria> unfiltered = new ConcurrentHashMap<>();
+
+    private final Counter fromCounters;
+    private final Counter fromCache;
+    private final Counter fromStatistics;
+    private final Counter fromQuery;
+
+    public CountService(StatusCounters statusCounters, CountCacheConfig config, EntityManager entityManager, MeterRegistry meterRegistry) {
+        this.statusCounters = statusCounters;
+        this.config = config;
+        this.entityManager = entityManager;
+        this.exactCounts = Caffeine.newBuilder().maximumSize(MAX_CACHED_COUNTS).expireAfterWrite(config.exactTtl()).build();
+        this.estimates = Caffeine.newBuilder().expireAfterWrite(config.approximateTtl()).build();
+
+        this.fromCounters = counter(meterRegistry, "counters");
+        this.fromCache = counter(meterRegistry, "cache");
+        this.fromStatistics = counter(meterRegistry, "statistics");
+        this.fromQuery = counter(meterRegistry, "query");
+    }
+
+    /**
+     * Count the entities matching {@code criteria}.
+     *
+     * @param entityType the counted entity.
+     * @param criteria the filters, {@code null} for none; must not be changed afterwards.
+     * @param approximate whether an estimate is good enough.
+     * @param exact runs the count query.
+     * @return the count.
+     */
+    public long count(Class<?> entityType, Criteria criteria, boolean approximate, LongSupplier exact) {
+        if (!config.isEnabled()) {
+            return exact.getAsLong();
+        }
+        if (approximate && isUnfiltered(criteria)) {
+            OptionalLong estimate = estimate(entityType);
+            if (estimate.isPresent()) {
+                fromStatistics.increment();
+                return estimate.getAsLong();
+            }
+        }
+        CountKey key = new CountKey(entityType, criteria == null ? null : criteria.copy());
+        Long cached = exactCounts.getIfPresent(key);
+        if (cached != null) {
+            fromCache.increment();
+            return cached;
+        }
+        long count = exact.getAsLong();
+        exactCounts.put(key, count);
+        fromQuery.increment();
+        return count;
+    }
+
+    /**
+     * Count the entities matching {@code criteria}, which filter on nothing but {@code status}.
+     *
+     * @param entityType the counted entity.
+     * @param criteria the filters, {@code null} for none; must not be changed afterwards.
+     * @param status the status filter of {@code criteria}, {@code null} for none.
+     * @param approximate whether an estimate is good enough.
+     * @param exact runs the count query.
+     * @return the count.
+     */
+    public long countByStatus(
+        Class<?> entityType,
+        Criteria criteria,
+        Filter<? extends Enum<?>> status,
+        boolean approximate,
+        LongSupplier exact
+    ) {
+        if (config.isEnabled()) {
+            Optional<Map<String, Long>> counts = statusCounters.counts(entityType);
+            if (counts.isPresent()) {
+                fromCounters.increment();
+                return matching(counts.get(), status);
+            }
+        }
+        return count(entityType, criteria, approximate, exact);
+    }
+
+    /**
+     * Sum of the counts whose status passes {@code filter}.
+     */
+    static long matching(Map<String, Long> counts, Filter<? extends Enum<?>> filter) {
+        long total = 0;
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            String status = StatusCounters.NO_STATUS.equals(entry.getKey()) ? null : entry.getKey();
+            if (matches(filter, status)) {
+                total += entry.getValue();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Whether a row with {@code status} passes {@code filter}, the way {@code QueryService.buildSpecification}
+     * builds it: {@code equals}, else {@code in}, decide alone; otherwise {@code specified}, {@code notEquals} and
+     * {@code notIn} must all hold. Like in SQL, a missing status never equals or differs from a value.
+     */
+    static boolean matches(Filter<? extends Enum<?>> filter, String status) {
+        if (filter == null) {
+            return true;
+        }
+        if (filter.getEquals() != null) {
+            return status != null && filter.getEquals().name().equals(status);
+        }
+        if (filter.getIn() != null) {
+            return status != null && names(filter.getIn()).contains(status);
+        }
+        if (filter.getSpecified() != null && filter.getSpecified() != (status != null)) {
+            return false;
+        }
+        if (filter.getNotEquals() != null && (status == null || filter.getNotEquals().name().equals(status))) {
+            return false;
+        }
+        if (filter.getNotIn() != null && (status == null || names(filter.getNotIn()).contains(status))) {
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isUnfiltered(Criteria criteria) {
+        if (criteria == null) {
+            return true;
+        }
+        return criteria.equals(unfiltered.computeIfAbsent(criteria.getClass(), type -> (Criteria) BeanUtils.instantiateClass(type)));
+    }
+
+    private OptionalLong estimate(Class<?> entityType) {
+        Long cached = estimates.getIfPresent(entityType);
+        if (cached != null) {
+            return OptionalLong.of(cached);
+        }
+        Table table = entityType.getAnnotation(Table.class);
+        if (table == null) {
+            return OptionalLong.empty();
+        }
+        List<?> rows = entityManager
+            .createNativeQuery("SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = :table")
+            .setParameter("table", table.name())
+            .getResultList();
+        if (rows.isEmpty() || !(rows.get(0) instanceof Number estimate)) {
+            LOG.debug("No table statistics for {}", table.name());
+            return OptionalLong.empty();
+        }
+        estimates.put(entityType, estimate.longValue());
+        return OptionalLong.of(estimate.longValue());
+    }
+
+    private static List<String> names(List<? extends Enum<?>> statuses) {
+        return statuses.stream().map(Enum::name).toList();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("count.requests")
+            .tag("source", source)
+            .description("Counts by where they were answered from")
+            .register(meterRegistry);
+    }
+
+    private record CountKey(Class<?> entityType, Criteria criteria) {}
+}
@@ -0,0 +1,116 @@
+package com.ridehub.booking.service.count;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.HashMap;
+import java.util.Map;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the {@link StatusCounters} for every committed insert, update and delete of a counted entity that goes
+ * through the persistence context. JPQL and native bulk statements bypass Hibernate events; their callers move
+ * or drop the counters themselves.
+ * <p>
+ * Soft-deleted rows are not counted, like in the rebuild and exact counts that run under the {@code notDeleted}
+ * filter: setting {@code isDeleted} takes the row off its status, clearing it puts the row back.
+ */
+@Component
+public class StatusCountListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final String STATUS = "status";
+    private static final String DELETED = "isDeleted";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final StatusCounters statusCounters;
+
+    public StatusCountListener(EntityManagerFactory entityManagerFactory, StatusCounters statusCounters) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.statusCounters = statusCounters;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return statusCounters.isCounted(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (!isDeleted(persister, event.getState())) {
+            statusCounters.apply(persister.getMappedClass(), Map.of(status(persister, event.getState()), 1L));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (event.getOldState() == null) {
+            // Updated without being read first: the previous status is unknown
+            statusCounters.drop(persister.getMappedClass());
+            return;
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        if (!isDeleted(persister, event.getOldState())) {
+            deltas.merge(status(persister, event.getOldState()), -1L, Long::sum);
+        }
+        if (!isDeleted(persister, event.getState())) {
+            deltas.merge(status(persister, event.getState()), 1L, Long::sum);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (!deltas.isEmpty()) {
+            statusCounters.apply(persister.getMappedClass(), deltas);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (!isDeleted(persister, event.getDeletedState())) {
+            statusCounters.apply(persister.getMappedClass(), Map.of(status(persister, event.getDeletedState()), -1L));
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // rolled back, nothing to count
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // rolled back, nothing to count
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // rolled back, nothing to count
+    }
+
+    private static String status(EntityPersister persister, Object[] state) {
+        return StatusCounters.field((Enum<?>) state[persister.findAttributeMapping(STATUS).getStateArrayPosition()]);
+    }
+
+    private static boolean isDeleted(EntityPersister persister, Object[] state) {
+        return Boolean.TRUE.equals(state[persister.findAttributeMapping(DELETED).getStateArrayPosition()]);
+    }
+}
@@ -0,0 +1,266 @@
+package com.ridehub.booking.service.count;
+
+import com.ridehub.booking.domain.Booking;
+import com.ridehub.booking.domain.PaymentTransaction;
+import com.ridehub.booking.domain.Ticket;
+import com.ridehub.booking.domain.enumeration.AvroTicketStatus;
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import com.ridehub.booking.repository.BookingRepository;
+import com.ridehub.booking.repository.PaymentTransactionRepository;
+import com.ridehub.booking.repository.TicketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Row counts per status of bookings, tickets and payment transactions, kept in Redis hashes
+ * ({@code count:status:<table>}, one field per status) so that status-only counts need no query.
+ * <p>
+ * A missing hash is rebuilt with a {@code GROUP BY status} on the primary and expires after
+ * {@code count-cache.counter-ttl-seconds}. In between, committed changes move the counters: entity inserts,
+ * updates and deletes through {@link StatusCountListener}, conditional and bulk status updates through
+ * {@link #moved}. Bulk changes whose effect per status is unknown drop the hash with {@link #invalidate}.
+ * A delta that races a rebuild can be lost or counted twice; that drift lasts until the hash expires.
+ */
+@Component
+public class StatusCounters {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatusCounters.class);
+
+    static final String KEY_PREFIX = "count:status:";
+
+    /** Field counting the rows without a status. */
+    static final String NO_STATUS = "";
+
+    /**
+     * KEYS[1] = counters, ARGV = field and delta pairs. Counters that do not exist are left alone, so a delta
+     * never creates a partial hash.
+     */
+    private static final DefaultRedisScript<Long> MOVE_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+        "for i = 1, #ARGV, 2 do redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1]) end " +
+        "return 1",
+        Long.class
+    );
+
+    /**
+     * KEYS[1] = counters, ARGV[1] = ttl in seconds, then field and count pairs.
+     */
+    private static final DefaultRedisScript<Long> REPLACE_SCRIPT = new DefaultRedisScript<>(
+        "redis.call('DEL', KEYS[1]) " +
+        "for i = 2, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end " +
+        "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+        "return 1",
+        Long.class
+    );
+
+    private final StringRedisTemplate redis;
+    private final CountCacheConfig config;
+    private final TransactionTemplate primaryTransaction;
+    private final Map<Class<?>, Source> sources;
+
+    private final Counter rebuilds;
+
+    public StatusCounters(
+        StringRedisTemplate redis,
+        CountCacheConfig config,
+        BookingRepository bookingRepository,
+        TicketRepository ticketRepository,
+        PaymentTransactionRepository paymentTransactionRepository,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.redis = redis;
+        this.config = config;
+        // A new read-write transaction, so rebuilds read the primary and not a lagging replica
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.sources = Map.of(
+            Booking.class,
+            new Source("booking", () ->
+                countsOf(BookingStatus.class, bookingRepository.countByStatus(), BookingRepository.StatusCount::getStatus,
+                    BookingRepository.StatusCount::getCount)
+            ),
+            Ticket.class,
+            new Source("ticket", () ->
+                countsOf(AvroTicketStatus.class, ticketRepository.countByStatus(), TicketRepository.StatusCount::getStatus,
+                    TicketRepository.StatusCount::getCount)
+            ),
+            PaymentTransaction.class,
+            new Source("payment_transaction", () ->
+                countsOf(PaymentStatus.class, paymentTransactionRepository.countByStatus(),
+                    PaymentTransactionRepository.StatusCount::getStatus, PaymentTransactionRepository.StatusCount::getCount)
+            )
+        );
+
+        this.rebuilds = Counter.builder("count.status.rebuilds")
+            .description("Status counters rebuilt from the database")
+            .register(meterRegistry);
+    }
+
+    public boolean isCounted(Class<?> entityType) {
+        return sources.containsKey(entityType);
+    }
+
+    /**
+     * Row counts by status name, {@link #NO_STATUS} for rows without one.
+     *
+     * @return the counts, or empty if the entity is not counted or Redis is unavailable.
+     */
+    public Optional<Map<String, Long>> counts(Class<?> entityType) {
+        Source source = sources.get(entityType);
+        if (source == null) {
+            return Optional.empty();
+        }
+        try {
+            Map<String, Long> counts = read(source);
+            if (counts.isEmpty()) {
+                // One rebuild per node at a time; the others find the fresh hash
+                synchronized (source) {
+                    counts = read(source);
+                    if (counts.isEmpty()) {
+                        counts = rebuild(source);
+                    }
+                }
+            }
+            return Optional.of(counts);
+        } catch (Exception e) {
+            LOG.warn("Could not read the {} status counters: {}", source.key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Move {@code rows} rows from status {@code from} to status {@code to} once the current transaction commits.
+     */
+    public void moved(Class<?> entityType, Enum<?> from, Enum<?> to, long rows) {
+        if (rows <= 0 || from == to || !isCounted(entityType)) {
+            return;
+        }
+        Map<String, Long> deltas = Map.of(field(from), -rows, field(to), rows);
+        afterCommit(() -> apply(entityType, deltas));
+    }
+
+    /**
+     * Drop the counters once the current transaction commits; the next count rebuilds them.
+     */
+    public void invalidate(Class<?> entityType) {
+        if (isCounted(entityType)) {
+            afterCommit(() -> drop(entityType));
+        }
+    }
+
+    /**
+     * Add {@code deltas} (by status field) to existing counters right away.
+     */
+    void apply(Class<?> entityType, Map<String, Long> deltas) {
+        Source source = sources.get(entityType);
+        if (source == null || !config.isEnabled()) {
+            return;
+        }
+        List<String> args = new ArrayList<>(deltas.size() * 2);
+        deltas.forEach((field, delta) -> {
+            args.add(field);
+            args.add(delta.toString());
+        });
+        try {
+            redis.execute(MOVE_SCRIPT, List.of(KEY_PREFIX + source.key), args.toArray());
+        } catch (Exception e) {
+            LOG.warn("Could not update the {} status counters: {}", source.key, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the counters right away.
+     */
+    void drop(Class<?> entityType) {
+        Source source = sources.get(entityType);
+        if (source == null) {
+            return;
+        }
+        try {
+            redis.delete(KEY_PREFIX + source.key);
+        } catch (Exception e) {
+            LOG.warn("Could not drop the {} status counters: {}", source.key, e.getMessage());
+        }
+    }
+
+    static String field(Enum<?> status) {
+        return status == null ? NO_STATUS : status.name();
+    }
+
+    private Map<String, Long> read(Source source) {
+        Map<Object, Object> entries = redis.opsForHash().entries(KEY_PREFIX + source.key);
+        Map<String, Long> counts = new HashMap<>();
+        entries.forEach((field, count) -> counts.put((String) field, Long.valueOf((String) count)));
+        return counts;
+    }
+
+    private Map<String, Long> rebuild(Source source) {
+        Map<String, Long> counts = primaryTransaction.execute(status -> source.loader.get());
+        List<String> args = new ArrayList<>(counts.size() * 2 + 1);
+        args.add(Long.toString(config.counterTtl().toSeconds()));
+        counts.forEach((field, count) -> {
+            args.add(field);
+            args.add(count.toString());
+        });
+        redis.execute(REPLACE_SCRIPT, List.of(KEY_PREFIX + source.key), args.toArray());
+        rebuilds.increment();
+        LOG.debug("Rebuilt the {} status counters: {}", source.key, counts);
+        return counts;
+    }
+
+    /**
+     * Counts by status field, with every status present so the hash is never empty.
+     */
+    private static <E extends Enum<E>, V> Map<String, Long> countsOf(
+        Class<E> statusType,
+        List<V> rows,
+        Function<V, E> status,
+        ToLongFunction<V> count
+    ) {
+        Map<String, Long> counts = new HashMap<>();
+        for (E constant : statusType.getEnumConstants()) {
+            counts.put(constant.name(), 0L);
+        }
+        for (V row : rows) {
+            counts.merge(field(status.apply(row)), count.applyAsLong(row), Long::sum);
+        }
+        return counts;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                }
+            );
+        } else {
+            action.run();
+        }
+    }
+
+    private record Source(String key, Supplier<Map<String, Long>> loader) {}
+}
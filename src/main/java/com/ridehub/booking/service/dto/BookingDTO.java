@@ -61,6 +61,9 @@ public class BookingDTO implements Serializable {
 
     private PaymentTransactionDTO paymentTransaction;
 
+    // Optimistic-lock version; an update must send back the value it read
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -213,6 +216,14 @@ public class BookingDTO implements Serializable {
         this.paymentTransaction = paymentTransaction;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -255,6 +266,7 @@ public class BookingDTO implements Serializable {
             ", isDeleted='" + getIsDeleted() + "'" +
             ", deletedAt='" + getDeletedAt() + "'" +
             ", deletedBy='" + getDeletedBy() + "'" +
+            ", version=" + getVersion() +
             ", invoice=" + getInvoice() +
             ", paymentTransaction=" + getPaymentTransaction() +
             "}";
@@ -49,6 +49,9 @@ public class PaymentTransactionDTO implements Serializable {
 
     private UUID deletedBy;
 
+    // Optimistic-lock version; an update must send back the value it read
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -161,6 +164,14 @@ public class PaymentTransactionDTO implements Serializable {
         this.deletedBy = deletedBy;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -200,6 +211,7 @@ public class PaymentTransactionDTO implements Serializable {
             ", isDeleted='" + getIsDeleted() + "'" +
             ", deletedAt='" + getDeletedAt() + "'" +
             ", deletedBy='" + getDeletedBy() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
@@ -0,0 +1,160 @@
+package com.ridehub.booking.service.dto.admin;
+
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.domain.enumeration.PaymentMethod;
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Flat read model of a {@link com.ridehub.booking.domain.Booking} for the admin lists, with the state of its
+ * payment transaction. Built by projection queries, never from a loaded entity graph.
+ */
+public class AdminBookingDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final String bookingCode;
+    private final BookingStatus status;
+    private final Integer quantity;
+    private final BigDecimal totalAmount;
+    private final Instant bookedAt;
+    private final UUID customerId;
+    private final Long tripId;
+    private final String lockGroupId;
+    private final Instant expiresAt;
+    private final Instant createdAt;
+    private final Instant updatedAt;
+    private final Long invoiceId;
+    private final Long paymentTransactionId;
+    private final PaymentStatus paymentStatus;
+    private final PaymentMethod paymentMethod;
+
+    public AdminBookingDTO(
+        Long id,
+        String bookingCode,
+        BookingStatus status,
+        Integer quantity,
+        BigDecimal totalAmount,
+        Instant bookedAt,
+        UUID customerId,
+        Long tripId,
+        String lockGroupId,
+        Instant expiresAt,
+        Instant createdAt,
+        Instant updatedAt,
+        Long invoiceId,
+        Long paymentTransactionId,
+        PaymentStatus paymentStatus,
+        PaymentMethod paymentMethod
+    ) {
+        this.id = id;
+        this.bookingCode = bookingCode;
+        this.status = status;
+        this.quantity = quantity;
+        this.totalAmount = totalAmount;
+        this.bookedAt = bookedAt;
+        this.customerId = customerId;
+        this.tripId = tripId;
+        this.lockGroupId = lockGroupId;
+        this.expiresAt = expiresAt;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.invoiceId = invoiceId;
+        this.paymentTransactionId = paymentTransactionId;
+        this.paymentStatus = paymentStatus;
+        this.paymentMethod = paymentMethod;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getBookingCode() {
+        return bookingCode;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public Instant getBookedAt() {
+        return bookedAt;
+    }
+
+    public UUID getCustomerId() {
+        return customerId;
+    }
+
+    public Long getTripId() {
+        return tripId;
+    }
+
+    public String getLockGroupId() {
+        return lockGroupId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Long getInvoiceId() {
+        return invoiceId;
+    }
+
+    public Long getPaymentTransactionId() {
+        return paymentTransactionId;
+    }
+
+    /**
+     * @return the status of the payment transaction, {@code null} without one.
+     */
+    public PaymentStatus getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    @Override
+    public String toString() {
+        return "AdminBookingDTO{" +
+            "id=" + id +
+            ", bookingCode='" + bookingCode + "'" +
+            ", status=" + status +
+            ", quantity=" + quantity +
+            ", totalAmount=" + totalAmount +
+            ", bookedAt=" + bookedAt +
+            ", customerId=" + customerId +
+            ", tripId=" + tripId +
+            ", lockGroupId='" + lockGroupId + "'" +
+            ", expiresAt=" + expiresAt +
+            ", createdAt=" + createdAt +
+            ", updatedAt=" + updatedAt +
+            ", invoiceId=" + invoiceId +
+            ", paymentTransactionId=" + paymentTransactionId +
+            ", paymentStatus=" + paymentStatus +
+            ", paymentMethod=" + paymentMethod +
+            "}";
+    }
+}
@@ -0,0 +1,160 @@
+package com.ridehub.booking.service.dto.admin;
+
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.domain.enumeration.PaymentMethod;
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Flat read model of a {@link com.ridehub.booking.domain.PaymentTransaction} for the admin lists, with the key
+ * fields of its booking. Built by projection queries, never from a loaded entity graph.
+ */
+public class AdminPaymentTransactionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final String transactionId;
+    private final String orderRef;
+    private final PaymentMethod method;
+    private final PaymentStatus status;
+    private final BigDecimal amount;
+    private final Instant time;
+    private final String gatewayNote;
+    private final Instant createdAt;
+    private final Instant updatedAt;
+    private final Long bookingId;
+    private final String bookingCode;
+    private final BookingStatus bookingStatus;
+    private final UUID customerId;
+    private final BigDecimal bookingTotalAmount;
+    private final Instant bookingExpiresAt;
+
+    public AdminPaymentTransactionDTO(
+        Long id,
+        String transactionId,
+        String orderRef,
+        PaymentMethod method,
+        PaymentStatus status,
+        BigDecimal amount,
+        Instant time,
+        String gatewayNote,
+        Instant createdAt,
+        Instant updatedAt,
+        Long bookingId,
+        String bookingCode,
+        BookingStatus bookingStatus,
+        UUID customerId,
+        BigDecimal bookingTotalAmount,
+        Instant bookingExpiresAt
+    ) {
+        this.id = id;
+        this.transactionId = transactionId;
+        this.orderRef = orderRef;
+        this.method = method;
+        this.status = status;
+        this.amount = amount;
+        this.time = time;
+        this.gatewayNote = gatewayNote;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.bookingId = bookingId;
+        this.bookingCode = bookingCode;
+        this.bookingStatus = bookingStatus;
+        this.customerId = customerId;
+        this.bookingTotalAmount = bookingTotalAmount;
+        this.bookingExpiresAt = bookingExpiresAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public String getOrderRef() {
+        return orderRef;
+    }
+
+    public PaymentMethod getMethod() {
+        return method;
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Instant getTime() {
+        return time;
+    }
+
+    public String getGatewayNote() {
+        return gatewayNote;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * @return the id of the booking paid by this transaction, {@code null} without one.
+     */
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public String getBookingCode() {
+        return bookingCode;
+    }
+
+    public BookingStatus getBookingStatus() {
+        return bookingStatus;
+    }
+
+    public UUID getCustomerId() {
+        return customerId;
+    }
+
+    public BigDecimal getBookingTotalAmount() {
+        return bookingTotalAmount;
+    }
+
+    public Instant getBookingExpiresAt() {
+        return bookingExpiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "AdminPaymentTransactionDTO{" +
+            "id=" + id +
+            ", transactionId='" + transactionId + "'" +
+            ", orderRef='" + orderRef + "'" +
+            ", method=" + method +
+            ", status=" + status +
+            ", amount=" + amount +
+            ", time=" + time +
+            ", gatewayNote='" + gatewayNote + "'" +
+            ", createdAt=" + createdAt +
+            ", updatedAt=" + updatedAt +
+            ", bookingId=" + bookingId +
+            ", bookingCode='" + bookingCode + "'" +
+            ", bookingStatus=" + bookingStatus +
+            ", customerId=" + customerId +
+            ", bookingTotalAmount=" + bookingTotalAmount +
+            ", bookingExpiresAt=" + bookingExpiresAt +
+            "}";
+    }
+}
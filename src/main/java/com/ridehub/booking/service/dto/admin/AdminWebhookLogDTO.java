@@ -0,0 +1,113 @@
+package com.ridehub.booking.service.dto.admin;
+
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Flat read model of a {@link com.ridehub.booking.domain.PaymentWebhookLog} for the admin list, with the
+ * identifiers and state of its payment transaction.
+ */
+public class AdminWebhookLogDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final String provider;
+    private final String payloadHash;
+    private final Instant receivedAt;
+    private final String processingStatus;
+    private final Instant createdAt;
+    private final Instant updatedAt;
+    private final Long paymentTransactionId;
+    private final String transactionId;
+    private final String orderRef;
+    private final PaymentStatus paymentStatus;
+
+    public AdminWebhookLogDTO(
+        Long id,
+        String provider,
+        String payloadHash,
+        Instant receivedAt,
+        String processingStatus,
+        Instant createdAt,
+        Instant updatedAt,
+        Long paymentTransactionId,
+        String transactionId,
+        String orderRef,
+        PaymentStatus paymentStatus
+    ) {
+        this.id = id;
+        this.provider = provider;
+        this.payloadHash = payloadHash;
+        this.receivedAt = receivedAt;
+        this.processingStatus = processingStatus;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.paymentTransactionId = paymentTransactionId;
+        this.transactionId = transactionId;
+        this.orderRef = orderRef;
+        this.paymentStatus = paymentStatus;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public String getPayloadHash() {
+        return payloadHash;
+    }
+
+    public Instant getReceivedAt() {
+        return receivedAt;
+    }
+
+    public String getProcessingStatus() {
+        return processingStatus;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Long getPaymentTransactionId() {
+        return paymentTransactionId;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public String getOrderRef() {
+        return orderRef;
+    }
+
+    public PaymentStatus getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "AdminWebhookLogDTO{" +
+            "id=" + id +
+            ", provider='" + provider + "'" +
+            ", payloadHash='" + payloadHash + "'" +
+            ", receivedAt=" + receivedAt +
+            ", processingStatus='" + processingStatus + "'" +
+            ", createdAt=" + createdAt +
+            ", updatedAt=" + updatedAt +
+            ", paymentTransactionId=" + paymentTransactionId +
+            ", transactionId='" + transactionId + "'" +
+            ", orderRef='" + orderRef + "'" +
+            ", paymentStatus=" + paymentStatus +
+            "}";
+    }
+}
@@ -0,0 +1,118 @@
+package com.ridehub.booking.service.expiry;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cluster-wide booking expiry index stored in Redis.
+ * <p>
+ * A sorted set ({@code booking:expiry}) holds one member per booking awaiting payment, scored by the
+ * epoch-millis of its {@code expiresAt}. Registering, removing and claiming a booking are O(log n); the
+ * replica that removes a member in {@link #claim} owns its expiry.
+ */
+@Component
+public class BookingExpiryIndex {
+
+    static final String INDEX_KEY = "booking:expiry";
+
+    /**
+     * KEYS[1] = index, ARGV = booking ids. Returns the ids this caller removed.
+     */
+    private static final DefaultRedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>(
+        "local claimed = {} " +
+        "for _, id in ipairs(ARGV) do if redis.call('ZREM', KEYS[1], id) == 1 then table.insert(claimed, id) end end " +
+        "return claimed",
+        List.class
+    );
+
+    private final StringRedisTemplate redis;
+
+    public BookingExpiryIndex(StringRedisTemplate redis) {
+        this.redis = redis;
+    }
+
+    public void register(Long bookingId, Instant expiresAt) {
+        redis.opsForZSet().add(INDEX_KEY, bookingId.toString(), expiresAt.toEpochMilli());
+    }
+
+    /**
+     * Add bookings that are not indexed yet, keeping existing scores.
+     */
+    public void registerAll(Map<Long, Instant> expiries) {
+        if (expiries.isEmpty()) {
+            return;
+        }
+        Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>();
+        expiries.forEach((bookingId, expiresAt) ->
+            tuples.add(ZSetOperations.TypedTuple.of(bookingId.toString(), (double) expiresAt.toEpochMilli()))
+        );
+        redis.opsForZSet().addIfAbsent(INDEX_KEY, tuples);
+    }
+
+    public void remove(Long bookingId) {
+        redis.opsForZSet().remove(INDEX_KEY, bookingId.toString());
+    }
+
+    public void removeAll(Collection<Long> bookingIds) {
+        if (!bookingIds.isEmpty()) {
+            redis.opsForZSet().remove(INDEX_KEY, bookingIds.stream().map(Object::toString).toArray());
+        }
+    }
+
+    /**
+     * Bookings expiring before {@code until}, earliest first, with their deadline in epoch millis.
+     */
+    public Map<Long, Long> findExpiringBefore(Instant until, int limit) {
+        Set<ZSetOperations.TypedTuple<String>> tuples = redis
+            .opsForZSet()
+            .rangeByScoreWithScores(INDEX_KEY, Double.NEGATIVE_INFINITY, until.toEpochMilli(), 0, limit);
+        Map<Long, Long> expiries = new LinkedHashMap<>();
+        if (tuples != null) {
+            for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+                if (tuple.getValue() != null && tuple.getScore() != null) {
+                    expiries.put(Long.valueOf(tuple.getValue()), tuple.getScore().longValue());
+                }
+            }
+        }
+        return expiries;
+    }
+
+    /**
+     * Atomically remove the given bookings from the index.
+     *
+     * @return the ids this caller removed, i.e. whose expiry it now owns
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> claim(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return List.of();
+        }
+        List<String> claimed = redis.execute(
+            CLAIM_SCRIPT,
+            List.of(INDEX_KEY),
+            bookingIds.stream().map(Object::toString).toArray()
+        );
+        List<Long> ids = new ArrayList<>();
+        if (claimed != null) {
+            for (String id : claimed) {
+                ids.add(Long.valueOf(id));
+            }
+        }
+        return ids;
+    }
+
+    public long size() {
+        Long size = redis.opsForZSet().zCard(INDEX_KEY);
+        return size != null ? size : 0;
+    }
+}
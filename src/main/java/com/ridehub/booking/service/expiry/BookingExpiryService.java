@@ -0,0 +1,291 @@
+package com.ridehub.booking.service.expiry;
+
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.repository.BookingRepository;
+import com.ridehub.booking.service.BookingScheduler;
+import com.ridehub.booking.service.cluster.ShardAssignment;
+import com.ridehub.booking.service.cluster.ShardLeaseManager;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Event-driven booking expiry.
+ * <p>
+ * Deadlines live in the Redis {@link BookingExpiryIndex} and are mirrored into a local
+ * {@link HierarchicalTimingWheel}: bookings created on this node are added directly, and every second the
+ * entries due within {@link #LOOKAHEAD} in this node's booking-id shards are pulled from the index. When the
+ * wheel fires, the booking is
+ * claimed in the index (so one replica handles it) and canceled through
+ * {@link BookingScheduler#expireBookings}. The periodic scan in {@link BookingScheduler} remains as a safety
+ * net.
+ */
+@Service
+public class BookingExpiryService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BookingExpiryService.class);
+
+    static final long TICK_MILLIS = 100;
+    static final int WHEEL_SIZE = 64;
+    static final int WHEEL_LEVELS = 4;
+    static final Duration LOOKAHEAD = Duration.ofSeconds(30);
+    static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+    private static final int SYNC_BATCH_SIZE = 5000;
+    private static final int SEED_BATCH_SIZE = 10000;
+    static final String SYNC_JOB = "booking-expiry";
+    static final int SYNC_SHARDS = 16;
+
+    private final BookingExpiryIndex expiryIndex;
+    private final BookingScheduler bookingScheduler;
+    private final BookingRepository bookingRepository;
+    private final ShardLeaseManager shardLeaseManager;
+
+    // Guarded by itself, together with deadlines
+    private final HierarchicalTimingWheel<Long> wheel;
+    private final Map<Long, Long> deadlines = new HashMap<>();
+
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService handler;
+    private final Timer lagTimer;
+
+    public BookingExpiryService(
+        BookingExpiryIndex expiryIndex,
+        BookingScheduler bookingScheduler,
+        BookingRepository bookingRepository,
+        ShardLeaseManager shardLeaseManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.expiryIndex = expiryIndex;
+        this.bookingScheduler = bookingScheduler;
+        this.bookingRepository = bookingRepository;
+        this.shardLeaseManager = shardLeaseManager;
+        this.shardLeaseManager.register(SYNC_JOB, SYNC_SHARDS);
+        this.wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, WHEEL_SIZE, WHEEL_LEVELS, System.currentTimeMillis());
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "booking-expiry-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.handler = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "booking-expiry-handler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+
+        this.lagTimer = Timer.builder("booking.expiry.lag")
+            .description("Delay between a booking's deadline and its expiry handler firing")
+            .register(meterRegistry);
+        Gauge.builder("booking.expiry.wheel.size", this, BookingExpiryService::wheelSize)
+            .description("Booking deadlines scheduled in the local timing wheel")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        handler.shutdownNow();
+    }
+
+    /**
+     * Index a booking's deadline. Inside a transaction this happens after commit, so the handler never sees
+     * a booking that was rolled back.
+     */
+    public void register(Long bookingId, Instant expiresAt) {
+        if (bookingId == null || expiresAt == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        doRegister(bookingId, expiresAt);
+                    }
+                }
+            );
+        } else {
+            doRegister(bookingId, expiresAt);
+        }
+    }
+
+    /**
+     * Stop tracking a booking that was paid or canceled. Inside a transaction this happens after commit.
+     */
+    public void remove(Long bookingId) {
+        if (bookingId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        doRemove(bookingId);
+                    }
+                }
+            );
+        } else {
+            doRemove(bookingId);
+        }
+    }
+
+    private void doRemove(Long bookingId) {
+        synchronized (wheel) {
+            wheel.cancel(bookingId);
+            deadlines.remove(bookingId);
+        }
+        try {
+            expiryIndex.remove(bookingId);
+        } catch (Exception e) {
+            LOG.warn("Could not remove booking {} from the expiry index: {}", bookingId, e.getMessage());
+        }
+    }
+
+    private void doRegister(Long bookingId, Instant expiresAt) {
+        try {
+            expiryIndex.register(bookingId, expiresAt);
+        } catch (Exception e) {
+            // The safety-net scan still expires the booking
+            LOG.warn("Could not index expiry of booking {}: {}", bookingId, e.getMessage());
+        }
+        schedule(Map.of(bookingId, expiresAt.toEpochMilli()));
+    }
+
+    /**
+     * Pull deadlines coming up within {@link #LOOKAHEAD} from the shared index into the local wheel, which
+     * picks up bookings created on other replicas and entries whose owner restarted. Only bookings in the
+     * shards this node owns are taken, so each deadline is watched by one replica besides its creator.
+     */
+    @Scheduled(fixedDelay = 1000, initialDelay = 5000)
+    public void syncFromIndex() {
+        ShardAssignment assignment = shardLeaseManager.assignment(SYNC_JOB);
+        if (assignment.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Long, Long> upcoming = expiryIndex.findExpiringBefore(Instant.now().plus(LOOKAHEAD), SYNC_BATCH_SIZE);
+            upcoming.keySet().removeIf(bookingId -> !assignment.owns(bookingId));
+            if (!upcoming.isEmpty()) {
+                schedule(upcoming);
+            }
+        } catch (Exception e) {
+            LOG.warn("Could not sync booking expiries from the index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Index bookings that were awaiting payment before this node started, so they expire on time too.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedIndex() {
+        try {
+            Map<Long, Instant> pending = new LinkedHashMap<>();
+            bookingRepository
+                .findPendingExpiries(BookingStatus.AWAITING_PAYMENT, Instant.now(), PageRequest.of(0, SEED_BATCH_SIZE))
+                .forEach(view -> pending.put(view.getId(), view.getExpiresAt()));
+            expiryIndex.registerAll(pending);
+            LOG.info("Seeded booking expiry index with {} pending bookings", pending.size());
+        } catch (Exception e) {
+            LOG.warn("Could not seed the booking expiry index: {}", e.getMessage());
+        }
+    }
+
+    private void schedule(Map<Long, Long> expiries) {
+        List<Long> due = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (wheel) {
+            for (Map.Entry<Long, Long> expiry : expiries.entrySet()) {
+                Long bookingId = expiry.getKey();
+                if (expiry.getValue().equals(deadlines.get(bookingId))) {
+                    continue;
+                }
+                if (wheel.add(bookingId, expiry.getValue())) {
+                    deadlines.put(bookingId, expiry.getValue());
+                } else {
+                    deadlines.remove(bookingId);
+                    due.add(bookingId);
+                    lagTimer.record(Math.max(0, now - expiry.getValue()), TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+        dispatch(due);
+    }
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            List<Long> due;
+            synchronized (wheel) {
+                due = wheel.advance(now);
+                for (Long bookingId : due) {
+                    Long deadline = deadlines.remove(bookingId);
+                    if (deadline != null) {
+                        lagTimer.record(Math.max(0, now - deadline), TimeUnit.MILLISECONDS);
+                    }
+                }
+            }
+            dispatch(due);
+        } catch (Exception e) {
+            // Never let an exception cancel the periodic tick
+            LOG.error("Booking expiry wheel tick failed", e);
+        }
+    }
+
+    private void dispatch(List<Long> due) {
+        if (!due.isEmpty()) {
+            handler.execute(() -> expire(due));
+        }
+    }
+
+    private void expire(List<Long> bookingIds) {
+        List<Long> claimed;
+        try {
+            claimed = expiryIndex.claim(bookingIds);
+        } catch (Exception e) {
+            LOG.warn("Could not claim {} booking expiries: {}", bookingIds.size(), e.getMessage());
+            return;
+        }
+        if (claimed.isEmpty()) {
+            return;
+        }
+        try {
+            int canceled = bookingScheduler.expireBookings(claimed);
+            LOG.debug("Expired {} of {} claimed bookings", canceled, claimed.size());
+        } catch (Exception e) {
+            LOG.error("Failed to expire bookings {}, retrying in {}s: {}", claimed, RETRY_DELAY.toSeconds(), e.getMessage());
+            Instant retryAt = Instant.now().plus(RETRY_DELAY);
+            for (Long bookingId : claimed) {
+                doRegister(bookingId, retryAt);
+            }
+        }
+    }
+
+    private int wheelSize() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.ridehub.booking.service.expiry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel keyed by an id, for deadlines up to a few days ahead.
+ * <p>
+ * Level {@code l} has {@code wheelSize} buckets of {@code tickMillis * wheelSize^l} each. A deadline is kept
+ * on the lowest level whose range covers it and moves down a level when the clock reaches its bucket, so
+ * adding, cancelling and firing an entry are O(1) regardless of how many entries are pending. Deadlines are
+ * rounded up to the next tick, so keys never fire before their deadline and at most one tick after it.
+ * <p>
+ * Not thread-safe by itself; callers synchronize access.
+ *
+ * @param <K> key type
+ */
+final class HierarchicalTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] levelTicks;
+    private final List<List<Entry<K>>[]> levels = new ArrayList<>();
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+
+    /** Start of the current tick, in epoch millis; all ticks up to here have fired. */
+    private long currentTime;
+
+    @SuppressWarnings("unchecked")
+    HierarchicalTimingWheel(long tickMillis, int wheelSize, int levelCount, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levelCount < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levelTicks = new long[levelCount];
+        long levelTick = tickMillis;
+        for (int level = 0; level < levelCount; level++) {
+            levelTicks[level] = levelTick;
+            List<Entry<K>>[] buckets = new List[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new ArrayList<>();
+            }
+            levels.add(buckets);
+            levelTick *= wheelSize;
+        }
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+    }
+
+    /**
+     * Schedule {@code key} at {@code deadlineMillis}, replacing an earlier schedule of the same key.
+     *
+     * @return {@code false} if the deadline has already passed; the key is then not scheduled
+     */
+    boolean add(K key, long deadlineMillis) {
+        cancel(key);
+        // Fire on the first tick strictly after the deadline
+        long fireAt = (Math.floorDiv(deadlineMillis, tickMillis) + 1) * tickMillis;
+        if (fireAt <= currentTime) {
+            return false;
+        }
+        Entry<K> entry = new Entry<>(key, fireAt);
+        entries.put(key, entry);
+        place(entry);
+        return true;
+    }
+
+    /**
+     * Remove a scheduled key.
+     *
+     * @return whether the key was scheduled
+     */
+    boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelled = true;
+        return true;
+    }
+
+    boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Advance the clock to {@code nowMillis} and return the keys whose deadline has passed, in firing order.
+     */
+    List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        while (currentTime + tickMillis <= nowMillis) {
+            currentTime += tickMillis;
+            // Cascade from the top so entries reach level 0 before its bucket is drained
+            for (int level = levelTicks.length - 1; level >= 1; level--) {
+                if (Math.floorMod(currentTime, levelTicks[level]) == 0) {
+                    for (Entry<K> entry : drain(level, currentTime)) {
+                        if (entry.fireAt <= currentTime) {
+                            fire(entry, expired);
+                        } else {
+                            place(entry);
+                        }
+                    }
+                }
+            }
+            for (Entry<K> entry : drain(0, currentTime)) {
+                if (entry.fireAt <= currentTime) {
+                    fire(entry, expired);
+                } else {
+                    place(entry);
+                }
+            }
+        }
+        return expired;
+    }
+
+    private void fire(Entry<K> entry, List<K> expired) {
+        entries.remove(entry.key);
+        expired.add(entry.key);
+    }
+
+    private List<Entry<K>> drain(int level, long time) {
+        List<Entry<K>> bucket = levels.get(level)[bucketIndex(level, time)];
+        if (bucket.isEmpty()) {
+            return List.of();
+        }
+        List<Entry<K>> drained = new ArrayList<>(bucket.size());
+        for (Entry<K> entry : bucket) {
+            if (!entry.cancelled) {
+                drained.add(entry);
+            }
+        }
+        bucket.clear();
+        return drained;
+    }
+
+    /**
+     * Put an entry on the lowest level whose bucket range still covers its firing time; entries beyond the
+     * top level wait in its farthest bucket and are re-placed when it is drained.
+     */
+    private void place(Entry<K> entry) {
+        int top = levelTicks.length - 1;
+        for (int level = 0; level <= top; level++) {
+            long distance = Math.floorDiv(entry.fireAt, levelTicks[level]) - Math.floorDiv(currentTime, levelTicks[level]);
+            if (distance < wheelSize) {
+                levels.get(level)[bucketIndex(level, entry.fireAt)].add(entry);
+                return;
+            }
+        }
+        long farthest = (Math.floorDiv(currentTime, levelTicks[top]) + wheelSize - 1) * levelTicks[top];
+        levels.get(top)[bucketIndex(top, farthest)].add(entry);
+    }
+
+    private int bucketIndex(int level, long time) {
+        return (int) Math.floorMod(Math.floorDiv(time, levelTicks[level]), (long) wheelSize);
+    }
+
+    private static final class Entry<K> {
+
+        private final K key;
+        private final long fireAt;
+        private boolean cancelled;
+
+        private Entry(K key, long fireAt) {
+            this.key = key;
+            this.fireAt = fireAt;
+        }
+    }
+}
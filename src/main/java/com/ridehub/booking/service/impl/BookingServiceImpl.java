@@ -8,12 +8,16 @@ import com.ridehub.booking.repository.AppliedPromotionRepository;
 import com.ridehub.booking.repository.BookingRepository;
 import com.ridehub.booking.repository.PricingSnapshotRepository;
 import com.ridehub.booking.service.BookingService;
+import com.ridehub.booking.service.BookingSeatService;
 import com.ridehub.booking.service.dto.AppliedPromotionDTO;
 import com.ridehub.booking.service.dto.BookingDTO;
 import com.ridehub.booking.service.dto.PricingSnapshotDTO;
+import com.ridehub.booking.service.expiry.BookingExpiryService;
 import com.ridehub.booking.service.mapper.BookingMapper;
+import com.ridehub.booking.service.state.StatusTransitionService;
 import com.ridehub.booking.service.vm.BookingDraftResultVM;
 import com.ridehub.booking.service.vm.CreateBookingDraftRequestVM;
+import com.ridehub.booking.service.vm.PricingResultVM;
 import com.ridehub.booking.web.rest.errors.SeatNotAvailableException;
 import com.ridehub.msroute.client.api.SeatLockResourceMsrouteApi;
 import com.ridehub.msroute.client.model.AttachBookingRequestDTO;
@@ -32,8 +36,12 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service Implementation for managing
@@ -53,11 +61,17 @@ public class BookingServiceImpl implements BookingService {
     private final PricingService pricingService;
     private final SeatLockResourceMsrouteApi seatLockResourceMsrouteApi;
     private final StringRedisTemplate redis;
+    private final BookingExpiryService bookingExpiryService;
+    private final BookingSeatService bookingSeatService;
+    private final StatusTransitionService statusTransitionService;
+    private final TransactionTemplate transactionTemplate;
 
     public BookingServiceImpl(BookingRepository bookingRepository, BookingMapper bookingMapper,
             AppliedPromotionRepository appliedPromoRepo, BookingRepository bookingRepo2,
             PricingService pricingService, PricingSnapshotRepository pricingSnapRepo,
-            SeatLockResourceMsrouteApi seatLockResourceMsrouteApi, StringRedisTemplate redis) {
+            SeatLockResourceMsrouteApi seatLockResourceMsrouteApi, StringRedisTemplate redis,
+            BookingExpiryService bookingExpiryService, BookingSeatService bookingSeatService,
+            StatusTransitionService statusTransitionService, PlatformTransactionManager transactionManager) {
         this.bookingRepository = bookingRepository;
         this.bookingMapper = bookingMapper;
         this.pricingSnapRepo = pricingSnapRepo;
@@ -65,6 +79,10 @@ public class BookingServiceImpl implements BookingService {
         this.pricingService = pricingService;
         this.seatLockResourceMsrouteApi = seatLockResourceMsrouteApi;
         this.redis = redis;
+        this.bookingExpiryService = bookingExpiryService;
+        this.bookingSeatService = bookingSeatService;
+        this.statusTransitionService = statusTransitionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -75,6 +93,10 @@ public class BookingServiceImpl implements BookingService {
         return bookingMapper.toDto(booking);
     }
 
+    /**
+     * The DTO carries the version it was read at, so the entity is merged rather than inserted and a stale
+     * version fails with an optimistic-lock conflict.
+     */
     @Override
     public BookingDTO update(BookingDTO bookingDTO) {
         LOG.debug("Request to update Booking : {}", bookingDTO);
@@ -90,6 +112,9 @@ public class BookingServiceImpl implements BookingService {
         return bookingRepository
                 .findById(bookingDTO.getId())
                 .map(existingBooking -> {
+                    if (bookingDTO.getVersion() != null && !bookingDTO.getVersion().equals(existingBooking.getVersion())) {
+                        throw new ObjectOptimisticLockingFailureException(Booking.class, existingBooking.getId());
+                    }
                     bookingMapper.partialUpdate(existingBooking, bookingDTO);
 
                     return existingBooking;
@@ -111,7 +136,11 @@ public class BookingServiceImpl implements BookingService {
         bookingRepository.deleteById(id);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Price check only: ms-route and ms-promotion are queried, nothing is persisted, so no transaction is
+     * opened.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @Override
     public BookingDraftResultVM createSimpleDraft(CreateBookingDraftRequestVM req) {
         LOG.debug("Creating simple draft for price check - tripId: {}, seats: {}, promoCode: {}",
@@ -149,11 +178,20 @@ public class BookingServiceImpl implements BookingService {
         return vm;
     }
 
-    @Transactional
+    /**
+     * Create a booking holding the requested seats.
+     * <p>
+     * Runs without a surrounding transaction so no connection or row lock is held across ms-route and
+     * ms-promotion calls. Remote phases (validate, lock, price; then attach) alternate with two short local
+     * commits (DRAFT booking with its seats, snapshot and promotion; then AWAITING_PAYMENT). If a later
+     * phase fails, the seat locks are released and a committed draft is canceled.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @Override
     public BookingDraftResultVM createRealBooking(CreateBookingDraftRequestVM req) {
         String idemKey = "idem:booking:" + req.getIdemKey();
         String sessKey = null;
+        boolean locked = false;
         Booking b = null;
 
         // === 1️⃣ Idempotency guard ===
@@ -193,55 +231,23 @@ public class BookingServiceImpl implements BookingService {
             if (!isHeld(lockResult)) {
                 throw new SeatNotAvailableException("Seat not available: " + lockResult.getMessage());
             }
+            locked = true;
 
             // === 4️⃣ Compute pricing (includes promo caching in PricingService) ===
             var pricing = pricingService.computePrice(req.getTripId(), req.getSeats(), req.getPromoCode());
 
-            // === 5️⃣ Persist booking DRAFT (booking svc) ===
-            b = new Booking();
-            b.setBookingCode(generateBookingCode());
-            b.setStatus(BookingStatus.DRAFT);
-            b.setQuantity(req.getSeats() != null ? req.getSeats().size() : 0);
-            b.setTotalAmount(pricing.getFinalPrice());
-            b.setBookedAt(Instant.now());
-            b.setCustomerId(UUID.randomUUID()); 
-            b.setCreatedAt(Instant.now());
-            b.setUpdatedAt(Instant.now());
-            b.setTripId(req.getTripId());
-
-            // Set lockGroupId = idemKey
-            String lockGroupId = req.getIdemKey();
-            if (lockGroupId != null && !lockGroupId.trim().isEmpty()) {
-                b.setLockGroupId(lockGroupId);
-                LOG.debug("Set lockGroupId {} for booking {} using idempotency key", lockGroupId, b.getBookingCode());
-            }
-
-            // Set expiresAt = min(hold.expiresAt, now + 3–5 min)
-            Instant holdExpiresAt = null;
-            if (lockResult.getExpiresAt() != null) {
-                holdExpiresAt = Instant.ofEpochSecond(lockResult.getExpiresAt());
-            }
-            Instant bookingExpiresAt = Instant.now().plus(java.time.Duration.ofMinutes(5)); // 3 minutes default
-            if (holdExpiresAt != null && holdExpiresAt.isBefore(bookingExpiresAt)) {
-                bookingExpiresAt = holdExpiresAt;
-            }
-            b.setExpiresAt(bookingExpiresAt);
-
-            b = bookingRepository.save(b);
+            // === 5️⃣ Local commit: booking DRAFT with seats, pricing snapshot and applied promotion ===
+            b = transactionTemplate.execute(status -> persistDraft(req, pricing, lockResult));
 
-            // === 6️⃣ Store session: booking:sess:{bookingId} = AWAITING_LOCK (TTL ~20m)
+            // === 6️⃣ Store session: booking:sess:{bookingId} = AWAITING_LOCK
             // ===
             sessKey = "booking:sess:" + b.getId();
             redis.opsForValue().set(sessKey, "AWAITING_LOCK", Duration.ofMinutes(5));
 
-            // === 6️⃣b Store booking:seats:{bookingId} = join(seats) (TTL ~20m) ===
-            String seatsKey = "booking:seats:" + b.getId();
-            redis.opsForValue().set(seatsKey, String.join(",", req.getSeats()), Duration.ofMinutes(5));
-
             // === 7️⃣ Attach booking to held seats ===
             AttachBookingRequestDTO attachRequest = new AttachBookingRequestDTO();
             attachRequest.setBookingId(b.getId());
-            attachRequest.setLockGroupId(lockGroupId);
+            attachRequest.setLockGroupId(b.getLockGroupId());
             // Note: lockGroupId is not available in SeatLockActionRequestDTO
 
             // Note: Using confirmSeatLocks as attach-booking equivalent
@@ -259,43 +265,21 @@ public class BookingServiceImpl implements BookingService {
                 throw new SeatNotAvailableException("Failed to attach booking to held seats: " +
                         (attachResult != null ? attachResult.getMessage() : "Unknown error"));
             }
-            // === 8️⃣ Persist pricing/promo snapshot (booking svc) ===
-            PricingSnapshotDTO ps = pricing.getPricingSnapshot();
-            PricingSnapshot snap = new PricingSnapshot();
-            snap.setBaseFare(ps.getBaseFare());
-            snap.setVehicleFactor(ps.getVehicleFactor());
-            snap.setFloorFactor(ps.getFloorFactor());
-            snap.setSeatFactor(ps.getSeatFactor());
-            snap.setFinalPrice(ps.getFinalPrice());
-            snap.setCreatedAt(Instant.now());
-            snap.setBooking(b);
-            pricingSnapRepo.save(snap);
-
-            // === 8️⃣b Save applied promotion (if any) ===
-            if (pricing.isPromoApplied() && pricing.getAppliedPromotion() != null) {
-                AppliedPromotionDTO ap = pricing.getAppliedPromotion();
-                AppliedPromotion apEntity = new AppliedPromotion();
-                apEntity.setPromotionId(ap.getPromotionId());
-                apEntity.setPromotionCode(ap.getPromotionCode());
-                apEntity.setPolicyType(ap.getPolicyType());
-                apEntity.setPercent(ap.getPercent());
-                apEntity.setMaxOff(ap.getMaxOff());
-                apEntity.setDiscountAmount(ap.getDiscountAmount());
-                apEntity.setAppliedAt(Instant.now());
-                apEntity.setCreatedAt(Instant.now());
-                apEntity.setBooking(b);
-                appliedPromoRepo.save(apEntity);
-            }
 
-            // === 9️⃣ Move booking to AWAITING_PAYMENT ===
-            b.setStatus(BookingStatus.AWAITING_PAYMENT);
-            b.setUpdatedAt(Instant.now());
-            b = bookingRepository.save(b);
+            // === 8️⃣ Local commit: move booking to AWAITING_PAYMENT ===
+            Booking draft = b;
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!statusTransitionService.transition(draft, BookingStatus.AWAITING_PAYMENT)) {
+                    throw new IllegalStateException("Booking " + draft.getBookingCode() + " changed before it was awaiting payment");
+                }
+                // Expire the hold at its deadline (indexed once this transaction commits)
+                bookingExpiryService.register(draft.getId(), draft.getExpiresAt());
+            });
 
             // Update session: booking:sess:{bookingId} = AWAITING_PAYMENT
             redis.opsForValue().set(sessKey, "AWAITING_PAYMENT", Duration.ofMinutes(20));
 
-            // === 10️⃣ Return draft result to client ===
+            // === 9️⃣ Return draft result to client ===
             BookingDraftResultVM vm = new BookingDraftResultVM();
             vm.setBookingId(b.getId());
             vm.setBookingCode(b.getBookingCode());
@@ -305,41 +289,123 @@ public class BookingServiceImpl implements BookingService {
             vm.setTripId(req.getTripId());
             vm.setSeats(req.getSeats());
             vm.setPromoCode(req.getPromoCode());
-            vm.setPricingSnapshot(ps);
+            vm.setPricingSnapshot(pricing.getPricingSnapshot());
             vm.setAppliedPromotion(pricing.getAppliedPromotion());
             vm.setPromoApplied(pricing.isPromoApplied());
             return vm;
 
-        } catch (SeatNotAvailableException ex) {
-            // Re-throw seat availability exceptions as-is
-            throw ex;
         } catch (Exception ex) {
+            if (ex instanceof SeatNotAvailableException && !locked) {
+                // Nothing held yet: re-throw seat availability exceptions as-is
+                throw ex;
+            }
             LOG.error("Real booking creation failed: {}", ex.getMessage(), ex);
+            compensateFailedBooking(req, b, sessKey);
+            throw ex;
+        }
+    }
 
-            // Cleanup Redis session if it was created
-            if (sessKey != null) {
-                redis.delete(sessKey);
-                redis.delete("booking:seats:" + sessKey.substring("booking:sess:".length()));
-            }
+    /**
+     * Persist the DRAFT booking with its seats, pricing snapshot and applied promotion. Runs in its own short
+     * transaction; the seat list is cached once it commits.
+     */
+    private Booking persistDraft(CreateBookingDraftRequestVM req, PricingResultVM pricing, SeatLockResponseDTO lockResult) {
+        Booking b = new Booking();
+        b.setBookingCode(generateBookingCode());
+        b.setStatus(BookingStatus.DRAFT);
+        b.setQuantity(req.getSeats() != null ? req.getSeats().size() : 0);
+        b.setTotalAmount(pricing.getFinalPrice());
+        b.setBookedAt(Instant.now());
+        b.setCustomerId(UUID.randomUUID()); 
+        b.setCreatedAt(Instant.now());
+        b.setUpdatedAt(Instant.now());
+        b.setTripId(req.getTripId());
+
+        // Set lockGroupId = idemKey
+        String lockGroupId = req.getIdemKey();
+        if (lockGroupId != null && !lockGroupId.trim().isEmpty()) {
+            b.setLockGroupId(lockGroupId);
+            LOG.debug("Set lockGroupId {} for booking {} using idempotency key", lockGroupId, b.getBookingCode());
+        }
 
-            // Cancel seat lock if it was created
-            if (b != null && b.getLockGroupId() != null) {
-                try {
-                    SeatLockActionRequestDTO cancelRequest = new SeatLockActionRequestDTO();
-                    cancelRequest.setBookingId(b.getId());
-                    cancelRequest.setTripId(req.getTripId());
-                    cancelRequest.setSeatNumbers(req.getSeats());
-                    // Note: lockGroupId is not available in SeatLockActionRequestDTO
-
-                    seatLockResourceMsrouteApi.cancelSeatLocks(cancelRequest);
-                    LOG.debug("Successfully cancelled seat locks for failed booking: {}", b.getBookingCode());
-                } catch (Exception cancelEx) {
-                    LOG.warn("Failed to cancel seat locks for failed booking {}: {}", b.getBookingCode(),
-                            cancelEx.getMessage());
-                }
-            }
+        // Set expiresAt = min(hold.expiresAt, now + 3–5 min)
+        Instant holdExpiresAt = null;
+        if (lockResult.getExpiresAt() != null) {
+            holdExpiresAt = Instant.ofEpochSecond(lockResult.getExpiresAt());
+        }
+        Instant bookingExpiresAt = Instant.now().plus(java.time.Duration.ofMinutes(5)); // 3 minutes default
+        if (holdExpiresAt != null && holdExpiresAt.isBefore(bookingExpiresAt)) {
+            bookingExpiresAt = holdExpiresAt;
+        }
+        b.setExpiresAt(bookingExpiresAt);
+
+        b = bookingRepository.save(b);
+
+        // Persist seat list (booking_seat, cached as booking:seats:{bookingId} after commit)
+        bookingSeatService.saveSeats(b.getId(), req.getTripId(), req.getSeats());
+
+        // Persist pricing/promo snapshot
+        PricingSnapshotDTO ps = pricing.getPricingSnapshot();
+        PricingSnapshot snap = new PricingSnapshot();
+        snap.setBaseFare(ps.getBaseFare());
+        snap.setVehicleFactor(ps.getVehicleFactor());
+        snap.setFloorFactor(ps.getFloorFactor());
+        snap.setSeatFactor(ps.getSeatFactor());
+        snap.setFinalPrice(ps.getFinalPrice());
+        snap.setCreatedAt(Instant.now());
+        snap.setBooking(b);
+        pricingSnapRepo.save(snap);
+
+        // Save applied promotion (if any)
+        if (pricing.isPromoApplied() && pricing.getAppliedPromotion() != null) {
+            AppliedPromotionDTO ap = pricing.getAppliedPromotion();
+            AppliedPromotion apEntity = new AppliedPromotion();
+            apEntity.setPromotionId(ap.getPromotionId());
+            apEntity.setPromotionCode(ap.getPromotionCode());
+            apEntity.setPolicyType(ap.getPolicyType());
+            apEntity.setPercent(ap.getPercent());
+            apEntity.setMaxOff(ap.getMaxOff());
+            apEntity.setDiscountAmount(ap.getDiscountAmount());
+            apEntity.setAppliedAt(Instant.now());
+            apEntity.setCreatedAt(Instant.now());
+            apEntity.setBooking(b);
+            appliedPromoRepo.save(apEntity);
+        }
+        return b;
+    }
 
-            throw ex;
+    /**
+     * Undo the phases of a failed booking that already took effect: release the held seats in ms-route and
+     * cancel the draft if it was committed. Best effort; the expiry scan catches anything left behind.
+     */
+    private void compensateFailedBooking(CreateBookingDraftRequestVM req, Booking b, String sessKey) {
+        // Cleanup Redis session if it was created
+        if (sessKey != null) {
+            redis.delete(sessKey);
+        }
+
+        // Cancel seat lock
+        try {
+            SeatLockActionRequestDTO cancelRequest = new SeatLockActionRequestDTO();
+            cancelRequest.setBookingId(b != null ? b.getId() : 0L);
+            cancelRequest.setTripId(req.getTripId());
+            cancelRequest.setSeatNumbers(req.getSeats());
+            // Note: lockGroupId is not available in SeatLockActionRequestDTO
+
+            seatLockResourceMsrouteApi.cancelSeatLocks(cancelRequest);
+            LOG.debug("Successfully cancelled seat locks for failed booking request {}", req.getIdemKey());
+        } catch (Exception cancelEx) {
+            LOG.warn("Failed to cancel seat locks for failed booking request {}: {}", req.getIdemKey(),
+                    cancelEx.getMessage());
+        }
+
+        // Cancel the committed draft
+        if (b != null) {
+            try {
+                statusTransitionService.transitionBooking(b.getId(), b.getStatus(), BookingStatus.CANCELED);
+            } catch (Exception cancelEx) {
+                LOG.warn("Failed to cancel draft booking {}: {}", b.getBookingCode(), cancelEx.getMessage());
+            }
         }
     }
 
@@ -6,15 +6,22 @@ import com.ridehub.booking.domain.PaymentWebhookLog;
 import com.ridehub.booking.domain.Ticket;
 import com.ridehub.booking.domain.enumeration.AvroTicketStatus;
 import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.domain.enumeration.PaymentMethod;
 import com.ridehub.booking.domain.enumeration.PaymentStatus;
 import com.ridehub.booking.repository.BookingRepository;
 import com.ridehub.booking.repository.PaymentTransactionRepository;
 import com.ridehub.booking.repository.PaymentWebhookLogRepository;
 import com.ridehub.booking.repository.TicketRepository;
+import com.ridehub.booking.service.BookingSeatService;
 import com.ridehub.booking.service.PaymentService;
+import com.ridehub.booking.service.payment.PaymentOutcome;
 import com.ridehub.booking.service.payment.sepay.SePayService;
+import com.ridehub.booking.service.payment.vnpay.VNPayPollSchedule;
 import com.ridehub.booking.service.payment.vnpay.VNPayService;
 import com.ridehub.booking.service.payment.vnpay.VNPayUtils;
+import com.ridehub.booking.service.state.StatusTransitionService;
+import com.ridehub.booking.service.state.StatusTransitions;
+import com.ridehub.booking.service.ticket.TicketLookupCache;
 import com.ridehub.booking.service.vm.InitiatePaymentRequestVM;
 import com.ridehub.booking.service.vm.PaymentInitiationResultVM;
 import com.ridehub.msroute.client.api.SeatLockResourceMsrouteApi;
@@ -29,9 +36,13 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -40,6 +51,11 @@ import java.security.MessageDigest;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Service Implementation for managing Payment operations.
@@ -50,6 +66,23 @@ public class PaymentServiceImpl implements PaymentService {
 
     private static final Logger LOG = LoggerFactory.getLogger(PaymentServiceImpl.class);
 
+    private static final String PAYMENT_URL_KEY_PREFIX = "payment:url:";
+    private static final String PAYMENT_INIT_LOCK_PREFIX = "payment:init:lock:";
+    private static final Duration PAYMENT_INIT_LOCK_TTL = Duration.ofMinutes(3);
+    // KEYS[1] = lock, ARGV[1] = token; deletes the lock only while this token still holds it
+    private static final DefaultRedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+    private static final Duration DEFAULT_PAYMENT_URL_TTL = Duration.ofMinutes(15);
+    private static final String PAYMENT_OUTCOME_KEY_PREFIX = "payment:outcome:";
+    private static final Duration PAYMENT_OUTCOME_IN_PROGRESS_TTL = Duration.ofMinutes(5);
+    private static final Duration PAYMENT_OUTCOME_TTL = Duration.ofDays(2);
+    private static final String OUTCOME_IN_PROGRESS = "IN_PROGRESS";
+    // Results after which the same outcome may be applied again (nothing was committed)
+    private static final Set<String> RETRYABLE_RESULTS = Set.of("FAILED", "SEAT_CONFIRM_FAILED", "ERROR", "CONFLICT");
+
+    private final ConcurrentMap<Long, InFlightInitiation> inFlightInitiations = new ConcurrentHashMap<>();
+
     private final BookingRepository bookingRepository;
     private final PaymentTransactionRepository paymentTransactionRepository;
     private final PaymentWebhookLogRepository paymentWebhookLogRepository;
@@ -59,6 +92,11 @@ public class PaymentServiceImpl implements PaymentService {
     private final SeatLockResourceMsrouteApi seatLockResourceMsrouteApi;
     private final VNPayService vnPayService;
     private final SePayService sePayService;
+    private final VNPayPollSchedule vnPayPollSchedule;
+    private final TransactionTemplate transactionTemplate;
+    private final StatusTransitionService statusTransitionService;
+    private final BookingSeatService bookingSeatService;
+    private final TicketLookupCache ticketLookupCache;
 
     public PaymentServiceImpl(
             BookingRepository bookingRepository,
@@ -69,7 +107,12 @@ public class PaymentServiceImpl implements PaymentService {
             TripResourceMsrouteApi tripResourceMsrouteApi,
             SeatLockResourceMsrouteApi seatLockResourceMsrouteApi,
             VNPayService vnPayService,
-            SePayService sePayService) {
+            SePayService sePayService,
+            VNPayPollSchedule vnPayPollSchedule,
+            PlatformTransactionManager transactionManager,
+            StatusTransitionService statusTransitionService,
+            BookingSeatService bookingSeatService,
+            TicketLookupCache ticketLookupCache) {
 
         this.bookingRepository = bookingRepository;
         this.paymentTransactionRepository = paymentTransactionRepository;
@@ -80,29 +123,207 @@ public class PaymentServiceImpl implements PaymentService {
         this.seatLockResourceMsrouteApi = seatLockResourceMsrouteApi;
         this.vnPayService = vnPayService;
         this.sePayService = sePayService;
+        this.vnPayPollSchedule = vnPayPollSchedule;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.statusTransitionService = statusTransitionService;
+        this.bookingSeatService = bookingSeatService;
+        this.ticketLookupCache = ticketLookupCache;
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PaymentInitiationResultVM initiatePayment(InitiatePaymentRequestVM request, String returnUrl,
             String ipAddress) {
+        try {
+            return initiatePaymentAsync(request, returnUrl, ipAddress).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<PaymentInitiationResultVM> initiatePaymentAsync(InitiatePaymentRequestVM request,
+            String returnUrl, String ipAddress) {
         LOG.debug("Initiating payment for booking: {}", request.getBookingId());
+        Long bookingId = request.getBookingId();
+
+        // Single-flight: concurrent requests for the same booking on this node share one initiation
+        InFlightInitiation created = new InFlightInitiation(request.getMethod());
+        InFlightInitiation inFlight = inFlightInitiations.putIfAbsent(bookingId, created);
+        if (inFlight != null) {
+            if (inFlight.method != request.getMethod()) {
+                throw new IllegalStateException("Payment initiation already in progress for booking " + bookingId);
+            }
+            LOG.debug("Joining in-flight payment initiation for booking {}", bookingId);
+            return inFlight.result;
+        }
+
+        try {
+            doInitiatePayment(request, returnUrl, ipAddress).whenComplete((result, error) -> {
+                if (error != null) {
+                    created.result.completeExceptionally(error);
+                } else {
+                    created.result.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            created.result.completeExceptionally(e);
+        }
+        created.result.whenComplete((result, error) -> inFlightInitiations.remove(bookingId, created));
+        return created.result;
+    }
+
+    private CompletableFuture<PaymentInitiationResultVM> doInitiatePayment(InitiatePaymentRequestVM request,
+            String returnUrl, String ipAddress) {
+        Long bookingId = request.getBookingId();
+
+        // 1) Reuse a still-valid INITIATED transaction with a cached URL (double-tap / return from gateway)
+        Optional<PaymentInitiationResultVM> reusable = findReusableInitiation(request);
+        if (reusable.isPresent()) {
+            LOG.debug("Reusing pending transaction {} for booking {}", reusable.get().getTransactionId(), bookingId);
+            return CompletableFuture.completedFuture(reusable.get());
+        }
+
+        // 2) Cluster-wide single-flight: only one node may call the gateway for this booking
+        String lockKey = PAYMENT_INIT_LOCK_PREFIX + bookingId;
+        String lockToken = UUID.randomUUID().toString();
+        Boolean locked = redis.opsForValue().setIfAbsent(lockKey, lockToken, PAYMENT_INIT_LOCK_TTL);
+        if (!Boolean.TRUE.equals(locked)) {
+            throw new IllegalStateException("Payment initiation already in progress for booking " + bookingId);
+        }
+
+        CompletableFuture<PaymentInitiationResultVM> result;
+        try {
+            // 3) Check again under the lock: a request that held it may have just finished an initiation
+            reusable = findReusableInitiation(request);
+            if (reusable.isPresent()) {
+                LOG.debug("Reusing transaction {} initiated concurrently for booking {}",
+                        reusable.get().getTransactionId(), bookingId);
+                releaseInitLock(lockKey, lockToken);
+                return CompletableFuture.completedFuture(reusable.get());
+            }
+            result = createPaymentInitiation(request, returnUrl, ipAddress);
+        } catch (RuntimeException e) {
+            releaseInitLock(lockKey, lockToken);
+            throw e;
+        }
+        return result.whenComplete((r, error) -> releaseInitLock(lockKey, lockToken));
+    }
+
+    private CompletableFuture<PaymentInitiationResultVM> createPaymentInitiation(InitiatePaymentRequestVM request,
+            String returnUrl, String ipAddress) {
+        // 1) Validate booking and persist the INITIATED transaction in a short transaction
+        PaymentTransaction transaction = transactionTemplate.execute(status -> createInitiatedTransaction(
+                loadPayableBooking(request.getBookingId()), request));
+        Booking booking = transaction.getBooking();
+        Long bookingId = booking.getId();
+        String transactionId = transaction.getTransactionId();
+        String orderRef = transaction.getOrderRef();
+
+        // 2) Gateway call outside any transaction; SePay is fully non-blocking
+        CompletableFuture<String> paymentUrl;
+        if (request.getMethod() == PaymentMethod.SEPAY) {
+            paymentUrl = sePayService.createPaymentUrlAsync(request, transactionId, orderRef, booking.getTotalAmount(),
+                    returnUrl, ipAddress, booking.getExpiresAt());
+        } else {
+            try {
+                paymentUrl = CompletableFuture.completedFuture(generatePaymentUrl(request, transactionId, orderRef,
+                        booking.getTotalAmount(), returnUrl, ipAddress, booking.getExpiresAt()));
+            } catch (RuntimeException e) {
+                paymentUrl = CompletableFuture.failedFuture(e);
+            }
+        }
+
+        // 3) Link transaction to booking once the URL is known and cache the URL for reuse
+        return paymentUrl.handle((url, error) -> {
+            if (error != null) {
+                markInitiationFailed(transactionId);
+                throw error instanceof CompletionException ce ? ce : new CompletionException(error);
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                Booking current = bookingRepository.findById(bookingId)
+                        .orElseThrow(() -> new IllegalArgumentException("Booking not found: " + bookingId));
+                paymentTransactionRepository.findByTransactionId(transactionId).ifPresent(current::setPaymentTransaction);
+                current.setUpdatedAt(Instant.now());
+                bookingRepository.save(current);
+            });
+            cachePaymentUrl(transactionId, url, booking.getExpiresAt());
+            if (request.getMethod() == PaymentMethod.VNPAY) {
+                schedulePolling(transactionId);
+            }
+            LOG.debug("Payment initiated for booking {} with txn {}", bookingId, transactionId);
+            return new PaymentInitiationResultVM(url, transactionId, orderRef);
+        });
+    }
+
+    /**
+     * The booking's current transaction can be reused when it is still INITIATED, uses the same method,
+     * the booking has not expired and its payment URL is still cached.
+     */
+    private Optional<PaymentInitiationResultVM> findReusableInitiation(InitiatePaymentRequestVM request) {
+        return transactionTemplate.execute(status -> {
+            Booking booking = loadPayableBooking(request.getBookingId());
+            PaymentTransaction current = booking.getPaymentTransaction();
+            if (current == null
+                    || current.getStatus() != PaymentStatus.INITIATED
+                    || current.getMethod() != request.getMethod()
+                    || (booking.getExpiresAt() != null && !booking.getExpiresAt().isAfter(Instant.now()))) {
+                return Optional.empty();
+            }
+            String cachedUrl = redis.opsForValue().get(PAYMENT_URL_KEY_PREFIX + current.getTransactionId());
+            if (cachedUrl == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new PaymentInitiationResultVM(cachedUrl, current.getTransactionId(),
+                    current.getOrderRef()));
+        });
+    }
+
+    private void cachePaymentUrl(String transactionId, String paymentUrl, Instant bookingExpiresAt) {
+        Duration ttl = bookingExpiresAt != null ? Duration.between(Instant.now(), bookingExpiresAt)
+                : DEFAULT_PAYMENT_URL_TTL;
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+        try {
+            redis.opsForValue().set(PAYMENT_URL_KEY_PREFIX + transactionId, paymentUrl, ttl);
+        } catch (Exception e) {
+            LOG.warn("Could not cache payment URL for transaction {}: {}", transactionId, e.getMessage());
+        }
+    }
+
+    private void schedulePolling(String transactionId) {
+        try {
+            vnPayPollSchedule.schedule(transactionId);
+        } catch (Exception e) {
+            // the periodic seed in VNPayPollingService picks it up later
+            LOG.warn("Could not schedule VNPay polling for transaction {}: {}", transactionId, e.getMessage());
+        }
+    }
+
+    private void releaseInitLock(String lockKey, String lockToken) {
+        try {
+            redis.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), lockToken);
+        } catch (Exception e) {
+            LOG.warn("Could not release payment initiation lock {}: {}", lockKey, e.getMessage());
+        }
+    }
 
-        // 1) Validate booking exists and is in AWAITING_PAYMENT
-        Booking booking = bookingRepository.findById(request.getBookingId())
-                .orElseThrow(() -> new IllegalArgumentException("Booking not found: " + request.getBookingId()));
+    private Booking loadPayableBooking(Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new IllegalArgumentException("Booking not found: " + bookingId));
 
         if (booking.getStatus() != BookingStatus.AWAITING_PAYMENT) {
             throw new IllegalStateException("Booking is not in AWAITING_PAYMENT status: " + booking.getStatus());
         }
+        return booking;
+    }
 
-        // 2) Create payment transaction (INITIATED)
-        String transactionId = generateTransactionId();
-        String orderRef = booking.getBookingCode();
-
+    private PaymentTransaction createInitiatedTransaction(Booking booking, InitiatePaymentRequestVM request) {
         PaymentTransaction transaction = new PaymentTransaction();
-        transaction.setTransactionId(transactionId);
-        transaction.setOrderRef(orderRef);
+        transaction.setTransactionId(generateTransactionId());
+        transaction.setOrderRef(booking.getBookingCode());
         transaction.setMethod(request.getMethod());
         transaction.setStatus(PaymentStatus.INITIATED);
         transaction.setAmount(booking.getTotalAmount());
@@ -112,23 +333,26 @@ public class PaymentServiceImpl implements PaymentService {
         transaction.setUpdatedAt(Instant.now());
         transaction.setBooking(booking);
 
-        transaction = paymentTransactionRepository.save(transaction);
-
-        // 3) Generate payment URL based on method
-        String paymentUrl = generatePaymentUrl(request, transactionId, orderRef, booking.getTotalAmount(), returnUrl,
-                ipAddress, booking.getExpiresAt());
-
-        // NOTE: keep booking in AWAITING_PAYMENT; do not flip to PAID here
-        booking.setPaymentTransaction(transaction);
-        booking.setUpdatedAt(Instant.now());
-        bookingRepository.save(booking);
+        return paymentTransactionRepository.save(transaction);
+    }
 
-        LOG.debug("Payment initiated for booking {} with txn {}", booking.getId(), transactionId);
-        return new PaymentInitiationResultVM(paymentUrl, transactionId, orderRef);
+    private void markInitiationFailed(String transactionId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> paymentTransactionRepository
+                    .findByTransactionId(transactionId)
+                    .filter(tx -> tx.getStatus() == PaymentStatus.INITIATED)
+                    .ifPresent(tx -> statusTransitionService.transition(tx, PaymentStatus.FAILED)));
+        } catch (Exception e) {
+            LOG.error("Could not mark transaction {} as FAILED after gateway error", transactionId, e);
+        }
     }
 
+    /**
+     * Webhook lookups and log writes are short repository transactions; the outcome itself is applied in
+     * local-commit and remote-call phases by {@link #applyOutcome}.
+     */
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String processWebhook(String provider, String payload, String signature) {
         LOG.debug("Processing webhook from provider: {}", provider);
 
@@ -176,59 +400,22 @@ public class PaymentServiceImpl implements PaymentService {
 
             PaymentTransaction transaction = transactionOpt.orElseThrow(() -> new IllegalStateException("Transaction should be present"));
 
-            // Check if transaction is already in final state
-            if (transaction.getStatus() == PaymentStatus.SUCCESS ||
-                    transaction.getStatus() == PaymentStatus.FAILED ||
-                    transaction.getStatus() == PaymentStatus.REFUNDED) {
-                LOG.info("Transaction {} already in final state: {}", webhookData.getTransactionId(),
-                        transaction.getStatus());
-                
-                // Create webhook log for already final transaction
-                PaymentWebhookLog finalLog = new PaymentWebhookLog();
-                finalLog.setProvider(provider);
-                finalLog.setPayloadHash(payloadHash);
-                finalLog.setReceivedAt(Instant.now());
-                finalLog.setProcessingStatus("ALREADY_FINAL");
-                finalLog.setCreatedAt(Instant.now());
-                finalLog.setPaymentTransaction(transaction); // Set transaction reference
-                paymentWebhookLogRepository.save(finalLog);
-                
-                return "ALREADY_FINAL";
-            }
-
             // 6) Create webhook log with ALL required fields set
-            PaymentWebhookLog webhookLog;
-            try {
-                webhookLog = new PaymentWebhookLog();
-                webhookLog.setProvider(provider);
-                webhookLog.setPayloadHash(payloadHash);
-                webhookLog.setReceivedAt(Instant.now());
-                webhookLog.setProcessingStatus("PROCESSING");
-                webhookLog.setCreatedAt(Instant.now());
-                webhookLog.setPaymentTransaction(transaction); // CRITICAL: Set transaction before save
-                
-                webhookLog = paymentWebhookLogRepository.save(webhookLog);
-
-            } catch (Exception e) {
-                // If we can't create the log entry, another thread might be processing this
-                LOG.warn("Could not create webhook log entry, possible duplicate processing: {}", e.getMessage());
-                return "DUPLICATE_PROCESSING";
-            }
-
-            // 7) Process by mapped status
-            PaymentStatus gatewayStatus = mapGatewayStatus(webhookData.getStatus());
-            Booking booking = transaction.getBooking();
-
-            String result;
-            if (gatewayStatus == PaymentStatus.SUCCESS) {
-                result = processSuccessfulPayment(transaction, booking, webhookLog);
-            } else if (gatewayStatus == PaymentStatus.FAILED || gatewayStatus == PaymentStatus.REFUNDED) {
-                result = processFailedPayment(transaction, booking, webhookLog, gatewayStatus);
-            } else {
-                result = "PROCESSED";
-            }
-
-            return result;
+            // Concurrent deliveries are resolved by the versioned status transition, not by this insert
+            PaymentWebhookLog webhookLog = new PaymentWebhookLog();
+            webhookLog.setProvider(provider);
+            webhookLog.setPayloadHash(payloadHash);
+            webhookLog.setReceivedAt(Instant.now());
+            webhookLog.setProcessingStatus("PROCESSING");
+            webhookLog.setCreatedAt(Instant.now());
+            webhookLog.setPaymentTransaction(transaction); // CRITICAL: Set transaction before save
+            webhookLog = paymentWebhookLogRepository.save(webhookLog);
+
+            // 7) Apply the typed outcome
+            PaymentOutcome outcome = new PaymentOutcome(webhookData.getTransactionId(),
+                    mapGatewayStatus(webhookData.getStatus()), webhookData.getAmount(), provider.toUpperCase(Locale.ROOT),
+                    webhookData.getStatus());
+            return applyOutcome(transaction, outcome, webhookLog);
 
         } catch (Exception ex) {
             LOG.error("Error processing webhook: {}", ex.getMessage(), ex);
@@ -236,125 +423,270 @@ public class PaymentServiceImpl implements PaymentService {
         }
     }
 
-    // === SUCCESS path =========================================================
-
-    private String processSuccessfulPayment(PaymentTransaction transaction, Booking booking,
-            PaymentWebhookLog webhookLog) {
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String applyPaymentOutcome(PaymentOutcome outcome) {
+        Optional<PaymentTransaction> transaction = paymentTransactionRepository.findByTransactionId(outcome.getTransactionId());
+        if (transaction.isEmpty()) {
+            LOG.warn("Payment transaction not found for outcome {}", outcome);
+            return "TRANSACTION_NOT_FOUND";
+        }
+        return applyPaymentOutcome(transaction.orElseThrow(), outcome);
+    }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String applyPaymentOutcome(PaymentTransaction transaction, PaymentOutcome outcome) {
+        LOG.debug("Applying payment outcome {}", outcome);
         try {
-            // IMPROVED: Load seat numbers first (local operation)
-            List<String> seatNos = loadSeatNosForBooking(booking);
-
-            // 1. Update local data first (fast, no external dependencies)
-            transaction.setStatus(PaymentStatus.SUCCESS);
-            transaction.setUpdatedAt(Instant.now());
-
-            booking.setStatus(BookingStatus.CONFIRMED);
-            booking.setUpdatedAt(Instant.now());
-
-            // 2. Create tickets (local operation)
-            createTicketsForBooking(booking, seatNos);
+            return applyOutcome(transaction, outcome, null);
+        } catch (Exception ex) {
+            LOG.error("Error applying payment outcome {}: {}", outcome, ex.getMessage(), ex);
+            return "ERROR";
+        }
+    }
 
-            // 3. Save all local changes first
-            paymentTransactionRepository.save(transaction);
-            bookingRepository.save(booking);
+    /**
+     * Shared state transition for webhooks and pollers. Terminal outcomes are claimed under a Redis key per
+     * {@code (transactionId, status)} so concurrent reports of the same result are applied once; the key
+     * keeps the result once the outcome is applied and is dropped again if it may be retried.
+     * <p>
+     * Runs without a surrounding transaction: local changes are committed in short transactions and the
+     * ms-route calls happen between them, never while a connection or row lock is held.
+     *
+     * @param transaction the transaction as read by the caller; only used for the fast-path checks
+     * @param webhookLog log entry of the originating webhook, or {@code null} for polled outcomes
+     */
+    private String applyOutcome(PaymentTransaction transaction, PaymentOutcome outcome, PaymentWebhookLog webhookLog) {
+        // Check if transaction is already in final state
+        if (transaction.getStatus() == PaymentStatus.SUCCESS ||
+                StatusTransitions.isTerminal(transaction.getStatus())) {
+            LOG.info("Transaction {} already in final state: {}", transaction.getTransactionId(),
+                    transaction.getStatus());
+            return finishWebhookLog(webhookLog, "ALREADY_FINAL");
+        }
 
-            // 4. Confirm seats in ms-route (external API - last step)
-            try {
-                confirmSeatLocks(booking, seatNos);
-                LOG.debug("Successfully confirmed seat locks for booking {}", booking.getBookingCode());
-            } catch (Exception e) {
-                // CRITICAL: If seat confirmation fails, we need to rollback
-                LOG.error("Seat confirmation failed after payment success, attempting rollback: {}", e.getMessage(), e);
+        if (!outcome.isTerminal()) {
+            return finishWebhookLog(webhookLog, "PROCESSED");
+        }
 
-                // Rollback local changes
-                transaction.setStatus(PaymentStatus.PROCESSING);
-                booking.setStatus(BookingStatus.AWAITING_PAYMENT);
+        if (!StatusTransitions.canTransition(transaction.getStatus(), outcome.getStatus())) {
+            LOG.warn("Ignoring outcome {}: transaction is {}", outcome, transaction.getStatus());
+            return finishWebhookLog(webhookLog, "IGNORED");
+        }
 
-                paymentTransactionRepository.save(transaction);
-                bookingRepository.save(booking);
+        String outcomeKey = PAYMENT_OUTCOME_KEY_PREFIX + outcome.getIdempotencyKey();
+        Boolean claimed = redis.opsForValue().setIfAbsent(outcomeKey, OUTCOME_IN_PROGRESS, PAYMENT_OUTCOME_IN_PROGRESS_TTL);
+        if (!Boolean.TRUE.equals(claimed)) {
+            String previous = redis.opsForValue().get(outcomeKey);
+            String result = previous == null || OUTCOME_IN_PROGRESS.equals(previous) ? "DUPLICATE_PROCESSING" : previous;
+            LOG.debug("Outcome {} already claimed: {}", outcome.getIdempotencyKey(), result);
+            return finishWebhookLog(webhookLog, result);
+        }
 
-                // Mark for manual review
-                markForManualReview(booking, "Seat confirmation failed after payment: " + e.getMessage());
+        String result;
+        try {
+            PaymentSnapshot snapshot = loadSnapshot(transaction.getTransactionId());
+            if (snapshot == null) {
+                result = finishWebhookLog(webhookLog, "TRANSACTION_NOT_FOUND");
+            } else if (outcome.getStatus() == PaymentStatus.SUCCESS) {
+                result = processSuccessfulPayment(snapshot.transaction, snapshot.booking, webhookLog);
+            } else {
+                result = processFailedPayment(snapshot.transaction, snapshot.booking, webhookLog, outcome.getStatus());
+            }
+        } catch (RuntimeException e) {
+            redis.delete(outcomeKey);
+            throw e;
+        }
+        releaseOutcomeKey(outcomeKey, result);
+        return result;
+    }
 
-                webhookLog.setProcessingStatus("SEAT_CONFIRM_FAILED");
-                paymentWebhookLogRepository.save(webhookLog);
+    /**
+     * Current payment transaction and its booking, read in a short read-only transaction on the primary. A
+     * lagging replica would answer TRANSACTION_NOT_FOUND or an old status, which the outcome key would then
+     * keep, so this service is deliberately not {@link com.ridehub.booking.service.ReplicaRead}.
+     */
+    private PaymentSnapshot loadSnapshot(String transactionId) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> paymentTransactionRepository.findByTransactionId(transactionId)
+                .map(current -> new PaymentSnapshot(current,
+                        bookingRepository.findByPaymentTransactionId(current.getId()).orElse(null)))
+                .orElse(null));
+    }
 
-                return "SEAT_CONFIRM_FAILED";
+    /**
+     * Keep the outcome key (holding the result) once the outcome is applied; drop it when the result
+     * allows the outcome to be retried.
+     */
+    private void releaseOutcomeKey(String outcomeKey, String result) {
+        try {
+            if (RETRYABLE_RESULTS.contains(result)) {
+                redis.delete(outcomeKey);
+            } else {
+                redis.opsForValue().set(outcomeKey, result, PAYMENT_OUTCOME_TTL);
             }
+        } catch (Exception e) {
+            LOG.warn("Could not update outcome key {}: {}", outcomeKey, e.getMessage());
+        }
+    }
 
-            // 5. Update cache (only after all operations succeed)
-            String cacheKey = "booking:" + booking.getBookingCode();
-            redis.opsForValue().set(cacheKey, "CONFIRMED", Duration.ofDays(1));
-
-            // 6. Finalize webhook log status
-            webhookLog.setProcessingStatus("SUCCESS");
+    private String finishWebhookLog(PaymentWebhookLog webhookLog, String result) {
+        if (webhookLog != null) {
+            webhookLog.setProcessingStatus(result);
             webhookLog.setUpdatedAt(Instant.now());
             paymentWebhookLogRepository.save(webhookLog);
+        }
+        return result;
+    }
+
+    // === SUCCESS path =========================================================
+
+    /**
+     * Confirm a paid booking in three phases:
+     * <ol>
+     * <li>remote: fetch the trip detail needed for the tickets (read-only, nothing to undo);</li>
+     * <li>local commit: move booking and payment with versioned conditional updates and create the
+     * tickets, so a concurrent expiry or second gateway report loses cleanly;</li>
+     * <li>remote: confirm the seat locks in ms-route. If that fails the booking is compensated to
+     * {@link BookingStatus#RECOVERY_FAILED_SEAT_LOCKS} and flagged for manual review; the money has been
+     * taken, so the payment stays successful.</li>
+     * </ol>
+     */
+    private String processSuccessfulPayment(PaymentTransaction transaction, Booking booking,
+            PaymentWebhookLog webhookLog) {
+        if (booking == null) {
+            LOG.error("Payment {} succeeded but has no booking", transaction.getTransactionId());
+            return finishWebhookLog(webhookLog, "FAILED");
+        }
 
-            LOG.info("Payment confirmed for booking {}", booking.getBookingCode());
-            return "SUCCESS";
+        // A booking that was canceled (typically expired) or cannot be confirmed is not resurrected
+        if (!StatusTransitions.canTransition(booking.getStatus(), BookingStatus.CONFIRMED)
+                || booking.getStatus() == BookingStatus.CANCELED) {
+            return processPaymentForClosedBooking(transaction, booking, webhookLog);
+        }
 
+        List<String> seatNos;
+        try {
+            // 1. Remote read, before any local change
+            seatNos = loadSeatNosForBooking(booking);
+            TripDetailVM trip = tripResourceMsrouteApi.getTripDetail(booking.getTripId());
+
+            // 2. Local commit
+            String conflict = transactionTemplate.execute(status -> {
+                if (!statusTransitionService.transition(booking, BookingStatus.CONFIRMED)) {
+                    LOG.warn("Booking {} changed concurrently while confirming payment {}", booking.getBookingCode(),
+                            transaction.getTransactionId());
+                    return "CONFLICT";
+                }
+                if (!statusTransitionService.transition(transaction, PaymentStatus.SUCCESS)) {
+                    // Payment changed under us: undo the booking transition with the rest of this transaction
+                    status.setRollbackOnly();
+                    LOG.warn("Payment {} changed concurrently while confirming it", transaction.getTransactionId());
+                    return "CONFLICT";
+                }
+                createTicketsForBooking(booking, seatNos, trip);
+                return null;
+            });
+            if (conflict != null) {
+                return finishWebhookLog(webhookLog, conflict);
+            }
         } catch (Exception e) {
-            LOG.error("Payment processing failed, rolling back: {}", e.getMessage(), e);
+            // Nothing was committed: the outcome can be retried as is
+            LOG.error("Payment processing failed before confirmation: {}", e.getMessage(), e);
+            return finishWebhookLog(webhookLog, "FAILED");
+        }
 
-            // Rollback local changes if any step fails
+        // 3. Remote confirm, with compensation
+        try {
+            confirmSeatLocks(booking, seatNos);
+            LOG.debug("Successfully confirmed seat locks for booking {}", booking.getBookingCode());
+        } catch (Exception e) {
+            LOG.error("Seat confirmation failed after payment success for booking {}: {}", booking.getBookingCode(),
+                    e.getMessage(), e);
             try {
-                transaction.setStatus(PaymentStatus.PROCESSING);
-                booking.setStatus(BookingStatus.AWAITING_PAYMENT);
+                statusTransitionService.transitionBooking(booking.getId(), BookingStatus.CONFIRMED,
+                        BookingStatus.RECOVERY_FAILED_SEAT_LOCKS);
+            } catch (Exception compensationEx) {
+                LOG.error("Could not flag booking {} for seat lock recovery: {}", booking.getBookingCode(),
+                        compensationEx.getMessage(), compensationEx);
+            }
+            markForManualReview(booking, "Seat confirmation failed after payment: " + e.getMessage());
+            return finishWebhookLog(webhookLog, "SEAT_CONFIRM_FAILED");
+        }
 
-                paymentTransactionRepository.save(transaction);
-                bookingRepository.save(booking);
+        // 4. Update cache (only after all operations succeed)
+        String cacheKey = "booking:" + booking.getBookingCode();
+        redis.opsForValue().set(cacheKey, "CONFIRMED", Duration.ofDays(1));
 
-                webhookLog.setProcessingStatus("FAILED");
-                paymentWebhookLogRepository.save(webhookLog);
-            } catch (Exception rollbackEx) {
-                LOG.error("Failed to rollback payment processing: {}", rollbackEx.getMessage(), rollbackEx);
-            }
+        LOG.info("Payment confirmed for booking {}", booking.getBookingCode());
+        return finishWebhookLog(webhookLog, "SUCCESS");
+    }
 
-            return "FAILED";
+    /**
+     * The gateway took the money but the booking was already canceled (typically expired) or otherwise
+     * cannot be confirmed: park the payment for manual recovery instead of resurrecting the booking.
+     */
+    private String processPaymentForClosedBooking(PaymentTransaction transaction, Booking booking,
+            PaymentWebhookLog webhookLog) {
+        LOG.error("Payment {} succeeded but booking {} is {}; manual recovery required",
+                transaction.getTransactionId(), booking.getBookingCode(), booking.getStatus());
+        if (!statusTransitionService.transition(transaction, PaymentStatus.PAYMENT_SUCCESS_BUT_BOOKING_EXPIRED)) {
+            return finishWebhookLog(webhookLog, "ALREADY_FINAL");
         }
+        return finishWebhookLog(webhookLog, PaymentStatus.PAYMENT_SUCCESS_BUT_BOOKING_EXPIRED.name());
     }
 
     // === FAILED / REFUNDED path ===============================================
 
+    /**
+     * Commit the failed/refunded status locally, then release the seats in ms-route. Seats are only released
+     * when this outcome closed the booking; a booking that already moved on (e.g. canceled by expiry, which
+     * released its seats) keeps its status.
+     */
     private String processFailedPayment(PaymentTransaction transaction, Booking booking,
             PaymentWebhookLog webhookLog, PaymentStatus status) {
-        // Update payment transaction
-        transaction.setStatus(status);
-        transaction.setUpdatedAt(Instant.now());
-        paymentTransactionRepository.save(transaction);
-
-        // Update booking status
         BookingStatus newBookingStatus = (status == PaymentStatus.REFUNDED) ? BookingStatus.REFUNDED
                 : BookingStatus.CANCELED;
-        booking.setStatus(newBookingStatus);
-        booking.setUpdatedAt(Instant.now());
-
-        // Cancel seats
-        List<String> seatNos = loadSeatNosForBooking(booking);
-        cancelSeatLocks(booking, seatNos);
 
-        // Cleanup Redis session
-        String sessKey = "booking:sess:" + booking.getId();
-        redis.delete(sessKey);
+        // 1. Local commit
+        AtomicBoolean bookingClosed = new AtomicBoolean();
+        Boolean applied = transactionTemplate.execute(tx -> {
+            if (!statusTransitionService.transition(transaction, status)) {
+                return false;
+            }
+            if (booking != null && StatusTransitions.canTransition(booking.getStatus(), newBookingStatus)) {
+                bookingClosed.set(statusTransitionService.transition(booking, newBookingStatus));
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(applied)) {
+            return finishWebhookLog(webhookLog, "ALREADY_FINAL");
+        }
 
-        // Finalize webhook log
-        webhookLog.setProcessingStatus(status.name());
-        webhookLog.setUpdatedAt(Instant.now());
-        paymentWebhookLogRepository.save(webhookLog);
-        bookingRepository.save(booking);
+        // 2. Remote release; the status change above stands even if ms-route is unavailable
+        if (booking != null && bookingClosed.get()) {
+            try {
+                cancelSeatLocks(booking, loadSeatNosForBooking(booking));
+            } catch (Exception e) {
+                LOG.error("Could not release seats of booking {}: {}", booking.getBookingCode(), e.getMessage(), e);
+                markForManualReview(booking, "Seat release failed after payment " + status.name() + ": " + e.getMessage());
+            }
+            // Cleanup Redis session
+            redis.delete("booking:sess:" + booking.getId());
+        }
 
-        LOG.info("Payment {} for booking {}", status.name().toLowerCase(Locale.ROOT), booking.getBookingCode());
-        return status.name();
+        LOG.info("Payment {} for booking {}", status.name().toLowerCase(Locale.ROOT),
+                booking != null ? booking.getBookingCode() : null);
+        return finishWebhookLog(webhookLog, status.name());
     }
 
     // === Tickets ===============================================================
 
-    private void createTicketsForBooking(Booking booking, List<String> seatNos) {
-        // 1) Fetch trip detail
-        TripDetailVM trip = tripResourceMsrouteApi.getTripDetail(booking.getTripId());
-        TripDTO tripDTO = trip.getTripDTO();
+    private void createTicketsForBooking(Booking booking, List<String> seatNos, TripDetailVM trip) {
+        // 1) Trip detail was fetched before the transaction
+        TripDTO tripDTO = trip != null ? trip.getTripDTO() : null;
 
         if (tripDTO == null || tripDTO.getRoute() == null) {
             throw new IllegalStateException("Trip detail/route not found for trip " + booking.getTripId());
@@ -371,7 +703,9 @@ public class PaymentServiceImpl implements PaymentService {
         Instant dep = tripDTO.getDepartureTime().toInstant();
         Instant arr = tripDTO.getArrivalTime().toInstant();
 
-        // 5) Persist tickets
+        // 5) Persist tickets: ids come from the pooled sequence, so the inserts go out as one batch
+        Booking bookingRef = bookingRepository.getReferenceById(booking.getId());
+        List<Ticket> tickets = new ArrayList<>(seatNos.size());
         for (String rawSeatNo : seatNos) {
             String seatNo = normSeatNo(rawSeatNo);
             Long seatId = seatNoToId.get(seatNo);
@@ -390,10 +724,12 @@ public class PaymentServiceImpl implements PaymentService {
             t.setRouteId(tripDTO.getRoute().getId());
             t.setSeatId(seatId);
             t.setCreatedAt(Instant.now());
-            t.setBooking(booking);
+            t.setBooking(bookingRef);
             t.setStatus(AvroTicketStatus.BOOKED);
-            ticketRepository.save(t);
+            tickets.add(t);
         }
+        ticketRepository.saveAll(tickets);
+        ticketLookupCache.issued(booking.getBookingCode(), tickets);
     }
 
     private Map<String, Long> buildSeatNoToId(TripDetailVM trip) {
@@ -450,35 +786,14 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     /**
-     * Load the seat numbers for this booking.
-     * Adjust the Redis key to your actual storage (e.g., set during draft
-     * creation).
+     * Load the seat numbers for this booking from booking_seat (cached in Redis).
      */
     private List<String> loadSeatNosForBooking(Booking booking) {
-        // Try Redis first: e.g., "booking:seats:{bookingId}" holding comma-separated
-        // string
-        String key = "booking:seats:" + booking.getId();
-        String seatsStr = redis.opsForValue().get(key);
-        if (seatsStr != null && !seatsStr.trim().isEmpty()) {
-            // Split comma-separated string into list of seat numbers
-            return Arrays.stream(seatsStr.split(","))
-                    .map(String::trim)
-                    .filter(s -> !s.isEmpty())
-                    .toList();
-        }
-
-        // If not in Redis, you can alternatively query ms-route seat locks by
-        // bookingId+tripId.
-        // Uncomment when you have the Feign method:
-        // List<SeatLockDTO> locks =
-        // seatLockResourceMsrouteApi.findActiveLocks(booking.getTripId(),
-        // booking.getId());
-        // List<String> seats =
-        // locks.stream().map(SeatLockDTO::getSeatNo).map(this::normSeatNo).toList();
-        // if (!seats.isEmpty()) return seats;
-
-        throw new IllegalStateException(
-                "Seat list not found for booking " + booking.getId() + " (expected in Redis key " + key + ")");
+        List<String> seatNos = bookingSeatService.getSeatNos(booking.getId());
+        if (seatNos.isEmpty()) {
+            throw new IllegalStateException("Seat list not found for booking " + booking.getId());
+        }
+        return seatNos;
     }
 
     // === Helpers ===============================================================
@@ -583,6 +898,16 @@ public class PaymentServiceImpl implements PaymentService {
         }
     }
 
+    private static final class PaymentSnapshot {
+        private final PaymentTransaction transaction;
+        private final Booking booking;
+
+        private PaymentSnapshot(PaymentTransaction transaction, Booking booking) {
+            this.transaction = transaction;
+            this.booking = booking;
+        }
+    }
+
     // Simple DTO for parsed webhook data
     private static class WebhookData {
         private final String transactionId;
@@ -608,4 +933,13 @@ public class PaymentServiceImpl implements PaymentService {
         }
     }
 
+
+    private static final class InFlightInitiation {
+        private final PaymentMethod method;
+        private final CompletableFuture<PaymentInitiationResultVM> result = new CompletableFuture<>();
+
+        private InFlightInitiation(PaymentMethod method) {
+            this.method = method;
+        }
+    }
 }
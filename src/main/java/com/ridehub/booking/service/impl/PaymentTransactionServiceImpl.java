@@ -12,6 +12,7 @@ import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -44,6 +45,10 @@ public class PaymentTransactionServiceImpl implements PaymentTransactionService
         return paymentTransactionMapper.toDto(paymentTransaction);
     }
 
+    /**
+     * The DTO carries the version it was read at, so the entity is merged rather than inserted and a stale
+     * version fails with an optimistic-lock conflict.
+     */
     @Override
     public PaymentTransactionDTO update(PaymentTransactionDTO paymentTransactionDTO) {
         LOG.debug("Request to update PaymentTransaction : {}", paymentTransactionDTO);
@@ -59,6 +64,12 @@ public class PaymentTransactionServiceImpl implements PaymentTransactionService
         return paymentTransactionRepository
             .findById(paymentTransactionDTO.getId())
             .map(existingPaymentTransaction -> {
+                if (
+                    paymentTransactionDTO.getVersion() != null &&
+                    !paymentTransactionDTO.getVersion().equals(existingPaymentTransaction.getVersion())
+                ) {
+                    throw new ObjectOptimisticLockingFailureException(PaymentTransaction.class, existingPaymentTransaction.getId());
+                }
                 paymentTransactionMapper.partialUpdate(existingPaymentTransaction, paymentTransactionDTO);
 
                 return existingPaymentTransaction;
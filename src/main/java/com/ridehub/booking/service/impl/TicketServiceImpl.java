@@ -12,7 +12,10 @@ import com.ridehub.booking.service.dto.request.TicketExchangeRequestDTO;
 import com.ridehub.booking.service.dto.request.TicketRefundRequestDTO;
 import com.ridehub.booking.service.dto.response.TicketOperationResponseDTO;
 import com.ridehub.booking.service.mapper.TicketMapper;
+import com.ridehub.booking.service.payment.refund.RefundQueueService;
+import com.ridehub.booking.service.ticket.TicketLookupCache;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import org.slf4j.Logger;
@@ -33,9 +36,20 @@ public class TicketServiceImpl implements TicketService {
 
     private final TicketMapper ticketMapper;
 
-    public TicketServiceImpl(TicketRepository ticketRepository, TicketMapper ticketMapper) {
+    private final RefundQueueService refundQueueService;
+
+    private final TicketLookupCache ticketLookupCache;
+
+    public TicketServiceImpl(
+        TicketRepository ticketRepository,
+        TicketMapper ticketMapper,
+        RefundQueueService refundQueueService,
+        TicketLookupCache ticketLookupCache
+    ) {
         this.ticketRepository = ticketRepository;
         this.ticketMapper = ticketMapper;
+        this.refundQueueService = refundQueueService;
+        this.ticketLookupCache = ticketLookupCache;
     }
 
     @Override
@@ -43,20 +57,24 @@ public class TicketServiceImpl implements TicketService {
         LOG.debug("Request to save Ticket : {}", ticketDTO);
         Ticket ticket = ticketMapper.toEntity(ticketDTO);
         ticket = ticketRepository.save(ticket);
+        evictLookups(ticket.getId());
         return ticketMapper.toDto(ticket);
     }
 
     @Override
     public TicketDTO update(TicketDTO ticketDTO) {
         LOG.debug("Request to update Ticket : {}", ticketDTO);
+        evictLookups(ticketDTO.getId());
         Ticket ticket = ticketMapper.toEntity(ticketDTO);
         ticket = ticketRepository.save(ticket);
+        evictLookups(ticket.getId());
         return ticketMapper.toDto(ticket);
     }
 
     @Override
     public Optional<TicketDTO> partialUpdate(TicketDTO ticketDTO) {
         LOG.debug("Request to partially update Ticket : {}", ticketDTO);
+        evictLookups(ticketDTO.getId());
 
         return ticketRepository
             .findById(ticketDTO.getId())
@@ -66,7 +84,10 @@ public class TicketServiceImpl implements TicketService {
                 return existingTicket;
             })
             .map(ticketRepository::save)
-            .map(ticketMapper::toDto);
+            .map(ticket -> {
+                evictLookups(ticket.getId());
+                return ticketMapper.toDto(ticket);
+            });
     }
 
     @Override
@@ -79,25 +100,34 @@ public class TicketServiceImpl implements TicketService {
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete Ticket : {}", id);
+        evictLookups(id);
         ticketRepository.deleteById(id);
     }
 
+    /**
+     * Cached lookup; a miss is filled from the primary, since this service is not a replica reader.
+     */
     @Override
     @Transactional(readOnly = true)
     public List<TicketDTO> findByBookingCode(String bookingCode) {
         LOG.debug("Request to get Tickets by booking code : {}", bookingCode);
-        return ticketRepository.findByBooking_BookingCode(bookingCode)
-            .stream()
-            .map(ticketMapper::toDto)
-            .toList();
+        return ticketLookupCache
+            .getBookingTickets(bookingCode)
+            .orElseGet(() ->
+                ticketLookupCache.putBookingTickets(
+                    bookingCode,
+                    ticketRepository.findByBooking_BookingCode(bookingCode).stream().map(ticketMapper::toDto).toList()
+                )
+            );
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<TicketDTO> findByTicketCode(String ticketCode) {
         LOG.debug("Request to get Ticket by ticket code : {}", ticketCode);
-        return ticketRepository.findByTicketCode(ticketCode)
-            .map(ticketMapper::toDto);
+        return ticketLookupCache
+            .getTicket(ticketCode)
+            .or(() -> ticketRepository.findByTicketCode(ticketCode).map(ticketMapper::toDto).map(ticketLookupCache::putTicket));
     }
 
     @Override
@@ -106,6 +136,7 @@ public class TicketServiceImpl implements TicketService {
         return ticketRepository.findByTicketCode(ticketCode)
             .map(ticket -> {
                 ticket.setCheckedIn(true);
+                ticketLookupCache.evictTickets(List.of(ticketCode));
                 return ticketRepository.save(ticket);
             })
             .map(ticketMapper::toDto);
@@ -130,6 +161,7 @@ public class TicketServiceImpl implements TicketService {
                 ticket.setStatus(AvroTicketStatus.CANCELLED);
                 ticket.setUpdatedAt(Instant.now());
                 
+                ticketLookupCache.evictTickets(List.of(ticketCode));
                 Ticket savedTicket = ticketRepository.save(ticket);
                 return new TicketOperationResponseDTO(
                     ticketMapper.toDto(savedTicket), 
@@ -155,6 +187,16 @@ public class TicketServiceImpl implements TicketService {
                     );
                 }
                 
+                String refundProblem = refundQueueService.checkTicketRefund(ticket);
+                if (refundProblem != null) {
+                    LOG.warn("Could not queue refund for ticket {}: {}", ticketCode, refundProblem);
+                    return new TicketOperationResponseDTO(ticketMapper.toDto(ticket), refundProblem, false);
+                }
+
+                // Queue gateway execution; RefundWorker completes the ticket asynchronously
+                refundQueueService.enqueueTicketRefund(ticket, refundRequest.getRefundAmount(),
+                    refundRequest.getReason(), RefundQueueService.SOURCE_TICKET);
+
                 // Update ticket refund status and details
                 ticket.setStatus(AvroTicketStatus.REFUND_REQUESTED);
                 ticket.setRefundStatus(RefundStatus.REFUND_REQUESTED);
@@ -163,6 +205,7 @@ public class TicketServiceImpl implements TicketService {
                 ticket.setRefundRequestedAt(Instant.now());
                 ticket.setUpdatedAt(Instant.now());
                 
+                ticketLookupCache.evictTickets(List.of(ticketCode));
                 Ticket savedTicket = ticketRepository.save(ticket);
                 return new TicketOperationResponseDTO(
                     ticketMapper.toDto(savedTicket), 
@@ -199,6 +242,7 @@ public class TicketServiceImpl implements TicketService {
                 // In a real implementation, you might create a new ticket or update existing one
                 // For now, we'll just update the current ticket status
                 
+                ticketLookupCache.evictTickets(List.of(ticketCode));
                 Ticket savedTicket = ticketRepository.save(ticket);
                 return new TicketOperationResponseDTO(
                     ticketMapper.toDto(savedTicket), 
@@ -209,6 +253,19 @@ public class TicketServiceImpl implements TicketService {
             .orElse(new TicketOperationResponseDTO(null, "Ticket not found", false));
     }
 
+    /**
+     * Drop the cached lookups of a ticket, as stored in the database right now (the old codes before an update,
+     * the new ones after it).
+     */
+    private void evictLookups(Long ticketId) {
+        if (ticketId == null) {
+            return;
+        }
+        ticketRepository
+            .findLookupKeysById(ticketId)
+            .ifPresent(keys -> ticketLookupCache.evict(List.of(keys.getTicketCode()), Collections.singletonList(keys.getBookingCode())));
+    }
+
     /**
      * Validate if a ticket can be cancelled.
      */
@@ -0,0 +1,123 @@
+package com.ridehub.booking.service.keyset;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * Opaque cursor for keyset pagination: the sort key values of the last row of a slice, base64url-encoded.
+ * <p>
+ * Clients pass the cursor back unchanged to get the next slice. A cursor is only valid for the sort it was
+ * issued for; decoding it against another sort fails.
+ */
+public final class KeysetCursor {
+
+    private KeysetCursor() {}
+
+    /**
+     * Encode the keys of a keyset position, in sort order.
+     */
+    public static String encode(Map<String, ?> keys) {
+        StringJoiner joiner = new StringJoiner("&");
+        keys.forEach((property, value) ->
+            joiner.add(UriUtils.encode(property, StandardCharsets.UTF_8) + "=" + UriUtils.encode(format(value), StandardCharsets.UTF_8))
+        );
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor into keyset position keys typed like the entity attributes.
+     *
+     * @param cursor the cursor returned with the previous slice.
+     * @param entityType the entity the cursor was issued for.
+     * @param properties the sort properties of the current request, in order.
+     * @return the keys, in sort order.
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort.
+     */
+    public static Map<String, Object> decode(String cursor, Class<?> entityType, List<String> properties) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        List<String> cursorProperties = new ArrayList<>();
+        for (String pair : decoded.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            String property = UriUtils.decode(pair.substring(0, separator), StandardCharsets.UTF_8);
+            String value = UriUtils.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            cursorProperties.add(property);
+            if (properties.contains(property)) {
+                keys.put(property, parse(value, propertyType(entityType, property)));
+            }
+        }
+        if (!cursorProperties.equals(properties)) {
+            throw new IllegalArgumentException("Cursor was issued for sort " + cursorProperties + ", not " + properties);
+        }
+        return keys;
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Keyset sort columns must not be null");
+        }
+        return value instanceof Enum<?> constant ? constant.name() : value.toString();
+    }
+
+    private static Class<?> propertyType(Class<?> entityType, String property) {
+        Field field = ReflectionUtils.findField(entityType, property);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown cursor property " + property);
+        }
+        return field.getType();
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Object parse(String value, Class<?> type) {
+        try {
+            if (type == String.class) {
+                return value;
+            }
+            if (type == Long.class || type == long.class) {
+                return Long.valueOf(value);
+            }
+            if (type == Integer.class || type == int.class) {
+                return Integer.valueOf(value);
+            }
+            if (type == BigDecimal.class) {
+                return new BigDecimal(value);
+            }
+            if (type == Instant.class) {
+                return Instant.parse(value);
+            }
+            if (type == LocalDate.class) {
+                return LocalDate.parse(value);
+            }
+            if (type == UUID.class) {
+                return UUID.fromString(value);
+            }
+            if (type.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) type, value);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor value " + value, e);
+        }
+        throw new IllegalArgumentException("Unsupported cursor property type " + type.getSimpleName());
+    }
+}
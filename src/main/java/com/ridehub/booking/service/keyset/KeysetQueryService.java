@@ -0,0 +1,120 @@
+package com.ridehub.booking.service.keyset;
+
+import com.ridehub.booking.service.ReplicaRead;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+
+/**
+ * {@link QueryService} with an opt-in keyset (seek) pagination mode.
+ * <p>
+ * Instead of {@code LIMIT offset, size} plus a {@code COUNT}, a slice is read with
+ * {@code WHERE (sortKey, id) > (last sortKey, last id) ORDER BY sortKey, id LIMIT size + 1}, so deep slices
+ * cost the same as the first one. Only a single sort property out of {@code sortable} is honoured, always with
+ * {@code id} as tiebreak in the same direction; sortable properties must be non-null and indexed. Without a
+ * sort, slices are ordered by id, newest first.
+ */
+@Transactional(readOnly = true)
+@ReplicaRead
+public abstract class KeysetQueryService<ENTITY> extends QueryService<ENTITY> {
+
+    private static final String ID = "id";
+    private static final int DEFAULT_SIZE = 20;
+
+    private final Class<ENTITY> entityType;
+    private final Set<String> sortable;
+
+    protected KeysetQueryService(Class<ENTITY> entityType, Set<String> sortable) {
+        this.entityType = entityType;
+        this.sortable = sortable;
+    }
+
+    /**
+     * Read the slice after {@code cursor}.
+     *
+     * @param repository the repository of the entity.
+     * @param specification the filters built from the criteria.
+     * @param cursor the cursor returned with the previous slice, or {@code null} for the first one.
+     * @param pageable the slice size and sort; the page number is ignored.
+     * @param mapper converts the entities of the slice.
+     * @return the slice, with the cursor of the next one.
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort.
+     */
+    protected <D> CursorSlice<D> scroll(
+        JpaSpecificationExecutor<ENTITY> repository,
+        Specification<ENTITY> specification,
+        String cursor,
+        Pageable pageable,
+        Function<ENTITY, D> mapper
+    ) {
+        Sort sort = keysetSort(pageable.getSort());
+        int size = pageable.isPaged() ? pageable.getPageSize() : DEFAULT_SIZE;
+        KeysetScrollPosition position = cursor == null || cursor.isBlank()
+            ? ScrollPosition.keyset()
+            : ScrollPosition.forward(KeysetCursor.decode(cursor, entityType, sort.stream().map(Sort.Order::getProperty).toList()));
+
+        Window<ENTITY> window = repository.findBy(specification, query -> query.sortBy(sort).limit(size).scroll(position));
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = KeysetCursor.encode(((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys());
+        }
+        List<D> content = window.getContent().stream().map(mapper).toList();
+        return new CursorSlice<>(content, PageRequest.of(0, size, sort), nextCursor);
+    }
+
+    /**
+     * Read an offset page whose total comes from {@code total}, e.g. a cached count, instead of a {@code COUNT}
+     * query next to every page. The total is only asked for when the page itself does not tell it.
+     *
+     * @param repository the repository of the entity.
+     * @param specification the filters built from the criteria.
+     * @param pageable the page to read.
+     * @param total the number of entities matching {@code specification}.
+     * @return the page.
+     */
+    protected Page<ENTITY> page(
+        JpaSpecificationExecutor<ENTITY> repository,
+        Specification<ENTITY> specification,
+        Pageable pageable,
+        LongSupplier total
+    ) {
+        if (pageable.isUnpaged()) {
+            return repository.findAll(specification, pageable);
+        }
+        // An offset position is the last row already read, so reading from offset n starts after position n - 1
+        ScrollPosition position = pageable.getOffset() == 0 ? ScrollPosition.offset() : ScrollPosition.offset(pageable.getOffset() - 1);
+        List<ENTITY> content = repository
+            .findBy(specification, query -> query.sortBy(pageable.getSort()).limit(pageable.getPageSize()).scroll(position))
+            .getContent();
+        return PageableExecutionUtils.getPage(content, pageable, total);
+    }
+
+    /**
+     * The first sortable property of the requested sort followed by id, both in the requested direction.
+     */
+    Sort keysetSort(Sort requested) {
+        for (Sort.Order order : requested) {
+            if (ID.equals(order.getProperty())) {
+                return Sort.by(order.getDirection(), ID);
+            }
+            if (sortable.contains(order.getProperty())) {
+                return Sort.by(order.getDirection(), order.getProperty(), ID);
+            }
+        }
+        return Sort.by(Sort.Direction.DESC, ID);
+    }
+}
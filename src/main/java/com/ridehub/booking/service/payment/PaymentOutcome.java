@@ -0,0 +1,76 @@
+package com.ridehub.booking.service.payment;
+
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import java.math.BigDecimal;
+
+/**
+ * Gateway-reported result of a payment, as observed by a webhook or a status poller.
+ * <p>
+ * Outcomes are idempotent on {@code (transactionId, status)}: applying the same outcome twice has no further
+ * effect, whichever channel reported it.
+ */
+public class PaymentOutcome {
+
+    private final String transactionId;
+    private final PaymentStatus status;
+    private final BigDecimal amount;
+    private final String source;
+    private final String gatewayCode;
+
+    public PaymentOutcome(String transactionId, PaymentStatus status, BigDecimal amount, String source, String gatewayCode) {
+        if (transactionId == null || transactionId.isBlank()) {
+            throw new IllegalArgumentException("transactionId is required");
+        }
+        if (status == null) {
+            throw new IllegalArgumentException("status is required");
+        }
+        this.transactionId = transactionId;
+        this.status = status;
+        this.amount = amount;
+        this.source = source;
+        this.gatewayCode = gatewayCode;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /**
+     * Channel that observed the outcome, e.g. {@code VNPAY}, {@code SEPAY} or {@code VNPAY_POLL}.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Raw gateway response code, kept for logging.
+     */
+    public String getGatewayCode() {
+        return gatewayCode;
+    }
+
+    public String getIdempotencyKey() {
+        return transactionId + ':' + status.name();
+    }
+
+    /**
+     * Whether the outcome moves the transaction to a final state.
+     */
+    public boolean isTerminal() {
+        return status == PaymentStatus.SUCCESS || status == PaymentStatus.FAILED || status == PaymentStatus.REFUNDED;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentOutcome{" + "transactionId='" + transactionId + "', status=" + status + ", source='" + source + "', gatewayCode='" +
+            gatewayCode + "'}";
+    }
+}
@@ -0,0 +1,20 @@
+package com.ridehub.booking.service.payment.http;
+
+/**
+ * Thrown when a gateway's bulkhead has no free permit within the configured wait time.
+ */
+public class GatewayBulkheadFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final GatewayProvider provider;
+
+    public GatewayBulkheadFullException(GatewayProvider provider) {
+        super("Too many concurrent calls to payment gateway " + provider);
+        this.provider = provider;
+    }
+
+    public GatewayProvider getProvider() {
+        return provider;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ridehub.booking.service.payment.http;
+
+/**
+ * A single outbound call to a payment gateway, executed by {@link GatewayHttpClients#execute}.
+ *
+ * @param <T> result type
+ * @param <E> checked exception the call may throw
+ */
+@FunctionalInterface
+public interface GatewayCall<T, E extends Exception> {
+    T call() throws E;
+}
@@ -0,0 +1,45 @@
+package com.ridehub.booking.service.payment.http;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.Locale;
+
+/**
+ * Classifies gateway call failures by whether the request can have reached the gateway.
+ * <p>
+ * Only a failure to connect proves the gateway never saw the request, so only that is safe to retry for a
+ * call that moves money. Read timeouts and broken responses may come after the gateway acted on it.
+ */
+public final class GatewayFailures {
+
+    private GatewayFailures() {}
+
+    /**
+     * Whether {@code error}, or any of its causes, is a failure to open the connection: refused, no route,
+     * unknown host or connect timeout.
+     */
+    public static boolean isConnectFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (
+                cause instanceof ConnectException ||
+                cause instanceof NoRouteToHostException ||
+                cause instanceof UnknownHostException ||
+                cause instanceof HttpConnectTimeoutException
+            ) {
+                return true;
+            }
+            // HttpURLConnection reports connect and read timeouts with the same type
+            if (cause instanceof SocketTimeoutException && isConnectTimeoutMessage(cause.getMessage())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isConnectTimeoutMessage(String message) {
+        return message != null && message.toLowerCase(Locale.ROOT).contains("connect timed out");
+    }
+}
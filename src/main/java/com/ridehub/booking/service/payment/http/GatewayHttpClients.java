@@ -0,0 +1,187 @@
+package com.ridehub.booking.service.payment.http;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Registry of long-lived HTTP clients for payment gateways.
+ * <p>
+ * Each provider gets one {@link HttpClient} (HTTP/2 with keep-alive connection reuse), a
+ * {@link RestTemplate} backed by that client, and a semaphore bulkhead limiting concurrent calls.
+ * Calls going through {@link #execute} are timed as {@code payment.gateway.requests} tagged with
+ * provider, endpoint and outcome.
+ */
+@Component
+public class GatewayHttpClients {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GatewayHttpClients.class);
+
+    static final String METRIC_REQUESTS = "payment.gateway.requests";
+    static final String METRIC_BULKHEAD = "payment.gateway.bulkhead.available";
+
+    private final GatewayHttpConfig config;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<GatewayProvider, HttpClient> httpClients = new EnumMap<>(GatewayProvider.class);
+    private final Map<GatewayProvider, RestTemplate> restTemplates = new EnumMap<>(GatewayProvider.class);
+    private final Map<GatewayProvider, Semaphore> bulkheads = new EnumMap<>(GatewayProvider.class);
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    public GatewayHttpClients(GatewayHttpConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Shared JDK client for the provider. Safe to use from any thread.
+     */
+    public synchronized HttpClient httpClient(GatewayProvider provider) {
+        return httpClients.computeIfAbsent(provider, this::buildHttpClient);
+    }
+
+    /**
+     * Shared RestTemplate for the provider, sending over the provider's pooled client.
+     */
+    public synchronized RestTemplate restTemplate(GatewayProvider provider) {
+        return restTemplates.computeIfAbsent(provider, p -> {
+            JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient(p));
+            factory.setReadTimeout(readTimeout(p));
+            return new RestTemplate(factory);
+        });
+    }
+
+    /**
+     * Per-request timeout for the provider, to be set on {@link java.net.http.HttpRequest}s built by callers.
+     */
+    public Duration readTimeout(GatewayProvider provider) {
+        return Duration.ofMillis(config.resolve(provider).getReadTimeoutMillis());
+    }
+
+    /**
+     * Run a gateway call inside the provider's bulkhead and record its latency.
+     *
+     * @throws GatewayBulkheadFullException if no permit becomes available within the configured wait
+     */
+    public <T, E extends Exception> T execute(GatewayProvider provider, String endpoint, GatewayCall<T, E> call) throws E {
+        Semaphore bulkhead = bulkhead(provider);
+        long waitMillis = config.resolve(provider).getBulkheadWaitMillis();
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GatewayBulkheadFullException(provider);
+        }
+        if (!acquired) {
+            LOG.warn("Bulkhead full for payment gateway {} (endpoint: {})", provider, endpoint);
+            record(provider, endpoint, "rejected", 0);
+            throw new GatewayBulkheadFullException(provider);
+        }
+
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return call.call();
+        } catch (Exception e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            bulkhead.release();
+            record(provider, endpoint, outcome, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #execute}. The bulkhead is checked without waiting, so a full bulkhead
+     * yields a future failed with {@link GatewayBulkheadFullException} instead of blocking the caller.
+     */
+    public <T> CompletableFuture<T> executeAsync(GatewayProvider provider, String endpoint, Supplier<CompletableFuture<T>> call) {
+        Semaphore bulkhead = bulkhead(provider);
+        if (!bulkhead.tryAcquire()) {
+            LOG.warn("Bulkhead full for payment gateway {} (endpoint: {})", provider, endpoint);
+            record(provider, endpoint, "rejected", 0);
+            return CompletableFuture.failedFuture(new GatewayBulkheadFullException(provider));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            record(provider, endpoint, "error", System.nanoTime() - start);
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> {
+            bulkhead.release();
+            long elapsed = System.nanoTime() - start;
+            record(provider, endpoint, error == null ? "success" : "error", elapsed);
+            if (error == null) {
+                latencyWindow(provider, endpoint).record(TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+        });
+    }
+
+    /**
+     * Latency percentile (millis) of recent successful async calls, or -1 if not enough samples yet.
+     */
+    public long latencyPercentile(GatewayProvider provider, String endpoint, double percentile) {
+        return latencyWindow(provider, endpoint).percentile(percentile);
+    }
+
+    private LatencyWindow latencyWindow(GatewayProvider provider, String endpoint) {
+        return latencies.computeIfAbsent(provider.key() + ':' + endpoint, k -> new LatencyWindow(256));
+    }
+
+    private synchronized Semaphore bulkhead(GatewayProvider provider) {
+        return bulkheads.computeIfAbsent(provider, p -> {
+            Semaphore semaphore = new Semaphore(config.resolve(p).getMaxConcurrentCalls());
+            Gauge.builder(METRIC_BULKHEAD, semaphore, Semaphore::availablePermits)
+                .tag("provider", p.key())
+                .description("Free concurrent-call permits for the payment gateway")
+                .register(meterRegistry);
+            return semaphore;
+        });
+    }
+
+    private HttpClient buildHttpClient(GatewayProvider provider) {
+        GatewayHttpConfig.Settings settings = config.resolve(provider);
+        LOG.debug(
+            "Creating HTTP client for payment gateway {} (connectTimeout={}ms, readTimeout={}ms, maxConcurrent={})",
+            provider,
+            settings.getConnectTimeoutMillis(),
+            settings.getReadTimeoutMillis(),
+            settings.getMaxConcurrentCalls()
+        );
+        return HttpClient.newBuilder()
+            .version(Boolean.TRUE.equals(settings.getHttp2()) ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(settings.getConnectTimeoutMillis()))
+            .followRedirects(Boolean.TRUE.equals(settings.getFollowRedirects()) ? HttpClient.Redirect.ALWAYS : HttpClient.Redirect.NEVER)
+            .build();
+    }
+
+    private void record(GatewayProvider provider, String endpoint, String outcome, long nanos) {
+        Timer.builder(METRIC_REQUESTS)
+            .tag("provider", provider.key())
+            .tag("endpoint", endpoint)
+            .tag("outcome", outcome)
+            .description("Latency of outbound payment gateway calls")
+            .register(meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
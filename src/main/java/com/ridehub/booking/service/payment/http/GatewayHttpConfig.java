@@ -0,0 +1,119 @@
+package com.ridehub.booking.service.payment.http;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * HTTP client configuration for payment gateways.
+ * <p>
+ * Values under {@code payment-gateway.http.defaults} apply to every provider; entries under
+ * {@code payment-gateway.http.providers.<provider>} override them per gateway (vnpay, sepay, momo, zalopay).
+ */
+@Component
+@ConfigurationProperties(prefix = "payment-gateway.http")
+public class GatewayHttpConfig {
+
+    private final Settings defaults = Settings.baseline();
+    private final Map<String, Settings> providers = new HashMap<>();
+
+    public Settings getDefaults() {
+        return defaults;
+    }
+
+    public Map<String, Settings> getProviders() {
+        return providers;
+    }
+
+    /**
+     * Resolve the effective settings for a provider, falling back to the defaults for unset values.
+     */
+    public Settings resolve(GatewayProvider provider) {
+        Settings override = providers.get(provider.key());
+        return override == null ? defaults : override.withFallback(defaults);
+    }
+
+    /**
+     * Per-provider HTTP settings. Null values mean "inherit from defaults".
+     */
+    public static class Settings {
+
+        private Integer connectTimeoutMillis;
+        private Integer readTimeoutMillis;
+        private Integer maxConcurrentCalls;
+        private Integer bulkheadWaitMillis;
+        private Boolean http2;
+        private Boolean followRedirects;
+
+        static Settings baseline() {
+            Settings settings = new Settings();
+            settings.connectTimeoutMillis = 5000;
+            settings.readTimeoutMillis = 30000;
+            settings.maxConcurrentCalls = 20;
+            settings.bulkheadWaitMillis = 500;
+            settings.http2 = true;
+            settings.followRedirects = false;
+            return settings;
+        }
+
+        Settings withFallback(Settings fallback) {
+            Settings merged = new Settings();
+            merged.connectTimeoutMillis = connectTimeoutMillis != null ? connectTimeoutMillis : fallback.connectTimeoutMillis;
+            merged.readTimeoutMillis = readTimeoutMillis != null ? readTimeoutMillis : fallback.readTimeoutMillis;
+            merged.maxConcurrentCalls = maxConcurrentCalls != null ? maxConcurrentCalls : fallback.maxConcurrentCalls;
+            merged.bulkheadWaitMillis = bulkheadWaitMillis != null ? bulkheadWaitMillis : fallback.bulkheadWaitMillis;
+            merged.http2 = http2 != null ? http2 : fallback.http2;
+            merged.followRedirects = followRedirects != null ? followRedirects : fallback.followRedirects;
+            return merged;
+        }
+
+        public Integer getConnectTimeoutMillis() {
+            return connectTimeoutMillis;
+        }
+
+        public void setConnectTimeoutMillis(Integer connectTimeoutMillis) {
+            this.connectTimeoutMillis = connectTimeoutMillis;
+        }
+
+        public Integer getReadTimeoutMillis() {
+            return readTimeoutMillis;
+        }
+
+        public void setReadTimeoutMillis(Integer readTimeoutMillis) {
+            this.readTimeoutMillis = readTimeoutMillis;
+        }
+
+        public Integer getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(Integer maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        public Integer getBulkheadWaitMillis() {
+            return bulkheadWaitMillis;
+        }
+
+        public void setBulkheadWaitMillis(Integer bulkheadWaitMillis) {
+            this.bulkheadWaitMillis = bulkheadWaitMillis;
+        }
+
+        public Boolean getHttp2() {
+            return http2;
+        }
+
+        public void setHttp2(Boolean http2) {
+            this.http2 = http2;
+        }
+
+        public Boolean getFollowRedirects() {
+            return followRedirects;
+        }
+
+        public void setFollowRedirects(Boolean followRedirects) {
+            this.followRedirects = followRedirects;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ridehub.booking.service.payment.http;
+
+import java.util.Locale;
+
+/**
+ * Payment gateways that get their own pooled HTTP client, bulkhead and metrics.
+ */
+public enum GatewayProvider {
+    VNPAY,
+    SEPAY,
+    MOMO,
+    ZALOPAY;
+
+    /**
+     * Lower-case name used as configuration key and metric tag.
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,171 @@
+package com.ridehub.booking.service.payment.http;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs asynchronous gateway calls with retries and optional hedging.
+ * <p>
+ * Backoff delays and hedge triggers are scheduled on a small timer thread; no thread sleeps or blocks
+ * while waiting for the next attempt.
+ */
+@Component
+public class GatewayRetryExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GatewayRetryExecutor.class);
+
+    private final GatewayHttpClients gatewayHttpClients;
+    private final ScheduledExecutorService timer;
+
+    public GatewayRetryExecutor(GatewayHttpClients gatewayHttpClients) {
+        this.gatewayHttpClients = gatewayHttpClients;
+        AtomicInteger counter = new AtomicInteger();
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "payment-gateway-timer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Execute {@code call} under the provider's bulkhead, retrying failures accepted by {@code retryable}.
+     *
+     * @return a future completed with the first successful result, or failed with the last error
+     */
+    public <T> CompletableFuture<T> execute(
+        GatewayProvider provider,
+        String endpoint,
+        GatewayRetryPolicy policy,
+        Supplier<CompletableFuture<T>> call,
+        Predicate<Throwable> retryable
+    ) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(provider, endpoint, policy, call, retryable, 1, result);
+        return result;
+    }
+
+    private <T> void attempt(
+        GatewayProvider provider,
+        String endpoint,
+        GatewayRetryPolicy policy,
+        Supplier<CompletableFuture<T>> call,
+        Predicate<Throwable> retryable,
+        int attempt,
+        CompletableFuture<T> result
+    ) {
+        if (result.isDone()) {
+            return;
+        }
+        LOG.debug("Gateway call {} {} attempt {}/{}", provider, endpoint, attempt, policy.getMaxAttempts());
+        hedged(provider, endpoint, policy, call).whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            if (attempt >= policy.getMaxAttempts() || !retryable.test(cause)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            Duration delay = policy.backoff(attempt);
+            LOG.warn(
+                "Gateway call {} {} attempt {}/{} failed ({}), retrying in {} ms",
+                provider,
+                endpoint,
+                attempt,
+                policy.getMaxAttempts(),
+                cause.toString(),
+                delay.toMillis()
+            );
+            timer.schedule(
+                () -> attempt(provider, endpoint, policy, call, retryable, attempt + 1, result),
+                delay.toMillis(),
+                TimeUnit.MILLISECONDS
+            );
+        });
+    }
+
+    /**
+     * Send the call and, when hedging applies, a second copy once the first exceeds the hedge delay.
+     * The first success wins; if both fail, the later failure is reported.
+     */
+    private <T> CompletableFuture<T> hedged(
+        GatewayProvider provider,
+        String endpoint,
+        GatewayRetryPolicy policy,
+        Supplier<CompletableFuture<T>> call
+    ) {
+        CompletableFuture<T> primary = gatewayHttpClients.executeAsync(provider, endpoint, call);
+        long hedgeDelay = hedgeDelayMillis(provider, endpoint, policy);
+        if (hedgeDelay < 0) {
+            return primary;
+        }
+
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        AtomicReference<Throwable> lastError = new AtomicReference<>();
+
+        primary.whenComplete((value, error) -> settle(winner, pending, lastError, value, error));
+        timer.schedule(
+            () -> {
+                if (primary.isDone() || winner.isDone()) {
+                    return;
+                }
+                LOG.info("Gateway call {} {} exceeded {} ms, sending hedged request", provider, endpoint, hedgeDelay);
+                pending.incrementAndGet();
+                gatewayHttpClients
+                    .executeAsync(provider, endpoint + "-hedge", call)
+                    .whenComplete((value, error) -> settle(winner, pending, lastError, value, error));
+            },
+            hedgeDelay,
+            TimeUnit.MILLISECONDS
+        );
+        return winner;
+    }
+
+    private <T> void settle(
+        CompletableFuture<T> winner,
+        AtomicInteger pending,
+        AtomicReference<Throwable> lastError,
+        T value,
+        Throwable error
+    ) {
+        if (error == null) {
+            winner.complete(value);
+            return;
+        }
+        lastError.set(error);
+        if (pending.decrementAndGet() == 0) {
+            winner.completeExceptionally(lastError.get());
+        }
+    }
+
+    private long hedgeDelayMillis(GatewayProvider provider, String endpoint, GatewayRetryPolicy policy) {
+        if (!policy.isHedgeEnabled()) {
+            return -1;
+        }
+        long observed = gatewayHttpClients.latencyPercentile(provider, endpoint, policy.getHedgePercentile());
+        return Math.max(observed, policy.getHedgeMinDelay().toMillis());
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
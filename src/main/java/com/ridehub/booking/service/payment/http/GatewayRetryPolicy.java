@@ -0,0 +1,71 @@
+package com.ridehub.booking.service.payment.http;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry and hedging settings for an asynchronous gateway call.
+ * <p>
+ * Backoff is exponential ({@code baseDelay * 2^(attempt-1)}, capped at {@code maxDelay}) with a random
+ * reduction of up to {@code jitter} (0..1) of the computed delay, so clients retrying together spread out.
+ * When hedging is enabled, a second identical request is sent if the first has not completed after the
+ * configured latency percentile of recent calls (never earlier than {@code hedgeMinDelay}).
+ */
+public final class GatewayRetryPolicy {
+
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final double jitter;
+    private final boolean hedgeEnabled;
+    private final double hedgePercentile;
+    private final Duration hedgeMinDelay;
+
+    public GatewayRetryPolicy(
+        int maxAttempts,
+        Duration baseDelay,
+        Duration maxDelay,
+        double jitter,
+        boolean hedgeEnabled,
+        double hedgePercentile,
+        Duration hedgeMinDelay
+    ) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.jitter = Math.min(1.0, Math.max(0.0, jitter));
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgePercentile = hedgePercentile;
+        this.hedgeMinDelay = hedgeMinDelay;
+    }
+
+    /**
+     * Delay before the given retry (1 = delay after the first failed attempt).
+     */
+    public Duration backoff(int attempt) {
+        long base = baseDelay.toMillis();
+        long capped = maxDelay.toMillis();
+        int shift = Math.min(Math.max(attempt - 1, 0), 20);
+        long delay = Math.min(capped, base << shift);
+        if (jitter > 0 && delay > 0) {
+            delay -= (long) (delay * jitter * ThreadLocalRandom.current().nextDouble());
+        }
+        return Duration.ofMillis(delay);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public boolean isHedgeEnabled() {
+        return hedgeEnabled;
+    }
+
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    public Duration getHedgeMinDelay() {
+        return hedgeMinDelay;
+    }
+}
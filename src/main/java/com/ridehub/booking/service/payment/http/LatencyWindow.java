@@ -0,0 +1,40 @@
+package com.ridehub.booking.service.payment.http;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring of recent call latencies, used to derive hedging delays.
+ */
+class LatencyWindow {
+
+    private static final int MIN_SAMPLES = 20;
+
+    private final long[] samples;
+    private int next;
+    private int size;
+
+    LatencyWindow(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    synchronized void record(long millis) {
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) {
+            size++;
+        }
+    }
+
+    /**
+     * @return the requested percentile in millis, or -1 while there are too few samples
+     */
+    synchronized long percentile(double percentile) {
+        if (size < MIN_SAMPLES) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * size) - 1;
+        return sorted[Math.min(Math.max(index, 0), size - 1)];
+    }
+}
@@ -0,0 +1,97 @@
+package com.ridehub.booking.service.payment.http;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket with adaptive rate (additive increase, multiplicative decrease).
+ * <p>
+ * Tokens refill continuously at the current rate up to {@code burst}. A back-pressure signal from the
+ * gateway halves the rate and drains the bucket; every successful call raises the rate by 5% of the
+ * configured maximum until it is reached again. When several nodes share one gateway budget, each limits
+ * itself to its {@linkplain #setShare share} of the configured maximum.
+ */
+public class TokenBucketRateLimiter {
+
+    private final double configuredMaxRatePerSecond;
+    private final int burst;
+
+    private double maxRatePerSecond;
+    private double minRatePerSecond;
+
+    private double ratePerSecond;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucketRateLimiter(double maxRatePerSecond, int burst) {
+        this.configuredMaxRatePerSecond = maxRatePerSecond;
+        this.maxRatePerSecond = maxRatePerSecond;
+        this.minRatePerSecond = Math.max(maxRatePerSecond / 16, 0.1);
+        this.burst = Math.max(1, burst);
+        this.ratePerSecond = maxRatePerSecond;
+        this.tokens = this.burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Wait until a token is available.
+     *
+     * @return false if no token became available within {@code maxWait}
+     */
+    public boolean acquire(Duration maxWait) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return true;
+                }
+                waitNanos = (long) ((1 - tokens) / ratePerSecond * TimeUnit.SECONDS.toNanos(1));
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.min(waitNanos, remaining));
+        }
+    }
+
+    /**
+     * The gateway reported throttling or duplicate requests: halve the rate and drop saved-up tokens.
+     */
+    public synchronized void onBackPressure() {
+        refill();
+        ratePerSecond = Math.max(minRatePerSecond, ratePerSecond / 2);
+        tokens = 0;
+    }
+
+    /**
+     * A call went through normally: recover towards the configured rate.
+     */
+    public synchronized void onSuccess() {
+        ratePerSecond = Math.min(maxRatePerSecond, ratePerSecond + maxRatePerSecond * 0.05);
+    }
+
+    /**
+     * Limit this bucket to {@code share} (0..1] of the configured maximum rate.
+     */
+    public synchronized void setShare(double share) {
+        double bounded = Math.min(1, Math.max(share, 0.01));
+        refill();
+        maxRatePerSecond = configuredMaxRatePerSecond * bounded;
+        minRatePerSecond = Math.max(maxRatePerSecond / 16, 0.1);
+        ratePerSecond = Math.min(Math.max(ratePerSecond, minRatePerSecond), maxRatePerSecond);
+    }
+
+    public synchronized double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1) * ratePerSecond);
+        lastRefillNanos = now;
+    }
+}
@@ -1,5 +1,7 @@
 package com.ridehub.booking.service.payment.momo;
 
+import com.ridehub.booking.service.payment.http.GatewayHttpClients;
+import com.ridehub.booking.service.payment.http.GatewayProvider;
 import com.ridehub.booking.service.vm.InitiatePaymentRequestVM;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,11 +22,13 @@ public class MoMoService {
     private static final Logger LOG = LoggerFactory.getLogger(MoMoService.class);
     
     private final MoMoConfig moMoConfig;
+    private final GatewayHttpClients gatewayHttpClients;
     private final RestTemplate restTemplate;
     
-    public MoMoService(MoMoConfig moMoConfig) {
+    public MoMoService(MoMoConfig moMoConfig, GatewayHttpClients gatewayHttpClients) {
         this.moMoConfig = moMoConfig;
-        this.restTemplate = new RestTemplate();
+        this.gatewayHttpClients = gatewayHttpClients;
+        this.restTemplate = gatewayHttpClients.restTemplate(GatewayProvider.MOMO);
     }
     
     /**
@@ -77,7 +81,8 @@ public class MoMoService {
             headers.setContentType(MediaType.APPLICATION_JSON);
             
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            ResponseEntity<Map> response = restTemplate.postForEntity(moMoConfig.getEndpoint(), entity, Map.class);
+            ResponseEntity<Map> response = gatewayHttpClients.execute(GatewayProvider.MOMO, "create",
+                    () -> restTemplate.postForEntity(moMoConfig.getEndpoint(), entity, Map.class));
             
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 Map<String, Object> responseBody = response.getBody();
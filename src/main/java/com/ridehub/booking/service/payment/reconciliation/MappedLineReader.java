@@ -0,0 +1,80 @@
+package com.ridehub.booking.service.payment.reconciliation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a text file line by line through a sliding memory-mapped window.
+ * <p>
+ * Only one window of the file is mapped at a time and line bytes are copied into a single reusable buffer,
+ * so heap usage is bounded by the longest line, not the file size. Lines are decoded as UTF-8; a leading
+ * BOM and trailing {@code \r} are stripped.
+ */
+final class MappedLineReader {
+
+    private static final byte[] BOM = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+    @FunctionalInterface
+    interface LineHandler {
+        /**
+         * @param lineNumber 0-based physical line number
+         */
+        void onLine(long lineNumber, String line);
+    }
+
+    private MappedLineReader() {}
+
+    /**
+     * @return number of lines read
+     */
+    static long forEachLine(Path path, int windowSize, LineHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            byte[] line = new byte[256];
+            int lineLength = 0;
+            long lineNumber = 0;
+
+            for (long position = hasBom(channel) ? BOM.length : 0; position < fileSize; position += windowSize) {
+                long length = Math.min(windowSize, fileSize - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                for (int i = 0; i < length; i++) {
+                    byte b = window.get(i);
+                    if (b == '\n') {
+                        handler.onLine(lineNumber++, decode(line, lineLength));
+                        lineLength = 0;
+                    } else {
+                        if (lineLength == line.length) {
+                            line = Arrays.copyOf(line, line.length * 2);
+                        }
+                        line[lineLength++] = b;
+                    }
+                }
+            }
+            if (lineLength > 0) {
+                handler.onLine(lineNumber++, decode(line, lineLength));
+            }
+            return lineNumber;
+        }
+    }
+
+    private static boolean hasBom(FileChannel channel) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(BOM.length);
+        while (head.hasRemaining() && channel.read(head, head.position()) > 0) {
+            // read until full or EOF
+        }
+        return !head.hasRemaining() && Arrays.equals(head.array(), BOM);
+    }
+
+    private static String decode(byte[] bytes, int length) {
+        if (length > 0 && bytes[length - 1] == '\r') {
+            length--;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
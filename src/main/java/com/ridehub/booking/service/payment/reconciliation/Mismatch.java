@@ -0,0 +1,80 @@
+package com.ridehub.booking.service.payment.reconciliation;
+
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import java.math.BigDecimal;
+
+/**
+ * One row of the reconciliation report.
+ */
+public class Mismatch {
+
+    public enum Type {
+        /** Statement row whose transaction id is unknown to the system. */
+        MISSING_IN_SYSTEM,
+        /** Transaction the system considers paid but absent from the statement. */
+        MISSING_IN_STATEMENT,
+        AMOUNT_DIFF,
+        STATUS_DIFF,
+        /** Transaction id listed more than once in the statement. */
+        DUPLICATE_IN_STATEMENT,
+        /** Statement row that could not be parsed. */
+        UNPARSEABLE,
+    }
+
+    private final Type type;
+    private final String transactionId;
+    private final long statementLine;
+    private final BigDecimal statementAmount;
+    private final BigDecimal systemAmount;
+    private final String statementStatus;
+    private final PaymentStatus systemStatus;
+
+    public Mismatch(
+        Type type,
+        String transactionId,
+        long statementLine,
+        BigDecimal statementAmount,
+        BigDecimal systemAmount,
+        String statementStatus,
+        PaymentStatus systemStatus
+    ) {
+        this.type = type;
+        this.transactionId = transactionId;
+        this.statementLine = statementLine;
+        this.statementAmount = statementAmount;
+        this.systemAmount = systemAmount;
+        this.statementStatus = statementStatus;
+        this.systemStatus = systemStatus;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    /**
+     * 1-based line in the statement file, or -1 for {@link Type#MISSING_IN_STATEMENT}.
+     */
+    public long getStatementLine() {
+        return statementLine;
+    }
+
+    public BigDecimal getStatementAmount() {
+        return statementAmount;
+    }
+
+    public BigDecimal getSystemAmount() {
+        return systemAmount;
+    }
+
+    public String getStatementStatus() {
+        return statementStatus;
+    }
+
+    public PaymentStatus getSystemStatus() {
+        return systemStatus;
+    }
+}
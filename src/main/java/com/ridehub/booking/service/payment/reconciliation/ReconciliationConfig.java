@@ -0,0 +1,56 @@
+package com.ridehub.booking.service.payment.reconciliation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Statement reconciliation configuration properties.
+ */
+@Component
+@ConfigurationProperties(prefix = "payment-reconciliation")
+public class ReconciliationConfig {
+
+    /** Transactions loaded per keyset batch (one statement pass per batch). */
+    private int batchSize = 50000;
+
+    /** Size of the memory-mapped statement window in bytes. */
+    private int windowSizeBytes = 64 * 1024 * 1024;
+
+    /** Directory where full mismatch reports are written; defaults to java.io.tmpdir. */
+    private String reportDir;
+
+    /** Number of mismatches returned inline in the API response. */
+    private int sampleSize = 200;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getWindowSizeBytes() {
+        return windowSizeBytes;
+    }
+
+    public void setWindowSizeBytes(int windowSizeBytes) {
+        this.windowSizeBytes = windowSizeBytes;
+    }
+
+    public String getReportDir() {
+        return reportDir;
+    }
+
+    public void setReportDir(String reportDir) {
+        this.reportDir = reportDir;
+    }
+
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    public void setSampleSize(int sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+}
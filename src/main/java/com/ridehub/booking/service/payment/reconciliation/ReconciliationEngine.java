@@ -0,0 +1,314 @@
+package com.ridehub.booking.service.payment.reconciliation;
+
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Matches a gateway settlement statement against payment transactions with bounded memory.
+ * <p>
+ * Transactions are loaded in keyset-ordered batches of {@code batchSize}. For each batch the statement is
+ * streamed once through a memory-mapped window and every row is looked up in a primitive hash index of the
+ * batch. Statement lines that matched any batch are remembered in a bit set (one bit per line); a final pass
+ * reports the remaining lines as missing in the system. Heap usage is therefore one batch plus one bit per
+ * statement line, independent of the statement's byte size.
+ */
+public class ReconciliationEngine {
+
+    /**
+     * Loads the next batch of transactions with {@code id > afterId}, ordered by id.
+     */
+    @FunctionalInterface
+    public interface TransactionPageLoader {
+        List<ReconciliationRecord> loadAfter(long afterId, int limit);
+    }
+
+    /**
+     * System statuses under which the gateway is expected to report the payment as successful.
+     */
+    private static final Set<PaymentStatus> PAID_STATUSES = EnumSet.of(
+        PaymentStatus.SUCCESS,
+        PaymentStatus.REFUNDED,
+        PaymentStatus.PAYMENT_SUCCESS_BUT_BOOKING_EXPIRED
+    );
+
+    private final int batchSize;
+    private final int windowSize;
+
+    public ReconciliationEngine(int batchSize, int windowSize) {
+        this.batchSize = batchSize;
+        this.windowSize = windowSize;
+    }
+
+    public ReconciliationSummary reconcile(Path statement, StatementFormat format, TransactionPageLoader loader, Consumer<Mismatch> sink)
+        throws IOException {
+        ReconciliationSummary summary = new ReconciliationSummary();
+        BitSet matchedLines = new BitSet();
+        Batch batch = new Batch(batchSize);
+
+        long afterId = 0;
+        while (true) {
+            List<ReconciliationRecord> page = loader.loadAfter(afterId, batchSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            batch.load(page);
+            summary.addSystemTransactions(page.size());
+            summary.addPass();
+
+            scan(statement, format, row -> {
+                if (row == null || row.unparseable) {
+                    return;
+                }
+                int index = batch.indexOf(row.transactionId);
+                if (index < 0) {
+                    return;
+                }
+                matchedLines.set(Math.toIntExact(row.line));
+                compare(row, batch, index, format, summary, sink);
+            });
+
+            for (int i = 0; i < batch.size; i++) {
+                if (!batch.seen[i] && PAID_STATUSES.contains(batch.statuses[i])) {
+                    emit(
+                        sink,
+                        summary,
+                        new Mismatch(Mismatch.Type.MISSING_IN_STATEMENT, batch.ids[i], -1, null, batch.amounts[i], null, batch.statuses[i])
+                    );
+                }
+            }
+
+            afterId = page.get(page.size() - 1).getId();
+            if (page.size() < batchSize) {
+                break;
+            }
+        }
+
+        // Final pass: count rows and report whatever no batch claimed
+        long[] rows = { 0 };
+        summary.addPass();
+        scan(statement, format, row -> {
+            if (row == null) {
+                return;
+            }
+            rows[0]++;
+            if (row.unparseable) {
+                emit(sink, summary, new Mismatch(Mismatch.Type.UNPARSEABLE, row.transactionId, row.line + 1, null, null, null, null));
+            } else if (!matchedLines.get(Math.toIntExact(row.line))) {
+                emit(
+                    sink,
+                    summary,
+                    new Mismatch(Mismatch.Type.MISSING_IN_SYSTEM, row.transactionId, row.line + 1, row.amount, null, row.status, null)
+                );
+            }
+        });
+        summary.setStatementRows(rows[0]);
+        return summary;
+    }
+
+    private void compare(StatementRow row, Batch batch, int index, StatementFormat format, ReconciliationSummary summary, Consumer<Mismatch> sink) {
+        String id = batch.ids[index];
+        BigDecimal systemAmount = batch.amounts[index];
+        PaymentStatus systemStatus = batch.statuses[index];
+
+        if (batch.seen[index]) {
+            emit(
+                sink,
+                summary,
+                new Mismatch(Mismatch.Type.DUPLICATE_IN_STATEMENT, id, row.line + 1, row.amount, systemAmount, row.status, systemStatus)
+            );
+            return;
+        }
+        batch.seen[index] = true;
+
+        boolean ok = true;
+        if (systemAmount == null || systemAmount.compareTo(row.amount) != 0) {
+            emit(sink, summary, new Mismatch(Mismatch.Type.AMOUNT_DIFF, id, row.line + 1, row.amount, systemAmount, row.status, systemStatus));
+            ok = false;
+        }
+        if (format.isSuccess(row.status) != PAID_STATUSES.contains(systemStatus)) {
+            emit(sink, summary, new Mismatch(Mismatch.Type.STATUS_DIFF, id, row.line + 1, row.amount, systemAmount, row.status, systemStatus));
+            ok = false;
+        }
+        if (ok) {
+            summary.addMatched();
+        }
+    }
+
+    private static void emit(Consumer<Mismatch> sink, ReconciliationSummary summary, Mismatch mismatch) {
+        summary.countMismatch(mismatch.getType());
+        sink.accept(mismatch);
+    }
+
+    /**
+     * Streams data rows to the consumer; header and blank lines are passed as {@code null}.
+     */
+    private void scan(Path statement, StatementFormat format, Consumer<StatementRow> consumer) throws IOException {
+        List<String> fields = new ArrayList<>();
+        Header header = new Header();
+        MappedLineReader.forEachLine(statement, windowSize, (lineNumber, line) -> {
+            if (line.isBlank()) {
+                consumer.accept(null);
+                return;
+            }
+            splitCsv(line, fields);
+            if (header.columns == null) {
+                header.columns = resolveColumns(fields, format);
+                consumer.accept(null);
+                return;
+            }
+            consumer.accept(StatementRow.parse(lineNumber, fields, header.columns, format));
+        });
+    }
+
+    private static int[] resolveColumns(List<String> headerFields, StatementFormat format) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < headerFields.size(); i++) {
+            positions.put(headerFields.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        int[] columns = new int[3];
+        String[] names = { format.getTransactionIdColumn(), format.getAmountColumn(), format.getStatusColumn() };
+        for (int i = 0; i < names.length; i++) {
+            Integer position = positions.get(names[i].toLowerCase(Locale.ROOT));
+            if (position == null) {
+                throw new IllegalArgumentException("Statement header is missing column '" + names[i] + "' for format " + format);
+            }
+            columns[i] = position;
+        }
+        return columns;
+    }
+
+    /**
+     * Split one CSV line (RFC 4180 quoting, no embedded newlines) into {@code out}.
+     */
+    static void splitCsv(String line, List<String> out) {
+        out.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                out.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        out.add(field.toString());
+    }
+
+    private static final class Header {
+
+        private int[] columns;
+    }
+
+    private static final class StatementRow {
+
+        private long line;
+        private String transactionId;
+        private BigDecimal amount;
+        private String status;
+        private boolean unparseable;
+
+        static StatementRow parse(long line, List<String> fields, int[] columns, StatementFormat format) {
+            StatementRow row = new StatementRow();
+            row.line = line;
+            int max = Math.max(columns[0], Math.max(columns[1], columns[2]));
+            if (fields.size() <= max) {
+                row.unparseable = true;
+                row.transactionId = fields.size() > columns[0] ? fields.get(columns[0]).trim() : null;
+                return row;
+            }
+            row.transactionId = fields.get(columns[0]).trim();
+            row.status = fields.get(columns[2]).trim();
+            try {
+                row.amount = new BigDecimal(fields.get(columns[1]).trim()).movePointLeft(format.getAmountScale());
+            } catch (NumberFormatException e) {
+                row.unparseable = true;
+            }
+            if (row.transactionId.isEmpty()) {
+                row.unparseable = true;
+            }
+            return row;
+        }
+    }
+
+    /**
+     * One batch of transactions in parallel arrays, indexed by a primitive map of transaction-id hashes.
+     */
+    private static final class Batch {
+
+        private final LongIntHashMap index;
+        private final String[] ids;
+        private final BigDecimal[] amounts;
+        private final PaymentStatus[] statuses;
+        private final boolean[] seen;
+        private Map<String, Integer> collisions;
+        private int size;
+
+        Batch(int capacity) {
+            index = new LongIntHashMap(capacity);
+            ids = new String[capacity];
+            amounts = new BigDecimal[capacity];
+            statuses = new PaymentStatus[capacity];
+            seen = new boolean[capacity];
+        }
+
+        void load(List<ReconciliationRecord> page) {
+            index.clear();
+            collisions = null;
+            size = page.size();
+            for (int i = 0; i < size; i++) {
+                ReconciliationRecord record = page.get(i);
+                ids[i] = record.getTransactionId();
+                amounts[i] = record.getAmount();
+                statuses[i] = record.getStatus();
+                seen[i] = false;
+                int previous = index.put(LongIntHashMap.hash(ids[i]), i);
+                if (previous >= 0 && !ids[previous].equals(ids[i])) {
+                    // 64-bit hash collision: keep the earlier entry in the map, the later one on the side
+                    index.put(LongIntHashMap.hash(ids[i]), previous);
+                    if (collisions == null) {
+                        collisions = new HashMap<>();
+                    }
+                    collisions.put(ids[i], i);
+                }
+            }
+        }
+
+        int indexOf(String transactionId) {
+            int i = index.get(LongIntHashMap.hash(transactionId));
+            if (i >= 0 && ids[i].equals(transactionId)) {
+                return i;
+            }
+            if (collisions != null) {
+                Integer collided = collisions.get(transactionId);
+                return collided != null ? collided : -1;
+            }
+            return -1;
+        }
+    }
+}
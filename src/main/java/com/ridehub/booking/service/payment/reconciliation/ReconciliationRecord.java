@@ -0,0 +1,38 @@
+package com.ridehub.booking.service.payment.reconciliation;
+
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import java.math.BigDecimal;
+
+/**
+ * The fields of a {@code PaymentTransaction} needed for reconciliation.
+ */
+public class ReconciliationRecord {
+
+    private final long id;
+    private final String transactionId;
+    private final BigDecimal amount;
+    private final PaymentStatus status;
+
+    public ReconciliationRecord(long id, String transactionId, BigDecimal amount, PaymentStatus status) {
+        this.id = id;
+        this.transactionId = transactionId;
+        this.amount = amount;
+        this.status = status;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,148 @@
+package com.ridehub.booking.service.payment.reconciliation;
+
+import com.ridehub.booking.repository.PaymentTransactionRepository;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reconciles gateway settlement statements against payment transactions.
+ * <p>
+ * The full mismatch report is streamed to a CSV file; only the first {@code sampleSize} mismatches are
+ * kept in memory for the response.
+ * <p>
+ * Not transactional: each keyset page is loaded in its own short read-only repository transaction, so a
+ * long statement does not hold a connection (or an old snapshot) while the file is read and the report
+ * written.
+ */
+@Service
+public class ReconciliationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReconciliationService.class);
+
+    private final PaymentTransactionRepository paymentTransactionRepository;
+    private final ReconciliationConfig config;
+
+    public ReconciliationService(PaymentTransactionRepository paymentTransactionRepository, ReconciliationConfig config) {
+        this.paymentTransactionRepository = paymentTransactionRepository;
+        this.config = config;
+    }
+
+    /**
+     * Reconcile a statement file for transactions created in {@code [from, to)}.
+     */
+    public ReconciliationReport reconcile(Path statement, StatementFormat format, Instant from, Instant to) throws IOException {
+        LOG.info("Reconciling {} statement {} for transactions created in [{}, {})", format, statement, from, to);
+
+        Path reportDir = config.getReportDir() != null ? Paths.get(config.getReportDir()) : Paths.get(System.getProperty("java.io.tmpdir"));
+        Files.createDirectories(reportDir);
+        Path reportFile = reportDir.resolve("reconciliation-" + format.name().toLowerCase() + "-" + Instant.now().toEpochMilli() + ".csv");
+
+        ReconciliationEngine.TransactionPageLoader loader = (afterId, limit) ->
+            paymentTransactionRepository
+                .findReconciliationPage(format.getMethod(), from, to, afterId, PageRequest.of(0, limit))
+                .stream()
+                .map(v -> new ReconciliationRecord(v.getId(), v.getTransactionId(), v.getAmount(), v.getStatus()))
+                .collect(Collectors.toList());
+
+        List<Mismatch> sample = new ArrayList<>();
+        ReconciliationSummary summary;
+        try (BufferedWriter writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+            writer.write("type,transaction_id,statement_line,statement_amount,system_amount,statement_status,system_status");
+            writer.newLine();
+            ReconciliationEngine engine = new ReconciliationEngine(config.getBatchSize(), config.getWindowSizeBytes());
+            summary = engine.reconcile(statement, format, loader, mismatch -> {
+                if (sample.size() < config.getSampleSize()) {
+                    sample.add(mismatch);
+                }
+                writeRow(writer, mismatch);
+            });
+        }
+
+        LOG.info(
+            "Reconciliation of {} done: {} statement rows, {} transactions, {} matched, mismatches {} (report: {})",
+            format,
+            summary.getStatementRows(),
+            summary.getSystemTransactions(),
+            summary.getMatched(),
+            summary.getMismatches(),
+            reportFile
+        );
+        return new ReconciliationReport(summary, sample, reportFile.toString());
+    }
+
+    private static void writeRow(BufferedWriter writer, Mismatch m) {
+        try {
+            writer.write(
+                String.join(
+                    ",",
+                    m.getType().name(),
+                    csv(m.getTransactionId()),
+                    m.getStatementLine() < 0 ? "" : String.valueOf(m.getStatementLine()),
+                    amount(m.getStatementAmount()),
+                    amount(m.getSystemAmount()),
+                    csv(m.getStatementStatus()),
+                    m.getSystemStatus() != null ? m.getSystemStatus().name() : ""
+                )
+            );
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String amount(BigDecimal value) {
+        return value != null ? value.toPlainString() : "";
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    /**
+     * Result of a reconciliation run.
+     */
+    public static class ReconciliationReport {
+
+        private final ReconciliationSummary summary;
+        private final List<Mismatch> sample;
+        private final String reportFile;
+
+        public ReconciliationReport(ReconciliationSummary summary, List<Mismatch> sample, String reportFile) {
+            this.summary = summary;
+            this.sample = sample;
+            this.reportFile = reportFile;
+        }
+
+        public ReconciliationSummary getSummary() {
+            return summary;
+        }
+
+        public List<Mismatch> getSample() {
+            return sample;
+        }
+
+        public String getReportFile() {
+            return reportFile;
+        }
+    }
+}
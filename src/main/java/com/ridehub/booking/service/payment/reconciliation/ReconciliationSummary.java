@@ -0,0 +1,60 @@
+package com.ridehub.booking.service.payment.reconciliation;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Totals of a reconciliation run.
+ */
+public class ReconciliationSummary {
+
+    private long statementRows;
+    private long systemTransactions;
+    private long matched;
+    private int passes;
+    private final Map<Mismatch.Type, Long> mismatches = new EnumMap<>(Mismatch.Type.class);
+
+    void countMismatch(Mismatch.Type type) {
+        mismatches.merge(type, 1L, Long::sum);
+    }
+
+    void setStatementRows(long statementRows) {
+        this.statementRows = statementRows;
+    }
+
+    void addSystemTransactions(long count) {
+        this.systemTransactions += count;
+    }
+
+    void addMatched() {
+        this.matched++;
+    }
+
+    void addPass() {
+        this.passes++;
+    }
+
+    public long getStatementRows() {
+        return statementRows;
+    }
+
+    public long getSystemTransactions() {
+        return systemTransactions;
+    }
+
+    public long getMatched() {
+        return matched;
+    }
+
+    public int getPasses() {
+        return passes;
+    }
+
+    public Map<Mismatch.Type, Long> getMismatches() {
+        return mismatches;
+    }
+
+    public long getMismatchCount(Mismatch.Type type) {
+        return mismatches.getOrDefault(type, 0L);
+    }
+}
@@ -0,0 +1,70 @@
+package com.ridehub.booking.service.payment.reconciliation;
+
+import com.ridehub.booking.domain.enumeration.PaymentMethod;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Column layout of a gateway settlement statement (CSV with a header row).
+ */
+public enum StatementFormat {
+    /**
+     * VNPay statement: amounts are in VND x 100, success is response code {@code 00}.
+     */
+    VNPAY(PaymentMethod.VNPAY, "vnp_TxnRef", "vnp_Amount", "vnp_TransactionStatus", 2, Set.of("00")),
+
+    /**
+     * SePay statement: amounts are in VND.
+     */
+    SEPAY(PaymentMethod.SEPAY, "order_invoice_number", "order_amount", "status", 0, Set.of("SUCCESS", "PAID", "CAPTURED"));
+
+    private final PaymentMethod method;
+    private final String transactionIdColumn;
+    private final String amountColumn;
+    private final String statusColumn;
+    private final int amountScale;
+    private final Set<String> successStatuses;
+
+    StatementFormat(
+        PaymentMethod method,
+        String transactionIdColumn,
+        String amountColumn,
+        String statusColumn,
+        int amountScale,
+        Set<String> successStatuses
+    ) {
+        this.method = method;
+        this.transactionIdColumn = transactionIdColumn;
+        this.amountColumn = amountColumn;
+        this.statusColumn = statusColumn;
+        this.amountScale = amountScale;
+        this.successStatuses = successStatuses;
+    }
+
+    public PaymentMethod getMethod() {
+        return method;
+    }
+
+    String getTransactionIdColumn() {
+        return transactionIdColumn;
+    }
+
+    String getAmountColumn() {
+        return amountColumn;
+    }
+
+    String getStatusColumn() {
+        return statusColumn;
+    }
+
+    /**
+     * Number of implied decimal places in the statement amount column (2 means "already x100").
+     */
+    int getAmountScale() {
+        return amountScale;
+    }
+
+    boolean isSuccess(String status) {
+        return status != null && successStatuses.contains(status.trim().toUpperCase(Locale.ROOT));
+    }
+}
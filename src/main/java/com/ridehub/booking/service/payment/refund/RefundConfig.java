@@ -0,0 +1,100 @@
+package com.ridehub.booking.service.payment.refund;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refund pipeline configuration properties.
+ */
+@Component
+@ConfigurationProperties(prefix = "payment-refund")
+public class RefundConfig {
+
+    /** Jobs claimed per worker cycle and status. */
+    private int batchSize = 100;
+
+    /** Gateway groups submitted concurrently. */
+    private int workerThreads = 4;
+
+    /** Submission attempts before a job is marked FAILED. */
+    private int maxSubmitAttempts = 5;
+
+    /** Status checks before a submitted job is marked FAILED and left for manual follow-up. */
+    private int maxStatusChecks = 30;
+
+    /** First retry / status-check delay; doubles per attempt. */
+    private long baseDelayMillis = 30_000;
+
+    /** Upper bound for the retry / status-check delay. */
+    private long maxDelayMillis = 30 * 60_000;
+
+    /** How long a claimed job stays invisible to other nodes. */
+    private long claimLeaseMillis = 5 * 60_000;
+
+    /** Use PaymentGatewayService.simulateRefund instead of the real gateway (test environments). */
+    private boolean simulate = false;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public int getMaxSubmitAttempts() {
+        return maxSubmitAttempts;
+    }
+
+    public void setMaxSubmitAttempts(int maxSubmitAttempts) {
+        this.maxSubmitAttempts = maxSubmitAttempts;
+    }
+
+    public int getMaxStatusChecks() {
+        return maxStatusChecks;
+    }
+
+    public void setMaxStatusChecks(int maxStatusChecks) {
+        this.maxStatusChecks = maxStatusChecks;
+    }
+
+    public long getBaseDelayMillis() {
+        return baseDelayMillis;
+    }
+
+    public void setBaseDelayMillis(long baseDelayMillis) {
+        this.baseDelayMillis = baseDelayMillis;
+    }
+
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    public void setMaxDelayMillis(long maxDelayMillis) {
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    public long getClaimLeaseMillis() {
+        return claimLeaseMillis;
+    }
+
+    public void setClaimLeaseMillis(long claimLeaseMillis) {
+        this.claimLeaseMillis = claimLeaseMillis;
+    }
+
+    public boolean isSimulate() {
+        return simulate;
+    }
+
+    public void setSimulate(boolean simulate) {
+        this.simulate = simulate;
+    }
+}
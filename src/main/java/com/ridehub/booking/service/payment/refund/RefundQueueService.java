@@ -0,0 +1,269 @@
+package com.ridehub.booking.service.payment.refund;
+
+import com.ridehub.booking.domain.Booking;
+import com.ridehub.booking.domain.PaymentTransaction;
+import com.ridehub.booking.domain.RefundJob;
+import com.ridehub.booking.domain.Ticket;
+import com.ridehub.booking.domain.enumeration.RefundJobStatus;
+import com.ridehub.booking.repository.PaymentTransactionRepository;
+import com.ridehub.booking.repository.RefundJobRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Durable refund queue. Requests are stored as {@link RefundJob} rows and executed by {@link RefundWorker};
+ * callers never wait on the payment gateway. Every enqueue locks the payment row before it looks at the jobs
+ * already queued against it, and reads those jobs with locking reads so it sees the ones committed while it
+ * waited; concurrent requests therefore cannot both refund the same amount.
+ */
+@Service
+@Transactional
+public class RefundQueueService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RefundQueueService.class);
+
+    public static final String SOURCE_TICKET = "ticket";
+    public static final String SOURCE_ADMIN = "admin";
+
+    static final List<RefundJobStatus> OPEN_STATUSES = List.of(RefundJobStatus.QUEUED, RefundJobStatus.SUBMITTED);
+    // Jobs that have paid out or may still pay out; a failed or canceled job leaves its amount refundable again
+    static final List<RefundJobStatus> COMMITTED_STATUSES = List.of(
+        RefundJobStatus.QUEUED,
+        RefundJobStatus.SUBMITTED,
+        RefundJobStatus.COMPLETED
+    );
+
+    private final RefundJobRepository refundJobRepository;
+    private final PaymentTransactionRepository paymentTransactionRepository;
+
+    public RefundQueueService(RefundJobRepository refundJobRepository, PaymentTransactionRepository paymentTransactionRepository) {
+        this.refundJobRepository = refundJobRepository;
+        this.paymentTransactionRepository = paymentTransactionRepository;
+    }
+
+    /**
+     * Queue the refund of a single ticket against its booking's payment. Serialized with every other refund of
+     * that payment through its row lock, see {@link #checkTicketRefund}.
+     *
+     * @throws IllegalStateException if the booking has no payment, the ticket is already refunded or being refunded,
+     *         or the whole payment is
+     */
+    public RefundJob enqueueTicketRefund(Ticket ticket, BigDecimal amount, String reason, String source) {
+        String problem = checkTicketRefund(ticket);
+        if (problem != null) {
+            throw new IllegalStateException(problem);
+        }
+        PaymentTransaction transaction = ticket.getBooking().getPaymentTransaction();
+        BigDecimal refundAmount = amount != null ? amount : ticket.getPrice();
+        RefundJob job = newJob(transaction, refundAmount, reason, source);
+        job.setTicketId(ticket.getId());
+        job = refundJobRepository.save(job);
+        LOG.debug("Queued refund job {} for ticket {}", job.getId(), ticket.getTicketCode());
+        return job;
+    }
+
+    /**
+     * Check whether a ticket refund can be queued, without queueing it. Callers inside a larger
+     * transaction should use this instead of catching the exception of {@link #enqueueTicketRefund}, which
+     * would mark their transaction rollback-only.
+     * <p>
+     * Locks the payment row until the surrounding transaction ends, so the answer still holds when the caller
+     * goes on to {@link #enqueueTicketRefund} in the same transaction.
+     *
+     * @return {@code null} if the refund can be queued, otherwise the reason it cannot
+     */
+    public String checkTicketRefund(Ticket ticket) {
+        Booking booking = ticket.getBooking();
+        if (booking == null || booking.getPaymentTransaction() == null) {
+            return "No payment transaction for ticket " + ticket.getTicketCode();
+        }
+        paymentTransactionRepository.lockByIds(List.of(booking.getPaymentTransaction().getId()));
+        if (refundJobRepository.existsByTicketIdAndStatusIn(ticket.getId(), COMMITTED_STATUSES)) {
+            return "Refund already in progress for ticket " + ticket.getTicketCode();
+        }
+        Long transactionId = booking.getPaymentTransaction().getId();
+        if (refundJobRepository.existsByPaymentTransactionIdAndTicketIdIsNullAndStatusIn(transactionId, COMMITTED_STATUSES)) {
+            return "Payment for ticket " + ticket.getTicketCode() + " is already refunded";
+        }
+        return null;
+    }
+
+    /**
+     * Queue the refund of what is left of a payment transaction. Ticket refunds that completed or are still
+     * open are subtracted, so tickets refunded on their own are not paid out again; a requested amount is
+     * capped at the remainder. The payment row is locked first, so concurrent refunds of it queue one after
+     * the other.
+     *
+     * @throws IllegalStateException if the transaction already has an open refund or nothing is left to refund
+     */
+    public RefundJob enqueueTransactionRefund(PaymentTransaction transaction, BigDecimal amount, String reason, String source) {
+        paymentTransactionRepository.lockByIds(List.of(transaction.getId()));
+        if (refundJobRepository.existsByPaymentTransactionIdAndTicketIdIsNullAndStatusIn(transaction.getId(), OPEN_STATUSES)) {
+            throw new IllegalStateException("Refund already in progress for transaction " + transaction.getTransactionId());
+        }
+        BigDecimal committed = refundJobRepository
+            .sumAmountByPaymentTransactionIds(List.of(transaction.getId()), COMMITTED_STATUSES)
+            .stream()
+            .map(RefundJobRepository.TransactionAmount::getAmount)
+            .findFirst()
+            .orElse(BigDecimal.ZERO);
+        BigDecimal remaining = transaction.getAmount().subtract(committed);
+        if (remaining.signum() <= 0) {
+            throw new IllegalStateException("Nothing left to refund for transaction " + transaction.getTransactionId());
+        }
+        BigDecimal refundAmount = amount != null ? amount.min(remaining) : remaining;
+        RefundJob job = refundJobRepository.save(newJob(transaction, refundAmount, reason, source));
+        LOG.debug("Queued refund job {} for transaction {}", job.getId(), transaction.getTransactionId());
+        return job;
+    }
+
+    /**
+     * Queue refunds of what is left of many payments at once. Open and completed jobs of each payment, ticket
+     * jobs included, are subtracted and payments they fully cover are skipped, so a replayed call queues
+     * nothing twice. The payment rows are locked before their jobs are summed. Uses one query to lock the payments,
+     * one to sum their existing jobs and one to load them.
+     *
+     * @return number of jobs queued
+     */
+    public int enqueueTransactionRefunds(Collection<Long> paymentTransactionIds, String reason, String source) {
+        if (paymentTransactionIds.isEmpty()) {
+            return 0;
+        }
+        paymentTransactionRepository.lockByIds(paymentTransactionIds);
+        Map<Long, BigDecimal> committed = new HashMap<>();
+        for (RefundJobRepository.TransactionAmount sum : refundJobRepository.sumAmountByPaymentTransactionIds(
+            paymentTransactionIds,
+            COMMITTED_STATUSES
+        )) {
+            committed.put(sum.getPaymentTransactionId(), sum.getAmount());
+        }
+        List<RefundJob> jobs = new ArrayList<>(paymentTransactionIds.size());
+        for (PaymentTransaction transaction : paymentTransactionRepository.findAllById(paymentTransactionIds)) {
+            if (transaction.getAmount() == null) {
+                continue;
+            }
+            BigDecimal remaining = transaction.getAmount().subtract(committed.getOrDefault(transaction.getId(), BigDecimal.ZERO));
+            if (remaining.signum() > 0) {
+                jobs.add(newJob(transaction, remaining, reason, source));
+            }
+        }
+        refundJobRepository.saveAll(jobs);
+        LOG.debug("Queued {} refund jobs for source {}", jobs.size(), source);
+        return jobs.size();
+    }
+
+    /**
+     * Cancel the ticket refunds of the given bookings that are still queued and not yet picked up by the
+     * worker, so a refund of the whole payment can cover those tickets instead. Jobs already submitted to the
+     * gateway are left alone; {@link #enqueueTransactionRefunds} subtracts them.
+     *
+     * @return number of jobs canceled
+     */
+    public int cancelQueuedTicketRefunds(Collection<Long> bookingIds, String reason) {
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        int canceled = refundJobRepository.cancelQueuedTicketJobs(
+            bookingIds,
+            RefundJobStatus.QUEUED,
+            RefundJobStatus.CANCELED,
+            reason,
+            Instant.now()
+        );
+        LOG.debug("Canceled {} queued ticket refund jobs: {}", canceled, reason);
+        return canceled;
+    }
+
+    /**
+     * Progress of all refund jobs, or of the jobs queued by one source when {@code source} is given.
+     */
+    @Transactional(readOnly = true)
+    public RefundProgress getProgress(String source) {
+        List<RefundJobRepository.StatusCount> counts = source == null
+            ? refundJobRepository.countByStatusAndProvider()
+            : refundJobRepository.countByStatusAndProviderForSource(source);
+        RefundProgress progress = new RefundProgress(source);
+        for (RefundJobRepository.StatusCount count : counts) {
+            progress.add(count.getProvider(), count.getStatus(), count.getCount());
+        }
+        return progress;
+    }
+
+    private static RefundJob newJob(PaymentTransaction transaction, BigDecimal amount, String reason, String source) {
+        Instant now = Instant.now();
+        RefundJob job = new RefundJob();
+        job.setPaymentTransactionId(transaction.getId());
+        job.setProvider(transaction.getMethod() != null ? transaction.getMethod().name() : "UNKNOWN");
+        job.setOrderRef(transaction.getOrderRef());
+        job.setAmount(amount);
+        job.setReason(reason);
+        job.setSource(source);
+        job.setStatus(RefundJobStatus.QUEUED);
+        job.setAttempts(0);
+        job.setNextAttemptAt(now);
+        job.setCreatedAt(now);
+        return job;
+    }
+
+    /**
+     * Job counts per status, overall and per gateway.
+     */
+    public static class RefundProgress {
+
+        private final String source;
+        private final Map<RefundJobStatus, Long> byStatus = new EnumMap<>(RefundJobStatus.class);
+        private final Map<String, Map<RefundJobStatus, Long>> byProvider = new TreeMap<>();
+        private long total;
+
+        RefundProgress(String source) {
+            this.source = source;
+            for (RefundJobStatus status : RefundJobStatus.values()) {
+                byStatus.put(status, 0L);
+            }
+        }
+
+        void add(String provider, RefundJobStatus status, long count) {
+            byStatus.merge(status, count, Long::sum);
+            byProvider.computeIfAbsent(provider, p -> new EnumMap<>(RefundJobStatus.class)).merge(status, count, Long::sum);
+            total += count;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public Map<RefundJobStatus, Long> getByStatus() {
+            return byStatus;
+        }
+
+        public Map<String, Map<RefundJobStatus, Long>> getByProvider() {
+            return byProvider;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getPending() {
+            return byStatus.get(RefundJobStatus.QUEUED) + byStatus.get(RefundJobStatus.SUBMITTED);
+        }
+
+        /**
+         * Share of jobs in a final state (completed, failed or canceled), 0..1.
+         */
+        public double getFinishedRatio() {
+            return total == 0 ? 1.0 : (double) (total - getPending()) / total;
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package com.ridehub.booking.service.payment.refund;
+
+import com.ridehub.booking.domain.RefundJob;
+import com.ridehub.booking.domain.enumeration.AvroTicketStatus;
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import com.ridehub.booking.domain.enumeration.RefundJobStatus;
+import com.ridehub.booking.domain.enumeration.RefundStatus;
+import com.ridehub.booking.repository.PaymentTransactionRepository;
+import com.ridehub.booking.repository.RefundJobRepository;
+import com.ridehub.booking.repository.TicketRepository;
+import com.ridehub.booking.service.PaymentGatewayService;
+import com.ridehub.booking.service.cluster.ShardAssignment;
+import com.ridehub.booking.service.cluster.ShardLeaseManager;
+import com.ridehub.booking.service.payment.http.GatewayRetryPolicy;
+import com.ridehub.booking.service.state.StatusTransitionService;
+import com.ridehub.booking.service.state.StatusTransitions;
+import com.ridehub.booking.service.ticket.TicketLookupCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Executes queued refunds.
+ * <p>
+ * Each cycle claims due jobs, groups them by gateway and submits the groups concurrently on a small worker
+ * pool; jobs of one gateway are sent one after another so a slow gateway does not hold up the others.
+ * Accepted refunds are then polled through {@link PaymentGatewayService#checkRefundStatus} with exponential
+ * backoff. Gateway calls run outside any database transaction; the outcome of each call is written back right
+ * after it in a short transaction of its own, so one failed write cannot undo the outcome of other jobs.
+ * With several replicas each node only picks up jobs in the id shards it holds a lease on (see
+ * {@link ShardLeaseManager}).
+ * <p>
+ * Every submission of a job carries the same idempotency key. Only failures to connect are resubmitted
+ * straight away; when a submission may have reached the gateway without an answer, the job is looked up by
+ * its key first and only resubmitted if the gateway never received it.
+ */
+@Service
+public class RefundWorker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RefundWorker.class);
+
+    private static final Set<String> COMPLETED_STATUSES = Set.of("SUCCESS", "COMPLETED");
+    private static final Set<String> FAILED_STATUSES = Set.of("FAILED", "REJECTED", "CANCELLED");
+    private static final Set<String> UNRESOLVED_STATUSES = Set.of("UNKNOWN", "ERROR");
+    static final String REFUND_JOB = "refund-worker";
+    static final int REFUND_SHARDS = 16;
+
+    private final RefundJobRepository refundJobRepository;
+    private final TicketRepository ticketRepository;
+    private final PaymentTransactionRepository paymentTransactionRepository;
+    private final PaymentGatewayService paymentGatewayService;
+    private final RefundConfig config;
+    private final ShardLeaseManager shardLeaseManager;
+    private final TicketLookupCache ticketLookupCache;
+    private final StatusTransitionService statusTransitionService;
+    private final TransactionTemplate transactionTemplate;
+    private final GatewayRetryPolicy retryPolicy;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+
+    public RefundWorker(
+        RefundJobRepository refundJobRepository,
+        TicketRepository ticketRepository,
+        PaymentTransactionRepository paymentTransactionRepository,
+        PaymentGatewayService paymentGatewayService,
+        RefundConfig config,
+        ShardLeaseManager shardLeaseManager,
+        TicketLookupCache ticketLookupCache,
+        StatusTransitionService statusTransitionService,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.refundJobRepository = refundJobRepository;
+        this.ticketRepository = ticketRepository;
+        this.paymentTransactionRepository = paymentTransactionRepository;
+        this.paymentGatewayService = paymentGatewayService;
+        this.config = config;
+        this.shardLeaseManager = shardLeaseManager;
+        this.shardLeaseManager.register(REFUND_JOB, REFUND_SHARDS);
+        this.ticketLookupCache = ticketLookupCache;
+        this.statusTransitionService = statusTransitionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.retryPolicy = new GatewayRetryPolicy(
+            config.getMaxSubmitAttempts(),
+            Duration.ofMillis(config.getBaseDelayMillis()),
+            Duration.ofMillis(config.getMaxDelayMillis()),
+            0.2,
+            false,
+            0,
+            Duration.ZERO
+        );
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, config.getWorkerThreads()), r -> {
+            Thread thread = new Thread(r, "refund-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Submit queued refunds, then check the status of submitted ones.
+     */
+    @Scheduled(fixedDelay = 15000)
+    public void processRefundQueue() {
+        ShardAssignment assignment = shardLeaseManager.assignment(REFUND_JOB);
+        if (assignment.isEmpty()) {
+            return;
+        }
+        try {
+            runCycle(RefundJobStatus.QUEUED, assignment, this::submit);
+            runCycle(RefundJobStatus.SUBMITTED, assignment, this::checkStatus);
+        } catch (Exception e) {
+            LOG.error("Refund worker cycle failed", e);
+        }
+    }
+
+    private void runCycle(RefundJobStatus status, ShardAssignment assignment, Function<RefundJob, JobUpdate> step) {
+        List<RefundJob> claimed = claimDue(status, assignment);
+        if (claimed.isEmpty()) {
+            return;
+        }
+        LOG.debug("Claimed {} {} refund jobs", claimed.size(), status);
+
+        Map<String, List<RefundJob>> byProvider = claimed
+            .stream()
+            .collect(Collectors.groupingBy(RefundJob::getProvider, LinkedHashMap::new, Collectors.toList()));
+
+        List<CompletableFuture<Void>> groups = new ArrayList<>(byProvider.size());
+        for (List<RefundJob> group : byProvider.values()) {
+            groups.add(CompletableFuture.runAsync(() -> group.forEach(job -> process(job, step)), executor));
+        }
+        CompletableFuture.allOf(groups.toArray(CompletableFuture[]::new)).join();
+        LOG.info("Refund worker processed {} {} jobs", claimed.size(), status);
+    }
+
+    private List<RefundJob> claimDue(RefundJobStatus status, ShardAssignment assignment) {
+        List<RefundJob> claimed = transactionTemplate.execute(tx -> {
+            Instant now = Instant.now();
+            Instant leaseUntil = now.plusMillis(config.getClaimLeaseMillis());
+            List<RefundJob> due = refundJobRepository.findDue(
+                status,
+                now,
+                assignment.getShardCount(),
+                assignment.getShards(),
+                PageRequest.of(0, config.getBatchSize())
+            );
+            List<RefundJob> mine = new ArrayList<>(due.size());
+            for (RefundJob job : due) {
+                if (refundJobRepository.claim(job.getId(), status, now, leaseUntil) == 1) {
+                    mine.add(job);
+                }
+            }
+            return mine;
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    /**
+     * Run the gateway step of one job and record its outcome right away. If recording fails the job stays
+     * claimed until its lease expires and is then picked up again; a resubmission carries the same
+     * idempotency key.
+     */
+    private void process(RefundJob job, Function<RefundJob, JobUpdate> step) {
+        JobUpdate update = safely(job, step);
+        try {
+            transactionTemplate.executeWithoutResult(tx -> apply(update));
+        } catch (Exception e) {
+            LOG.error("Could not record the {} outcome of refund job {}", update.status, job.getId(), e);
+        }
+    }
+
+    private JobUpdate safely(RefundJob job, Function<RefundJob, JobUpdate> step) {
+        try {
+            return step.apply(job);
+        } catch (Exception e) {
+            LOG.error("Refund job {} failed unexpectedly", job.getId(), e);
+            return JobUpdate.retry(job, job.getStatus(), job.getAttempts(), Instant.now().plus(retryPolicy.backoff(1)), e.getMessage());
+        }
+    }
+
+    private JobUpdate submit(RefundJob job) {
+        PaymentGatewayService.RefundResult result = config.isSimulate()
+            ? paymentGatewayService.simulateRefund(job.getOrderRef(), job.getAmount(), job.getReason())
+            : paymentGatewayService.processRefund(job.getOrderRef(), job.getAmount(), job.getReason(), idempotencyKey(job));
+        int attempts = job.getAttempts() + 1;
+
+        if (result.isSuccess() && result.isCompleted()) {
+            return JobUpdate.completed(job, result.getRefundId());
+        }
+        if (result.isSuccess()) {
+            // Accepted: poll for completion, counting status checks from zero
+            return JobUpdate.submitted(job, result.getRefundId(), Instant.now().plus(retryPolicy.backoff(1)));
+        }
+        if (result.isOutcomeUnknown()) {
+            // Submitted without a refund id: the status check looks the refund up by idempotency key first
+            LOG.warn("Refund job {} submission outcome unknown (attempt {}): {}", job.getId(), attempts, result.getErrorMessage());
+            return JobUpdate.unverified(job, attempts, Instant.now().plus(retryPolicy.backoff(1)), result.getErrorMessage());
+        }
+        if (result.isRetryable() && attempts < config.getMaxSubmitAttempts()) {
+            LOG.warn("Refund job {} submission failed (attempt {}): {}", job.getId(), attempts, result.getErrorMessage());
+            return JobUpdate.retry(job, RefundJobStatus.QUEUED, attempts, Instant.now().plus(retryPolicy.backoff(attempts)), result.getErrorMessage());
+        }
+        LOG.error("Refund job {} failed after {} attempts: {}", job.getId(), attempts, result.getErrorMessage());
+        return JobUpdate.failed(job, attempts, result.getErrorMessage());
+    }
+
+    private JobUpdate checkStatus(RefundJob job) {
+        if (job.getGatewayRefundId() == null) {
+            return verifySubmission(job);
+        }
+        PaymentGatewayService.RefundStatus status = paymentGatewayService.checkRefundStatus(job.getGatewayRefundId());
+        String gatewayStatus = status.getStatus() != null ? status.getStatus().toUpperCase(Locale.ROOT) : "UNKNOWN";
+        int attempts = job.getAttempts() + 1;
+
+        if (COMPLETED_STATUSES.contains(gatewayStatus)) {
+            return JobUpdate.completed(job, job.getGatewayRefundId());
+        }
+        if (FAILED_STATUSES.contains(gatewayStatus)) {
+            return JobUpdate.failed(job, attempts, "Gateway reported refund " + gatewayStatus);
+        }
+        if (attempts >= config.getMaxStatusChecks()) {
+            return JobUpdate.failed(job, attempts, "Refund status unresolved after " + attempts + " checks (last: " + gatewayStatus + ")");
+        }
+        return JobUpdate.retry(job, RefundJobStatus.SUBMITTED, attempts, Instant.now().plus(retryPolicy.backoff(attempts)), null);
+    }
+
+    /**
+     * Find out whether a submission without an answer reached the gateway: resubmit it (with the same key) if
+     * the gateway does not know the refund, otherwise follow the refund it created.
+     */
+    private JobUpdate verifySubmission(RefundJob job) {
+        PaymentGatewayService.RefundStatus status = paymentGatewayService.checkRefundStatus(idempotencyKey(job));
+        String gatewayStatus = status.getStatus() != null ? status.getStatus().toUpperCase(Locale.ROOT) : "UNKNOWN";
+        int attempts = job.getAttempts() + 1;
+
+        if (PaymentGatewayService.RefundStatus.NOT_FOUND.equals(gatewayStatus)) {
+            LOG.info("Refund job {} never reached the gateway, resubmitting", job.getId());
+            return JobUpdate.retry(job, RefundJobStatus.QUEUED, job.getAttempts(), Instant.now(), job.getLastError());
+        }
+        if (COMPLETED_STATUSES.contains(gatewayStatus)) {
+            return JobUpdate.completed(job, status.getRefundId());
+        }
+        if (FAILED_STATUSES.contains(gatewayStatus)) {
+            return JobUpdate.failed(job, attempts, "Gateway reported refund " + gatewayStatus);
+        }
+        if (!UNRESOLVED_STATUSES.contains(gatewayStatus)) {
+            return JobUpdate.submitted(job, status.getRefundId(), Instant.now().plus(retryPolicy.backoff(1)));
+        }
+        if (attempts >= config.getMaxStatusChecks()) {
+            String error = "Refund submission outcome unresolved after " + attempts + " attempts (last: " + gatewayStatus + ")";
+            return JobUpdate.failed(job, attempts, error);
+        }
+        Instant nextCheck = Instant.now().plus(retryPolicy.backoff(attempts));
+        return JobUpdate.retry(job, RefundJobStatus.SUBMITTED, attempts, nextCheck, job.getLastError());
+    }
+
+    private void apply(JobUpdate update) {
+        Instant now = Instant.now();
+        Optional<RefundJob> found = refundJobRepository.findById(update.jobId);
+        if (found.isEmpty()) {
+            return;
+        }
+        RefundJob job = found.get();
+        job.setStatus(update.status);
+        job.setAttempts(update.attempts);
+        job.setNextAttemptAt(update.nextAttemptAt != null ? update.nextAttemptAt : now);
+        job.setLastError(truncate(update.error));
+        job.setUpdatedAt(now);
+        if (update.gatewayRefundId != null) {
+            job.setGatewayRefundId(update.gatewayRefundId);
+        }
+        if (update.isFinal()) {
+            job.setCompletedAt(now);
+        }
+        refundJobRepository.save(job);
+
+        if (update.isFinal() && job.getTicketId() != null) {
+            finishTicket(job.getTicketId(), update, now);
+        }
+        if (update.status == RefundJobStatus.COMPLETED) {
+            markRefunded(job.getPaymentTransactionId());
+        }
+
+        Counter.builder("payment.refund.jobs")
+            .tag("provider", job.getProvider())
+            .tag("status", update.status.name())
+            .description("Refund job state transitions")
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private void finishTicket(Long ticketId, JobUpdate update, Instant now) {
+        ticketRepository
+            .findById(ticketId)
+            .ifPresent(ticket -> {
+                if (update.status == RefundJobStatus.COMPLETED) {
+                    ticket.setRefundStatus(RefundStatus.REFUND_COMPLETED);
+                    ticket.setStatus(AvroTicketStatus.REFUND_COMPLETED);
+                    ticket.setRefundCompletedAt(now);
+                    ticket.setRefundTransactionId(update.gatewayRefundId);
+                } else {
+                    ticket.setRefundStatus(RefundStatus.REFUND_FAILED);
+                    ticket.setStatus(AvroTicketStatus.REFUND_FAILED);
+                }
+                ticket.setUpdatedAt(now);
+                ticketRepository.save(ticket);
+                ticketLookupCache.evictTickets(List.of(ticket.getTicketCode()));
+            });
+    }
+
+    /**
+     * Move a payment to REFUNDED with a conditional update once its completed jobs, ticket and whole-transaction
+     * jobs together, cover its amount. Losing to a concurrent change of the payment only skips this step; the
+     * refund itself stays recorded as completed.
+     */
+    private void markRefunded(Long transactionId) {
+        Optional<PaymentTransactionRepository.StatusVersionView> current = paymentTransactionRepository.findStatusAndVersion(transactionId);
+        if (current.isEmpty()) {
+            return;
+        }
+        BigDecimal amount = paymentTransactionRepository.findAmountById(transactionId).orElse(BigDecimal.ZERO);
+        BigDecimal refunded = refundJobRepository.sumAmountByPaymentTransactionIdAndStatusIn(
+            transactionId,
+            List.of(RefundJobStatus.COMPLETED)
+        );
+        if (refunded.compareTo(amount) < 0) {
+            LOG.debug("Transaction {} is partly refunded ({} of {})", transactionId, refunded, amount);
+            return;
+        }
+        if (!StatusTransitions.canTransition(current.get().getStatus(), PaymentStatus.REFUNDED)) {
+            LOG.debug("Transaction {} is {}, not marking it REFUNDED", transactionId, current.get().getStatus());
+            return;
+        }
+        if (!statusTransitionService.transitionPayment(transactionId, current.get().getStatus(), PaymentStatus.REFUNDED)) {
+            LOG.warn("Transaction {} changed concurrently, not marking it REFUNDED", transactionId);
+        }
+    }
+
+    /**
+     * Key sent with every submission of a job, so the gateway refunds it at most once however often it is sent.
+     */
+    static String idempotencyKey(RefundJob job) {
+        return "refund-job-" + job.getId();
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > 512 ? value.substring(0, 512) : value;
+    }
+
+    /**
+     * Outcome of one gateway step for a job, applied in its own transaction right after the step.
+     */
+    private static final class JobUpdate {
+
+        private final Long jobId;
+        private final RefundJobStatus status;
+        private final int attempts;
+        private final Instant nextAttemptAt;
+        private final String gatewayRefundId;
+        private final String error;
+
+        private JobUpdate(Long jobId, RefundJobStatus status, int attempts, Instant nextAttemptAt, String gatewayRefundId, String error) {
+            this.jobId = jobId;
+            this.status = status;
+            this.attempts = attempts;
+            this.nextAttemptAt = nextAttemptAt;
+            this.gatewayRefundId = gatewayRefundId;
+            this.error = error;
+        }
+
+        static JobUpdate completed(RefundJob job, String refundId) {
+            return new JobUpdate(job.getId(), RefundJobStatus.COMPLETED, job.getAttempts() + 1, null, refundId, null);
+        }
+
+        static JobUpdate submitted(RefundJob job, String refundId, Instant firstCheck) {
+            return new JobUpdate(job.getId(), RefundJobStatus.SUBMITTED, 0, firstCheck, refundId, null);
+        }
+
+        static JobUpdate unverified(RefundJob job, int attempts, Instant firstCheck, String error) {
+            return new JobUpdate(job.getId(), RefundJobStatus.SUBMITTED, attempts, firstCheck, null, error);
+        }
+
+        static JobUpdate retry(RefundJob job, RefundJobStatus status, int attempts, Instant nextAttemptAt, String error) {
+            return new JobUpdate(job.getId(), status, attempts, nextAttemptAt, null, error);
+        }
+
+        static JobUpdate failed(RefundJob job, int attempts, String error) {
+            return new JobUpdate(job.getId(), RefundJobStatus.FAILED, attempts, null, job.getGatewayRefundId(), error);
+        }
+
+        boolean isFinal() {
+            return status == RefundJobStatus.COMPLETED || status == RefundJobStatus.FAILED;
+        }
+    }
+}
@@ -20,11 +20,18 @@ public class SePayConfig {
     private String cancelUrl;
     private String returnFEURL;
 
-    // Timeout configurations
-    private int connectTimeoutSeconds = 30;
-    private int requestTimeoutSeconds = 45;
+    // Retry configurations (timeouts live under payment-gateway.http.providers.sepay)
     private int maxRetries = 3;
     private int retryDelayMillis = 2000;
+    private int retryMaxDelayMillis = 10000;
+    private double retryJitter = 0.5;
+
+    // Hedged checkout requests (off by default; a hedge may create a second SePay order for the same invoice)
+    private boolean hedgeEnabled = false;
+    private double hedgePercentile = 0.95;
+    private int hedgeMinDelayMillis = 1000;
+    // Whether SePay returns the existing order for a repeated order_invoice_number; hedging and timeout retries need it
+    private boolean dedupesByInvoiceNumber = false;
 
     // Getters and Setters
     public String getMerchantId() {
@@ -91,22 +98,6 @@ public class SePayConfig {
         this.cancelUrl = cancelUrl;
     }
 
-    public int getConnectTimeoutSeconds() {
-        return connectTimeoutSeconds;
-    }
-
-    public void setConnectTimeoutSeconds(int connectTimeoutSeconds) {
-        this.connectTimeoutSeconds = connectTimeoutSeconds;
-    }
-
-    public int getRequestTimeoutSeconds() {
-        return requestTimeoutSeconds;
-    }
-
-    public void setRequestTimeoutSeconds(int requestTimeoutSeconds) {
-        this.requestTimeoutSeconds = requestTimeoutSeconds;
-    }
-
     public int getMaxRetries() {
         return maxRetries;
     }
@@ -130,4 +121,52 @@ public class SePayConfig {
     public void setReturnFEURL(String returnFEURL) {
         this.returnFEURL = returnFEURL;
     }
-}
\ No newline at end of file
+
+    public int getRetryMaxDelayMillis() {
+        return retryMaxDelayMillis;
+    }
+
+    public void setRetryMaxDelayMillis(int retryMaxDelayMillis) {
+        this.retryMaxDelayMillis = retryMaxDelayMillis;
+    }
+
+    public double getRetryJitter() {
+        return retryJitter;
+    }
+
+    public void setRetryJitter(double retryJitter) {
+        this.retryJitter = retryJitter;
+    }
+
+    public boolean isHedgeEnabled() {
+        return hedgeEnabled;
+    }
+
+    public void setHedgeEnabled(boolean hedgeEnabled) {
+        this.hedgeEnabled = hedgeEnabled;
+    }
+
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    public void setHedgePercentile(double hedgePercentile) {
+        this.hedgePercentile = hedgePercentile;
+    }
+
+    public int getHedgeMinDelayMillis() {
+        return hedgeMinDelayMillis;
+    }
+
+    public void setHedgeMinDelayMillis(int hedgeMinDelayMillis) {
+        this.hedgeMinDelayMillis = hedgeMinDelayMillis;
+    }
+
+    public boolean isDedupesByInvoiceNumber() {
+        return dedupesByInvoiceNumber;
+    }
+
+    public void setDedupesByInvoiceNumber(boolean dedupesByInvoiceNumber) {
+        this.dedupesByInvoiceNumber = dedupesByInvoiceNumber;
+    }
+}
@@ -1,6 +1,11 @@
 package com.ridehub.booking.service.payment.sepay;
 
 import com.ridehub.booking.domain.PaymentTransaction;
+import com.ridehub.booking.service.payment.http.GatewayFailures;
+import com.ridehub.booking.service.payment.http.GatewayHttpClients;
+import com.ridehub.booking.service.payment.http.GatewayProvider;
+import com.ridehub.booking.service.payment.http.GatewayRetryExecutor;
+import com.ridehub.booking.service.payment.http.GatewayRetryPolicy;
 import com.ridehub.booking.service.vm.InitiatePaymentRequestVM;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,7 +13,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.net.URI;
@@ -16,9 +20,13 @@ import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * SePay payment service implementation
@@ -29,11 +37,14 @@ public class SePayService {
     private static final Logger LOG = LoggerFactory.getLogger(SePayService.class);
 
     private final SePayConfig sePayConfig;
-    private final RestTemplate restTemplate;
+    private final GatewayHttpClients gatewayHttpClients;
+    private final GatewayRetryExecutor gatewayRetryExecutor;
 
-    public SePayService(SePayConfig sePayConfig) {
+    public SePayService(SePayConfig sePayConfig, GatewayHttpClients gatewayHttpClients,
+            GatewayRetryExecutor gatewayRetryExecutor) {
         this.sePayConfig = sePayConfig;
-        this.restTemplate = new RestTemplate();
+        this.gatewayHttpClients = gatewayHttpClients;
+        this.gatewayRetryExecutor = gatewayRetryExecutor;
     }
 
     /**
@@ -41,16 +52,37 @@ public class SePayService {
      */
     public String createPaymentUrl(InitiatePaymentRequestVM request, String transactionId,
             String orderRef, BigDecimal amount, String returnUrl, String ipAddress, Instant bookingExpiresAt) {
+        try {
+            return createPaymentUrlAsync(request, transactionId, orderRef, amount, returnUrl, ipAddress,
+                    bookingExpiresAt).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    /**
+     * Create SePay payment URL without blocking the caller while SePay responds or retries are pending.
+     */
+    public CompletableFuture<String> createPaymentUrlAsync(InitiatePaymentRequestVM request, String transactionId,
+            String orderRef, BigDecimal amount, String returnUrl, String ipAddress, Instant bookingExpiresAt) {
         LOG.debug("Creating SePay payment URL for transaction: {}", transactionId);
 
+        CompletableFuture<String> checkout;
         try {
-            String checkoutUrl = createCheckoutUrl(amount, transactionId);
+            checkout = createCheckoutUrlAsync(amount, transactionId);
+        } catch (Exception e) {
+            checkout = CompletableFuture.failedFuture(e);
+        }
+        return checkout.handle((checkoutUrl, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause()
+                        : error;
+                LOG.error("Error creating SePay payment URL for transaction: {}", transactionId, cause);
+                throw new RuntimeException("Failed to create SePay payment URL", cause);
+            }
             LOG.debug("SePay payment URL created successfully for transaction: {}", transactionId);
             return checkoutUrl;
-        } catch (Exception e) {
-            LOG.error("Error creating SePay payment URL for transaction: {}", transactionId, e);
-            throw new RuntimeException("Failed to create SePay payment URL", e);
-        }
+        });
     }
 
     /**
@@ -203,9 +235,7 @@ public class SePayService {
         try {
             String apiUrl = sePayConfig.getApiBaseUrl() + "/v1/order/detail/" + transactionId;
 
-            HttpClient client = HttpClient.newBuilder()
-                    .connectTimeout(java.time.Duration.ofSeconds(sePayConfig.getConnectTimeoutSeconds()))
-                    .build();
+            HttpClient client = gatewayHttpClients.httpClient(GatewayProvider.SEPAY);
             String auth = Base64.getEncoder()
                     .encodeToString((sePayConfig.getMerchantId() + ":" + sePayConfig.getSecretKey()).getBytes());
 
@@ -213,10 +243,12 @@ public class SePayService {
                     .uri(URI.create(
                             apiUrl))
                     .header("Authorization", "Basic " + auth)
+                    .timeout(gatewayHttpClients.readTimeout(GatewayProvider.SEPAY))
                     .GET()
                     .build();
 
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = gatewayHttpClients.execute(GatewayProvider.SEPAY, "order-detail",
+                    () -> client.send(request, HttpResponse.BodyHandlers.ofString()));
 
             int statusCode = response.statusCode();
             String responseBody = response.body();
@@ -247,10 +279,14 @@ public class SePayService {
     }
 
     /**
-     * Create checkout URL using SePay API
+     * Create checkout URL using SePay API.
+     * <p>
+     * Attempts are sent asynchronously and retried with exponential backoff and jitter on a timer. The POST
+     * creates an order, so an error response is final and only connect failures are retried; a read timeout is
+     * retried as well when SePay dedupes orders by invoice number ({@code sepay.dedupes-by-invoice-number}). A
+     * slow attempt is hedged with a second request only when {@code sepay.hedge-enabled} is set and SePay dedupes.
      */
-    private String createCheckoutUrl(BigDecimal amountVnd, String transactionId)
-            throws Exception {
+    private CompletableFuture<String> createCheckoutUrlAsync(BigDecimal amountVnd, String transactionId) {
 
         String description = "Payment for booking: " + transactionId;
         String successUrl = sePayConfig.getSuccessUrl() != null ? sePayConfig.getSuccessUrl()
@@ -278,72 +314,79 @@ public class SePayService {
         // 3. Encode form body
         String body = buildFormUrlEncoded(formData);
 
-        // 4. HTTP client — FOLLOW redirects to capture checkout URL with configurable
-        // timeout
-        HttpClient client = HttpClient.newBuilder()
-                .followRedirects(HttpClient.Redirect.ALWAYS)
-                .connectTimeout(java.time.Duration.ofSeconds(sePayConfig.getConnectTimeoutSeconds()))
-                .build();
+        // 4. Shared SePay client — follows redirects to capture the checkout URL
+        HttpClient client = gatewayHttpClients.httpClient(GatewayProvider.SEPAY);
 
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(sePayConfig.getInitUrl()))
                 .header("Content-Type", "application/x-www-form-urlencoded")
-                .timeout(java.time.Duration.ofSeconds(sePayConfig.getRequestTimeoutSeconds()))
+                .timeout(gatewayHttpClients.readTimeout(GatewayProvider.SEPAY))
                 .POST(HttpRequest.BodyPublishers.ofString(body))
                 .build();
 
-        // 5. Send request with retry logic
-        HttpResponse<String> response = null;
-        int maxRetries = sePayConfig.getMaxRetries();
-        int retryDelay = sePayConfig.getRetryDelayMillis();
+        // 5. Send request with non-blocking retry (and optional hedging)
+        return gatewayRetryExecutor
+                .execute(GatewayProvider.SEPAY, "checkout", checkoutRetryPolicy(),
+                        () -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString()),
+                        this::isRetryableCheckoutError)
+                .handle((response, error) -> {
+                    if (error != null) {
+                        throw translateCheckoutError(transactionId, error);
+                    }
+                    return resolveCheckoutUrl(response, transactionId, amountVnd, signature);
+                });
+    }
 
-        for (int attempt = 1; attempt <= maxRetries; attempt++) {
-            try {
-                LOG.debug("Attempting SePay API call {}/{} for transaction: {}", attempt, maxRetries,
-                        transactionId);
-                response = client.send(request, HttpResponse.BodyHandlers.ofString());
-                break; // Success, exit retry loop
-            } catch (java.net.http.HttpTimeoutException e) {
-                LOG.warn("SePay API timeout attempt {}/{} for transaction: {}", attempt, maxRetries,
-                        transactionId,
-                        e);
-                if (attempt == maxRetries) {
-                    LOG.error("SePay API timeout after {} attempts for transaction: {}", maxRetries,
-                            transactionId,
-                            e);
-                    throw new RuntimeException("SePay service timeout - please try again", e);
-                }
-            } catch (java.net.ConnectException e) {
-                LOG.warn("Failed to connect to SePay API attempt {}/{} for transaction: {}", attempt, maxRetries,
-                        transactionId, e);
-                if (attempt == maxRetries) {
-                    LOG.error("Failed to connect to SePay API after {} attempts for transaction: {}", maxRetries,
-                            transactionId, e);
-                    throw new RuntimeException("Unable to connect to SePay service", e);
-                }
-            } catch (InterruptedException e) {
-                LOG.error("SePay API request interrupted for transaction: {}", transactionId, e);
-                Thread.currentThread().interrupt(); // Restore interrupt status
-                throw new RuntimeException("Payment request was interrupted", e);
-            } catch (Exception e) {
-                LOG.error("Unexpected error calling SePay API attempt {}/{} for transaction: {}", attempt, maxRetries,
-                        transactionId, e);
-                if (attempt == maxRetries) {
-                    throw new RuntimeException("Failed to create SePay payment", e);
-                }
-            }
+    private GatewayRetryPolicy checkoutRetryPolicy() {
+        return new GatewayRetryPolicy(
+                sePayConfig.getMaxRetries(),
+                Duration.ofMillis(sePayConfig.getRetryDelayMillis()),
+                Duration.ofMillis(sePayConfig.getRetryMaxDelayMillis()),
+                sePayConfig.getRetryJitter(),
+                sePayConfig.isHedgeEnabled() && sePayConfig.isDedupesByInvoiceNumber(),
+                sePayConfig.getHedgePercentile(),
+                Duration.ofMillis(sePayConfig.getHedgeMinDelayMillis()));
+    }
 
-            // Wait before retry (except on last attempt)
-            if (attempt < maxRetries) {
-                try {
-                    Thread.sleep(retryDelay);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException("Payment request was interrupted during retry delay", ie);
-                }
+    /**
+     * A read timeout may come after SePay created the order, so it is retried only when a repeated invoice number
+     * returns the same order. A bulkhead rejection is not retried: the gateway is saturated and waiting in line
+     * again only adds load.
+     */
+    private boolean isRetryableCheckoutError(Throwable error) {
+        if (GatewayFailures.isConnectFailure(error)) {
+            return true;
+        }
+        return sePayConfig.isDedupesByInvoiceNumber() && isTimeout(error);
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpTimeoutException) {
+                return true;
             }
         }
+        return false;
+    }
+
+    private RuntimeException translateCheckoutError(String transactionId, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof java.net.http.HttpTimeoutException) {
+            LOG.error("SePay API timeout after {} attempts for transaction: {}", sePayConfig.getMaxRetries(),
+                    transactionId, cause);
+            return new RuntimeException("SePay service timeout - please try again", cause);
+        }
+        if (cause instanceof java.net.ConnectException) {
+            LOG.error("Failed to connect to SePay API after {} attempts for transaction: {}",
+                    sePayConfig.getMaxRetries(), transactionId, cause);
+            return new RuntimeException("Unable to connect to SePay service", cause);
+        }
+        LOG.error("Unexpected error calling SePay API for transaction: {}", transactionId, cause);
+        return new RuntimeException("Failed to create SePay payment", cause);
+    }
 
+    private String resolveCheckoutUrl(HttpResponse<String> response, String transactionId, BigDecimal amountVnd,
+            String signature) {
         int status = response.statusCode();
         URI finalUri = response.uri();
 
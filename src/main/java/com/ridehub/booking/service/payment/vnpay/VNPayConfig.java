@@ -25,6 +25,11 @@ public class VNPayConfig {
     private String refundTransactionTypePartial = "03";
     private String refundCreateBy = "system";
 
+    // Poller settings: worker threads and querydr rate limit (requests/second, burst)
+    private int pollingThreads = 8;
+    private double pollingRatePerSecond = 10;
+    private int pollingBurst = 10;
+
     // Getters and Setters
     public String getTmnCode() {
         return tmnCode;
@@ -145,4 +150,28 @@ public class VNPayConfig {
     public void setReturnFEURL(String returnFEURL) {
         this.returnFEURL = returnFEURL;
     }
+
+    public int getPollingThreads() {
+        return pollingThreads;
+    }
+
+    public void setPollingThreads(int pollingThreads) {
+        this.pollingThreads = pollingThreads;
+    }
+
+    public double getPollingRatePerSecond() {
+        return pollingRatePerSecond;
+    }
+
+    public void setPollingRatePerSecond(double pollingRatePerSecond) {
+        this.pollingRatePerSecond = pollingRatePerSecond;
+    }
+
+    public int getPollingBurst() {
+        return pollingBurst;
+    }
+
+    public void setPollingBurst(int pollingBurst) {
+        this.pollingBurst = pollingBurst;
+    }
 }
@@ -0,0 +1,150 @@
+package com.ridehub.booking.service.payment.vnpay;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cluster-wide VNPay poll schedule stored in Redis.
+ * <p>
+ * A sorted set ({@code vnpay:poll:schedule}) holds one member per pending transaction id, scored by the
+ * epoch-millis of its next poll; a hash ({@code vnpay:poll:attempts}) holds the number of polls done so far.
+ * {@link #claimDue} atomically takes due entries and pushes them one lease into the future, so replicas
+ * never poll the same transaction concurrently and the cost of a poll cycle tracks the number of due
+ * entries rather than the size of the pending window.
+ */
+@Component
+public class VNPayPollSchedule {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VNPayPollSchedule.class);
+
+    static final String SCHEDULE_KEY = "vnpay:poll:schedule";
+    static final String ATTEMPTS_KEY = "vnpay:poll:attempts";
+
+    /** Delay before the first poll after initiation. */
+    static final Duration FIRST_POLL_DELAY = Duration.ofSeconds(20);
+
+    /** How long a claimed entry stays invisible to other nodes if the claimer dies mid-poll. */
+    static final Duration CLAIM_LEASE = Duration.ofMinutes(2);
+
+    /**
+     * KEYS[1] = schedule, ARGV[1] = now, ARGV[2] = limit, ARGV[3] = lease-until.
+     * Returns due members after re-scoring them to the lease deadline.
+     */
+    private static final DefaultRedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>(
+        "local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2])) " +
+        "for _, member in ipairs(due) do redis.call('ZADD', KEYS[1], 'XX', ARGV[3], member) end " +
+        "return due",
+        List.class
+    );
+
+    private final StringRedisTemplate redis;
+
+    public VNPayPollSchedule(StringRedisTemplate redis) {
+        this.redis = redis;
+    }
+
+    /**
+     * Backoff curve: poll quickly while the customer is likely still on the VNPay page, then back off.
+     *
+     * @param attempts polls already performed
+     */
+    static Duration nextDelay(int attempts) {
+        if (attempts < 4) {
+            return Duration.ofSeconds(20);
+        }
+        if (attempts < 10) {
+            return Duration.ofMinutes(1);
+        }
+        if (attempts < 20) {
+            return Duration.ofMinutes(5);
+        }
+        return Duration.ofMinutes(15);
+    }
+
+    /**
+     * Add a transaction to the schedule unless it is already scheduled.
+     */
+    public void schedule(String transactionId) {
+        long firstPoll = Instant.now().plus(FIRST_POLL_DELAY).toEpochMilli();
+        Boolean added = redis.opsForZSet().addIfAbsent(SCHEDULE_KEY, transactionId, firstPoll);
+        if (Boolean.TRUE.equals(added)) {
+            LOG.debug("Scheduled VNPay polling for transaction {}", transactionId);
+        }
+    }
+
+    /**
+     * Add transactions that are not yet scheduled (used to seed the schedule after deploys or Redis loss).
+     *
+     * @return number of newly scheduled transactions
+     */
+    public int scheduleAll(Collection<String> transactionIds) {
+        int added = 0;
+        for (String transactionId : transactionIds) {
+            Double score = redis.opsForZSet().score(SCHEDULE_KEY, transactionId);
+            if (score == null) {
+                schedule(transactionId);
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Atomically claim up to {@code limit} due transactions for this node.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> claimDue(int limit) {
+        long now = Instant.now().toEpochMilli();
+        long leaseUntil = now + CLAIM_LEASE.toMillis();
+        List<String> due = redis.execute(
+            CLAIM_SCRIPT,
+            List.of(SCHEDULE_KEY),
+            String.valueOf(now),
+            String.valueOf(limit),
+            String.valueOf(leaseUntil)
+        );
+        return due != null ? due : List.of();
+    }
+
+    /**
+     * Record a poll and return the total number of polls for the transaction.
+     */
+    public int recordAttempt(String transactionId) {
+        Long attempts = redis.opsForHash().increment(ATTEMPTS_KEY, transactionId, 1);
+        return attempts != null ? attempts.intValue() : 1;
+    }
+
+    /**
+     * Schedule the next poll according to the backoff curve.
+     */
+    public void reschedule(String transactionId, int attempts) {
+        reschedule(transactionId, nextDelay(attempts));
+    }
+
+    /**
+     * Schedule the next poll after an explicit delay.
+     */
+    public void reschedule(String transactionId, Duration delay) {
+        redis.opsForZSet().add(SCHEDULE_KEY, transactionId, Instant.now().plus(delay).toEpochMilli());
+    }
+
+    /**
+     * Stop polling a transaction.
+     */
+    public void remove(String transactionId) {
+        redis.opsForZSet().remove(SCHEDULE_KEY, transactionId);
+        redis.opsForHash().delete(ATTEMPTS_KEY, transactionId);
+    }
+
+    public long size() {
+        Long size = redis.opsForZSet().zCard(SCHEDULE_KEY);
+        return size != null ? size : 0;
+    }
+}
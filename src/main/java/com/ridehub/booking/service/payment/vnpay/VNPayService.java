@@ -1,6 +1,8 @@
 package com.ridehub.booking.service.payment.vnpay;
 
 import com.ridehub.booking.domain.PaymentTransaction;
+import com.ridehub.booking.service.payment.http.GatewayHttpClients;
+import com.ridehub.booking.service.payment.http.GatewayProvider;
 import com.ridehub.booking.service.vm.InitiatePaymentRequestVM;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,11 +24,13 @@ public class VNPayService {
     private static final Logger LOG = LoggerFactory.getLogger(VNPayService.class);
 
     private final VNPayConfig vnPayConfig;
+    private final GatewayHttpClients gatewayHttpClients;
     private final RestTemplate restTemplate;
 
-    public VNPayService(VNPayConfig vnPayConfig) {
+    public VNPayService(VNPayConfig vnPayConfig, GatewayHttpClients gatewayHttpClients) {
         this.vnPayConfig = vnPayConfig;
-        this.restTemplate = new RestTemplate();
+        this.gatewayHttpClients = gatewayHttpClients;
+        this.restTemplate = gatewayHttpClients.restTemplate(GatewayProvider.VNPAY);
     }
 
     /**
@@ -198,7 +202,8 @@ public class VNPayService {
         String secureHash = VNPayUtils.hmacSHA512(vnPayConfig.getHashSecret(), data);
         params.put("vnp_SecureHash", secureHash);
 
-        Map<String, Object> res = restTemplate.postForObject(vnPayConfig.getQueryUrl(), params, Map.class);
+        Map<String, Object> res = gatewayHttpClients.execute(GatewayProvider.VNPAY, "querydr",
+                () -> restTemplate.postForObject(vnPayConfig.getQueryUrl(), params, Map.class));
         return res != null ? parseQueryResponse(res)
                 : new VNPayQueryResult(false, "99", "No response from VNPay", null, null);
     }
@@ -247,10 +252,8 @@ public class VNPayService {
             queryParams.put("vnp_SecureHash", secureHash);
 
             // Make API call
-            Map<String, Object> response = restTemplate.postForObject(
-                    vnPayConfig.getQueryUrl(),
-                    queryParams,
-                    Map.class);
+            Map<String, Object> response = gatewayHttpClients.execute(GatewayProvider.VNPAY, "querydr",
+                    () -> restTemplate.postForObject(vnPayConfig.getQueryUrl(), queryParams, Map.class));
 
             if (response != null) {
                 return parseQueryResponse(response);
@@ -325,10 +328,8 @@ public class VNPayService {
             refundParams.put("vnp_SecureHash", secureHash);
 
             // Make API call
-            Map<String, Object> response = restTemplate.postForObject(
-                    vnPayConfig.getQueryUrl(),
-                    refundParams,
-                    Map.class);
+            Map<String, Object> response = gatewayHttpClients.execute(GatewayProvider.VNPAY, "refund",
+                    () -> restTemplate.postForObject(vnPayConfig.getQueryUrl(), refundParams, Map.class));
 
             if (response != null) {
                 return parseRefundResponse(response);
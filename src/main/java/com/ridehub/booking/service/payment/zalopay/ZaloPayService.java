@@ -1,5 +1,7 @@
 package com.ridehub.booking.service.payment.zalopay;
 
+import com.ridehub.booking.service.payment.http.GatewayHttpClients;
+import com.ridehub.booking.service.payment.http.GatewayProvider;
 import com.ridehub.booking.service.vm.InitiatePaymentRequestVM;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,11 +24,13 @@ public class ZaloPayService {
     private static final Logger LOG = LoggerFactory.getLogger(ZaloPayService.class);
     
     private final ZaloPayConfig zaloPayConfig;
+    private final GatewayHttpClients gatewayHttpClients;
     private final RestTemplate restTemplate;
     
-    public ZaloPayService(ZaloPayConfig zaloPayConfig) {
+    public ZaloPayService(ZaloPayConfig zaloPayConfig, GatewayHttpClients gatewayHttpClients) {
         this.zaloPayConfig = zaloPayConfig;
-        this.restTemplate = new RestTemplate();
+        this.gatewayHttpClients = gatewayHttpClients;
+        this.restTemplate = gatewayHttpClients.restTemplate(GatewayProvider.ZALOPAY);
     }
     
     /**
@@ -74,7 +78,8 @@ public class ZaloPayService {
             headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
             
             HttpEntity<MultiValueMap<String, String>> entity = new HttpEntity<>(params, headers);
-            ResponseEntity<Map> response = restTemplate.postForEntity(zaloPayConfig.getEndpoint(), entity, Map.class);
+            ResponseEntity<Map> response = gatewayHttpClients.execute(GatewayProvider.ZALOPAY, "create",
+                    () -> restTemplate.postForEntity(zaloPayConfig.getEndpoint(), entity, Map.class));
             
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 Map<String, Object> responseBody = response.getBody();
@@ -0,0 +1,53 @@
+package com.ridehub.booking.service.state;
+
+import jakarta.persistence.EntityManager;
+import java.util.Collection;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Second-level cache bookkeeping for the native status updates, which Hibernate cannot attribute to entities.
+ * <p>
+ * A JPQL bulk update makes Hibernate clear the whole entity region, and with the two-tier cache that is a
+ * region-wide invalidation on every node for each status change. The status updates are therefore native
+ * statements that name no entity table, and the rows they touch are soft-locked here beforehand and unlocked
+ * when the transaction completes, the way Hibernate handles an entity update: loads that started before the
+ * commit cannot put their copy back, and only the touched keys are invalidated on the other nodes.
+ */
+@Component
+public class SecondLevelCacheLocks {
+
+    private final EntityManager entityManager;
+
+    public SecondLevelCacheLocks(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Lock the cache entries of the {@code entityType} rows with the given ids until the current transaction
+     * completes. Call inside the transaction, before the update.
+     */
+    public void lockForUpdate(Class<?> entityType, Collection<?> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(entityType);
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        EntityDataAccess cache = persister.getCacheAccessStrategy();
+        EntityPersister root = persister.getRootEntityDescriptor().getEntityPersister();
+        for (Object id : ids) {
+            Object key = cache.generateCacheKey(id, root, session.getFactory(), session.getTenantIdentifier());
+            SoftLock lock = cache.lockItem(session, key, null);
+            session
+                .getActionQueue()
+                .registerProcess((AfterTransactionCompletionProcess) (success, completed) -> cache.unlockItem(completed, key, lock));
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.ridehub.booking.service.state;
+
+import com.ridehub.booking.domain.Booking;
+import com.ridehub.booking.domain.PaymentTransaction;
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import com.ridehub.booking.repository.BookingRepository;
+import com.ridehub.booking.repository.PaymentTransactionRepository;
+import com.ridehub.booking.service.count.StatusCounters;
+import com.ridehub.booking.service.expiry.BookingExpiryService;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Applies booking and payment status changes as versioned conditional updates
+ * ({@code UPDATE ... WHERE id = ? AND status = ? AND version = ?}).
+ * <p>
+ * A transition is checked against {@link StatusTransitions} and only succeeds if nobody changed the row since
+ * it was read; a concurrent change is reported as {@code false} instead of blocking on a row lock or
+ * silently overwriting the other writer. Callers either give up (the other writer won) or re-read and retry.
+ * The second-level cache entry of the row is locked through {@link SecondLevelCacheLocks} around each update.
+ */
+@Service
+@Transactional
+public class StatusTransitionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatusTransitionService.class);
+
+    /** Attempts for id-based transitions when only the version moved under us. */
+    static final int MAX_ATTEMPTS = 3;
+
+    private final BookingRepository bookingRepository;
+    private final PaymentTransactionRepository paymentTransactionRepository;
+    private final EntityManager entityManager;
+    private final BookingExpiryService bookingExpiryService;
+    private final StatusCounters statusCounters;
+    private final SecondLevelCacheLocks cacheLocks;
+
+    public StatusTransitionService(
+        BookingRepository bookingRepository,
+        PaymentTransactionRepository paymentTransactionRepository,
+        EntityManager entityManager,
+        BookingExpiryService bookingExpiryService,
+        StatusCounters statusCounters,
+        SecondLevelCacheLocks cacheLocks
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.paymentTransactionRepository = paymentTransactionRepository;
+        this.entityManager = entityManager;
+        this.bookingExpiryService = bookingExpiryService;
+        this.statusCounters = statusCounters;
+        this.cacheLocks = cacheLocks;
+    }
+
+    /**
+     * Move a booking to {@code to} if it still has the status and version it was read with. On success the
+     * entity reflects the new status and version.
+     *
+     * @return {@code false} if the booking was changed concurrently or already has status {@code to}
+     * @throws IllegalStateException if the transition is not legal
+     */
+    public boolean transition(Booking booking, BookingStatus to) {
+        BookingStatus from = booking.getStatus();
+        if (from == to) {
+            return false;
+        }
+        StatusTransitions.requireTransition(from, to);
+        boolean managed = flushIfManaged(booking);
+        Instant now = Instant.now();
+        cacheLocks.lockForUpdate(Booking.class, List.of(booking.getId()));
+        int updated = bookingRepository.updateStatusIfCurrent(booking.getId(), from.name(), booking.getVersion(), to.name(), now);
+        if (updated == 0) {
+            LOG.debug("Booking {} changed concurrently, {} -> {} not applied", booking.getId(), from, to);
+            return false;
+        }
+        statusCounters.moved(Booking.class, from, to, 1);
+        if (managed) {
+            entityManager.refresh(booking);
+        } else {
+            booking.setStatus(to);
+            booking.setUpdatedAt(now);
+            booking.setVersion(booking.getVersion() + 1);
+        }
+        if (from == BookingStatus.AWAITING_PAYMENT) {
+            bookingExpiryService.remove(booking.getId());
+        }
+        return true;
+    }
+
+    /**
+     * Move a payment transaction to {@code to} if it still has the status and version it was read with. On
+     * success the entity reflects the new status and version.
+     *
+     * @return {@code false} if the transaction was changed concurrently or already has status {@code to}
+     * @throws IllegalStateException if the transition is not legal
+     */
+    public boolean transition(PaymentTransaction transaction, PaymentStatus to) {
+        PaymentStatus from = transaction.getStatus();
+        if (from == to) {
+            return false;
+        }
+        StatusTransitions.requireTransition(from, to);
+        boolean managed = flushIfManaged(transaction);
+        Instant now = Instant.now();
+        cacheLocks.lockForUpdate(PaymentTransaction.class, List.of(transaction.getId()));
+        int updated = paymentTransactionRepository.updateStatusIfCurrent(
+            transaction.getId(),
+            from.name(),
+            transaction.getVersion(),
+            to.name(),
+            now
+        );
+        if (updated == 0) {
+            LOG.debug("Payment transaction {} changed concurrently, {} -> {} not applied", transaction.getId(), from, to);
+            return false;
+        }
+        statusCounters.moved(PaymentTransaction.class, from, to, 1);
+        if (managed) {
+            entityManager.refresh(transaction);
+        } else {
+            transaction.setStatus(to);
+            transaction.setUpdatedAt(now);
+            transaction.setVersion(transaction.getVersion() + 1);
+        }
+        return true;
+    }
+
+    /**
+     * Move a booking from {@code expectedFrom} to {@code to} by id, retrying while only the version changed.
+     *
+     * @return {@code false} if the booking does not exist or no longer has status {@code expectedFrom}
+     * @throws IllegalStateException if the transition is not legal
+     */
+    public boolean transitionBooking(Long bookingId, BookingStatus expectedFrom, BookingStatus to) {
+        StatusTransitions.requireTransition(expectedFrom, to);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Optional<BookingRepository.StatusVersionView> current = bookingRepository.findStatusAndVersion(bookingId);
+            if (current.isEmpty() || current.get().getStatus() != expectedFrom) {
+                return false;
+            }
+            if (attempt == 0) {
+                cacheLocks.lockForUpdate(Booking.class, List.of(bookingId));
+            }
+            if (
+                bookingRepository.updateStatusIfCurrent(bookingId, expectedFrom.name(), current.get().getVersion(), to.name(), Instant.now()) == 1
+            ) {
+                statusCounters.moved(Booking.class, expectedFrom, to, 1);
+                if (expectedFrom == BookingStatus.AWAITING_PAYMENT) {
+                    bookingExpiryService.remove(bookingId);
+                }
+                return true;
+            }
+        }
+        LOG.warn("Gave up moving booking {} {} -> {} after {} conflicting attempts", bookingId, expectedFrom, to, MAX_ATTEMPTS);
+        return false;
+    }
+
+    /**
+     * Move a payment transaction from {@code expectedFrom} to {@code to} by id, retrying while only the
+     * version changed.
+     *
+     * @return {@code false} if the transaction does not exist or no longer has status {@code expectedFrom}
+     * @throws IllegalStateException if the transition is not legal
+     */
+    public boolean transitionPayment(Long transactionId, PaymentStatus expectedFrom, PaymentStatus to) {
+        StatusTransitions.requireTransition(expectedFrom, to);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Optional<PaymentTransactionRepository.StatusVersionView> current = paymentTransactionRepository.findStatusAndVersion(
+                transactionId
+            );
+            if (current.isEmpty() || current.get().getStatus() != expectedFrom) {
+                return false;
+            }
+            if (attempt == 0) {
+                cacheLocks.lockForUpdate(PaymentTransaction.class, List.of(transactionId));
+            }
+            if (
+                paymentTransactionRepository.updateStatusIfCurrent(
+                    transactionId,
+                    expectedFrom.name(),
+                    current.get().getVersion(),
+                    to.name(),
+                    Instant.now()
+                ) ==
+                1
+            ) {
+                statusCounters.moved(PaymentTransaction.class, expectedFrom, to, 1);
+                return true;
+            }
+        }
+        LOG.warn("Gave up moving payment transaction {} {} -> {} after {} conflicting attempts", transactionId, expectedFrom, to, MAX_ATTEMPTS);
+        return false;
+    }
+
+    /**
+     * Write pending changes of a managed entity so the conditional update sees (and bumps) its current
+     * version; the refresh after the update would otherwise discard them.
+     */
+    private boolean flushIfManaged(Object entity) {
+        if (!entityManager.contains(entity)) {
+            return false;
+        }
+        entityManager.flush();
+        return true;
+    }
+}
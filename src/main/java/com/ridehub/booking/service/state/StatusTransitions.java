@@ -0,0 +1,119 @@
+package com.ridehub.booking.service.state;
+
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Legal status transitions for {@link BookingStatus} and {@link PaymentStatus}.
+ * <p>
+ * This is the single place where the booking and payment state machines are declared; every status change
+ * goes through {@link StatusTransitionService}, which checks it here before issuing a versioned conditional
+ * update.
+ */
+public final class StatusTransitions {
+
+    private static final Map<BookingStatus, Set<BookingStatus>> BOOKING = new EnumMap<>(BookingStatus.class);
+    private static final Map<PaymentStatus, Set<PaymentStatus>> PAYMENT = new EnumMap<>(PaymentStatus.class);
+
+    static {
+        booking(BookingStatus.DRAFT, BookingStatus.AWAITING_PAYMENT, BookingStatus.CANCELED);
+        booking(BookingStatus.AWAITING_PAYMENT, BookingStatus.PAID, BookingStatus.CONFIRMED, BookingStatus.CANCELED);
+        booking(BookingStatus.PAID, BookingStatus.CONFIRMED, BookingStatus.CANCELED, BookingStatus.REFUNDED);
+        booking(
+            BookingStatus.CONFIRMED,
+            BookingStatus.CANCELED,
+            BookingStatus.REFUNDED,
+            BookingStatus.RECOVERY_FAILED_SEAT_LOCKS
+        );
+        // Admin recovery of a booking that expired while its payment succeeded
+        booking(BookingStatus.CANCELED, BookingStatus.CONFIRMED);
+        booking(
+            BookingStatus.RECOVERY_FAILED_SEAT_LOCKS,
+            BookingStatus.CONFIRMED,
+            BookingStatus.CANCELED,
+            BookingStatus.REFUNDED
+        );
+        booking(BookingStatus.REFUNDED);
+
+        payment(
+            PaymentStatus.INITIATED,
+            PaymentStatus.PROCESSING,
+            PaymentStatus.SUCCESS,
+            PaymentStatus.FAILED,
+            PaymentStatus.REFUNDED,
+            PaymentStatus.PAYMENT_SUCCESS_BUT_BOOKING_EXPIRED,
+            PaymentStatus.REQUIRES_MANUAL_REVIEW
+        );
+        payment(
+            PaymentStatus.PROCESSING,
+            PaymentStatus.SUCCESS,
+            PaymentStatus.FAILED,
+            PaymentStatus.REFUNDED,
+            PaymentStatus.PAYMENT_SUCCESS_BUT_BOOKING_EXPIRED,
+            PaymentStatus.REQUIRES_MANUAL_REVIEW
+        );
+        payment(PaymentStatus.SUCCESS, PaymentStatus.REFUNDED);
+        payment(
+            PaymentStatus.PAYMENT_SUCCESS_BUT_BOOKING_EXPIRED,
+            PaymentStatus.SUCCESS,
+            PaymentStatus.REFUNDED,
+            PaymentStatus.REQUIRES_MANUAL_REVIEW
+        );
+        payment(PaymentStatus.REQUIRES_MANUAL_REVIEW, PaymentStatus.SUCCESS, PaymentStatus.FAILED, PaymentStatus.REFUNDED);
+        payment(PaymentStatus.FAILED);
+        payment(PaymentStatus.REFUNDED);
+    }
+
+    private StatusTransitions() {}
+
+    private static void booking(BookingStatus from, BookingStatus... to) {
+        Set<BookingStatus> targets = EnumSet.noneOf(BookingStatus.class);
+        Collections.addAll(targets, to);
+        BOOKING.put(from, Collections.unmodifiableSet(targets));
+    }
+
+    private static void payment(PaymentStatus from, PaymentStatus... to) {
+        Set<PaymentStatus> targets = EnumSet.noneOf(PaymentStatus.class);
+        Collections.addAll(targets, to);
+        PAYMENT.put(from, Collections.unmodifiableSet(targets));
+    }
+
+    public static boolean canTransition(BookingStatus from, BookingStatus to) {
+        return from != null && BOOKING.getOrDefault(from, Set.of()).contains(to);
+    }
+
+    public static boolean canTransition(PaymentStatus from, PaymentStatus to) {
+        return from != null && PAYMENT.getOrDefault(from, Set.of()).contains(to);
+    }
+
+    /**
+     * @throws IllegalStateException if the booking may not move from {@code from} to {@code to}
+     */
+    public static void requireTransition(BookingStatus from, BookingStatus to) {
+        if (!canTransition(from, to)) {
+            throw new IllegalStateException("Illegal booking status transition " + from + " -> " + to);
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if the payment may not move from {@code from} to {@code to}
+     */
+    public static void requireTransition(PaymentStatus from, PaymentStatus to) {
+        if (!canTransition(from, to)) {
+            throw new IllegalStateException("Illegal payment status transition " + from + " -> " + to);
+        }
+    }
+
+    public static boolean isTerminal(BookingStatus status) {
+        return BOOKING.getOrDefault(status, Set.of()).isEmpty();
+    }
+
+    public static boolean isTerminal(PaymentStatus status) {
+        return PAYMENT.getOrDefault(status, Set.of()).isEmpty();
+    }
+}
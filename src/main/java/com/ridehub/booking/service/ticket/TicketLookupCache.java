@@ -0,0 +1,217 @@
+package com.ridehub.booking.service.ticket;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ridehub.booking.domain.Ticket;
+import com.ridehub.booking.service.dto.TicketDTO;
+import com.ridehub.booking.service.mapper.TicketMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cluster-wide read-through cache of ticket lookups, stored in Redis.
+ * <p>
+ * {@code ticket:code:<ticketCode>} holds the {@link TicketDTO} as JSON and {@code ticket:booking:<bookingCode>}
+ * the JSON list of the booking's ticket codes, so e-ticket screens and gate scanners are answered without MySQL.
+ * Tickets are cached when issued and dropped whenever they change; both happen after commit, so a rolled back
+ * change never reaches the cache. A failing Redis only costs the database lookup.
+ * <p>
+ * Dropping a key leaves a short-lived tombstone in its place, and lookups fill the cache only where no key
+ * exists ({@code SET NX}). A reader that loaded a ticket before a change committed therefore cannot put its
+ * stale copy back after the eviction, unless its fill arrives more than {@code tombstone-seconds} late.
+ */
+@Component
+public class TicketLookupCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TicketLookupCache.class);
+
+    static final String TICKET_KEY_PREFIX = "ticket:code:";
+    static final String BOOKING_KEY_PREFIX = "ticket:booking:";
+
+    /** Value of an evicted key; reads as a miss and blocks fills until it expires. */
+    static final String TOMBSTONE = "evicted";
+
+    private static final TypeReference<List<String>> CODE_LIST = new TypeReference<>() {};
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final TicketMapper ticketMapper;
+    private final Duration ttl;
+    private final Duration tombstoneTtl;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public TicketLookupCache(
+        StringRedisTemplate redis,
+        ObjectMapper objectMapper,
+        TicketMapper ticketMapper,
+        MeterRegistry meterRegistry,
+        @Value("${ticket-cache.ttl-seconds:21600}") long ttlSeconds,
+        @Value("${ticket-cache.tombstone-seconds:30}") long tombstoneSeconds
+    ) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.ticketMapper = ticketMapper;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.tombstoneTtl = Duration.ofSeconds(tombstoneSeconds);
+
+        this.hits = Counter.builder("ticket.lookup.cache")
+            .tag("result", "hit")
+            .description("Cached ticket lookups")
+            .register(meterRegistry);
+        this.misses = Counter.builder("ticket.lookup.cache")
+            .tag("result", "miss")
+            .description("Cached ticket lookups")
+            .register(meterRegistry);
+    }
+
+    public Optional<TicketDTO> getTicket(String ticketCode) {
+        try {
+            String json = redis.opsForValue().get(TICKET_KEY_PREFIX + ticketCode);
+            if (json != null && !TOMBSTONE.equals(json)) {
+                hits.increment();
+                return Optional.of(objectMapper.readValue(json, TicketDTO.class));
+            }
+        } catch (Exception e) {
+            LOG.warn("Could not read ticket {} from the lookup cache: {}", ticketCode, e.getMessage());
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * The tickets of a booking, in issue order, if the booking and every one of its tickets are cached.
+     */
+    public Optional<List<TicketDTO>> getBookingTickets(String bookingCode) {
+        try {
+            String codesJson = redis.opsForValue().get(BOOKING_KEY_PREFIX + bookingCode);
+            if (codesJson != null && !TOMBSTONE.equals(codesJson)) {
+                List<String> codes = objectMapper.readValue(codesJson, CODE_LIST);
+                List<String> values = redis.opsForValue().multiGet(codes.stream().map(code -> TICKET_KEY_PREFIX + code).toList());
+                if (values != null && !values.contains(null) && !values.contains(TOMBSTONE)) {
+                    List<TicketDTO> tickets = new ArrayList<>(values.size());
+                    for (String json : values) {
+                        tickets.add(objectMapper.readValue(json, TicketDTO.class));
+                    }
+                    hits.increment();
+                    return Optional.of(tickets);
+                }
+            }
+        } catch (Exception e) {
+            LOG.warn("Could not read the tickets of booking {} from the lookup cache: {}", bookingCode, e.getMessage());
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Cache a ticket read from the database, unless its key holds a value or a tombstone.
+     */
+    public TicketDTO putTicket(TicketDTO ticket) {
+        try {
+            redis.opsForValue().setIfAbsent(TICKET_KEY_PREFIX + ticket.getTicketCode(), objectMapper.writeValueAsString(ticket), ttl);
+        } catch (Exception e) {
+            LOG.warn("Could not cache ticket {}: {}", ticket.getTicketCode(), e.getMessage());
+        }
+        return ticket;
+    }
+
+    /**
+     * Cache the tickets of a booking and its ticket list; like {@link #putTicket}, only keys that are absent
+     * are filled.
+     */
+    public List<TicketDTO> putBookingTickets(String bookingCode, List<TicketDTO> tickets) {
+        if (tickets.isEmpty()) {
+            return tickets;
+        }
+        try {
+            Map<String, String> entries = new HashMap<>();
+            for (TicketDTO ticket : tickets) {
+                entries.put(TICKET_KEY_PREFIX + ticket.getTicketCode(), objectMapper.writeValueAsString(ticket));
+            }
+            List<String> codes = tickets.stream().map(TicketDTO::getTicketCode).toList();
+            entries.put(BOOKING_KEY_PREFIX + bookingCode, objectMapper.writeValueAsString(codes));
+            redis.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection strings = (StringRedisConnection) connection;
+                entries.forEach((key, value) -> strings.set(key, value, Expiration.from(ttl), SetOption.SET_IF_ABSENT));
+                return null;
+            });
+        } catch (Exception e) {
+            LOG.warn("Could not cache the tickets of booking {}: {}", bookingCode, e.getMessage());
+        }
+        return tickets;
+    }
+
+    /**
+     * Cache newly issued tickets of a booking. Inside a transaction this happens after commit.
+     */
+    public void issued(String bookingCode, List<Ticket> tickets) {
+        if (bookingCode == null || tickets.isEmpty()) {
+            return;
+        }
+        List<TicketDTO> dtos = tickets.stream().map(ticketMapper::toDto).toList();
+        afterCommit(() -> putBookingTickets(bookingCode, dtos));
+    }
+
+    /**
+     * Drop changed tickets, and the ticket lists of the given bookings, by overwriting them with tombstones.
+     * Inside a transaction this happens after commit.
+     */
+    public void evict(Collection<String> ticketCodes, Collection<String> bookingCodes) {
+        List<String> keys = new ArrayList<>(ticketCodes.size() + bookingCodes.size());
+        ticketCodes.stream().filter(Objects::nonNull).forEach(code -> keys.add(TICKET_KEY_PREFIX + code));
+        bookingCodes.stream().filter(Objects::nonNull).forEach(code -> keys.add(BOOKING_KEY_PREFIX + code));
+        if (!keys.isEmpty()) {
+            afterCommit(() -> {
+                try {
+                    redis.executePipelined((RedisCallback<Object>) connection -> {
+                        StringRedisConnection strings = (StringRedisConnection) connection;
+                        keys.forEach(key -> strings.setEx(key, tombstoneTtl.toSeconds(), TOMBSTONE));
+                        return null;
+                    });
+                } catch (Exception e) {
+                    LOG.warn("Could not evict {} from the ticket lookup cache: {}", keys, e.getMessage());
+                }
+            });
+        }
+    }
+
+    public void evictTickets(Collection<String> ticketCodes) {
+        evict(ticketCodes, List.of());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                }
+            );
+        } else {
+            action.run();
+        }
+    }
+}
@@ -158,12 +158,17 @@ public class AppliedPromotionResource {
      * {@code GET  /applied-promotions/count} : count all the appliedPromotions.
      *
      * @param criteria the criteria which the requested entities should match.
+     * @param approximate whether an estimate is good enough, as for the admin UI: unfiltered counts are then read
+     *                    from the table statistics.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
      */
     @GetMapping("/count")
-    public ResponseEntity<Long> countAppliedPromotions(AppliedPromotionCriteria criteria) {
-        LOG.debug("REST request to count AppliedPromotions by criteria: {}", criteria);
-        return ResponseEntity.ok().body(appliedPromotionQueryService.countByCriteria(criteria));
+    public ResponseEntity<Long> countAppliedPromotions(
+        AppliedPromotionCriteria criteria,
+        @RequestParam(defaultValue = "false") boolean approximate
+    ) {
+        LOG.debug("REST request to count AppliedPromotions by criteria: {}, approximate: {}", criteria, approximate);
+        return ResponseEntity.ok().body(appliedPromotionQueryService.countByCriteria(criteria, approximate));
     }
 
     /**
@@ -5,6 +5,7 @@ import com.ridehub.booking.service.BookingQueryService;
 import com.ridehub.booking.service.BookingService;
 import com.ridehub.booking.service.criteria.BookingCriteria;
 import com.ridehub.booking.service.dto.BookingDTO;
+import com.ridehub.booking.service.keyset.CursorSlice;
 import com.ridehub.booking.service.vm.BookingDraftResultVM;
 import com.ridehub.booking.service.vm.CreateBookingDraftRequestVM;
 import com.ridehub.booking.web.rest.errors.BadRequestAlertException;
@@ -86,7 +87,9 @@ public class BookingResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body
      *         the updated bookingDTO,
      *         or with status {@code 400 (Bad Request)} if the bookingDTO is not
-     *         valid,
+     *         valid or has no version,
+     *         or with status {@code 409 (Conflict)} if the booking changed since
+     *         its version was read,
      *         or with status {@code 500 (Internal Server Error)} if the bookingDTO
      *         couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
@@ -106,6 +109,9 @@ public class BookingResource {
         if (!bookingRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        if (bookingDTO.getVersion() == null) {
+            throw new BadRequestAlertException("Invalid version", ENTITY_NAME, "versionnull");
+        }
 
         bookingDTO = bookingService.update(bookingDTO);
         return ResponseEntity.ok()
@@ -173,17 +179,50 @@ public class BookingResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /bookings/scroll} : get the bookings with keyset pagination.
+     * <p>
+     * Opt-in alternative to offset pages for deep listings: no total count is computed, and each slice is read
+     * with a seek on the sort key instead of an offset. Pass the {@code X-Next-Cursor} header of a response as
+     * {@code cursor} to get the next slice, keeping the criteria and sort unchanged.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param cursor the cursor of the slice to read, absent for the first one.
+     * @param pageable the slice size and sort: {@code createdAt}, {@code bookedAt}, {@code bookingCode} or
+     *                 {@code id}; the page number is ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of bookings in body, or
+     *         with status {@code 400 (Bad Request)} if the cursor is invalid for this sort.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<List<BookingDTO>> scrollBookings(
+            BookingCriteria criteria,
+            @RequestParam(required = false) String cursor,
+            @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+        LOG.debug("REST request to scroll Bookings by criteria: {}, cursor: {}", criteria, cursor);
+        CursorSlice<BookingDTO> slice;
+        try {
+            slice = bookingQueryService.scrollByCriteria(criteria, cursor, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "cursorinvalid");
+        }
+        HttpHeaders headers = KeysetPaginationUtil
+                .generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
     /**
      * {@code GET  /bookings/count} : count all the bookings.
      *
      * @param criteria the criteria which the requested entities should match.
+     * @param approximate whether an estimate is good enough, as for the admin UI: unfiltered counts are then read
+     *                    from the table statistics.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count
      *         in body.
      */
     @GetMapping("/count")
-    public ResponseEntity<Long> countBookings(BookingCriteria criteria) {
-        LOG.debug("REST request to count Bookings by criteria: {}", criteria);
-        return ResponseEntity.ok().body(bookingQueryService.countByCriteria(criteria));
+    public ResponseEntity<Long> countBookings(BookingCriteria criteria, @RequestParam(defaultValue = "false") boolean approximate) {
+        LOG.debug("REST request to count Bookings by criteria: {}, approximate: {}", criteria, approximate);
+        return ResponseEntity.ok().body(bookingQueryService.countByCriteria(criteria, approximate));
     }
 
     /**
@@ -157,12 +157,14 @@ public class FileBookingResource {
      * {@code GET  /file-bookings/count} : count all the fileBookings.
      *
      * @param criteria the criteria which the requested entities should match.
+     * @param approximate whether an estimate is good enough, as for the admin UI: unfiltered counts are then read
+     *                    from the table statistics.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
      */
     @GetMapping("/count")
-    public ResponseEntity<Long> countFileBookings(FileBookingCriteria criteria) {
-        LOG.debug("REST request to count FileBookings by criteria: {}", criteria);
-        return ResponseEntity.ok().body(fileBookingQueryService.countByCriteria(criteria));
+    public ResponseEntity<Long> countFileBookings(FileBookingCriteria criteria, @RequestParam(defaultValue = "false") boolean approximate) {
+        LOG.debug("REST request to count FileBookings by criteria: {}, approximate: {}", criteria, approximate);
+        return ResponseEntity.ok().body(fileBookingQueryService.countByCriteria(criteria, approximate));
     }
 
     /**
@@ -153,12 +153,14 @@ public class InvoiceResource {
      * {@code GET  /invoices/count} : count all the invoices.
      *
      * @param criteria the criteria which the requested entities should match.
+     * @param approximate whether an estimate is good enough, as for the admin UI: unfiltered counts are then read
+     *                    from the table statistics.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
      */
     @GetMapping("/count")
-    public ResponseEntity<Long> countInvoices(InvoiceCriteria criteria) {
-        LOG.debug("REST request to count Invoices by criteria: {}", criteria);
-        return ResponseEntity.ok().body(invoiceQueryService.countByCriteria(criteria));
+    public ResponseEntity<Long> countInvoices(InvoiceCriteria criteria, @RequestParam(defaultValue = "false") boolean approximate) {
+        LOG.debug("REST request to count Invoices by criteria: {}, approximate: {}", criteria, approximate);
+        return ResponseEntity.ok().body(invoiceQueryService.countByCriteria(criteria, approximate));
     }
 
     /**
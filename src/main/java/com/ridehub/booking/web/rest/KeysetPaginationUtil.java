@@ -0,0 +1,37 @@
+package com.ridehub.booking.web.rest;
+
+import com.ridehub.booking.service.keyset.CursorSlice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset pagination, the counterpart of {@link tech.jhipster.web.util.PaginationUtil}
+ * for {@link CursorSlice}s.
+ * <p>
+ * The cursor of the next slice is returned in the {@value #HEADER_NEXT_CURSOR} header and as a {@code next}
+ * link, following the <a href="https://developer.github.com/v3/#pagination">GitHub API</a> format. There is no
+ * total count and no {@code last} link.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Generate keyset pagination headers for a Spring Data {@link CursorSlice} object.
+     *
+     * @param uriBuilder The URI builder of the current request.
+     * @param slice The slice.
+     * @return http header.
+     */
+    public static HttpHeaders generateCursorHttpHeaders(UriComponentsBuilder uriBuilder, CursorSlice<?> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.getNextCursor() != null) {
+            headers.add(HEADER_NEXT_CURSOR, slice.getNextCursor());
+            String next = uriBuilder.replaceQueryParam("cursor", slice.getNextCursor()).replaceQueryParam("page").toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
@@ -11,6 +11,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * REST controller for managing Payment operations.
  */
@@ -34,10 +36,11 @@ public class PaymentResource {
      * @param id the booking ID
      * @param request the payment initiation request
      * @param httpRequest the HTTP request to extract IP address
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and payment URL in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and payment URL in body, completed
+     *         asynchronously so the request thread is released while the gateway responds.
      */
     @PostMapping("/bookings/{id}/pay")
-    public ResponseEntity<PaymentInitiationResultVM> initiatePayment(
+    public CompletableFuture<ResponseEntity<PaymentInitiationResultVM>> initiatePayment(
             @PathVariable Long id,
             @Valid @RequestBody InitiatePaymentRequestVM request,
             HttpServletRequest httpRequest) {
@@ -53,9 +56,7 @@ public class PaymentResource {
         // Extract IP address from request
         String ipAddress = getClientIpAddress(httpRequest);
         
-        PaymentInitiationResultVM result = paymentService.initiatePayment(request, returnUrl, ipAddress);
-        
-        return ResponseEntity.ok(result);
+        return paymentService.initiatePaymentAsync(request, returnUrl, ipAddress).thenApply(ResponseEntity::ok);
     }
 
     /**
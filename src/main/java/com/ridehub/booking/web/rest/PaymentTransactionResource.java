@@ -5,6 +5,7 @@ import com.ridehub.booking.service.PaymentTransactionQueryService;
 import com.ridehub.booking.service.PaymentTransactionService;
 import com.ridehub.booking.service.criteria.PaymentTransactionCriteria;
 import com.ridehub.booking.service.dto.PaymentTransactionDTO;
+import com.ridehub.booking.service.keyset.CursorSlice;
 import com.ridehub.booking.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -16,8 +17,11 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -77,7 +81,8 @@ public class PaymentTransactionResource {
      * @param id the id of the paymentTransactionDTO to save.
      * @param paymentTransactionDTO the paymentTransactionDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated paymentTransactionDTO,
-     * or with status {@code 400 (Bad Request)} if the paymentTransactionDTO is not valid,
+     * or with status {@code 400 (Bad Request)} if the paymentTransactionDTO is not valid or has no version,
+     * or with status {@code 409 (Conflict)} if the paymentTransaction changed since its version was read,
      * or with status {@code 500 (Internal Server Error)} if the paymentTransactionDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -97,6 +102,9 @@ public class PaymentTransactionResource {
         if (!paymentTransactionRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        if (paymentTransactionDTO.getVersion() == null) {
+            throw new BadRequestAlertException("Invalid version", ENTITY_NAME, "versionnull");
+        }
 
         paymentTransactionDTO = paymentTransactionService.update(paymentTransactionDTO);
         return ResponseEntity.ok()
@@ -154,16 +162,51 @@ public class PaymentTransactionResource {
         return ResponseEntity.ok().body(entityList);
     }
 
+    /**
+     * {@code GET  /payment-transactions/scroll} : get the paymentTransactions with keyset pagination.
+     * <p>
+     * Opt-in alternative to offset pages for deep listings: no total count is computed, and each slice is read
+     * with a seek on the sort key instead of an offset. Pass the {@code X-Next-Cursor} header of a response as
+     * {@code cursor} to get the next slice, keeping the criteria and sort unchanged.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param cursor the cursor of the slice to read, absent for the first one.
+     * @param pageable the slice size and sort: {@code createdAt}, {@code transactionId} or {@code id}; the page number is ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of paymentTransactions in body, or
+     *         with status {@code 400 (Bad Request)} if the cursor is invalid for this sort.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<List<PaymentTransactionDTO>> scrollPaymentTransactions(
+        PaymentTransactionCriteria criteria,
+        @RequestParam(required = false) String cursor,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to scroll PaymentTransactions by criteria: {}, cursor: {}", criteria, cursor);
+        CursorSlice<PaymentTransactionDTO> slice;
+        try {
+            slice = paymentTransactionQueryService.scrollByCriteria(criteria, cursor, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "cursorinvalid");
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
     /**
      * {@code GET  /payment-transactions/count} : count all the paymentTransactions.
      *
      * @param criteria the criteria which the requested entities should match.
+     * @param approximate whether an estimate is good enough, as for the admin UI: unfiltered counts are then read
+     *                    from the table statistics.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
      */
     @GetMapping("/count")
-    public ResponseEntity<Long> countPaymentTransactions(PaymentTransactionCriteria criteria) {
-        LOG.debug("REST request to count PaymentTransactions by criteria: {}", criteria);
-        return ResponseEntity.ok().body(paymentTransactionQueryService.countByCriteria(criteria));
+    public ResponseEntity<Long> countPaymentTransactions(
+        PaymentTransactionCriteria criteria,
+        @RequestParam(defaultValue = "false") boolean approximate
+    ) {
+        LOG.debug("REST request to count PaymentTransactions by criteria: {}, approximate: {}", criteria, approximate);
+        return ResponseEntity.ok().body(paymentTransactionQueryService.countByCriteria(criteria, approximate));
     }
 
     /**
@@ -158,12 +158,17 @@ public class PaymentWebhookLogResource {
      * {@code GET  /payment-webhook-logs/count} : count all the paymentWebhookLogs.
      *
      * @param criteria the criteria which the requested entities should match.
+     * @param approximate whether an estimate is good enough, as for the admin UI: unfiltered counts are then read
+     *                    from the table statistics.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
      */
     @GetMapping("/count")
-    public ResponseEntity<Long> countPaymentWebhookLogs(PaymentWebhookLogCriteria criteria) {
-        LOG.debug("REST request to count PaymentWebhookLogs by criteria: {}", criteria);
-        return ResponseEntity.ok().body(paymentWebhookLogQueryService.countByCriteria(criteria));
+    public ResponseEntity<Long> countPaymentWebhookLogs(
+        PaymentWebhookLogCriteria criteria,
+        @RequestParam(defaultValue = "false") boolean approximate
+    ) {
+        LOG.debug("REST request to count PaymentWebhookLogs by criteria: {}, approximate: {}", criteria, approximate);
+        return ResponseEntity.ok().body(paymentWebhookLogQueryService.countByCriteria(criteria, approximate));
     }
 
     /**
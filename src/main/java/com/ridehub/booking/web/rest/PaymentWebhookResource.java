@@ -1,20 +1,17 @@
 package com.ridehub.booking.web.rest;
 
-import com.ridehub.booking.domain.PaymentWebhookLog;
-import com.ridehub.booking.repository.PaymentWebhookLogRepository;
 import com.ridehub.booking.service.PaymentService;
+import com.ridehub.booking.service.admin.AdminQueryService;
+import com.ridehub.booking.service.dto.admin.AdminWebhookLogDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.persistence.criteria.Predicate;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.Instant;
 
 /**
  * REST controller for handling Payment Webhooks.
@@ -26,11 +23,11 @@ public class PaymentWebhookResource {
     private static final Logger LOG = LoggerFactory.getLogger(PaymentWebhookResource.class);
 
     private final PaymentService paymentService;
-    private final PaymentWebhookLogRepository paymentWebhookLogRepository;
+    private final AdminQueryService adminQueryService;
 
-    public PaymentWebhookResource(PaymentService paymentService, PaymentWebhookLogRepository paymentWebhookLogRepository) {
+    public PaymentWebhookResource(PaymentService paymentService, AdminQueryService adminQueryService) {
         this.paymentService = paymentService;
-        this.paymentWebhookLogRepository = paymentWebhookLogRepository;
+        this.adminQueryService = adminQueryService;
     }
 
     /**
@@ -58,47 +55,26 @@ public class PaymentWebhookResource {
      * {@code GET /admin/webhooks} : get all webhook logs for admin.
      *
      * @param provider the payment provider to filter by (optional).
-     * @param status the webhook status to filter by (optional).
+     * @param status the webhook processing status to filter by (optional).
+     * @param createdFrom start of the creation-date range, inclusive (optional).
+     * @param createdTo end of the creation-date range, exclusive (optional). A range reaching past
+     *                  {@code archival.hot-days} also reads archived webhook logs.
      * @param pageable the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of webhook logs in body.
      */
     @GetMapping("/admin/webhooks")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public ResponseEntity<Page<PaymentWebhookLog>> getWebhookLogs(
+    public ResponseEntity<Page<AdminWebhookLogDTO>> getWebhookLogs(
         @RequestParam(required = false) String provider,
         @RequestParam(required = false) String status,
+        @RequestParam(required = false) Instant createdFrom,
+        @RequestParam(required = false) Instant createdTo,
         Pageable pageable
     ) {
-        LOG.debug("REST request to get PaymentWebhookLogs with filters - provider: {}, status: {}",
-            provider, status);
+        LOG.debug("REST request to get PaymentWebhookLogs with filters - provider: {}, status: {}, created: [{}, {})",
+            provider, status, createdFrom, createdTo);
 
-        Specification<PaymentWebhookLog> spec = (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
-
-            if (provider != null && !provider.trim().isEmpty()) {
-                predicates.add(criteriaBuilder.like(
-                    criteriaBuilder.lower(root.get("provider")),
-                    "%" + provider.toLowerCase() + "%"
-                ));
-            }
-
-            if (status != null && !status.trim().isEmpty()) {
-                predicates.add(criteriaBuilder.like(
-                    criteriaBuilder.lower(root.get("status")),
-                    "%" + status.toLowerCase() + "%"
-                ));
-            }
-
-            // Exclude deleted logs
-            predicates.add(criteriaBuilder.or(
-                criteriaBuilder.isNull(root.get("isDeleted")),
-                criteriaBuilder.equal(root.get("isDeleted"), false)
-            ));
-
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        };
-
-        Page<PaymentWebhookLog> webhookLogs = paymentWebhookLogRepository.findAll(spec, pageable);
+        Page<AdminWebhookLogDTO> webhookLogs = adminQueryService.findWebhookLogs(provider, status, createdFrom, createdTo, pageable);
         return ResponseEntity.ok().body(webhookLogs);
     }
 }
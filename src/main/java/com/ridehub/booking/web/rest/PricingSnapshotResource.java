@@ -158,12 +158,17 @@ public class PricingSnapshotResource {
      * {@code GET  /pricing-snapshots/count} : count all the pricingSnapshots.
      *
      * @param criteria the criteria which the requested entities should match.
+     * @param approximate whether an estimate is good enough, as for the admin UI: unfiltered counts are then read
+     *                    from the table statistics.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
      */
     @GetMapping("/count")
-    public ResponseEntity<Long> countPricingSnapshots(PricingSnapshotCriteria criteria) {
-        LOG.debug("REST request to count PricingSnapshots by criteria: {}", criteria);
-        return ResponseEntity.ok().body(pricingSnapshotQueryService.countByCriteria(criteria));
+    public ResponseEntity<Long> countPricingSnapshots(
+        PricingSnapshotCriteria criteria,
+        @RequestParam(defaultValue = "false") boolean approximate
+    ) {
+        LOG.debug("REST request to count PricingSnapshots by criteria: {}, approximate: {}", criteria, approximate);
+        return ResponseEntity.ok().body(pricingSnapshotQueryService.countByCriteria(criteria, approximate));
     }
 
     /**
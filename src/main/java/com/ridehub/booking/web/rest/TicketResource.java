@@ -5,6 +5,7 @@ import com.ridehub.booking.service.TicketQueryService;
 import com.ridehub.booking.service.TicketService;
 import com.ridehub.booking.service.criteria.TicketCriteria;
 import com.ridehub.booking.service.dto.TicketDTO;
+import com.ridehub.booking.service.keyset.CursorSlice;
 import com.ridehub.booking.service.dto.request.TicketCancelRequestDTO;
 import com.ridehub.booking.service.dto.request.TicketExchangeRequestDTO;
 import com.ridehub.booking.service.dto.request.TicketRefundRequestDTO;
@@ -22,8 +23,11 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -123,10 +127,40 @@ public class TicketResource {
         return ResponseEntity.ok().body(entityList);
     }
 
+    /**
+     * {@code GET  /tickets/scroll} : get the tickets with keyset pagination.
+     * <p>
+     * Opt-in alternative to offset pages for deep listings: no total count is computed, and each slice is read
+     * with a seek on the sort key instead of an offset. Pass the {@code X-Next-Cursor} header of a response as
+     * {@code cursor} to get the next slice, keeping the criteria and sort unchanged.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param cursor the cursor of the slice to read, absent for the first one.
+     * @param pageable the slice size and sort: {@code createdAt}, {@code ticketCode} or {@code id}; the page number is ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tickets in body, or
+     *         with status {@code 400 (Bad Request)} if the cursor is invalid for this sort.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<List<TicketDTO>> scrollTickets(
+        TicketCriteria criteria,
+        @RequestParam(required = false) String cursor,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to scroll Tickets by criteria: {}, cursor: {}", criteria, cursor);
+        CursorSlice<TicketDTO> slice;
+        try {
+            slice = ticketQueryService.scrollByCriteria(criteria, cursor, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "cursorinvalid");
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
     @GetMapping("/count")
-    public ResponseEntity<Long> countTickets(TicketCriteria criteria) {
-        LOG.debug("REST request to count Tickets by criteria: {}", criteria);
-        return ResponseEntity.ok().body(ticketQueryService.countByCriteria(criteria));
+    public ResponseEntity<Long> countTickets(TicketCriteria criteria, @RequestParam(defaultValue = "false") boolean approximate) {
+        LOG.debug("REST request to count Tickets by criteria: {}, approximate: {}", criteria, approximate);
+        return ResponseEntity.ok().body(ticketQueryService.countByCriteria(criteria, approximate));
     }
 
     @GetMapping("/{id}")
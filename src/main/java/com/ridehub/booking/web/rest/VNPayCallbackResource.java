@@ -11,6 +11,7 @@ import com.ridehub.booking.service.dto.RefundRequestDTO;
 import com.ridehub.booking.service.payment.vnpay.VNPayConfig;
 import com.ridehub.booking.service.payment.vnpay.VNPayService;
 import com.ridehub.booking.service.payment.vnpay.VNPayUtils;
+import com.ridehub.booking.service.state.StatusTransitionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -45,15 +46,17 @@ public class VNPayCallbackResource {
     private final VNPayPollingService vnPayPollingService;
     private final PaymentTransactionRepository paymentTransactionRepository;
     private final VNPayConfig vnpayConfig;
+    private final StatusTransitionService statusTransitionService;
 
     public VNPayCallbackResource(PaymentService paymentService, VNPayService vnPayService,
             VNPayPollingService vnPayPollingService, PaymentTransactionRepository paymentTransactionRepository,
-            VNPayConfig vnpayConfig) {
+            VNPayConfig vnpayConfig, StatusTransitionService statusTransitionService) {
         this.paymentService = paymentService;
         this.vnPayService = vnPayService;
         this.vnPayPollingService = vnPayPollingService;
         this.paymentTransactionRepository = paymentTransactionRepository;
         this.vnpayConfig = vnpayConfig;
+        this.statusTransitionService = statusTransitionService;
     }
 
     /**
@@ -132,7 +135,7 @@ public class VNPayCallbackResource {
         try {
             // Get transaction from database to obtain orderRef and transactionDate
             PaymentTransaction transaction = paymentTransactionRepository
-                    .findByTransactionIdAndIsDeletedFalseOrIsDeletedIsNull(transactionId)
+                    .findByTransactionId(transactionId)
                     .orElse(null);
 
             if (transaction == null) {
@@ -206,7 +209,7 @@ public class VNPayCallbackResource {
         try {
             // Get transaction from database to obtain original transaction date
             PaymentTransaction transaction = paymentTransactionRepository
-                    .findByTransactionIdAndIsDeletedFalseOrIsDeletedIsNull(transactionId)
+                    .findByTransactionId(transactionId)
                     .orElse(null);
 
             if (transaction == null) {
@@ -343,8 +346,9 @@ public class VNPayCallbackResource {
 
         try {
             // Update original transaction status to REFUNDED
-            originalTransaction.setStatus(PaymentStatus.REFUNDED);
-            originalTransaction.setUpdatedAt(Instant.now());
+            if (!statusTransitionService.transition(originalTransaction, PaymentStatus.REFUNDED)) {
+                throw new IllegalStateException("Transaction was modified concurrently");
+            }
 
             // Add refund information to gateway note
             String refundInfo = String.format(
@@ -8,6 +8,13 @@ import com.ridehub.booking.domain.enumeration.PaymentStatus;
 import com.ridehub.booking.repository.BookingRepository;
 import com.ridehub.booking.repository.PaymentTransactionRepository;
 import com.ridehub.booking.repository.TicketRepository;
+import com.ridehub.booking.service.TripCancellationService;
+import com.ridehub.booking.service.admin.AdminQueryService;
+import com.ridehub.booking.service.dto.admin.AdminBookingDTO;
+import com.ridehub.booking.service.dto.admin.AdminPaymentTransactionDTO;
+import com.ridehub.booking.service.state.StatusTransitionService;
+import com.ridehub.booking.service.state.StatusTransitions;
+import com.ridehub.booking.service.ticket.TicketLookupCache;
 import com.ridehub.booking.web.rest.errors.BadRequestAlertException;
 import com.ridehub.msroute.client.api.SeatLockResourceMsrouteApi;
 import com.ridehub.msroute.client.api.TripResourceMsrouteApi;
@@ -24,13 +31,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.persistence.criteria.Predicate;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
@@ -58,6 +63,10 @@ public class AdminBookingController {
     private final SeatLockResourceMsrouteApi seatLockResourceMsrouteApi;
     private final TripResourceMsrouteApi tripResourceMsrouteApi;
     private final StringRedisTemplate redisTemplate;
+    private final TripCancellationService tripCancellationService;
+    private final StatusTransitionService statusTransitionService;
+    private final AdminQueryService adminQueryService;
+    private final TicketLookupCache ticketLookupCache;
 
     public AdminBookingController(
             BookingRepository bookingRepository,
@@ -65,13 +74,21 @@ public class AdminBookingController {
             PaymentTransactionRepository paymentTransactionRepository,
             SeatLockResourceMsrouteApi seatLockResourceMsrouteApi,
             TripResourceMsrouteApi tripResourceMsrouteApi,
-            StringRedisTemplate redisTemplate) {
+            StringRedisTemplate redisTemplate,
+            TripCancellationService tripCancellationService,
+            StatusTransitionService statusTransitionService,
+            AdminQueryService adminQueryService,
+            TicketLookupCache ticketLookupCache) {
         this.bookingRepository = bookingRepository;
         this.ticketRepository = ticketRepository;
         this.paymentTransactionRepository = paymentTransactionRepository;
         this.seatLockResourceMsrouteApi = seatLockResourceMsrouteApi;
         this.tripResourceMsrouteApi = tripResourceMsrouteApi;
         this.redisTemplate = redisTemplate;
+        this.tripCancellationService = tripCancellationService;
+        this.statusTransitionService = statusTransitionService;
+        this.adminQueryService = adminQueryService;
+        this.ticketLookupCache = ticketLookupCache;
     }
 
     /**
@@ -80,43 +97,26 @@ public class AdminBookingController {
      * @param status     the booking status to filter by (optional).
      * @param customerId the customer ID to filter by (optional).
      * @param tripId     the trip ID to filter by (optional).
+     * @param createdFrom start of the creation-date range, inclusive (optional).
+     * @param createdTo   end of the creation-date range, exclusive (optional).
+     *                    A range reaching past {@code archival.hot-days} also
+     *                    reads archived bookings.
      * @param pageable   the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
      *         of bookings in body.
      */
     @GetMapping("")
-    public ResponseEntity<Page<Booking>> getAllBookings(
+    public ResponseEntity<Page<AdminBookingDTO>> getAllBookings(
             @RequestParam(required = false) BookingStatus status,
             @RequestParam(required = false) UUID customerId,
             @RequestParam(required = false) Long tripId,
+            @RequestParam(required = false) Instant createdFrom,
+            @RequestParam(required = false) Instant createdTo,
             Pageable pageable) {
-        log.debug("REST request to get Bookings with filters - status: {}, customerId: {}, tripId: {}",
-                status, customerId, tripId);
+        log.debug("REST request to get Bookings with filters - status: {}, customerId: {}, tripId: {}, created: [{}, {})",
+                status, customerId, tripId, createdFrom, createdTo);
 
-        Specification<Booking> spec = (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
-
-            if (status != null) {
-                predicates.add(criteriaBuilder.equal(root.get("status"), status));
-            }
-
-            if (customerId != null) {
-                predicates.add(criteriaBuilder.equal(root.get("customerId"), customerId));
-            }
-
-            if (tripId != null) {
-                predicates.add(criteriaBuilder.equal(root.get("tripId"), tripId));
-            }
-
-            // Exclude deleted bookings
-            predicates.add(criteriaBuilder.or(
-                    criteriaBuilder.isNull(root.get("isDeleted")),
-                    criteriaBuilder.equal(root.get("isDeleted"), false)));
-
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        };
-
-        Page<Booking> bookings = bookingRepository.findAll(spec, pageable);
+        Page<AdminBookingDTO> bookings = adminQueryService.findBookings(status, customerId, tripId, createdFrom, createdTo, pageable);
         return ResponseEntity.ok().body(bookings);
     }
 
@@ -128,9 +128,9 @@ public class AdminBookingController {
      *         the booking.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Booking> getBooking(@PathVariable Long id) {
+    public ResponseEntity<AdminBookingDTO> getBooking(@PathVariable Long id) {
         log.debug("REST request to get Booking : {}", id);
-        Optional<Booking> booking = bookingRepository.findById(id);
+        Optional<AdminBookingDTO> booking = adminQueryService.findBooking(id);
         return booking.map(response -> ResponseEntity.ok().body(response))
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -155,9 +155,10 @@ public class AdminBookingController {
             throw new BadRequestAlertException("Cannot confirm canceled booking", ENTITY_NAME, "bookingcanceled");
         }
 
-        // Update booking status
-        booking.setStatus(BookingStatus.CONFIRMED);
-        booking.setUpdatedAt(Instant.now());
+        if (!StatusTransitions.canTransition(booking.getStatus(), BookingStatus.CONFIRMED)) {
+            throw new BadRequestAlertException("Cannot confirm booking in status " + booking.getStatus(), ENTITY_NAME,
+                    "invalidstatus");
+        }
 
         // Create tickets if they don't exist
         createTicketsForBooking(booking);
@@ -167,7 +168,10 @@ public class AdminBookingController {
             confirmSeatLocks(booking);
         }
 
-        bookingRepository.save(booking);
+        // Update booking status
+        if (!statusTransitionService.transition(booking, BookingStatus.CONFIRMED)) {
+            throw new BadRequestAlertException("Booking was modified concurrently", ENTITY_NAME, "concurrentmodification");
+        }
 
         log.info("Successfully confirmed booking: {}", booking.getBookingCode());
         return ResponseEntity.ok().build();
@@ -190,10 +194,15 @@ public class AdminBookingController {
             throw new BadRequestAlertException("Booking already canceled", ENTITY_NAME, "alreadycanceled");
         }
 
+        if (!StatusTransitions.canTransition(booking.getStatus(), BookingStatus.CANCELED)) {
+            throw new BadRequestAlertException("Cannot cancel booking in status " + booking.getStatus(), ENTITY_NAME,
+                    "invalidstatus");
+        }
+
         // Update booking status
-        booking.setStatus(BookingStatus.CANCELED);
-        booking.setUpdatedAt(Instant.now());
-        bookingRepository.save(booking);
+        if (!statusTransitionService.transition(booking, BookingStatus.CANCELED)) {
+            throw new BadRequestAlertException("Booking was modified concurrently", ENTITY_NAME, "concurrentmodification");
+        }
 
         // Cancel seat locks
         if (booking.getLockGroupId() != null && booking.getTripId() != null) {
@@ -204,6 +213,36 @@ public class AdminBookingController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * {@code POST /api/admin/bookings/trips/{tripId}/cancel} : cancel all bookings and tickets of a trip.
+     * Runs in the background; paid bookings get refunds queued and seats are released once per trip.
+     * Calling it again for a failed or interrupted job resumes from where it stopped.
+     *
+     * @param tripId the id of the trip.
+     * @param reason the cancellation reason, used for refunds (optional).
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and the job progress in body.
+     */
+    @PostMapping("/trips/{tripId}/cancel")
+    public ResponseEntity<TripCancellationService.TripCancellationProgress> cancelTrip(
+            @PathVariable Long tripId,
+            @RequestParam(required = false) String reason) {
+        log.debug("REST request to cancel all bookings of trip : {}", tripId);
+        return ResponseEntity.accepted().body(tripCancellationService.startCancellation(tripId, reason));
+    }
+
+    /**
+     * {@code GET /api/admin/bookings/trips/{tripId}/cancel} : progress of a trip cancellation.
+     *
+     * @param tripId the id of the trip.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the job progress in body, or
+     *         {@code 404 (Not Found)} if no cancellation was started.
+     */
+    @GetMapping("/trips/{tripId}/cancel")
+    public ResponseEntity<TripCancellationService.TripCancellationProgress> getTripCancellation(@PathVariable Long tripId) {
+        TripCancellationService.TripCancellationProgress progress = tripCancellationService.getProgress(tripId);
+        return progress != null ? ResponseEntity.ok().body(progress) : ResponseEntity.notFound().build();
+    }
+
     /**
      * {@code POST /api/admin/bookings/recover-expired-payment} : Recover a booking
      * where payment succeeded but booking expired.
@@ -224,7 +263,7 @@ public class AdminBookingController {
         try {
             // Find the payment transaction
             PaymentTransaction transaction = paymentTransactionRepository
-                    .findByTransactionIdAndIsDeletedFalseOrIsDeletedIsNull(transactionId)
+                    .findByTransactionId(transactionId)
                     .orElseThrow(() -> new BadRequestAlertException("Payment transaction not found", "paymentTransaction",
                             "transactionnotfound"));
 
@@ -247,8 +286,11 @@ public class AdminBookingController {
                     booking.getBookingCode(), transactionId);
 
             // Step 1: Reactivate the booking
-            booking.setStatus(BookingStatus.CONFIRMED);
-            booking.setUpdatedAt(Instant.now());
+            if (booking.getStatus() != BookingStatus.CONFIRMED
+                    && !statusTransitionService.transition(booking, BookingStatus.CONFIRMED)) {
+                throw new BadRequestAlertException("Booking was modified concurrently", ENTITY_NAME,
+                        "concurrentmodification");
+            }
 
             // Extend booking expiration if needed (give customer more time)
             Instant newExpiration = Instant.now().plus(24, ChronoUnit.HOURS); // Give 24 hours
@@ -261,8 +303,10 @@ public class AdminBookingController {
                     booking.getBookingCode(), newExpiration);
 
             // Step 2: Update payment transaction status to SUCCESS
-            transaction.setStatus(PaymentStatus.SUCCESS);
-            transaction.setUpdatedAt(Instant.now());
+            if (!statusTransitionService.transition(transaction, PaymentStatus.SUCCESS)) {
+                throw new BadRequestAlertException("Payment transaction was modified concurrently", "paymentTransaction",
+                        "concurrentmodification");
+            }
 
             String paymentRecoveryNote = String.format(
                     "🚨 RECOVERY COMPLETED: Payment successfully recovered and booking reactivated on %s. " +
@@ -291,9 +335,7 @@ public class AdminBookingController {
                         booking.getBookingCode(), e.getMessage());
 
                 // Mark booking with special status for seat lock failure
-                booking.setStatus(BookingStatus.RECOVERY_FAILED_SEAT_LOCKS);
-                booking.setUpdatedAt(Instant.now());
-                bookingRepository.save(booking);
+                statusTransitionService.transition(booking, BookingStatus.RECOVERY_FAILED_SEAT_LOCKS);
 
                 // Update payment transaction with failure note
                 String seatLockFailureNote = String.format(
@@ -383,7 +425,7 @@ public class AdminBookingController {
      *         critical payments
      */
     @GetMapping("/critical-payments")
-    public ResponseEntity<List<Map<String, Object>>> getCriticalPayments() {
+    public ResponseEntity<List<AdminPaymentTransactionDTO>> getCriticalPayments() {
         log.debug("Fetching all payments that require manual recovery");
 
         try {
@@ -392,38 +434,7 @@ public class AdminBookingController {
                     PaymentStatus.PAYMENT_SUCCESS_BUT_BOOKING_EXPIRED,
                     PaymentStatus.REQUIRES_MANUAL_REVIEW);
 
-            List<PaymentTransaction> criticalTransactions = paymentTransactionRepository
-                    .findByStatusInAndIsDeletedFalseOrIsDeletedIsNull(criticalStatuses);
-
-            List<Map<String, Object>> result = new ArrayList<>();
-
-            for (PaymentTransaction transaction : criticalTransactions) {
-                Map<String, Object> transactionInfo = new HashMap<>();
-                transactionInfo.put("id", transaction.getId());
-                transactionInfo.put("transactionId", transaction.getTransactionId());
-                transactionInfo.put("orderRef", transaction.getOrderRef());
-                transactionInfo.put("amount", transaction.getAmount());
-                transactionInfo.put("status", transaction.getStatus());
-                transactionInfo.put("method", transaction.getMethod());
-                transactionInfo.put("createdAt", transaction.getCreatedAt());
-                transactionInfo.put("updatedAt", transaction.getUpdatedAt());
-                transactionInfo.put("gatewayNote", transaction.getGatewayNote());
-
-                // Add booking info if available
-                if (transaction.getBooking() != null) {
-                    Booking booking = transaction.getBooking();
-                    Map<String, Object> bookingInfo = new HashMap<>();
-                    bookingInfo.put("id", booking.getId());
-                    bookingInfo.put("bookingCode", booking.getBookingCode());
-                    bookingInfo.put("status", booking.getStatus());
-                    bookingInfo.put("customerId", booking.getCustomerId());
-                    bookingInfo.put("totalAmount", booking.getTotalAmount());
-                    bookingInfo.put("expiresAt", booking.getExpiresAt());
-                    transactionInfo.put("booking", bookingInfo);
-                }
-
-                result.add(transactionInfo);
-            }
+            List<AdminPaymentTransactionDTO> result = adminQueryService.findPaymentTransactionsByStatus(criticalStatuses);
 
             log.info("Found {} critical payments requiring attention", result.size());
             return ResponseEntity.ok(result);
@@ -475,6 +486,7 @@ public class AdminBookingController {
             ticket.setCreatedAt(Instant.now());
             ticket.setBooking(booking);
             ticketRepository.save(ticket);
+            ticketLookupCache.issued(booking.getBookingCode(), List.of(ticket));
 
             log.info("Created single ticket for booking: {}", booking.getBookingCode());
 
@@ -3,22 +3,29 @@ package com.ridehub.booking.web.rest.admin;
 import com.ridehub.booking.domain.PaymentTransaction;
 import com.ridehub.booking.domain.enumeration.PaymentStatus;
 import com.ridehub.booking.repository.PaymentTransactionRepository;
-import com.ridehub.booking.service.PaymentGatewayService;
+import com.ridehub.booking.domain.RefundJob;
+import com.ridehub.booking.repository.RefundJobRepository;
+import com.ridehub.booking.service.admin.AdminQueryService;
+import com.ridehub.booking.service.dto.admin.AdminPaymentTransactionDTO;
+import com.ridehub.booking.service.payment.reconciliation.ReconciliationService;
+import com.ridehub.booking.service.payment.reconciliation.StatementFormat;
+import com.ridehub.booking.service.payment.refund.RefundQueueService;
 import com.ridehub.booking.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
-import jakarta.persistence.criteria.Predicate;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 
 /**
@@ -37,14 +44,23 @@ public class AdminPaymentController {
     private String applicationName;
 
     private final PaymentTransactionRepository paymentTransactionRepository;
-    private final PaymentGatewayService paymentGatewayService;
+    private final RefundJobRepository refundJobRepository;
+    private final RefundQueueService refundQueueService;
+    private final ReconciliationService reconciliationService;
+    private final AdminQueryService adminQueryService;
 
     public AdminPaymentController(
         PaymentTransactionRepository paymentTransactionRepository,
-        PaymentGatewayService paymentGatewayService
+        RefundJobRepository refundJobRepository,
+        RefundQueueService refundQueueService,
+        ReconciliationService reconciliationService,
+        AdminQueryService adminQueryService
     ) {
         this.paymentTransactionRepository = paymentTransactionRepository;
-        this.paymentGatewayService = paymentGatewayService;
+        this.refundJobRepository = refundJobRepository;
+        this.refundQueueService = refundQueueService;
+        this.reconciliationService = reconciliationService;
+        this.adminQueryService = adminQueryService;
     }
 
     /**
@@ -53,47 +69,26 @@ public class AdminPaymentController {
      * @param status the payment status to filter by (optional).
      * @param orderRef the order reference to filter by (optional).
      * @param bookingId the booking ID to filter by (optional).
+     * @param createdFrom start of the creation-date range, inclusive (optional).
+     * @param createdTo end of the creation-date range, exclusive (optional). A range reaching past
+     *                  {@code archival.hot-days} also reads archived transactions.
      * @param pageable the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of payment transactions in body.
      */
     @GetMapping("")
-    public ResponseEntity<Page<PaymentTransaction>> getAllPaymentTransactions(
+    public ResponseEntity<Page<AdminPaymentTransactionDTO>> getAllPaymentTransactions(
         @RequestParam(required = false) PaymentStatus status,
         @RequestParam(required = false) String orderRef,
         @RequestParam(required = false) Long bookingId,
+        @RequestParam(required = false) Instant createdFrom,
+        @RequestParam(required = false) Instant createdTo,
         Pageable pageable
     ) {
-        log.debug("REST request to get PaymentTransactions with filters - status: {}, orderRef: {}, bookingId: {}", 
-            status, orderRef, bookingId);
-
-        Specification<PaymentTransaction> spec = (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            
-            if (status != null) {
-                predicates.add(criteriaBuilder.equal(root.get("status"), status));
-            }
-            
-            if (orderRef != null && !orderRef.trim().isEmpty()) {
-                predicates.add(criteriaBuilder.like(
-                    criteriaBuilder.lower(root.get("orderRef")), 
-                    "%" + orderRef.toLowerCase() + "%"
-                ));
-            }
-            
-            if (bookingId != null) {
-                predicates.add(criteriaBuilder.equal(root.get("booking").get("id"), bookingId));
-            }
-            
-            // Exclude deleted transactions
-            predicates.add(criteriaBuilder.or(
-                criteriaBuilder.isNull(root.get("isDeleted")),
-                criteriaBuilder.equal(root.get("isDeleted"), false)
-            ));
-            
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        };
-
-        Page<PaymentTransaction> transactions = paymentTransactionRepository.findAll(spec, pageable);
+        log.debug("REST request to get PaymentTransactions with filters - status: {}, orderRef: {}, bookingId: {}, created: [{}, {})",
+            status, orderRef, bookingId, createdFrom, createdTo);
+
+        Page<AdminPaymentTransactionDTO> transactions = adminQueryService.findPaymentTransactions(
+            status, orderRef, bookingId, createdFrom, createdTo, pageable);
         return ResponseEntity.ok().body(transactions);
     }
 
@@ -104,9 +99,9 @@ public class AdminPaymentController {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the payment transaction.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PaymentTransaction> getPaymentTransaction(@PathVariable Long id) {
+    public ResponseEntity<AdminPaymentTransactionDTO> getPaymentTransaction(@PathVariable Long id) {
         log.debug("REST request to get PaymentTransaction : {}", id);
-        Optional<PaymentTransaction> paymentTransaction = paymentTransactionRepository.findById(id);
+        Optional<AdminPaymentTransactionDTO> paymentTransaction = adminQueryService.findPaymentTransaction(id);
         return paymentTransaction.map(response -> ResponseEntity.ok().body(response))
             .orElse(ResponseEntity.notFound().build());
     }
@@ -116,7 +111,7 @@ public class AdminPaymentController {
      *
      * @param id the id of the payment transaction to refund.
      * @param refundRequest the refund request details.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)}.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and the queued job id in body.
      */
     @PostMapping("/{id}/refund")
     public ResponseEntity<RefundResponse> processRefund(
@@ -137,42 +132,93 @@ public class AdminPaymentController {
         }
 
         try {
-            // Process refund through payment gateway
-            PaymentGatewayService.RefundResult refundResult = paymentGatewayService.processRefund(
-                transaction.getOrderRef(),
+            // Queue the refund; RefundWorker submits it and marks the transaction REFUNDED on completion
+            RefundJob job = refundQueueService.enqueueTransactionRefund(
+                transaction,
                 refundRequest.getAmount(),
-                refundRequest.getReason()
+                refundRequest.getReason(),
+                RefundQueueService.SOURCE_ADMIN
             );
 
-            if (refundResult.isSuccess()) {
-                // Update transaction status
-                transaction.setStatus(PaymentStatus.REFUNDED);
-                transaction.setUpdatedAt(Instant.now());
-                paymentTransactionRepository.save(transaction);
-
-                log.info("Successfully processed refund for transaction: {}", transaction.getOrderRef());
-                
-                RefundResponse response = new RefundResponse(
-                    true,
-                    refundResult.getRefundId(),
-                    "Refund processed successfully"
-                );
-                return ResponseEntity.ok().body(response);
-            } else {
-                log.error("Refund failed for transaction: {}. Reason: {}", 
-                    transaction.getOrderRef(), refundResult.getErrorMessage());
-                
-                RefundResponse response = new RefundResponse(
-                    false,
-                    null,
-                    refundResult.getErrorMessage()
-                );
-                return ResponseEntity.badRequest().body(response);
-            }
+            log.info("Queued refund job {} for transaction: {}", job.getId(), transaction.getOrderRef());
 
-        } catch (Exception e) {
-            log.error("Error processing refund for transaction: {}", transaction.getOrderRef(), e);
-            throw new BadRequestAlertException("Failed to process refund", ENTITY_NAME, "refunderror");
+            RefundResponse response = new RefundResponse(true, null, "Refund queued");
+            response.setJobId(job.getId());
+            return ResponseEntity.accepted().body(response);
+        } catch (IllegalStateException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "refundinprogress");
+        }
+    }
+
+    /**
+     * {@code GET  /api/admin/payments/refunds/progress} : progress of the refund queue.
+     *
+     * @param source only count jobs queued by this source (e.g. {@code admin}, {@code ticket}) (optional).
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and job counts per status and gateway in body.
+     */
+    @GetMapping("/refunds/progress")
+    public ResponseEntity<RefundQueueService.RefundProgress> getRefundProgress(@RequestParam(required = false) String source) {
+        log.debug("REST request to get refund progress for source: {}", source);
+        return ResponseEntity.ok().body(refundQueueService.getProgress(source));
+    }
+
+    /**
+     * {@code GET  /api/admin/payments/refunds/{jobId}} : get a refund job.
+     *
+     * @param jobId the id of the refund job.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the job in body, or {@code 404 (Not Found)}.
+     */
+    @GetMapping("/refunds/{jobId}")
+    public ResponseEntity<RefundJob> getRefundJob(@PathVariable Long jobId) {
+        log.debug("REST request to get RefundJob : {}", jobId);
+        return refundJobRepository.findById(jobId)
+            .map(job -> ResponseEntity.ok().body(job))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * {@code POST  /api/admin/payments/reconciliation} : reconcile a gateway settlement statement.
+     *
+     * @param provider the statement format (VNPAY or SEPAY).
+     * @param from start of the transaction creation window (inclusive).
+     * @param to end of the transaction creation window (exclusive).
+     * @param file the statement CSV file.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the reconciliation summary in body.
+     */
+    @PostMapping(value = "/reconciliation", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ReconciliationService.ReconciliationReport> reconcileStatement(
+        @RequestParam StatementFormat provider,
+        @RequestParam Instant from,
+        @RequestParam Instant to,
+        @RequestParam("file") MultipartFile file
+    ) {
+        log.debug("REST request to reconcile {} statement for [{}, {})", provider, from, to);
+
+        if (file.isEmpty()) {
+            throw new BadRequestAlertException("Statement file is empty", ENTITY_NAME, "emptystatement");
+        }
+        if (!from.isBefore(to)) {
+            throw new BadRequestAlertException("'from' must be before 'to'", ENTITY_NAME, "invalidwindow");
+        }
+
+        Path statement = null;
+        try {
+            statement = Files.createTempFile("statement-", ".csv");
+            file.transferTo(statement);
+            return ResponseEntity.ok().body(reconciliationService.reconcile(statement, provider, from, to));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidstatement");
+        } catch (IOException e) {
+            log.error("Error reconciling {} statement", provider, e);
+            throw new BadRequestAlertException("Failed to read statement file", ENTITY_NAME, "statementerror");
+        } finally {
+            if (statement != null) {
+                try {
+                    Files.deleteIfExists(statement);
+                } catch (IOException e) {
+                    log.warn("Could not delete temporary statement file {}", statement);
+                }
+            }
         }
     }
 
@@ -207,6 +253,7 @@ public class AdminPaymentController {
         private boolean success;
         private String refundId;
         private String message;
+        private Long jobId;
 
         public RefundResponse(boolean success, String refundId, String message) {
             this.success = success;
@@ -237,5 +284,13 @@ public class AdminPaymentController {
         public void setMessage(String message) {
             this.message = message;
         }
+
+        public Long getJobId() {
+            return jobId;
+        }
+
+        public void setJobId(Long jobId) {
+            this.jobId = jobId;
+        }
     }
 }
@@ -1,6 +1,7 @@
 package com.ridehub.booking.web.rest.admin;
 
 import com.ridehub.booking.service.BookingScheduler;
+import com.ridehub.booking.service.archive.ArchivalService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -20,9 +21,11 @@ public class AdminSchedulerController {
     private final Logger log = LoggerFactory.getLogger(AdminSchedulerController.class);
 
     private final BookingScheduler bookingScheduler;
+    private final ArchivalService archivalService;
 
-    public AdminSchedulerController(BookingScheduler bookingScheduler) {
+    public AdminSchedulerController(BookingScheduler bookingScheduler, ArchivalService archivalService) {
         this.bookingScheduler = bookingScheduler;
+        this.archivalService = archivalService;
     }
 
     /**
@@ -63,6 +66,18 @@ public class AdminSchedulerController {
         return ResponseEntity.ok().body(report);
     }
 
+    /**
+     * {@code POST  /api/admin/archival} : manually move settled bookings and payments past the hot window
+     * into the archive tables.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the number of archived rows in body.
+     */
+    @PostMapping("/archival")
+    public ResponseEntity<ArchivalService.ArchivalReport> triggerArchival() {
+        log.debug("REST request to manually trigger hot/cold archival");
+        return ResponseEntity.ok().body(archivalService.archiveNow());
+    }
+
     /**
      * {@code GET  /api/admin/cleanup/status} : get current status of expired bookings.
      *
@@ -0,0 +1,155 @@
+package com.ridehub.booking;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.methods;
+
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaMethod;
+import com.tngtech.archunit.core.domain.JavaMethodCall;
+import com.tngtech.archunit.core.domain.JavaModifier;
+import com.tngtech.archunit.core.importer.ImportOption.DoNotIncludeTests;
+import com.tngtech.archunit.junit.AnalyzeClasses;
+import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Remote calls (ms-route / ms-promotion Feign clients, gateway HTTP clients) must not run while a
+ * transaction holds a pooled connection and row locks.
+ * <p>
+ * Starting from every public transactional method, the rule follows calls into the same class (self-calls
+ * bypass the transaction proxy), into other application beans and into the implementations of called
+ * interfaces. It stops at methods that suspend the transaction ({@code NOT_SUPPORTED}, {@code NEVER}) or run
+ * asynchronously. Work handed to executors or callbacks as lambdas is not followed.
+ */
+@AnalyzeClasses(packagesOf = MsBookingApp.class, importOptions = DoNotIncludeTests.class)
+class TransactionBoundaryTest {
+
+    private static final String APP_PACKAGE = MsBookingApp.class.getPackageName();
+
+    private static final List<String> HTTP_CLIENT_TYPES = List.of(
+        "java.net.http.HttpClient",
+        "java.net.URLConnection",
+        "org.springframework.web.client.RestOperations",
+        "org.springframework.web.client.RestClient",
+        "org.springframework.web.reactive.function.client.WebClient"
+    );
+
+    @ArchTest
+    static final ArchRule noRemoteCallsInsideTransactions = methods()
+        .that(areTransactional())
+        .should(notReachRemoteCalls())
+        .because("remote I/O inside a transaction pins a pooled connection and its row locks for the call's latency");
+
+    private static DescribedPredicate<JavaMethod> areTransactional() {
+        return DescribedPredicate.describe("are transactional", method ->
+            method.getModifiers().contains(JavaModifier.PUBLIC) &&
+            !method.getModifiers().contains(JavaModifier.STATIC) &&
+            !method.getOwner().isInterface() &&
+            runsInTransaction(method)
+        );
+    }
+
+    private static ArchCondition<JavaMethod> notReachRemoteCalls() {
+        return new ArchCondition<>("not call Feign clients or HTTP clients") {
+            @Override
+            public void check(JavaMethod method, ConditionEvents events) {
+                Map<String, List<String>> violations = new LinkedHashMap<>();
+                List<String> path = new ArrayList<>();
+                path.add(method.getFullName());
+                collectRemoteCalls(method, path, new HashSet<>(), violations);
+                violations.forEach((target, via) ->
+                    events.add(
+                        SimpleConditionEvent.violated(method, method.getFullName() + " calls " + target + " via " + String.join(" -> ", via))
+                    )
+                );
+            }
+        };
+    }
+
+    private static void collectRemoteCalls(JavaMethod method, List<String> path, Set<JavaMethod> visited, Map<String, List<String>> violations) {
+        if (!visited.add(method)) {
+            return;
+        }
+        for (JavaMethodCall call : method.getMethodCallsFromSelf()) {
+            JavaClass targetOwner = call.getTargetOwner();
+            if (isRemoteClient(targetOwner)) {
+                violations.putIfAbsent(call.getTarget().getFullName(), List.copyOf(path));
+                continue;
+            }
+            for (JavaMethod callee : resolve(call)) {
+                boolean selfCall = callee.getOwner().equals(method.getOwner());
+                if (!selfCall && suspendsTransaction(callee)) {
+                    continue;
+                }
+                path.add(callee.getFullName());
+                collectRemoteCalls(callee, path, visited, violations);
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+
+    private static List<JavaMethod> resolve(JavaMethodCall call) {
+        Optional<JavaMethod> target = call.getTarget().resolveMember();
+        if (target.isEmpty() || !target.get().getOwner().getPackageName().startsWith(APP_PACKAGE)) {
+            return List.of();
+        }
+        JavaMethod declared = target.get();
+        if (!declared.getOwner().isInterface() && !declared.getModifiers().contains(JavaModifier.ABSTRACT)) {
+            return List.of(declared);
+        }
+        String[] parameterTypes = declared.getRawParameterTypes().stream().map(JavaClass::getName).toArray(String[]::new);
+        List<JavaMethod> implementations = new ArrayList<>();
+        for (JavaClass implementation : declared.getOwner().getAllSubclasses()) {
+            implementation
+                .tryGetMethod(declared.getName(), parameterTypes)
+                .filter(m -> !m.getModifiers().contains(JavaModifier.ABSTRACT))
+                .ifPresent(implementations::add);
+        }
+        return implementations;
+    }
+
+    private static boolean isRemoteClient(JavaClass type) {
+        if (type.getPackageName().contains(".client.api")) {
+            return true;
+        }
+        return HTTP_CLIENT_TYPES.stream().anyMatch(type::isAssignableTo);
+    }
+
+    private static boolean runsInTransaction(JavaMethod method) {
+        return effectivePropagation(method)
+            .map(propagation -> propagation != Propagation.NOT_SUPPORTED && propagation != Propagation.NEVER && propagation != Propagation.SUPPORTS)
+            .orElse(false);
+    }
+
+    private static boolean suspendsTransaction(JavaMethod method) {
+        if (method.isAnnotatedWith(Async.class) || method.getOwner().isAnnotatedWith(Async.class)) {
+            return true;
+        }
+        return effectivePropagation(method)
+            .map(propagation -> propagation == Propagation.NOT_SUPPORTED || propagation == Propagation.NEVER)
+            .orElse(false);
+    }
+
+    private static Optional<Propagation> effectivePropagation(JavaMethod method) {
+        if (method.isAnnotatedWith(Transactional.class)) {
+            return Optional.of(method.getAnnotationOfType(Transactional.class).propagation());
+        }
+        if (method.getOwner().isAnnotatedWith(Transactional.class)) {
+            return Optional.of(method.getOwner().getAnnotationOfType(Transactional.class).propagation());
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,167 @@
+package com.ridehub.booking.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.ridehub.booking.service.ReplicaRead;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ResultSet replicaStatus;
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        replicaStatus = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(replicaStatus);
+
+        ReadReplicaProperties properties = new ReadReplicaProperties();
+        properties.setMaxLagSeconds(5);
+        meterRegistry = new SimpleMeterRegistry();
+        routing = new ReplicaRoutingDataSource(primary, replica, properties, meterRegistry);
+        routing.afterPropertiesSet();
+        ReplicaRoutingDataSource.allowReplicaReads();
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+        ReplicaRoutingDataSource.restoreReplicaReads(false);
+    }
+
+    @Test
+    void readsOutsideReplicaReadServicesStayOnPrimary() throws SQLException {
+        replicaBehindBy(0);
+        ReplicaRoutingDataSource.restoreReplicaReads(false);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Pool.PRIMARY);
+        assertThat(routedCount("primary", ReplicaRoutingDataSource.REASON_PRIMARY_READ)).isEqualTo(1);
+    }
+
+    @Test
+    void replicaReadServicesReadFromReplica() throws SQLException {
+        replicaBehindBy(0);
+        ReplicaRoutingDataSource.restoreReplicaReads(false);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new ListingService(routing));
+        factory.addAspect(new ReplicaReadAspect());
+        ListingService service = factory.getProxy();
+
+        assertThat(service.pool()).isEqualTo(ReplicaRoutingDataSource.Pool.REPLICA);
+        // The marking ends with the call
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Pool.PRIMARY);
+    }
+
+    @Test
+    void readsStayOnPrimaryUntilLagIsMeasured() {
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Pool.PRIMARY);
+        assertThat(routedCount("primary", ReplicaRoutingDataSource.REASON_REPLICA_LAG)).isEqualTo(1);
+    }
+
+    @Test
+    void readsGoToReplicaWhileItIsCurrent() throws SQLException {
+        replicaBehindBy(2);
+
+        assertThat(routing.getReplicaLagSeconds()).isEqualTo(2);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Pool.REPLICA);
+        assertThat(routedCount("replica", ReplicaRoutingDataSource.REASON_REPLICA)).isEqualTo(1);
+    }
+
+    @Test
+    void readsGoToPrimaryWhenReplicaLags() throws SQLException {
+        replicaBehindBy(30);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Pool.PRIMARY);
+    }
+
+    @Test
+    void readsGoToPrimaryWhenReplicationIsStopped() throws SQLException {
+        when(replicaStatus.next()).thenReturn(true);
+        when(replicaStatus.getLong("Seconds_Behind_Source")).thenReturn(0L);
+        when(replicaStatus.wasNull()).thenReturn(true);
+        routing.refreshReplicaLag();
+
+        assertThat(routing.getReplicaLagSeconds()).isNaN();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Pool.PRIMARY);
+    }
+
+    @Test
+    void serverWithoutReplicaStatusCountsAsCurrent() throws SQLException {
+        when(replicaStatus.next()).thenReturn(false);
+        routing.refreshReplicaLag();
+
+        assertThat(routing.getReplicaLagSeconds()).isZero();
+    }
+
+    @Test
+    void failedLagCheckRoutesToPrimary() throws SQLException {
+        replicaBehindBy(0);
+        when(replica.getConnection()).thenThrow(new SQLException("replica down"));
+        routing.refreshReplicaLag();
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Pool.PRIMARY);
+    }
+
+    @Test
+    void recentWriterReadsFromPrimary() throws SQLException {
+        replicaBehindBy(1);
+        routing.recordWrite("writer");
+
+        authenticate("writer");
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Pool.PRIMARY);
+        assertThat(routedCount("primary", ReplicaRoutingDataSource.REASON_RECENT_WRITE)).isEqualTo(1);
+
+        authenticate("reader");
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Pool.REPLICA);
+    }
+
+    private void replicaBehindBy(long seconds) throws SQLException {
+        when(replicaStatus.next()).thenReturn(true);
+        when(replicaStatus.getLong("Seconds_Behind_Source")).thenReturn(seconds);
+        when(replicaStatus.wasNull()).thenReturn(false);
+        routing.refreshReplicaLag();
+    }
+
+    private void authenticate(String login) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(login, "n/a"));
+    }
+
+    private double routedCount(String pool, String reason) {
+        return meterRegistry.get("datasource.read.routed").tag("pool", pool).tag("reason", reason).counter().count();
+    }
+
+    @ReplicaRead
+    static class ListingService {
+
+        private final ReplicaRoutingDataSource routing;
+
+        ListingService(ReplicaRoutingDataSource routing) {
+            this.routing = routing;
+        }
+
+        public Object pool() {
+            return routing.determineCurrentLookupKey();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.ridehub.booking.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RTopic;
+
+class TwoTierCacheTest {
+
+    private static final String REGION = "com.ridehub.booking.domain.Booking";
+    private static final String TICKET_REGION = "com.ridehub.booking.domain.Ticket";
+
+    private Cache<Object, Object> remote;
+    private SimpleMeterRegistry meterRegistry;
+    private List<Object> published;
+    private TwoTierCache<Object, Object> cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        remote = mock(Cache.class);
+        meterRegistry = new SimpleMeterRegistry();
+        published = new ArrayList<>();
+        cache = new TwoTierCache<>(
+            REGION,
+            remote,
+            Caffeine.newBuilder().maximumSize(100).recordStats().build(),
+            mock(CacheManager.class),
+            (region, key) -> published.add(key),
+            meterRegistry
+        );
+    }
+
+    @Test
+    void readsFromRedisOnceThenLocally() {
+        when(remote.get(1L)).thenReturn("entry");
+
+        assertThat(cache.get(1L)).isEqualTo("entry");
+        assertThat(cache.get(1L)).isEqualTo("entry");
+
+        verify(remote, times(1)).get(1L);
+        assertThat(gets("remote", "hit")).isEqualTo(1);
+        assertThat(gets("local", "hit")).isEqualTo(1);
+        assertThat(gets("local", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    void readRacingAnInvalidationIsNotKeptLocally() {
+        // The invalidation from another node arrives while this node is reading the old value from Redis
+        when(remote.get(1L)).thenAnswer(invocation -> {
+            cache.invalidateLocal(1L);
+            return "old";
+        }).thenReturn("new");
+
+        assertThat(cache.get(1L)).isEqualTo("old");
+        assertThat(cache.get(1L)).isEqualTo("new");
+
+        verify(remote, times(2)).get(1L);
+    }
+
+    @Test
+    void readRacingALocalWriteDoesNotReplaceIt() {
+        when(remote.get(1L)).thenAnswer(invocation -> {
+            cache.put(1L, "new");
+            return "old";
+        });
+
+        assertThat(cache.get(1L)).isEqualTo("old");
+        assertThat(cache.get(1L)).isEqualTo("new");
+
+        verify(remote, times(1)).get(1L);
+    }
+
+    @Test
+    void writesGoToRedisAndAreAnnounced() {
+        cache.put(1L, "entry");
+
+        verify(remote).put(1L, "entry");
+        assertThat(cache.get(1L)).isEqualTo("entry");
+        assertThat(published).containsExactly(1L);
+
+        cache.remove(1L);
+
+        verify(remote).remove(1L);
+        assertThat(published).containsExactly(1L, 1L);
+        cache.get(1L);
+        verify(remote).get(1L);
+    }
+
+    @Test
+    void clearIsAnnouncedForTheWholeRegion() {
+        cache.clear();
+
+        verify(remote).clear();
+        assertThat(published).containsExactly((Object) null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void managerDropsKeysChangedOnOtherNodes() {
+        // Ticket keeps a local tier by default, Booking does not
+        CacheManager remoteManager = mock(CacheManager.class);
+        when(remoteManager.getCache(TwoTierCacheManager.remoteName(TICKET_REGION))).thenReturn(remote);
+        RTopic topic = mock(RTopic.class);
+        when(topic.addListener(eq(TwoTierCacheManager.Invalidation.class), any())).thenReturn(1);
+        TwoTierCacheManager manager = new TwoTierCacheManager(remoteManager, topic, new L2CacheProperties(), meterRegistry);
+        Cache<Object, Object> managed = manager.getCache(TICKET_REGION);
+        when(remote.get(1L)).thenReturn("entry");
+        managed.get(1L);
+
+        manager.onInvalidation(new TwoTierCacheManager.Invalidation("other-node", TICKET_REGION, 1L));
+        managed.get(1L);
+
+        verify(remote, times(2)).get(1L);
+        assertThat(meterRegistry.get("l2.cache.invalidations").tag("region", TICKET_REGION).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void managerServesRemoteOnlyRegionsFromRedis() {
+        CacheManager remoteManager = mock(CacheManager.class);
+        when(remoteManager.getCache(TwoTierCacheManager.remoteName(REGION))).thenReturn(remote);
+        TwoTierCacheManager manager = new TwoTierCacheManager(remoteManager, mock(RTopic.class), new L2CacheProperties(), meterRegistry);
+        Cache<Object, Object> managed = manager.getCache(REGION);
+        when(remote.get(1L)).thenReturn("entry");
+
+        managed.get(1L);
+        managed.get(1L);
+
+        verify(remote, times(2)).get(1L);
+    }
+
+    @Test
+    void regionSettingsFallBackToDefaults() {
+        L2CacheProperties properties = new L2CacheProperties();
+        L2CacheProperties.Settings booking = new L2CacheProperties.Settings();
+        booking.setLocalTtlSeconds(5L);
+        properties.getRegions().put("Booking", booking);
+
+        L2CacheProperties.Settings resolved = properties.resolve(REGION);
+        assertThat(resolved.getLocalTtlSeconds()).isEqualTo(5L);
+        assertThat(resolved.getLocalMaxSize()).isEqualTo(properties.getDefaults().getLocalMaxSize());
+        assertThat(properties.resolve(REGION + ".tickets")).isSameAs(properties.getDefaults());
+    }
+
+    @Test
+    void versionedRegionsAreRemoteOnlyUnlessEnabled() {
+        L2CacheProperties properties = new L2CacheProperties();
+        assertThat(properties.resolve(REGION).getLocalEnabled()).isFalse();
+        assertThat(properties.resolve("com.ridehub.booking.domain.PaymentTransaction").getLocalEnabled()).isFalse();
+        assertThat(properties.resolve(TICKET_REGION).getLocalEnabled()).isTrue();
+
+        L2CacheProperties.Settings booking = new L2CacheProperties.Settings();
+        booking.setLocalEnabled(true);
+        properties.getRegions().put("Booking", booking);
+        assertThat(properties.resolve(REGION).getLocalEnabled()).isTrue();
+    }
+
+    private double gets(String tier, String result) {
+        return meterRegistry
+            .get("l2.cache.gets")
+            .tag("region", REGION)
+            .tag("tier", tier)
+            .tag("result", result)
+            .meter()
+            .measure()
+            .iterator()
+            .next()
+            .getValue();
+    }
+}
@@ -0,0 +1,147 @@
+package com.ridehub.booking.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ridehub.booking.IntegrationTest;
+import com.ridehub.booking.domain.Booking;
+import com.ridehub.booking.domain.Ticket;
+import com.ridehub.booking.domain.enumeration.AvroTicketStatus;
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Statement counts of the multi-row write paths. Ids come from pooled sequences, so persisting does not
+ * need an insert per row to learn the id, and the rows of one flush share a single batched statement.
+ */
+@IntegrationTest
+@Transactional
+class BatchInsertIT {
+
+    private static final int ROWS = 10;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void ticketsOfABookingAreInsertedInOneBatch() {
+        Booking booking = persistBookings(1).get(0);
+
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            tickets.add(newTicket(booking, i));
+        }
+        ticketRepository.saveAll(tickets);
+        assertThat(tickets).allSatisfy(ticket -> assertThat(ticket.getId()).isNotNull());
+
+        statistics.clear();
+        em.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void statusChangesOfManagedBookingsAreUpdatedInOneBatch() {
+        List<Booking> bookings = persistBookings(ROWS);
+
+        statistics.clear();
+        Instant now = Instant.now();
+        bookings.forEach(booking -> booking.status(BookingStatus.CANCELED).updatedAt(now));
+        em.flush();
+
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void bulkStatusUpdatesAreOneStatementEach() {
+        List<Booking> bookings = persistBookings(ROWS);
+        for (Booking booking : bookings) {
+            em.persist(newTicket(booking, 0));
+        }
+        em.flush();
+        List<Long> ids = bookings.stream().map(Booking::getId).toList();
+        Instant now = Instant.now();
+
+        statistics.clear();
+        int tickets = ticketRepository.updateStatusForBookings(ids, List.of(AvroTicketStatus.CANCELLED.name()), AvroTicketStatus.CANCELLED.name(), now);
+        assertThat(tickets).isEqualTo(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        int updated = bookingRepository.updateStatusForIds(ids, List.of(BookingStatus.AWAITING_PAYMENT.name()), BookingStatus.CANCELED.name(), now);
+        assertThat(updated).isEqualTo(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private List<Booking> persistBookings(int count) {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Booking booking = new Booking()
+                .bookingCode(uniqueCode("B"))
+                .status(BookingStatus.AWAITING_PAYMENT)
+                .quantity(1)
+                .totalAmount(BigDecimal.TEN)
+                .bookedAt(Instant.now())
+                .tripId(1L)
+                .createdAt(Instant.now());
+            em.persist(booking);
+            bookings.add(booking);
+        }
+        em.flush();
+        return bookings;
+    }
+
+    private static Ticket newTicket(Booking booking, int seat) {
+        Ticket ticket = new Ticket()
+            .ticketCode(uniqueCode("T"))
+            .price(BigDecimal.TEN)
+            .checkedIn(false)
+            .status(AvroTicketStatus.BOOKED)
+            .tripId(1L)
+            .routeId(1L)
+            .seatId((long) seat + 1)
+            .createdAt(Instant.now());
+        ticket.setBooking(booking);
+        return ticket;
+    }
+
+    private static String uniqueCode(String prefix) {
+        return prefix + UUID.randomUUID().toString().replace("-", "").substring(0, 20);
+    }
+}
@@ -0,0 +1,493 @@
+package com.ridehub.booking.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ridehub.booking.IntegrationTest;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Query-plan regression harness: runs {@code EXPLAIN} for the SQL behind every repository query against seeded
+ * data and fails if any table is read with a full scan ({@code type = ALL}). Selects on soft-deletable tables
+ * carry {@code is_deleted = false}, as added by the {@code notDeleted} Hibernate filter, except for the booking
+ * expiry queries, which run with the filter disabled.
+ * <p>
+ * The data is skewed the way production is: most bookings are confirmed and most payments settled, so the
+ * hot filters (awaiting payment, pending VNPay, due refunds) are selective. Seeded rows use ids from
+ * {@link #BASE_ID} and are removed afterwards. Whole-table aggregates feeding gauges
+ * ({@code RefundJobRepository.countByStatusAndProvider}) or rebuilding the status counters
+ * ({@code countByStatus} of bookings, tickets and payment transactions) scan by design and are not listed.
+ * <p>
+ * Add a case here together with every new repository query, and its index to
+ * {@code 20261019100000_added_indexes_hot_queries.xml} or a later changelog.
+ */
+@IntegrationTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanIT {
+
+    private static final long BASE_ID = 9_000_000L;
+    private static final int BOOKINGS = 4000;
+    private static final int TRIPS = 200;
+    private static final int CUSTOMERS = 400;
+    private static final int REFUND_JOBS = 400;
+
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    private static final Timestamp NOW_TS = Timestamp.from(NOW);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+
+        List<Object[]> transactions = new ArrayList<>();
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> seats = new ArrayList<>();
+        List<Object[]> tickets = new ArrayList<>();
+        List<Object[]> webhookLogs = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            long id = BASE_ID + i;
+            Timestamp createdAt = Timestamp.from(NOW.minus(i % 60, ChronoUnit.DAYS).minus(i % 1440, ChronoUnit.MINUTES));
+            String paymentStatus = i % 50 == 0 ? "PROCESSING" : i % 97 == 0 ? "REQUIRES_MANUAL_REVIEW" : i % 10 == 0 ? "FAILED" : "SUCCESS";
+            transactions.add(new Object[] { id, "QP-PT-" + i, "QP-" + i, i % 2 == 0 ? "VNPAY" : "SEPAY", paymentStatus, 100000, createdAt });
+
+            String bookingStatus = i % 20 == 0 ? "AWAITING_PAYMENT" : i % 10 == 0 ? "CANCELED" : "CONFIRMED";
+            Timestamp expiresAt = Timestamp.from(createdAt.toInstant().plus(5, ChronoUnit.MINUTES));
+            bookings.add(
+                new Object[] {
+                    id,
+                    "QP-BK-" + i,
+                    bookingStatus,
+                    2,
+                    200000,
+                    createdAt,
+                    customer(i % CUSTOMERS),
+                    (long) (i % TRIPS),
+                    expiresAt,
+                    createdAt,
+                    createdAt,
+                    id,
+                }
+            );
+
+            for (String seatNo : List.of("A" + (i % 40), "B" + (i % 40))) {
+                seats.add(new Object[] { id, seatNo, (long) (i % TRIPS) });
+                tickets.add(new Object[] { BASE_ID + tickets.size(), "QP-TK-" + tickets.size(), 100000, "BOOKED", (long) (i % TRIPS), 1L, 1L, createdAt, id });
+            }
+            if (i % 4 == 0) {
+                webhookLogs.add(new Object[] { BASE_ID + i, "VNPAY", "QP-HASH-" + i, createdAt, "SUCCESS", createdAt, id });
+            }
+        }
+
+        List<Object[]> refundJobs = new ArrayList<>();
+        for (int i = 0; i < REFUND_JOBS; i++) {
+            String status = i % 25 == 0 ? "QUEUED" : i % 40 == 0 ? "FAILED" : "COMPLETED";
+            Timestamp at = Timestamp.from(NOW.minus(i, ChronoUnit.HOURS));
+            refundJobs.add(new Object[] { BASE_ID + i, BASE_ID + i * 7L, i % 3 == 0 ? "SEPAY" : "VNPAY", "QP-" + i, 100000, i % 2 == 0 ? "TRIP_CANCEL" : "CUSTOMER", status, at, at });
+        }
+
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO payment_transaction (id, transaction_id, order_ref, method, status, amount, created_at, is_deleted) VALUES (?, ?, ?, ?, ?, ?, ?, false)",
+            transactions
+        );
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO booking (id, booking_code, status, quantity, total_amount, booked_at, customer_id, trip_id, expires_at, created_at, updated_at, payment_transaction_id, is_deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false)",
+            bookings
+        );
+        jdbcTemplate.batchUpdate("INSERT INTO booking_seat (booking_id, seat_no, trip_id) VALUES (?, ?, ?)", seats);
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO ticket (id, ticket_code, price, status, trip_id, route_id, seat_id, created_at, booking_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            tickets
+        );
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO payment_webhook_log (id, provider, payload_hash, received_at, processing_status, created_at, payment_transaction_id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            webhookLogs
+        );
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO refund_job (id, payment_transaction_id, provider, order_ref, amount, source, status, attempts, next_attempt_at, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?, ?)",
+            refundJobs
+        );
+
+        // Refresh index statistics so the optimizer plans against the seeded distribution
+        for (String table : List.of("payment_transaction", "booking", "booking_seat", "ticket", "payment_webhook_log", "refund_job")) {
+            jdbcTemplate.queryForList("ANALYZE TABLE " + table);
+        }
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM ticket WHERE id >= ?", BASE_ID);
+        jdbcTemplate.update("DELETE FROM payment_webhook_log WHERE id >= ?", BASE_ID);
+        jdbcTemplate.update("DELETE FROM refund_job WHERE id >= ?", BASE_ID);
+        jdbcTemplate.update("DELETE FROM booking WHERE id >= ?", BASE_ID);
+        jdbcTemplate.update("DELETE FROM payment_transaction WHERE id >= ?", BASE_ID);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void queryDoesNotFallBackToFullScan(String query, String sql, Object[] params) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, params);
+
+        List<String> fullScans = plan
+            .stream()
+            .filter(row -> "ALL".equals(row.get("type")))
+            .map(row -> String.valueOf(row.get("table")))
+            .toList();
+        assertThat(fullScans).as("tables scanned in full by %s; plan: %s", query, plan).isEmpty();
+    }
+
+    Stream<Arguments> repositoryQueries() {
+        Timestamp pollCutoff = Timestamp.from(NOW.minus(24, ChronoUnit.HOURS));
+        Timestamp weekAgo = Timestamp.from(NOW.minus(7, ChronoUnit.DAYS));
+        long bookingId = BASE_ID + 42;
+
+        return Stream.of(
+            // BookingRepository
+            query(
+                "BookingRepository.findExpiredChunk",
+                "SELECT b.id, b.booking_code, b.trip_id, b.lock_group_id, b.is_deleted FROM booking b WHERE b.status = ? AND b.expires_at IS NOT NULL " +
+                "AND b.expires_at < ? AND b.id > ? AND MOD(b.id, ?) IN (?, ?, ?) ORDER BY b.id LIMIT 100",
+                "AWAITING_PAYMENT",
+                NOW_TS,
+                0L,
+                16,
+                0,
+                1,
+                2
+            ),
+            query(
+                "BookingRepository.findExpiredByIds",
+                "SELECT b.id, b.booking_code, b.trip_id, b.lock_group_id, b.is_deleted FROM booking b WHERE b.id IN (?, ?, ?) AND b.status = ? " +
+                "AND b.expires_at IS NOT NULL AND b.expires_at < ? ORDER BY b.id",
+                bookingId,
+                bookingId + 20,
+                bookingId + 40,
+                "AWAITING_PAYMENT",
+                NOW_TS
+            ),
+            query(
+                "BookingRepository.findPendingExpiries",
+                "SELECT b.id, b.expires_at FROM booking b WHERE b.is_deleted = false AND b.status = ? AND b.expires_at >= ? ORDER BY b.expires_at LIMIT 500",
+                "AWAITING_PAYMENT",
+                weekAgo
+            ),
+            query(
+                "BookingRepository.countExpired",
+                "SELECT COUNT(b.id) FROM booking b WHERE b.is_deleted = false AND b.status = ? AND b.expires_at IS NOT NULL AND b.expires_at < ?",
+                "AWAITING_PAYMENT",
+                NOW_TS
+            ),
+            query(
+                "BookingRepository.lockIdsInStatuses",
+                "SELECT b.id FROM booking b WHERE b.id IN (?, ?) AND b.status IN (?, ?, ?) ORDER BY b.id",
+                bookingId,
+                bookingId + 1,
+                "AWAITING_PAYMENT",
+                "PAID",
+                "CONFIRMED"
+            ),
+            query(
+                "BookingRepository.findTripBookingChunk",
+                "SELECT b.id, b.status, pt.id, pt.status FROM booking b LEFT JOIN payment_transaction pt ON pt.id = b.payment_transaction_id AND pt.is_deleted = false " +
+                "WHERE b.is_deleted = false AND b.trip_id = ? AND b.id > ? AND b.status IN (?, ?, ?) ORDER BY b.id LIMIT 200",
+                7L,
+                0L,
+                "AWAITING_PAYMENT",
+                "PAID",
+                "CONFIRMED"
+            ),
+            query(
+                "BookingRepository.updateStatusForIds",
+                "UPDATE booking b SET b.status = ?, b.updated_at = ?, b.version = b.version + 1 WHERE b.id IN (?, ?) AND b.status IN (?)",
+                "CANCELED",
+                NOW_TS,
+                bookingId,
+                bookingId + 1,
+                "AWAITING_PAYMENT"
+            ),
+            query(
+                "BookingRepository.updateStatusIfCurrent",
+                "UPDATE booking b SET b.status = ?, b.updated_at = ?, b.version = b.version + 1 WHERE b.id = ? AND b.status = ? AND b.version = ?",
+                "CONFIRMED",
+                NOW_TS,
+                bookingId,
+                "AWAITING_PAYMENT",
+                0L
+            ),
+            query("BookingRepository.findStatusAndVersion", "SELECT b.status, b.version FROM booking b WHERE b.is_deleted = false AND b.id = ?", bookingId),
+            query(
+                "BookingRepository.findByPaymentTransactionId",
+                "SELECT * FROM booking b WHERE b.is_deleted = false AND b.payment_transaction_id = ?",
+                bookingId
+            ),
+            query(
+                "BookingRepository.lockArchivableChunk",
+                "SELECT b.id FROM booking b LEFT JOIN payment_transaction p ON p.id = b.payment_transaction_id " +
+                "WHERE b.id > ? AND MOD(b.id, ?) IN (?, ?) AND b.status IN (?, ?, ?) AND b.created_at < ? AND COALESCE(b.updated_at, b.created_at) < ? " +
+                "AND (p.id IS NULL OR (p.status IN (?, ?, ?) AND COALESCE(p.updated_at, p.created_at) < ?)) " +
+                "AND NOT EXISTS (SELECT 1 FROM ticket t JOIN ticket o ON o.original_ticket_id = t.id WHERE t.booking_id = b.id AND o.booking_id <> b.id) " +
+                "AND NOT EXISTS (SELECT 1 FROM ticket t JOIN ticket o ON o.exchanged_ticket_id = t.id WHERE t.booking_id = b.id AND o.booking_id <> b.id) " +
+                "AND NOT EXISTS (SELECT 1 FROM refund_job r WHERE r.payment_transaction_id = b.payment_transaction_id AND r.status IN (?, ?)) " +
+                "AND NOT EXISTS (SELECT 1 FROM ticket t JOIN refund_job r ON r.ticket_id = t.id WHERE t.booking_id = b.id AND r.status IN (?, ?)) " +
+                "ORDER BY b.id LIMIT 500",
+                BASE_ID,
+                16,
+                0,
+                1,
+                "CONFIRMED",
+                "CANCELED",
+                "REFUNDED",
+                NOW_TS,
+                NOW_TS,
+                "SUCCESS",
+                "FAILED",
+                "REFUNDED",
+                NOW_TS,
+                "QUEUED",
+                "SUBMITTED",
+                "QUEUED",
+                "SUBMITTED"
+            ),
+            query("BookingQueryService bookingCode filter (admin)", "SELECT * FROM booking b WHERE b.is_deleted = false AND b.booking_code = ?", "QP-BK-42"),
+            query(
+                "BookingQueryService customerId filter (admin)",
+                "SELECT * FROM booking b WHERE b.is_deleted = false AND b.customer_id = ? ORDER BY b.created_at DESC LIMIT 20",
+                customer(42)
+            ),
+            query("BookingQueryService tripId filter (admin)", "SELECT * FROM booking b WHERE b.is_deleted = false AND b.trip_id = ? LIMIT 20", 7L),
+            query(
+                "BookingQueryService tripId and status filter (admin)",
+                "SELECT * FROM booking b WHERE b.is_deleted = false AND b.trip_id = ? AND b.status = ? LIMIT 20",
+                7L,
+                "AWAITING_PAYMENT"
+            ),
+            query("BookingQueryService status filter (admin)", "SELECT * FROM booking b WHERE b.is_deleted = false AND b.status = ? LIMIT 20", "AWAITING_PAYMENT"),
+            // BookingSeatRepository
+            query(
+                "BookingSeatRepository.findSeatNosByBookingId",
+                "SELECT s.seat_no FROM booking_seat s WHERE s.booking_id = ? ORDER BY s.seat_no",
+                bookingId
+            ),
+            query(
+                "BookingSeatRepository.findByBookingIdIn",
+                "SELECT * FROM booking_seat s WHERE s.booking_id IN (?, ?, ?) ORDER BY s.booking_id, s.seat_no",
+                bookingId,
+                bookingId + 1,
+                bookingId + 2
+            ),
+            // PaymentTransactionRepository
+            query("PaymentTransactionRepository.findByTransactionId", "SELECT * FROM payment_transaction pt WHERE pt.is_deleted = false AND pt.transaction_id = ?", "QP-PT-42"),
+            query(
+                "PaymentTransactionRepository.findTransactionIdsByMethodAndStatusInAndCreatedAtAfter",
+                "SELECT pt.transaction_id FROM payment_transaction pt WHERE pt.is_deleted = false AND pt.method = ? AND pt.status IN (?, ?) AND pt.created_at > ?",
+                "VNPAY",
+                "INITIATED",
+                "PROCESSING",
+                pollCutoff
+            ),
+            query(
+                "AdminQueryService.findPaymentTransactionsByStatus",
+                "SELECT pt.id, pt.transaction_id, b.id, b.booking_code FROM payment_transaction pt LEFT JOIN booking b ON b.payment_transaction_id = pt.id " +
+                "AND b.is_deleted = false WHERE pt.is_deleted = false AND pt.status IN (?, ?) ORDER BY pt.created_at, pt.id",
+                "PAYMENT_SUCCESS_BUT_BOOKING_EXPIRED",
+                "REQUIRES_MANUAL_REVIEW"
+            ),
+            query(
+                "AdminQueryService.findPaymentTransactions bookingId filter",
+                "SELECT pt.id, pt.transaction_id, b.id, b.booking_code FROM payment_transaction pt LEFT JOIN booking b ON b.payment_transaction_id = pt.id " +
+                "AND b.is_deleted = false WHERE pt.is_deleted = false AND pt.id IN (SELECT b2.payment_transaction_id FROM booking b2 WHERE b2.id = ? " +
+                "AND b2.is_deleted = false) LIMIT 20",
+                bookingId
+            ),
+            query(
+                "PaymentTransactionRepository.findReconciliationPage",
+                "SELECT pt.id, pt.transaction_id, pt.amount, pt.status FROM payment_transaction pt WHERE pt.is_deleted = false AND pt.method = ? AND pt.created_at >= ? " +
+                "AND pt.created_at < ? AND pt.id > ? ORDER BY pt.id LIMIT 500",
+                "VNPAY",
+                Timestamp.from(NOW.minus(2, ChronoUnit.DAYS)),
+                Timestamp.from(NOW.minus(1, ChronoUnit.DAYS)),
+                0L
+            ),
+            query(
+                "PaymentTransactionRepository.updateStatusIfCurrent",
+                "UPDATE payment_transaction pt SET pt.status = ?, pt.updated_at = ?, pt.version = pt.version + 1 WHERE pt.id = ? AND pt.status = ? AND pt.version = ?",
+                "SUCCESS",
+                NOW_TS,
+                bookingId,
+                "PROCESSING",
+                0L
+            ),
+            query("PaymentTransactionRepository.findStatusAndVersion", "SELECT pt.status, pt.version FROM payment_transaction pt WHERE pt.is_deleted = false AND pt.id = ?", bookingId),
+            query("PaymentTransactionRepository.findAmountById", "SELECT pt.amount FROM payment_transaction pt WHERE pt.is_deleted = false AND pt.id = ?", bookingId),
+            query("PaymentTransactionRepository.lockByIds", "SELECT p.id FROM payment_transaction p WHERE p.id IN (?, ?) ORDER BY p.id", bookingId, bookingId + 1),
+            query(
+                "PaymentTransactionRepository.lockArchivableChunk",
+                "SELECT p.id FROM payment_transaction p WHERE p.id > ? AND MOD(p.id, ?) IN (?, ?) AND p.status IN (?, ?, ?) " +
+                "AND p.created_at < ? AND COALESCE(p.updated_at, p.created_at) < ? " +
+                "AND NOT EXISTS (SELECT 1 FROM booking b WHERE b.payment_transaction_id = p.id) " +
+                "AND NOT EXISTS (SELECT 1 FROM refund_job r WHERE r.payment_transaction_id = p.id AND r.status IN (?, ?)) " +
+                "ORDER BY p.id LIMIT 500",
+                BASE_ID,
+                16,
+                0,
+                1,
+                "SUCCESS",
+                "FAILED",
+                "REFUNDED",
+                NOW_TS,
+                NOW_TS,
+                "QUEUED",
+                "SUBMITTED"
+            ),
+            // PaymentWebhookLogRepository
+            query("PaymentWebhookLogRepository.findByPayloadHash", "SELECT * FROM payment_webhook_log l WHERE l.is_deleted = false AND l.payload_hash = ?", "QP-HASH-40"),
+            // RefundJobRepository
+            query(
+                "RefundJobRepository.findDue",
+                "SELECT * FROM refund_job j WHERE j.status = ? AND j.next_attempt_at <= ? AND MOD(j.id, ?) IN (?, ?) " +
+                "ORDER BY j.provider, j.next_attempt_at LIMIT 50",
+                "QUEUED",
+                NOW_TS,
+                16,
+                0,
+                1
+            ),
+            query(
+                "RefundJobRepository.claim",
+                "UPDATE refund_job j SET j.next_attempt_at = ? WHERE j.id = ? AND j.status = ? AND j.next_attempt_at <= ?",
+                NOW_TS,
+                BASE_ID,
+                "QUEUED",
+                NOW_TS
+            ),
+            query(
+                "RefundJobRepository.sumAmountByPaymentTransactionIdAndStatusIn",
+                "SELECT COALESCE(SUM(j.amount), 0) FROM refund_job j WHERE j.payment_transaction_id = ? AND j.status IN (?, ?, ?)",
+                BASE_ID,
+                "QUEUED",
+                "SUBMITTED",
+                "COMPLETED"
+            ),
+            query(
+                "RefundJobRepository.sumAmountByPaymentTransactionIds",
+                "SELECT j.payment_transaction_id, SUM(j.amount) FROM refund_job j WHERE j.payment_transaction_id IN (?, ?) " +
+                "AND j.status IN (?, ?, ?) GROUP BY j.payment_transaction_id",
+                BASE_ID,
+                BASE_ID + 7,
+                "QUEUED",
+                "SUBMITTED",
+                "COMPLETED"
+            ),
+            query(
+                "RefundJobRepository.cancelQueuedTicketJobs",
+                "UPDATE refund_job j SET j.status = ?, j.last_error = ?, j.updated_at = ?, j.completed_at = ? " +
+                "WHERE j.status = ? AND j.next_attempt_at <= ? AND j.ticket_id IN (SELECT t.id FROM ticket t WHERE t.booking_id IN (?, ?))",
+                "CANCELED",
+                "Superseded by trip cancellation",
+                NOW_TS,
+                NOW_TS,
+                "QUEUED",
+                NOW_TS,
+                bookingId,
+                bookingId + 1
+            ),
+            query(
+                "RefundJobRepository.countByStatusAndProviderForSource",
+                "SELECT j.status, j.provider, COUNT(j.id) FROM refund_job j WHERE j.source = ? GROUP BY j.status, j.provider",
+                "TRIP_CANCEL"
+            ),
+            // TicketRepository
+            query(
+                "TicketRepository.findByBooking_BookingCode",
+                "SELECT t.* FROM ticket t LEFT JOIN booking b ON b.id = t.booking_id WHERE t.is_deleted = false AND b.booking_code = ?",
+                "QP-BK-42"
+            ),
+            query("TicketRepository.findByTicketCode", "SELECT * FROM ticket t WHERE t.is_deleted = false AND t.ticket_code = ?", "QP-TK-84"),
+            query("TicketRepository.findByBookingId", "SELECT * FROM ticket t WHERE t.is_deleted = false AND t.booking_id = ?", bookingId),
+            query(
+                "TicketRepository.findTicketCodesByBookingIds",
+                "SELECT t.ticket_code FROM ticket t WHERE t.is_deleted = false AND t.booking_id IN (?, ?)",
+                bookingId,
+                bookingId + 1
+            ),
+            query(
+                "TicketRepository.findIdsByBookingIds",
+                "SELECT t.id FROM ticket t WHERE t.is_deleted = false AND t.booking_id IN (?, ?)",
+                bookingId,
+                bookingId + 1
+            ),
+            query(
+                "TicketRepository.updateStatusForBookings",
+                "UPDATE ticket t SET t.status = ?, t.updated_at = ? WHERE t.booking_id IN (?, ?) AND (t.status IS NULL OR t.status NOT IN (?, ?))",
+                "CANCELLED",
+                NOW_TS,
+                bookingId,
+                bookingId + 1,
+                "CANCELLED",
+                "REFUND_COMPLETED"
+            ),
+            // KeysetQueryService (/scroll endpoints)
+            query(
+                "BookingQueryService.scrollByCriteria first slice",
+                "SELECT * FROM booking b WHERE b.is_deleted = false ORDER BY b.created_at DESC, b.id DESC LIMIT 21"
+            ),
+            query(
+                "BookingQueryService.scrollByCriteria next slice",
+                "SELECT * FROM booking b WHERE b.is_deleted = false AND (b.created_at < ? OR (b.created_at = ? AND b.id < ?)) " +
+                "ORDER BY b.created_at DESC, b.id DESC LIMIT 21",
+                weekAgo,
+                weekAgo,
+                bookingId
+            ),
+            query(
+                "BookingQueryService.scrollByCriteria by bookedAt",
+                "SELECT * FROM booking b WHERE b.is_deleted = false AND (b.booked_at > ? OR (b.booked_at = ? AND b.id > ?)) " +
+                "ORDER BY b.booked_at, b.id LIMIT 21",
+                weekAgo,
+                weekAgo,
+                bookingId
+            ),
+            query(
+                "TicketQueryService.scrollByCriteria next slice",
+                "SELECT * FROM ticket t WHERE t.is_deleted = false AND (t.created_at < ? OR (t.created_at = ? AND t.id < ?)) " +
+                "ORDER BY t.created_at DESC, t.id DESC LIMIT 21",
+                weekAgo,
+                weekAgo,
+                bookingId
+            ),
+            query(
+                "PaymentTransactionQueryService.scrollByCriteria next slice",
+                "SELECT * FROM payment_transaction pt WHERE pt.is_deleted = false AND (pt.created_at < ? OR (pt.created_at = ? AND pt.id < ?)) " +
+                "ORDER BY pt.created_at DESC, pt.id DESC LIMIT 21",
+                weekAgo,
+                weekAgo,
+                bookingId
+            )
+        );
+    }
+
+    private static Arguments query(String name, String sql, Object... params) {
+        return Arguments.of(name, sql, params);
+    }
+
+    private static String customer(int n) {
+        return UUID.nameUUIDFromBytes(("qp-customer-" + n).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+}
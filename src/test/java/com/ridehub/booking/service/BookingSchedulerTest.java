@@ -0,0 +1,149 @@
+package com.ridehub.booking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.repository.BookingRepository;
+import com.ridehub.booking.repository.BookingRepository.ExpiredBookingView;
+import com.ridehub.booking.service.cluster.ShardLeaseManager;
+import com.ridehub.booking.service.count.StatusCounters;
+import com.ridehub.booking.service.expiry.BookingExpiryIndex;
+import com.ridehub.booking.service.state.SecondLevelCacheLocks;
+import com.ridehub.msroute.client.api.SeatLockResourceMsrouteApi;
+import com.ridehub.msroute.client.model.SeatLockActionRequestDTO;
+import com.ridehub.msroute.client.model.SeatLockActionResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class BookingSchedulerTest {
+
+    private static final long TRIP_ID = 5L;
+
+    private BookingRepository bookingRepository;
+    private SeatLockResourceMsrouteApi seatLockApi;
+    private BookingSeatService bookingSeatService;
+    private ValueOperations<String, String> valueOperations;
+    private BookingScheduler scheduler;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        seatLockApi = mock(SeatLockResourceMsrouteApi.class);
+        bookingSeatService = mock(BookingSeatService.class);
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+
+        scheduler = new BookingScheduler(
+            bookingRepository,
+            seatLockApi,
+            redisTemplate,
+            mock(BookingExpiryIndex.class),
+            bookingSeatService,
+            mock(ShardLeaseManager.class),
+            mock(StatusCounters.class),
+            mock(SecondLevelCacheLocks.class),
+            entityManager,
+            mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void seatsAreReleasedWithOneRequestPerBooking() {
+        expired(booking(1L), booking(2L));
+        when(seatLockApi.cancelSeatLocks(any())).thenReturn(response("CONFIRMED"));
+
+        assertThat(scheduler.expireBookings(List.of(1L, 2L))).isEqualTo(2);
+
+        ArgumentCaptor<SeatLockActionRequestDTO> requests = ArgumentCaptor.forClass(SeatLockActionRequestDTO.class);
+        verify(seatLockApi, times(2)).cancelSeatLocks(requests.capture());
+        assertThat(requests.getAllValues()).extracting(SeatLockActionRequestDTO::getBookingId).containsExactly(1L, 2L);
+        assertThat(requests.getAllValues())
+            .extracting(SeatLockActionRequestDTO::getSeatNumbers)
+            .containsExactly(List.of("A1"), List.of("A2"));
+        verify(bookingSeatService).evict(List.of(1L, 2L));
+    }
+
+    @Test
+    void failedReleaseMarksOnlyItsBookingForReview() {
+        expired(booking(1L), booking(2L));
+        when(seatLockApi.cancelSeatLocks(any())).thenAnswer(invocation ->
+            invocation.<SeatLockActionRequestDTO>getArgument(0).getBookingId() == 1L ? response("FAILED") : response("CONFIRMED")
+        );
+
+        scheduler.expireBookings(List.of(1L, 2L));
+
+        verify(valueOperations).set(eq("booking:review:1"), anyString(), any(Duration.class));
+        verify(valueOperations, times(1)).set(anyString(), anyString(), any(Duration.class));
+        verify(bookingSeatService).evict(List.of(2L));
+    }
+
+    @Test
+    void bookingThatLeftAwaitingPaymentIsNeitherCanceledNorReleased() {
+        expired(booking(1L), booking(2L));
+        // Booking 1 was paid between the read and the lock
+        when(bookingRepository.lockIdsInStatuses(anyList(), eq(List.of("AWAITING_PAYMENT")))).thenReturn(List.of(2L));
+        when(bookingSeatService.getSeatNos(List.of(2L))).thenReturn(Map.of(2L, List.of("A2")));
+        when(seatLockApi.cancelSeatLocks(any())).thenReturn(response("CONFIRMED"));
+
+        assertThat(scheduler.expireBookings(List.of(1L, 2L))).isEqualTo(1);
+
+        verify(bookingRepository).updateStatusForIds(eq(List.of(2L)), anyList(), eq("CANCELED"), any());
+        ArgumentCaptor<SeatLockActionRequestDTO> requests = ArgumentCaptor.forClass(SeatLockActionRequestDTO.class);
+        verify(seatLockApi).cancelSeatLocks(requests.capture());
+        assertThat(requests.getValue().getBookingId()).isEqualTo(2L);
+    }
+
+    private void expired(ExpiredBookingView... bookings) {
+        List<ExpiredBookingView> rows = List.of(bookings);
+        when(bookingRepository.findExpiredByIds(anyList(), eq(BookingStatus.AWAITING_PAYMENT), any())).thenReturn(rows);
+        List<Long> ids = rows.stream().map(ExpiredBookingView::getId).toList();
+        when(bookingRepository.lockIdsInStatuses(anyList(), eq(List.of("AWAITING_PAYMENT")))).thenReturn(ids);
+        when(bookingRepository.updateStatusForIds(anyList(), anyList(), eq("CANCELED"), any())).thenReturn(rows.size());
+        when(bookingSeatService.getSeatNos(List.of(1L, 2L))).thenReturn(Map.of(1L, List.of("A1"), 2L, List.of("A2")));
+    }
+
+    private static ExpiredBookingView booking(long id) {
+        ExpiredBookingView booking = mock(ExpiredBookingView.class);
+        when(booking.getId()).thenReturn(id);
+        when(booking.getBookingCode()).thenReturn("BK-" + id);
+        when(booking.getTripId()).thenReturn(TRIP_ID);
+        when(booking.getLockGroupId()).thenReturn("LG-" + id);
+        return booking;
+    }
+
+    private static SeatLockActionResponseDTO response(String status) {
+        SeatLockActionResponseDTO response = new SeatLockActionResponseDTO();
+        response.setStatus(status);
+        response.setMessage(status);
+        return response;
+    }
+}
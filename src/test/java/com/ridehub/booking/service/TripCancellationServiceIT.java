@@ -0,0 +1,158 @@
+package com.ridehub.booking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.ridehub.booking.IntegrationTest;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Integration tests for {@link TripCancellationService}: refunds queued for a canceled trip leave out tickets
+ * refunded on their own.
+ */
+@IntegrationTest
+class TripCancellationServiceIT {
+
+    private static final long BASE_ID = 7_000_000L;
+    private static final long TRIP_ID = BASE_ID;
+    private static final Timestamp NOW = Timestamp.from(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StringRedisTemplate redis;
+
+    @Autowired
+    private TripCancellationService tripCancellationService;
+
+    @BeforeEach
+    void seed() {
+        cleanUp();
+        // Three tickets: one refunded, one with a queued refund, one untouched
+        insertBooking(BASE_ID, 300000);
+        insertTicket(BASE_ID, BASE_ID, "REFUND_COMPLETED");
+        insertTicketJob(BASE_ID, BASE_ID, BASE_ID, "COMPLETED");
+        insertTicket(BASE_ID + 1, BASE_ID, "REFUND_REQUESTED");
+        insertTicketJob(BASE_ID + 1, BASE_ID, BASE_ID + 1, "QUEUED");
+        insertTicket(BASE_ID + 2, BASE_ID, "BOOKED");
+        // One ticket whose refund is already at the gateway
+        insertBooking(BASE_ID + 3, 100000);
+        insertTicket(BASE_ID + 3, BASE_ID + 3, "REFUND_REQUESTED");
+        insertTicketJob(BASE_ID + 2, BASE_ID + 3, BASE_ID + 3, "SUBMITTED");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM refund_job WHERE payment_transaction_id >= ?", BASE_ID);
+        for (String table : new String[] { "ticket", "booking", "payment_transaction" }) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE id >= ?", BASE_ID);
+        }
+        redis.delete(List.of("trip:cancel:job:" + TRIP_ID, "trip:cancel:seats:" + TRIP_ID, "trip:cancel:lock:" + TRIP_ID));
+        redis.opsForSet().remove("trip:cancel:jobs", Long.toString(TRIP_ID));
+    }
+
+    @Test
+    void paymentRefundLeavesOutTicketsRefundedOnTheirOwn() {
+        tripCancellationService.startCancellation(TRIP_ID, "Bus broke down");
+        await()
+            .atMost(Duration.ofSeconds(20))
+            .until(() -> "COMPLETED".equals(tripCancellationService.getProgress(TRIP_ID).getStatus()));
+
+        List<Map<String, Object>> tripRefunds = jdbcTemplate.queryForList(
+            "SELECT payment_transaction_id, amount FROM refund_job WHERE source = ?",
+            "trip-cancel:" + TRIP_ID
+        );
+        assertThat(tripRefunds).hasSize(1);
+        assertThat(((Number) tripRefunds.get(0).get("payment_transaction_id")).longValue()).isEqualTo(BASE_ID);
+        // 300000 paid, 100000 refunded with the first ticket; the queued ticket refund is taken over
+        assertThat(new BigDecimal(tripRefunds.get(0).get("amount").toString())).isEqualByComparingTo("200000");
+
+        assertThat(jobStatus(BASE_ID)).isEqualTo("COMPLETED");
+        assertThat(jobStatus(BASE_ID + 1)).isEqualTo("CANCELED");
+        assertThat(jobStatus(BASE_ID + 3)).isEqualTo("SUBMITTED");
+    }
+
+    @Test
+    void replayedCancellationQueuesNoSecondRefund() {
+        for (int run = 0; run < 2; run++) {
+            tripCancellationService.startCancellation(TRIP_ID, "Bus broke down");
+            await()
+                .atMost(Duration.ofSeconds(20))
+                .until(() -> "COMPLETED".equals(tripCancellationService.getProgress(TRIP_ID).getStatus()));
+            // A completed job is re-run from the start; put the bookings back so every chunk is replayed
+            jdbcTemplate.update("UPDATE booking SET status = 'CONFIRMED' WHERE id >= ?", BASE_ID);
+        }
+
+        assertThat(
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refund_job WHERE source = ?", Long.class, "trip-cancel:" + TRIP_ID)
+        ).isOne();
+    }
+
+    private String jobStatus(long ticketId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM refund_job WHERE ticket_id = ?", String.class, ticketId);
+    }
+
+    private void insertBooking(long id, int amount) {
+        jdbcTemplate.update(
+            "INSERT INTO payment_transaction (id, transaction_id, order_ref, method, status, amount, created_at, updated_at, is_deleted) " +
+            "VALUES (?, ?, ?, 'VNPAY', 'SUCCESS', ?, ?, ?, false)",
+            id,
+            "TC-PT-" + id,
+            "TC-" + id,
+            amount,
+            NOW,
+            NOW
+        );
+        jdbcTemplate.update(
+            "INSERT INTO booking (id, booking_code, status, quantity, total_amount, booked_at, trip_id, created_at, updated_at, payment_transaction_id, is_deleted) " +
+            "VALUES (?, ?, 'CONFIRMED', 1, ?, ?, ?, ?, ?, ?, false)",
+            id,
+            "TC-BK-" + id,
+            amount,
+            NOW,
+            TRIP_ID,
+            NOW,
+            NOW,
+            id
+        );
+    }
+
+    private void insertTicket(long id, long bookingId, String status) {
+        jdbcTemplate.update(
+            "INSERT INTO ticket (id, ticket_code, price, status, trip_id, route_id, seat_id, created_at, booking_id) VALUES (?, ?, 100000, ?, ?, 1, 1, ?, ?)",
+            id,
+            "TC-TK-" + id,
+            status,
+            TRIP_ID,
+            NOW,
+            bookingId
+        );
+    }
+
+    private void insertTicketJob(long id, long paymentTransactionId, long ticketId, String status) {
+        jdbcTemplate.update(
+            "INSERT INTO refund_job (id, ticket_id, payment_transaction_id, provider, order_ref, amount, source, status, attempts, next_attempt_at, created_at) " +
+            "VALUES (?, ?, ?, 'VNPAY', ?, 100000, 'ticket', ?, 0, ?, ?)",
+            id,
+            ticketId,
+            paymentTransactionId,
+            "TC-" + paymentTransactionId,
+            status,
+            NOW,
+            NOW
+        );
+    }
+}
@@ -0,0 +1,151 @@
+package com.ridehub.booking.service.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ridehub.booking.IntegrationTest;
+import com.ridehub.booking.service.dto.admin.AdminBookingDTO;
+import com.ridehub.booking.service.dto.admin.AdminWebhookLogDTO;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Integration tests for {@link ArchivalService} and {@link ArchiveQueryService}.
+ */
+@IntegrationTest
+class ArchivalServiceIT {
+
+    private static final long BASE_ID = 8_000_000L;
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    private static final Timestamp OLD = Timestamp.from(NOW.minus(400, ChronoUnit.DAYS));
+    private static final Timestamp RECENT = Timestamp.from(NOW.minus(2, ChronoUnit.DAYS));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ArchivalService archivalService;
+
+    @Autowired
+    private ArchiveQueryService archiveQueryService;
+
+    @BeforeEach
+    void seed() {
+        cleanUp();
+        // old and settled: archived
+        insertBooking(BASE_ID, "CONFIRMED", "SUCCESS", OLD);
+        // old but still awaiting payment: stays
+        insertBooking(BASE_ID + 1, "AWAITING_PAYMENT", "PROCESSING", OLD);
+        // settled but recent: stays
+        insertBooking(BASE_ID + 2, "CONFIRMED", "SUCCESS", RECENT);
+        // old and settled, but its refund is still queued: stays
+        insertBooking(BASE_ID + 3, "REFUNDED", "SUCCESS", OLD);
+        jdbcTemplate.update(
+            "INSERT INTO refund_job (id, payment_transaction_id, provider, order_ref, amount, source, status, attempts, next_attempt_at, created_at) " +
+            "VALUES (?, ?, 'VNPAY', 'AR-3', 100000, 'CUSTOMER', 'QUEUED', 0, ?, ?)",
+            BASE_ID,
+            BASE_ID + 3,
+            OLD,
+            OLD
+        );
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM refund_job WHERE id >= ?", BASE_ID);
+        for (String table : new String[] { "ticket", "payment_webhook_log", "booking", "payment_transaction" }) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE id >= ?", BASE_ID);
+            jdbcTemplate.update("DELETE FROM " + table + "_archive WHERE id >= ?", BASE_ID);
+        }
+        jdbcTemplate.update("DELETE FROM booking_seat_archive WHERE booking_id >= ?", BASE_ID);
+    }
+
+    @Test
+    void movesOnlySettledBookingsPastTheHotWindow() {
+        ArchivalService.ArchivalReport report = archivalService.archiveNow();
+
+        assertThat(report.getBookings()).isEqualTo(1);
+        assertThat(count("booking", BASE_ID)).isZero();
+        assertThat(count("booking_archive", BASE_ID)).isOne();
+        assertThat(count("ticket", BASE_ID)).isZero();
+        assertThat(count("ticket_archive", BASE_ID)).isOne();
+        assertThat(count("payment_transaction", BASE_ID)).isZero();
+        assertThat(count("payment_transaction_archive", BASE_ID)).isOne();
+        assertThat(count("payment_webhook_log", BASE_ID)).isZero();
+        assertThat(count("payment_webhook_log_archive", BASE_ID)).isOne();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_seat_archive WHERE booking_id = ?", Long.class, BASE_ID))
+            .isOne();
+
+        for (long kept : new long[] { BASE_ID + 1, BASE_ID + 2, BASE_ID + 3 }) {
+            assertThat(count("booking", kept)).as("booking %s", kept).isOne();
+            assertThat(count("booking_archive", kept)).as("archived booking %s", kept).isZero();
+        }
+    }
+
+    @Test
+    void dateRangeReadsIncludeArchivedRows() {
+        archivalService.archiveNow();
+        Instant from = NOW.minus(500, ChronoUnit.DAYS);
+
+        Page<AdminBookingDTO> bookings = archiveQueryService.findBookings(null, null, null, from, NOW, PageRequest.of(0, 50));
+        assertThat(bookings.getContent()).extracting(AdminBookingDTO::getId).contains(BASE_ID, BASE_ID + 1, BASE_ID + 2, BASE_ID + 3);
+
+        Page<AdminWebhookLogDTO> logs = archiveQueryService.findWebhookLogs("AR-PROVIDER", null, from, NOW, PageRequest.of(0, 50));
+        assertThat(logs.getContent()).extracting(AdminWebhookLogDTO::getId).contains(BASE_ID);
+        assertThat(logs.getContent().get(0).getPaymentTransactionId()).isEqualTo(BASE_ID);
+    }
+
+    private void insertBooking(long id, String status, String paymentStatus, Timestamp at) {
+        jdbcTemplate.update(
+            "INSERT INTO payment_transaction (id, transaction_id, order_ref, method, status, amount, created_at, updated_at, is_deleted) " +
+            "VALUES (?, ?, ?, 'VNPAY', ?, 100000, ?, ?, false)",
+            id,
+            "AR-PT-" + id,
+            "AR-" + id,
+            paymentStatus,
+            at,
+            at
+        );
+        jdbcTemplate.update(
+            "INSERT INTO booking (id, booking_code, status, quantity, total_amount, booked_at, customer_id, trip_id, created_at, updated_at, payment_transaction_id, is_deleted) " +
+            "VALUES (?, ?, ?, 1, 100000, ?, ?, 1, ?, ?, ?, false)",
+            id,
+            "AR-BK-" + id,
+            status,
+            at,
+            UUID.randomUUID().toString(),
+            at,
+            at,
+            id
+        );
+        jdbcTemplate.update("INSERT INTO booking_seat (booking_id, seat_no, trip_id) VALUES (?, 'A1', 1)", id);
+        jdbcTemplate.update(
+            "INSERT INTO ticket (id, ticket_code, price, status, trip_id, route_id, seat_id, created_at, booking_id) VALUES (?, ?, 100000, 'BOOKED', 1, 1, 1, ?, ?)",
+            id,
+            "AR-TK-" + id,
+            at,
+            id
+        );
+        jdbcTemplate.update(
+            "INSERT INTO payment_webhook_log (id, provider, payload_hash, received_at, processing_status, created_at, payment_transaction_id) " +
+            "VALUES (?, 'AR-PROVIDER', ?, ?, 'SUCCESS', ?, ?)",
+            id,
+            "AR-HASH-" + id,
+            at,
+            at,
+            id
+        );
+    }
+
+    private long count(String table, long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE id = ?", Long.class, id);
+    }
+}
@@ -0,0 +1,51 @@
+package com.ridehub.booking.service.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class ArchiveQueryServiceTest {
+
+    private static final Set<String> SORTABLE = Set.of("id", "createdAt", "totalAmount");
+
+    @Test
+    void newestFirstWithoutSort() {
+        assertThat(ArchiveQueryService.orderBy(Sort.unsorted(), SORTABLE)).isEqualTo("x.created_at DESC, x.id DESC");
+    }
+
+    @Test
+    void requestedSortWithIdTiebreak() {
+        Sort sort = Sort.by(Sort.Order.asc("totalAmount"), Sort.Order.desc("createdAt"));
+
+        assertThat(ArchiveQueryService.orderBy(sort, SORTABLE)).isEqualTo("x.total_amount ASC, x.created_at DESC, x.id DESC");
+    }
+
+    @Test
+    void sortByIdOnly() {
+        assertThat(ArchiveQueryService.orderBy(Sort.by(Sort.Order.asc("id")), SORTABLE)).isEqualTo("x.id ASC");
+    }
+
+    @Test
+    void unknownSortPropertiesAreIgnored() {
+        Sort sort = Sort.by(Sort.Order.asc("customerId; DROP TABLE booking"), Sort.Order.asc("paymentTransaction"));
+
+        assertThat(ArchiveQueryService.orderBy(sort, SORTABLE)).isEqualTo("x.created_at DESC, x.id DESC");
+    }
+
+    @Test
+    void rangesInsideHotWindowSkipTheArchive() {
+        ArchivalConfig config = new ArchivalConfig();
+        config.setHotDays(30);
+        ArchiveQueryService service = new ArchiveQueryService(null, config);
+        Instant now = Instant.now();
+
+        assertThat(service.includesArchive(null, null)).isFalse();
+        assertThat(service.includesArchive(now.minus(7, ChronoUnit.DAYS), null)).isFalse();
+        assertThat(service.includesArchive(now.minus(60, ChronoUnit.DAYS), now)).isTrue();
+        assertThat(service.includesArchive(null, now)).isTrue();
+    }
+}
@@ -0,0 +1,175 @@
+package com.ridehub.booking.service.cluster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * {@link ShardLeaseManager} nodes sharing one Redis. Runs against its own container rather than the
+ * application context, so no other node heartbeats into the cluster while shards are counted.
+ */
+class ShardLeaseManagerIT {
+
+    private static final String JOB = "shard-lease-it";
+    private static final int SHARDS = 12;
+    private static final long LEASE_MILLIS = 1000;
+
+    private static GenericContainer<?> container;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redis;
+
+    @BeforeAll
+    static void startRedis() {
+        container = new GenericContainer<>("redis:8.0.0").withExposedPorts(6379);
+        container.start();
+        connectionFactory = new LettuceConnectionFactory(container.getHost(), container.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redis = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        connectionFactory.destroy();
+        container.stop();
+    }
+
+    @BeforeEach
+    void flush() {
+        redis.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    @Test
+    void shardsAreSplitFairlyAcrossNodes() {
+        List<ShardLeaseManager> nodes = List.of(node(), node(), node());
+
+        settle(nodes);
+
+        assertPartition(nodes);
+        assertThat(nodes).allSatisfy(node -> assertThat(shards(node)).hasSize(4));
+    }
+
+    @Test
+    void nodesShedShardsAboveTheirShareWhenANodeJoins() {
+        ShardLeaseManager first = node();
+        ShardLeaseManager second = node();
+        settle(List.of(first, second));
+        assertThat(shards(first)).hasSize(6);
+        assertThat(shards(second)).hasSize(6);
+        Set<Integer> firstBefore = shards(first);
+
+        ShardLeaseManager joining = node();
+        List<ShardLeaseManager> nodes = List.of(first, second, joining);
+        settle(nodes);
+
+        assertPartition(nodes);
+        assertThat(nodes).allSatisfy(node -> assertThat(shards(node)).hasSize(4));
+        // Shedding keeps part of what the node had instead of reshuffling everything
+        assertThat(firstBefore).containsAll(shards(first));
+    }
+
+    @Test
+    void survivorTakesOverTheShardsOfANodeWhoseLeasesLapsed() throws InterruptedException {
+        ShardLeaseManager survivor = node();
+        ShardLeaseManager dying = node();
+        settle(List.of(survivor, dying));
+        assertThat(shards(dying)).hasSize(6);
+
+        // The dying node stops heartbeating; its node entry and leases expire
+        Thread.sleep(LEASE_MILLIS + 200);
+        survivor.heartbeat();
+
+        assertThat(shards(survivor)).hasSize(SHARDS);
+        assertThat(dying.assignment(JOB).isEmpty()).isTrue();
+    }
+
+    @Test
+    void releasedShardsAreTakenOverAtTheNextHeartbeat() {
+        ShardLeaseManager staying = node();
+        ShardLeaseManager leaving = node();
+        settle(List.of(staying, leaving));
+
+        leaving.release();
+        staying.heartbeat();
+
+        assertThat(shards(staying)).hasSize(SHARDS);
+        assertThat(leaving.assignment(JOB).isEmpty()).isTrue();
+    }
+
+    @Test
+    void blockedSchedulerThreadsDoNotCostTheLease() throws InterruptedException {
+        // Same size as spring.task.scheduling.pool.size, with both threads stuck past the lease
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.initialize();
+        CountDownLatch unblock = new CountDownLatch(1);
+        ShardLeaseManager node = node();
+        try {
+            scheduler.execute(() -> awaitQuietly(unblock));
+            scheduler.execute(() -> awaitQuietly(unblock));
+            node.start();
+
+            Thread.sleep(3 * LEASE_MILLIS);
+
+            assertThat(shards(node)).hasSize(SHARDS);
+        } finally {
+            unblock.countDown();
+            node.release();
+            scheduler.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ShardLeaseManager node() {
+        ClusterSchedulingConfig config = new ClusterSchedulingConfig();
+        config.setLeaseMillis(LEASE_MILLIS);
+        config.setHeartbeatMillis(LEASE_MILLIS / 4);
+        ShardLeaseManager node = new ShardLeaseManager(redis, config, new SimpleMeterRegistry());
+        node.register(JOB, SHARDS);
+        return node;
+    }
+
+    /**
+     * Heartbeat every node a few rounds: the first round announces them, later rounds hand shards from the
+     * nodes above their share to those below it.
+     */
+    private static void settle(List<ShardLeaseManager> nodes) {
+        for (int round = 0; round < 3; round++) {
+            nodes.forEach(ShardLeaseManager::heartbeat);
+        }
+    }
+
+    private static Set<Integer> shards(ShardLeaseManager node) {
+        return new HashSet<>(node.assignment(JOB).getShards());
+    }
+
+    private static void assertPartition(List<ShardLeaseManager> nodes) {
+        List<Integer> all = new ArrayList<>();
+        nodes.forEach(node -> all.addAll(shards(node)));
+        assertThat(all).doesNotHaveDuplicates().hasSize(SHARDS);
+    }
+}
@@ -0,0 +1,136 @@
+package com.ridehub.booking.service.count;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ridehub.booking.domain.Booking;
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.service.criteria.BookingCriteria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.jhipster.service.filter.StringFilter;
+
+class CountServiceTest {
+
+    private static final Map<String, Long> COUNTS = Map.of("CONFIRMED", 90L, "AWAITING_PAYMENT", 7L, "CANCELED", 3L, "", 1L);
+
+    private StatusCounters statusCounters;
+    private CountCacheConfig config;
+    private CountService countService;
+    private AtomicInteger queries;
+
+    @BeforeEach
+    void setUp() {
+        statusCounters = mock(StatusCounters.class);
+        config = new CountCacheConfig();
+        countService = new CountService(statusCounters, config, mock(EntityManager.class), new SimpleMeterRegistry());
+        queries = new AtomicInteger();
+    }
+
+    @Test
+    void equalsAndInDecideAloneLikeTheSpecification() {
+        BookingCriteria.BookingStatusFilter filter = new BookingCriteria.BookingStatusFilter();
+        assertThat(CountService.matching(COUNTS, filter)).isEqualTo(101);
+
+        filter.setNotEquals(BookingStatus.CONFIRMED);
+        assertThat(CountService.matching(COUNTS, filter)).isEqualTo(10);
+
+        filter.setNotIn(List.of(BookingStatus.CANCELED));
+        assertThat(CountService.matching(COUNTS, filter)).isEqualTo(7);
+
+        filter.setIn(List.of(BookingStatus.AWAITING_PAYMENT, BookingStatus.CANCELED));
+        assertThat(CountService.matching(COUNTS, filter)).isEqualTo(10);
+
+        filter.setEquals(BookingStatus.CONFIRMED);
+        assertThat(CountService.matching(COUNTS, filter)).isEqualTo(90);
+    }
+
+    @Test
+    void specifiedNotEqualsAndNotInMustAllHold() {
+        BookingCriteria.BookingStatusFilter filter = new BookingCriteria.BookingStatusFilter();
+        filter.setNotIn(List.of(BookingStatus.AWAITING_PAYMENT));
+        filter.setNotEquals(BookingStatus.CANCELED);
+        assertThat(CountService.matching(COUNTS, filter)).isEqualTo(90);
+
+        filter.setSpecified(true);
+        assertThat(CountService.matching(COUNTS, filter)).isEqualTo(90);
+
+        // A missing status is specified=false but fails notEquals and notIn
+        filter.setSpecified(false);
+        assertThat(CountService.matching(COUNTS, filter)).isZero();
+
+        filter.setNotIn(null);
+        assertThat(CountService.matching(COUNTS, filter)).isZero();
+    }
+
+    @Test
+    void missingStatusOnlyMatchesSpecifiedFalse() {
+        BookingCriteria.BookingStatusFilter filter = new BookingCriteria.BookingStatusFilter();
+        filter.setSpecified(false);
+        assertThat(CountService.matching(COUNTS, filter)).isEqualTo(1);
+
+        filter.setSpecified(true);
+        assertThat(CountService.matching(COUNTS, filter)).isEqualTo(100);
+    }
+
+    @Test
+    void statusOnlyCountIsAnsweredFromTheCounters() {
+        when(statusCounters.counts(Booking.class)).thenReturn(Optional.of(COUNTS));
+        BookingCriteria criteria = new BookingCriteria();
+        criteria.status().setEquals(BookingStatus.AWAITING_PAYMENT);
+
+        assertThat(countService.countByStatus(Booking.class, criteria, criteria.getStatus(), false, this::query)).isEqualTo(7);
+        assertThat(queries).hasValue(0);
+    }
+
+    @Test
+    void unavailableCountersFallBackToTheQuery() {
+        when(statusCounters.counts(Booking.class)).thenReturn(Optional.empty());
+
+        assertThat(countService.countByStatus(Booking.class, null, null, false, this::query)).isEqualTo(42);
+        assertThat(queries).hasValue(1);
+    }
+
+    @Test
+    void sameCriteriaReuseTheCount() {
+        assertThat(countService.count(Booking.class, bookingCode("BK-1"), false, this::query)).isEqualTo(42);
+        assertThat(countService.count(Booking.class, bookingCode("BK-1"), false, this::query)).isEqualTo(42);
+        assertThat(queries).hasValue(1);
+
+        countService.count(Booking.class, bookingCode("BK-2"), false, this::query);
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    void disabledCacheAlwaysQueries() {
+        config.setEnabled(false);
+
+        countService.count(Booking.class, bookingCode("BK-1"), false, this::query);
+        countService.count(Booking.class, bookingCode("BK-1"), false, this::query);
+        countService.countByStatus(Booking.class, null, null, false, this::query);
+
+        assertThat(queries).hasValue(3);
+        verify(statusCounters, never()).counts(any());
+    }
+
+    private long query() {
+        queries.incrementAndGet();
+        return 42;
+    }
+
+    private static BookingCriteria bookingCode(String code) {
+        BookingCriteria criteria = new BookingCriteria();
+        criteria.setBookingCode((StringFilter) new StringFilter().setEquals(code));
+        return criteria;
+    }
+}
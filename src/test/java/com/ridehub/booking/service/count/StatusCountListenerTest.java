@@ -0,0 +1,96 @@
+package com.ridehub.booking.service.count;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ridehub.booking.domain.Booking;
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Map;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.metamodel.mapping.AttributeMapping;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatusCountListenerTest {
+
+    private StatusCounters statusCounters;
+    private EntityPersister persister;
+    private StatusCountListener listener;
+
+    @BeforeEach
+    void setUp() {
+        statusCounters = mock(StatusCounters.class);
+        persister = mock(EntityPersister.class);
+        doReturn(Booking.class).when(persister).getMappedClass();
+        AttributeMapping status = mock(AttributeMapping.class);
+        when(status.getStateArrayPosition()).thenReturn(0);
+        AttributeMapping deleted = mock(AttributeMapping.class);
+        when(deleted.getStateArrayPosition()).thenReturn(1);
+        when(persister.findAttributeMapping("status")).thenReturn(status);
+        when(persister.findAttributeMapping("isDeleted")).thenReturn(deleted);
+        listener = new StatusCountListener(mock(EntityManagerFactory.class), statusCounters);
+    }
+
+    @Test
+    void statusChangeMovesTheRow() {
+        listener.onPostUpdate(update(state(BookingStatus.AWAITING_PAYMENT, false), state(BookingStatus.CONFIRMED, false)));
+
+        verify(statusCounters).apply(Booking.class, Map.of("AWAITING_PAYMENT", -1L, "CONFIRMED", 1L));
+    }
+
+    @Test
+    void softDeleteTakesTheRowOffItsStatus() {
+        listener.onPostUpdate(update(state(BookingStatus.CONFIRMED, false), state(BookingStatus.CONFIRMED, true)));
+
+        verify(statusCounters).apply(Booking.class, Map.of("CONFIRMED", -1L));
+    }
+
+    @Test
+    void restorePutsTheRowBackUnderItsNewStatus() {
+        listener.onPostUpdate(update(state(BookingStatus.CONFIRMED, true), state(BookingStatus.CANCELED, false)));
+
+        verify(statusCounters).apply(Booking.class, Map.of("CANCELED", 1L));
+    }
+
+    @Test
+    void otherChangesLeaveTheCountersAlone() {
+        listener.onPostUpdate(update(state(BookingStatus.CONFIRMED, false), state(BookingStatus.CONFIRMED, false)));
+        listener.onPostUpdate(update(state(BookingStatus.CONFIRMED, true), state(BookingStatus.CANCELED, true)));
+
+        verify(statusCounters, never()).apply(any(), anyMap());
+    }
+
+    @Test
+    void softDeletedRowsAreNeitherAddedNorRemoved() {
+        listener.onPostInsert(new PostInsertEvent(new Booking(), 1L, state(BookingStatus.DRAFT, true), persister, null));
+        listener.onPostDelete(new PostDeleteEvent(new Booking(), 1L, state(BookingStatus.DRAFT, true), persister, null));
+
+        verify(statusCounters, never()).apply(any(), anyMap());
+    }
+
+    @Test
+    void insertAndDeleteCountTheRow() {
+        listener.onPostInsert(new PostInsertEvent(new Booking(), 1L, state(BookingStatus.DRAFT, false), persister, null));
+        listener.onPostDelete(new PostDeleteEvent(new Booking(), 1L, state(BookingStatus.DRAFT, false), persister, null));
+
+        verify(statusCounters).apply(Booking.class, Map.of("DRAFT", 1L));
+        verify(statusCounters).apply(Booking.class, Map.of("DRAFT", -1L));
+    }
+
+    private PostUpdateEvent update(Object[] oldState, Object[] state) {
+        return new PostUpdateEvent(new Booking(), 1L, state, oldState, null, persister, null);
+    }
+
+    private static Object[] state(BookingStatus status, boolean deleted) {
+        return new Object[] { status, deleted };
+    }
+}
@@ -0,0 +1,95 @@
+package com.ridehub.booking.service.expiry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ridehub.booking.repository.BookingRepository;
+import com.ridehub.booking.service.BookingScheduler;
+import com.ridehub.booking.service.cluster.ShardLeaseManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class BookingExpiryServiceTest {
+
+    private BookingExpiryIndex expiryIndex;
+    private BookingScheduler bookingScheduler;
+    private BookingExpiryService expiryService;
+
+    @BeforeEach
+    void setUp() {
+        expiryIndex = mock(BookingExpiryIndex.class);
+        bookingScheduler = mock(BookingScheduler.class);
+        expiryService = new BookingExpiryService(
+            expiryIndex,
+            bookingScheduler,
+            mock(BookingRepository.class),
+            mock(ShardLeaseManager.class),
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        expiryService.shutdown();
+    }
+
+    @Test
+    void onlyClaimedBookingsAreExpired() {
+        when(expiryIndex.claim(List.of(1L))).thenReturn(List.of(1L));
+        when(expiryIndex.claim(List.of(2L))).thenReturn(List.of());
+
+        expiryService.register(1L, Instant.now().minusSeconds(1));
+        expiryService.register(2L, Instant.now().minusSeconds(1));
+
+        verify(bookingScheduler, timeout(2000)).expireBookings(List.of(1L));
+        verify(bookingScheduler, after(300).never()).expireBookings(List.of(2L));
+    }
+
+    @Test
+    void bookingIsExpiredWhenItsDeadlineFires() {
+        when(expiryIndex.claim(List.of(3L))).thenReturn(List.of(3L));
+
+        expiryService.register(3L, Instant.now().plusMillis(300));
+
+        verify(bookingScheduler, after(150).never()).expireBookings(anyList());
+        verify(bookingScheduler, timeout(2000)).expireBookings(List.of(3L));
+    }
+
+    @Test
+    void failedClaimLeavesTheBookingToAnotherReplica() {
+        when(expiryIndex.claim(List.of(4L))).thenThrow(new IllegalStateException("Redis down"));
+
+        expiryService.register(4L, Instant.now().minusSeconds(1));
+
+        verify(expiryIndex, timeout(2000)).claim(List.of(4L));
+        verify(bookingScheduler, after(300).never()).expireBookings(anyList());
+    }
+
+    @Test
+    void failedExpiryIsRescheduledAfterTheRetryDelay() {
+        when(expiryIndex.claim(List.of(5L))).thenReturn(List.of(5L));
+        when(bookingScheduler.expireBookings(List.of(5L))).thenThrow(new IllegalStateException("database down"));
+        Instant failedAfter = Instant.now();
+
+        expiryService.register(5L, failedAfter.minusSeconds(1));
+
+        ArgumentCaptor<Instant> retryAt = ArgumentCaptor.forClass(Instant.class);
+        verify(expiryIndex, timeout(2000).times(2)).register(eq(5L), retryAt.capture());
+        assertThat(retryAt.getValue()).isAfterOrEqualTo(failedAfter.plus(BookingExpiryService.RETRY_DELAY));
+        verify(bookingScheduler, timeout(2000)).expireBookings(List.of(5L));
+        verify(expiryIndex, never()).remove(any());
+    }
+}
@@ -0,0 +1,130 @@
+package com.ridehub.booking.service.expiry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final int WHEEL_SIZE = 8;
+    private static final int LEVELS = 3;
+    // Range of the top level: TICK * WHEEL_SIZE^LEVELS
+    private static final long RANGE = 5120;
+    private static final long START = 1_000_003;
+
+    @Test
+    void firesNeverBeforeTheDeadlineAndAtMostOneTickAfter() {
+        HierarchicalTimingWheel<Long> wheel = wheel();
+        Random random = new Random(42);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long key = 0; key < 2000; key++) {
+            long deadline = START + 1 + random.nextInt((int) RANGE - 20);
+            deadlines.put(key, deadline);
+            assertThat(wheel.add(key, deadline)).isTrue();
+        }
+
+        Map<Long, Long> fired = runUntil(wheel, START + RANGE);
+
+        assertThat(fired).hasSameSizeAs(deadlines);
+        deadlines.forEach((key, deadline) ->
+            assertThat(fired.get(key)).as("key %d", key).isGreaterThan(deadline).isLessThanOrEqualTo(deadline + TICK)
+        );
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cascadesFromUpperLevelsDownToTheExactTick() {
+        HierarchicalTimingWheel<String> wheel = wheel();
+        // One deadline per level: level 0 (< 80 ms), level 1 (< 640 ms), level 2 (< 5120 ms)
+        Map<String, Long> deadlines = Map.of("l0", START + 55, "l1", START + 611, "l2", START + 4999);
+        deadlines.forEach(wheel::add);
+
+        Map<String, Long> fired = runUntil(wheel, START + RANGE);
+
+        deadlines.forEach((key, deadline) ->
+            assertThat(fired.get(key)).as(key).isGreaterThan(deadline).isLessThanOrEqualTo(deadline + TICK)
+        );
+    }
+
+    @Test
+    void deadlinesBeyondTheTopLevelStillFireOnTime() {
+        HierarchicalTimingWheel<String> wheel = wheel();
+        long far = START + 3 * RANGE + 123;
+        wheel.add("far", far);
+
+        assertThat(runUntil(wheel, far - 1)).isEmpty();
+        assertThat(wheel.contains("far")).isTrue();
+
+        Map<String, Long> fired = runUntil(wheel, far + TICK);
+        assertThat(fired.get("far")).isGreaterThan(far).isLessThanOrEqualTo(far + TICK);
+    }
+
+    @Test
+    void cancelledKeyNeverFires() {
+        HierarchicalTimingWheel<String> wheel = wheel();
+        wheel.add("a", START + 700);
+
+        assertThat(wheel.cancel("a")).isTrue();
+        assertThat(wheel.cancel("a")).isFalse();
+
+        assertThat(runUntil(wheel, START + RANGE)).isEmpty();
+    }
+
+    @Test
+    void reAddingAKeyReplacesItsDeadline() {
+        HierarchicalTimingWheel<String> wheel = wheel();
+        wheel.add("earlier", START + 900);
+        wheel.add("earlier", START + 300);
+        wheel.add("later", START + 300);
+        wheel.add("later", START + 900);
+        wheel.add("same", START + 500);
+        wheel.cancel("same");
+        wheel.add("same", START + 500);
+
+        Map<String, Long> fired = runUntil(wheel, START + RANGE);
+
+        assertThat(fired.get("earlier")).isBetween(START + 301, START + 310);
+        assertThat(fired.get("later")).isBetween(START + 901, START + 910);
+        assertThat(fired.get("same")).isBetween(START + 501, START + 510);
+    }
+
+    @Test
+    void passedDeadlineIsRejected() {
+        HierarchicalTimingWheel<String> wheel = wheel();
+        wheel.advance(START + 100);
+
+        assertThat(wheel.add("late", START + 50)).isFalse();
+        assertThat(wheel.contains("late")).isFalse();
+    }
+
+    @Test
+    void rejectsInvalidDimensions() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new HierarchicalTimingWheel<>(0, WHEEL_SIZE, LEVELS, START));
+        assertThatIllegalArgumentException().isThrownBy(() -> new HierarchicalTimingWheel<>(TICK, 1, LEVELS, START));
+        assertThatIllegalArgumentException().isThrownBy(() -> new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, 0, START));
+    }
+
+    private static <K> HierarchicalTimingWheel<K> wheel() {
+        return new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, LEVELS, START);
+    }
+
+    /**
+     * Advance the clock one millisecond at a time and record when each key first came out.
+     */
+    private static <K> Map<K, Long> runUntil(HierarchicalTimingWheel<K> wheel, long until) {
+        Map<K, Long> fired = new HashMap<>();
+        for (long now = START; now <= until; now++) {
+            List<K> due = wheel.advance(now);
+            for (K key : due) {
+                assertThat(fired.put(key, now)).as("%s fired twice", key).isNull();
+            }
+        }
+        return fired;
+    }
+}
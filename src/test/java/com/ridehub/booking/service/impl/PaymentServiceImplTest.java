@@ -0,0 +1,176 @@
+package com.ridehub.booking.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ridehub.booking.domain.Booking;
+import com.ridehub.booking.domain.PaymentTransaction;
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.domain.enumeration.PaymentMethod;
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import com.ridehub.booking.repository.BookingRepository;
+import com.ridehub.booking.repository.PaymentTransactionRepository;
+import com.ridehub.booking.repository.PaymentWebhookLogRepository;
+import com.ridehub.booking.repository.TicketRepository;
+import com.ridehub.booking.service.BookingSeatService;
+import com.ridehub.booking.service.payment.sepay.SePayService;
+import com.ridehub.booking.service.payment.vnpay.VNPayPollSchedule;
+import com.ridehub.booking.service.payment.vnpay.VNPayService;
+import com.ridehub.booking.service.state.StatusTransitionService;
+import com.ridehub.booking.service.ticket.TicketLookupCache;
+import com.ridehub.booking.service.vm.InitiatePaymentRequestVM;
+import com.ridehub.booking.service.vm.PaymentInitiationResultVM;
+import com.ridehub.msroute.client.api.SeatLockResourceMsrouteApi;
+import com.ridehub.msroute.client.api.TripResourceMsrouteApi;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class PaymentServiceImplTest {
+
+    private static final Long BOOKING_ID = 11L;
+    private static final String LOCK_KEY = "payment:init:lock:" + BOOKING_ID;
+    private static final String URL_KEY = "payment:url:TXN-OLD";
+
+    private BookingRepository bookingRepository;
+    private PaymentTransactionRepository paymentTransactionRepository;
+    private StringRedisTemplate redis;
+    private ValueOperations<String, String> values;
+    private SePayService sePayService;
+    private PaymentServiceImpl paymentService;
+    private Booking booking;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        paymentTransactionRepository = mock(PaymentTransactionRepository.class);
+        redis = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        sePayService = mock(SePayService.class);
+        paymentService = new PaymentServiceImpl(
+            bookingRepository,
+            paymentTransactionRepository,
+            mock(PaymentWebhookLogRepository.class),
+            mock(TicketRepository.class),
+            redis,
+            mock(TripResourceMsrouteApi.class),
+            mock(SeatLockResourceMsrouteApi.class),
+            mock(VNPayService.class),
+            sePayService,
+            mock(VNPayPollSchedule.class),
+            mock(PlatformTransactionManager.class),
+            mock(StatusTransitionService.class),
+            mock(BookingSeatService.class),
+            mock(TicketLookupCache.class)
+        );
+
+        booking = new Booking();
+        booking.setId(BOOKING_ID);
+        booking.setBookingCode("BK-11");
+        booking.setStatus(BookingStatus.AWAITING_PAYMENT);
+        booking.setTotalAmount(new BigDecimal("150000"));
+        booking.setExpiresAt(Instant.now().plus(Duration.ofMinutes(10)));
+        when(bookingRepository.findById(BOOKING_ID)).thenReturn(Optional.of(booking));
+        when(paymentTransactionRepository.save(any(PaymentTransaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void pendingInitiationWithCachedUrlIsReused() {
+        booking.setPaymentTransaction(initiated());
+        when(values.get(URL_KEY)).thenReturn("https://pay/old");
+
+        PaymentInitiationResultVM result = paymentService.initiatePayment(request(), "https://return", "127.0.0.1");
+
+        assertThat(result.getPaymentUrl()).isEqualTo("https://pay/old");
+        assertThat(result.getTransactionId()).isEqualTo("TXN-OLD");
+        verify(values, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+        verify(paymentTransactionRepository, never()).save(any());
+    }
+
+    @Test
+    void initiationFinishedWhileWaitingForTheLockIsReused() {
+        booking.setPaymentTransaction(initiated());
+        // Not cached yet when first checked, cached by the request that held the lock when checked again
+        when(values.get(URL_KEY)).thenReturn(null, "https://pay/old");
+        when(values.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(true);
+
+        PaymentInitiationResultVM result = paymentService.initiatePayment(request(), "https://return", "127.0.0.1");
+
+        assertThat(result.getTransactionId()).isEqualTo("TXN-OLD");
+        verify(paymentTransactionRepository, never()).save(any());
+        verify(redis).execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), anyString());
+    }
+
+    @Test
+    void concurrentRequestsOnOneNodeShareTheInitiation() {
+        when(values.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(true);
+        CompletableFuture<String> gateway = new CompletableFuture<>();
+        when(sePayService.createPaymentUrlAsync(any(), anyString(), anyString(), any(), any(), any(), any())).thenReturn(gateway);
+
+        CompletableFuture<PaymentInitiationResultVM> first = paymentService.initiatePaymentAsync(request(), "https://return", "127.0.0.1");
+        CompletableFuture<PaymentInitiationResultVM> second = paymentService.initiatePaymentAsync(request(), "https://return", "127.0.0.1");
+
+        assertThat(second).isSameAs(first);
+        verify(sePayService, times(1)).createPaymentUrlAsync(any(), anyString(), anyString(), any(), any(), any(), any());
+        verify(paymentTransactionRepository, times(1)).save(any());
+    }
+
+    @Test
+    void initiationInProgressOnAnotherNodeIsRejected() {
+        when(values.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(false);
+
+        assertThatThrownBy(() -> paymentService.initiatePayment(request(), "https://return", "127.0.0.1"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("already in progress");
+        verify(paymentTransactionRepository, never()).save(any());
+    }
+
+    @Test
+    void lockIsReleasedByCompareAndDelete() {
+        when(values.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(true);
+        when(sePayService.createPaymentUrlAsync(any(), anyString(), anyString(), any(), any(), any(), any())).thenReturn(
+            CompletableFuture.failedFuture(new RuntimeException("Unable to connect to SePay service"))
+        );
+
+        assertThatThrownBy(() -> paymentService.initiatePayment(request(), "https://return", "127.0.0.1")).isInstanceOf(
+            RuntimeException.class
+        );
+
+        verify(redis).execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), anyString());
+        verify(redis, never()).delete(LOCK_KEY);
+    }
+
+    private static InitiatePaymentRequestVM request() {
+        return new InitiatePaymentRequestVM(BOOKING_ID, PaymentMethod.SEPAY);
+    }
+
+    private PaymentTransaction initiated() {
+        PaymentTransaction transaction = new PaymentTransaction();
+        transaction.setId(21L);
+        transaction.setTransactionId("TXN-OLD");
+        transaction.setOrderRef("BK-11");
+        transaction.setMethod(PaymentMethod.SEPAY);
+        transaction.setStatus(PaymentStatus.INITIATED);
+        transaction.setBooking(booking);
+        return transaction;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ridehub.booking.service.keyset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.ridehub.booking.domain.Booking;
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsTypedKeys() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("createdAt", Instant.parse("2026-10-19T08:15:30.123Z"));
+        keys.put("status", BookingStatus.CONFIRMED);
+        keys.put("totalAmount", new BigDecimal("125000.50"));
+        keys.put("customerId", UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e"));
+        keys.put("bookingCode", "BK&=/ 1");
+        keys.put("id", 42L);
+
+        String cursor = KeysetCursor.encode(keys);
+
+        assertThat(cursor).doesNotContain("createdAt").matches("[A-Za-z0-9_-]+");
+        assertThat(KeysetCursor.decode(cursor, Booking.class, List.copyOf(keys.keySet()))).containsExactlyEntriesOf(keys);
+    }
+
+    @Test
+    void rejectsCursorOfAnotherSort() {
+        String cursor = KeysetCursor.encode(Map.of("id", 42L));
+
+        assertThatIllegalArgumentException().isThrownBy(() -> KeysetCursor.decode(cursor, Booking.class, List.of("createdAt", "id")));
+    }
+
+    @Test
+    void rejectsTamperedCursor() {
+        assertThatIllegalArgumentException().isThrownBy(() -> KeysetCursor.decode("not a cursor!", Booking.class, List.of("id")));
+        String badValue = KeysetCursor.encode(Map.of("id", "abc"));
+        assertThatIllegalArgumentException().isThrownBy(() -> KeysetCursor.decode(badValue, Booking.class, List.of("id")));
+    }
+}
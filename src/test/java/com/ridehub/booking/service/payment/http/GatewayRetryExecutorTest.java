@@ -0,0 +1,127 @@
+package com.ridehub.booking.service.payment.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GatewayRetryExecutorTest {
+
+    private GatewayHttpClients gatewayHttpClients;
+    private GatewayRetryExecutor executor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        gatewayHttpClients = mock(GatewayHttpClients.class);
+        when(gatewayHttpClients.executeAsync(any(), anyString(), any())).thenAnswer(invocation ->
+            ((Supplier<CompletableFuture<?>>) invocation.getArgument(2)).get()
+        );
+        when(gatewayHttpClients.latencyPercentile(any(), anyString(), anyDouble())).thenReturn(-1L);
+        executor = new GatewayRetryExecutor(gatewayHttpClients);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void retryableFailuresAreRetriedUntilOneSucceeds() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> result = executor.execute(GatewayProvider.SEPAY, "checkout", retries(3, false), () ->
+                calls.incrementAndGet() < 3 ? CompletableFuture.failedFuture(new ConnectException("refused")) : done("ok"),
+            GatewayFailures::isConnectFailure
+        );
+
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void lastFailureIsReportedOnceAttemptsRunOut() {
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> result = executor.execute(GatewayProvider.SEPAY, "checkout", retries(3, false), () -> {
+                calls.incrementAndGet();
+                return CompletableFuture.failedFuture(new ConnectException("refused " + calls.get()));
+            },
+            GatewayFailures::isConnectFailure
+        );
+
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(ConnectException.class)
+            .hasRootCauseMessage("refused 3");
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void nonRetryableFailureIsNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> result = executor.execute(GatewayProvider.SEPAY, "checkout", retries(3, false), () -> {
+                calls.incrementAndGet();
+                return CompletableFuture.failedFuture(new GatewayBulkheadFullException(GatewayProvider.SEPAY));
+            },
+            GatewayFailures::isConnectFailure
+        );
+
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(GatewayBulkheadFullException.class);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void slowCallIsHedgedAfterTheHedgeDelay() throws Exception {
+        CompletableFuture<String> stuck = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+        long started = System.nanoTime();
+
+        CompletableFuture<String> result = executor.execute(GatewayProvider.SEPAY, "checkout", retries(1, true), () ->
+                calls.incrementAndGet() == 1 ? stuck : done("hedge"),
+            GatewayFailures::isConnectFailure
+        );
+
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("hedge");
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+        verify(gatewayHttpClients).executeAsync(eq(GatewayProvider.SEPAY), eq("checkout-hedge"), any());
+    }
+
+    @Test
+    void fastCallIsNotHedged() throws Exception {
+        CompletableFuture<String> result = executor.execute(GatewayProvider.SEPAY, "checkout", retries(1, true), () -> done("ok"),
+            GatewayFailures::isConnectFailure
+        );
+
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+        TimeUnit.MILLISECONDS.sleep(400);
+        verify(gatewayHttpClients, never()).executeAsync(any(), eq("checkout-hedge"), any());
+    }
+
+    private static GatewayRetryPolicy retries(int maxAttempts, boolean hedge) {
+        return new GatewayRetryPolicy(maxAttempts, Duration.ofMillis(10), Duration.ofMillis(50), 0.5, hedge, 0.95,
+            Duration.ofMillis(200));
+    }
+
+    private static CompletableFuture<String> done(String value) {
+        return CompletableFuture.completedFuture(value);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ridehub.booking.service.payment.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class GatewayRetryPolicyTest {
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        GatewayRetryPolicy policy = policy(0.0);
+
+        assertThat(policy.backoff(1)).isEqualTo(Duration.ofMillis(100));
+        assertThat(policy.backoff(2)).isEqualTo(Duration.ofMillis(200));
+        assertThat(policy.backoff(3)).isEqualTo(Duration.ofMillis(400));
+        assertThat(policy.backoff(4)).isEqualTo(Duration.ofMillis(800));
+        assertThat(policy.backoff(5)).isEqualTo(Duration.ofMillis(1000));
+        assertThat(policy.backoff(40)).isEqualTo(Duration.ofMillis(1000));
+    }
+
+    @Test
+    void jitterOnlyShortensTheDelayByItsFraction() {
+        GatewayRetryPolicy policy = policy(0.5);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(policy.backoff(2).toMillis()).isBetween(100L, 200L);
+            assertThat(policy.backoff(10).toMillis()).isBetween(500L, 1000L);
+        }
+    }
+
+    @Test
+    void settingsAreClampedToSaneValues() {
+        GatewayRetryPolicy policy = new GatewayRetryPolicy(0, Duration.ofMillis(100), Duration.ofMillis(1000), 3.0, false, 0.95,
+            Duration.ZERO);
+
+        assertThat(policy.getMaxAttempts()).isEqualTo(1);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(policy.backoff(1).toMillis()).isBetween(0L, 100L);
+        }
+    }
+
+    private static GatewayRetryPolicy policy(double jitter) {
+        return new GatewayRetryPolicy(4, Duration.ofMillis(100), Duration.ofMillis(1000), jitter, false, 0.95, Duration.ZERO);
+    }
+}
@@ -0,0 +1,40 @@
+package com.ridehub.booking.service.payment.reconciliation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedLineReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReadLinesSpanningWindowBoundaries() throws Exception {
+        Path file = tempDir.resolve("lines.csv");
+        Files.write(file, new byte[] { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF });
+        Files.writeString(file, "header,x\r\nmột,1\r\n\r\nlonger line than the window,2\nlast", StandardCharsets.UTF_8, java.nio.file.StandardOpenOption.APPEND);
+
+        for (int window : new int[] { 1, 3, 7, 1024 }) {
+            List<String> lines = new ArrayList<>();
+            long count = MappedLineReader.forEachLine(file, window, (n, line) -> lines.add(n + ":" + line));
+
+            assertThat(count).isEqualTo(5);
+            assertThat(lines).containsExactly("0:header,x", "1:một,1", "2:", "3:longer line than the window,2", "4:last");
+        }
+    }
+
+    @Test
+    void shouldReadEmptyFile() throws Exception {
+        Path file = tempDir.resolve("empty.csv");
+        Files.createFile(file);
+
+        assertThat(MappedLineReader.forEachLine(file, 16, (n, line) -> {})).isZero();
+    }
+}
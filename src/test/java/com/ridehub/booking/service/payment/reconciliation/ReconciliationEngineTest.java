@@ -0,0 +1,138 @@
+package com.ridehub.booking.service.payment.reconciliation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import java.io.BufferedWriter;
+import java.math.BigDecimal;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReconciliationEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReportMissingAmountStatusDuplicateAndUnparseableRows() throws Exception {
+        List<ReconciliationRecord> system = List.of(
+            new ReconciliationRecord(1, "TXN-0001", new BigDecimal("150000"), PaymentStatus.SUCCESS),
+            new ReconciliationRecord(2, "TXN-0002", new BigDecimal("200000"), PaymentStatus.SUCCESS),
+            new ReconciliationRecord(3, "TXN-0003", new BigDecimal("99000"), PaymentStatus.INITIATED),
+            new ReconciliationRecord(4, "TXN-0004", new BigDecimal("125000"), PaymentStatus.PROCESSING),
+            new ReconciliationRecord(5, "TXN-0006", new BigDecimal("50000"), PaymentStatus.SUCCESS),
+            new ReconciliationRecord(6, "TXN-0007", new BigDecimal("10000"), PaymentStatus.FAILED)
+        );
+        List<Mismatch> mismatches = new ArrayList<>();
+
+        ReconciliationSummary summary = new ReconciliationEngine(2, 16).reconcile(
+            sample("vnpay-statement.csv"),
+            StatementFormat.VNPAY,
+            loader(system),
+            mismatches::add
+        );
+
+        assertThat(summary.getStatementRows()).isEqualTo(7);
+        assertThat(summary.getSystemTransactions()).isEqualTo(6);
+        assertThat(summary.getMatched()).isEqualTo(3);
+        assertThat(summary.getPasses()).isEqualTo(4);
+        assertThat(describe(mismatches)).containsExactlyInAnyOrder(
+            "AMOUNT_DIFF:TXN-0004",
+            "STATUS_DIFF:TXN-0004",
+            "DUPLICATE_IN_STATEMENT:TXN-0002",
+            "MISSING_IN_STATEMENT:TXN-0006",
+            "MISSING_IN_SYSTEM:TXN-9999",
+            "UNPARSEABLE:TXN-0005"
+        );
+        Mismatch amountDiff = mismatches.stream().filter(m -> m.getType() == Mismatch.Type.AMOUNT_DIFF).findFirst().orElseThrow();
+        assertThat(amountDiff.getStatementAmount()).isEqualByComparingTo("120000");
+        assertThat(amountDiff.getSystemAmount()).isEqualByComparingTo("125000");
+        assertThat(amountDiff.getStatementLine()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldHandleQuotedFieldsAndBlankLines() throws Exception {
+        List<ReconciliationRecord> system = List.of(
+            new ReconciliationRecord(10, "TXN-1001", new BigDecimal("150000"), PaymentStatus.SUCCESS),
+            new ReconciliationRecord(11, "TXN-1002", new BigDecimal("200000"), PaymentStatus.FAILED),
+            new ReconciliationRecord(12, "TXN-1003", new BigDecimal("99000"), PaymentStatus.SUCCESS)
+        );
+        List<Mismatch> mismatches = new ArrayList<>();
+
+        ReconciliationSummary summary = new ReconciliationEngine(100, 1024).reconcile(
+            sample("sepay-statement.csv"),
+            StatementFormat.SEPAY,
+            loader(system),
+            mismatches::add
+        );
+
+        assertThat(mismatches).isEmpty();
+        assertThat(summary.getStatementRows()).isEqualTo(3);
+        assertThat(summary.getMatched()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRejectStatementWithoutRequiredColumns() throws Exception {
+        Path statement = tempDir.resolve("bad.csv");
+        Files.writeString(statement, "foo,bar\n1,2\n");
+
+        assertThatThrownBy(() -> new ReconciliationEngine(10, 1024).reconcile(statement, StatementFormat.SEPAY, loader(List.of()), m -> {}))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("order_invoice_number");
+    }
+
+    @Test
+    void shouldReconcileLargeStatementAcrossManyBatchesAndWindows() throws Exception {
+        int rows = 20_000;
+        Path statement = tempDir.resolve("large.csv");
+        List<ReconciliationRecord> system = new ArrayList<>(rows);
+        try (BufferedWriter writer = Files.newBufferedWriter(statement)) {
+            writer.write("order_invoice_number,order_amount,status\n");
+            for (int i = 1; i <= rows; i++) {
+                String id = "TXN-" + String.format("%08d", i);
+                writer.write(id + "," + (1000 + i) + ",SUCCESS\n");
+                system.add(new ReconciliationRecord(i, id, BigDecimal.valueOf(1000 + i), PaymentStatus.SUCCESS));
+            }
+        }
+
+        List<Mismatch> mismatches = new ArrayList<>();
+        ReconciliationSummary summary = new ReconciliationEngine(1_000, 4096).reconcile(
+            statement,
+            StatementFormat.SEPAY,
+            loader(system),
+            mismatches::add
+        );
+
+        assertThat(mismatches).isEmpty();
+        assertThat(summary.getStatementRows()).isEqualTo(rows);
+        assertThat(summary.getMatched()).isEqualTo(rows);
+        assertThat(summary.getPasses()).isEqualTo(21);
+    }
+
+    @Test
+    void shouldSplitCsvWithQuotes() {
+        List<String> fields = new ArrayList<>();
+        ReconciliationEngine.splitCsv("a,\"b,c\",\"d \"\"e\"\"\",", fields);
+        assertThat(fields).containsExactly("a", "b,c", "d \"e\"", "");
+    }
+
+    private static ReconciliationEngine.TransactionPageLoader loader(List<ReconciliationRecord> system) {
+        return (afterId, limit) -> system.stream().filter(r -> r.getId() > afterId).limit(limit).collect(Collectors.toList());
+    }
+
+    private static List<String> describe(List<Mismatch> mismatches) {
+        return mismatches.stream().map(m -> m.getType() + ":" + m.getTransactionId()).collect(Collectors.toList());
+    }
+
+    private static Path sample(String name) throws URISyntaxException {
+        return Paths.get(ReconciliationEngineTest.class.getResource("/reconciliation/" + name).toURI());
+    }
+}
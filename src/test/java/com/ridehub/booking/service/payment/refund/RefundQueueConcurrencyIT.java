@@ -0,0 +1,201 @@
+package com.ridehub.booking.service.payment.refund;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ridehub.booking.IntegrationTest;
+import com.ridehub.booking.domain.Booking;
+import com.ridehub.booking.domain.PaymentTransaction;
+import com.ridehub.booking.domain.Ticket;
+import com.ridehub.booking.domain.enumeration.AvroTicketStatus;
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.domain.enumeration.PaymentMethod;
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Concurrent enqueues of {@link RefundQueueService} against one payment, each in its own committed transaction:
+ * the payment row lock lets only one of them queue a job.
+ */
+@IntegrationTest
+class RefundQueueConcurrencyIT {
+
+    private static final BigDecimal PAYMENT_AMOUNT = new BigDecimal("300000");
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RefundQueueService refundQueueService;
+
+    private TransactionTemplate transactionTemplate;
+    private Long transactionId;
+    private Long bookingId;
+    private Long ticketId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            PaymentTransaction transaction = new PaymentTransaction()
+                .transactionId("TX" + code())
+                .orderRef("ORDER-" + code())
+                .method(PaymentMethod.VNPAY)
+                .status(PaymentStatus.SUCCESS)
+                .amount(PAYMENT_AMOUNT)
+                .createdAt(Instant.now());
+            em.persist(transaction);
+            Booking booking = new Booking()
+                .bookingCode("B" + code())
+                .status(BookingStatus.CONFIRMED)
+                .quantity(1)
+                .totalAmount(PAYMENT_AMOUNT)
+                .bookedAt(Instant.now())
+                .tripId(1L)
+                .createdAt(Instant.now())
+                .paymentTransaction(transaction);
+            em.persist(booking);
+            Ticket ticket = new Ticket()
+                .ticketCode("T" + code())
+                .price(PAYMENT_AMOUNT)
+                .status(AvroTicketStatus.BOOKED)
+                .tripId(1L)
+                .routeId(1L)
+                .seatId(1L)
+                .createdAt(Instant.now())
+                .booking(booking);
+            em.persist(ticket);
+            transactionId = transaction.getId();
+            bookingId = booking.getId();
+            ticketId = ticket.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createNativeQuery("DELETE FROM refund_job WHERE payment_transaction_id = :id").setParameter("id", transactionId).executeUpdate();
+            em.createNativeQuery("DELETE FROM ticket WHERE id = :id").setParameter("id", ticketId).executeUpdate();
+            em.createNativeQuery("DELETE FROM booking WHERE id = :id").setParameter("id", bookingId).executeUpdate();
+            em.createNativeQuery("DELETE FROM payment_transaction WHERE id = :id").setParameter("id", transactionId).executeUpdate();
+        });
+    }
+
+    @Test
+    void concurrentTransactionRefundsQueueOneJob() throws Exception {
+        race(() ->
+            enqueueQuietly(service ->
+                service.enqueueTransactionRefund(em.find(PaymentTransaction.class, transactionId), null, "Admin", RefundQueueService.SOURCE_ADMIN)
+            )
+        );
+
+        assertThat(jobCount()).isEqualTo(1);
+    }
+
+    @Test
+    void adminRefundRacingTheTripCancellationQueuesOneJob() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> admin = executor.submit(() -> {
+                await(start);
+                enqueueQuietly(service ->
+                    service.enqueueTransactionRefund(em.find(PaymentTransaction.class, transactionId), null, "Admin", RefundQueueService.SOURCE_ADMIN)
+                );
+            });
+            Future<?> trip = executor.submit(() -> {
+                await(start);
+                enqueueQuietly(service -> service.enqueueTransactionRefunds(List.of(transactionId), "Trip canceled", "trip-cancel:1"));
+            });
+            start.countDown();
+            admin.get(30, TimeUnit.SECONDS);
+            trip.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(jobCount()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentTicketRefundsQueueOneJob() throws Exception {
+        race(() ->
+            enqueueQuietly(service -> service.enqueueTicketRefund(em.find(Ticket.class, ticketId), null, "Changed plans", RefundQueueService.SOURCE_TICKET))
+        );
+
+        assertThat(jobCount()).isEqualTo(1);
+    }
+
+    /**
+     * Run {@code enqueue} on two threads released at the same moment and wait for both.
+     */
+    private void race(Runnable enqueue) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> {
+                await(start);
+                enqueue.run();
+            });
+            Future<?> second = executor.submit(() -> {
+                await(start);
+                enqueue.run();
+            });
+            start.countDown();
+            first.get(30, TimeUnit.SECONDS);
+            second.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Enqueue in a transaction of its own; the loser of a race is rejected, which is expected here.
+     */
+    private void enqueueQuietly(Consumer<RefundQueueService> enqueue) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> enqueue.accept(refundQueueService));
+        } catch (IllegalStateException e) {
+            // Refund already in progress or nothing left to refund
+        }
+    }
+
+    private long jobCount() {
+        return transactionTemplate.execute(status ->
+            ((Number) em
+                    .createNativeQuery("SELECT COUNT(*) FROM refund_job WHERE payment_transaction_id = :id")
+                    .setParameter("id", transactionId)
+                    .getSingleResult()).longValue()
+        );
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String code() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 20);
+    }
+}
@@ -0,0 +1,132 @@
+package com.ridehub.booking.service.payment.refund;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.ridehub.booking.IntegrationTest;
+import com.ridehub.booking.domain.Booking;
+import com.ridehub.booking.domain.PaymentTransaction;
+import com.ridehub.booking.domain.RefundJob;
+import com.ridehub.booking.domain.Ticket;
+import com.ridehub.booking.domain.enumeration.AvroTicketStatus;
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.domain.enumeration.PaymentMethod;
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import com.ridehub.booking.domain.enumeration.RefundJobStatus;
+import com.ridehub.booking.repository.RefundJobRepository;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Ticket and whole-transaction refunds of {@link RefundQueueService} against the database: together they never
+ * queue more than the payment amount.
+ */
+@IntegrationTest
+@Transactional
+class RefundQueueServiceIT {
+
+    private static final BigDecimal PAYMENT_AMOUNT = new BigDecimal("300000");
+    private static final BigDecimal TICKET_PRICE = new BigDecimal("100000");
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private RefundJobRepository refundJobRepository;
+
+    @Autowired
+    private RefundQueueService refundQueueService;
+
+    private PaymentTransaction transaction;
+    private Ticket ticket;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new PaymentTransaction()
+            .transactionId("TX" + code())
+            .orderRef("ORDER-" + code())
+            .method(PaymentMethod.VNPAY)
+            .status(PaymentStatus.SUCCESS)
+            .amount(PAYMENT_AMOUNT)
+            .createdAt(Instant.now());
+        em.persist(transaction);
+        Booking booking = new Booking()
+            .bookingCode("B" + code())
+            .status(BookingStatus.CONFIRMED)
+            .quantity(3)
+            .totalAmount(PAYMENT_AMOUNT)
+            .bookedAt(Instant.now())
+            .tripId(1L)
+            .createdAt(Instant.now())
+            .paymentTransaction(transaction);
+        em.persist(booking);
+        ticket = new Ticket()
+            .ticketCode("T" + code())
+            .price(TICKET_PRICE)
+            .status(AvroTicketStatus.BOOKED)
+            .tripId(1L)
+            .routeId(1L)
+            .seatId(1L)
+            .createdAt(Instant.now())
+            .booking(booking);
+        em.persist(ticket);
+        em.flush();
+    }
+
+    @Test
+    void transactionRefundLeavesOutTicketsRefundedOnTheirOwn() {
+        RefundJob ticketJob = refundQueueService.enqueueTicketRefund(ticket, null, "Changed plans", RefundQueueService.SOURCE_TICKET);
+        complete(ticketJob);
+
+        RefundJob transactionJob = refundQueueService.enqueueTransactionRefund(transaction, null, "Admin", RefundQueueService.SOURCE_ADMIN);
+
+        assertThat(transactionJob.getAmount()).isEqualByComparingTo(PAYMENT_AMOUNT.subtract(TICKET_PRICE));
+    }
+
+    @Test
+    void openTicketRefundIsLeftOutAndRequestedAmountIsCapped() {
+        refundQueueService.enqueueTicketRefund(ticket, null, "Changed plans", RefundQueueService.SOURCE_TICKET);
+
+        RefundJob transactionJob = refundQueueService.enqueueTransactionRefund(
+            transaction,
+            PAYMENT_AMOUNT,
+            "Admin",
+            RefundQueueService.SOURCE_ADMIN
+        );
+
+        assertThat(transactionJob.getAmount()).isEqualByComparingTo(PAYMENT_AMOUNT.subtract(TICKET_PRICE));
+    }
+
+    @Test
+    void fullyRefundedTransactionIsRejected() {
+        complete(refundQueueService.enqueueTicketRefund(ticket, null, "Changed plans", RefundQueueService.SOURCE_TICKET));
+        complete(refundQueueService.enqueueTransactionRefund(transaction, null, "Admin", RefundQueueService.SOURCE_ADMIN));
+
+        assertThatThrownBy(() -> refundQueueService.enqueueTransactionRefund(transaction, null, "Again", RefundQueueService.SOURCE_ADMIN))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Nothing left to refund");
+    }
+
+    @Test
+    void ticketOfARefundedTransactionIsRejected() {
+        refundQueueService.enqueueTransactionRefund(transaction, null, "Admin", RefundQueueService.SOURCE_ADMIN);
+
+        assertThat(refundQueueService.checkTicketRefund(ticket)).contains("already refunded");
+    }
+
+    private void complete(RefundJob job) {
+        job.setStatus(RefundJobStatus.COMPLETED);
+        job.setCompletedAt(Instant.now());
+        refundJobRepository.saveAndFlush(job);
+    }
+
+    private static String code() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 20);
+    }
+}
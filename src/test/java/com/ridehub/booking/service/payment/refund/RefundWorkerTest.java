@@ -0,0 +1,209 @@
+package com.ridehub.booking.service.payment.refund;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ridehub.booking.domain.RefundJob;
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import com.ridehub.booking.domain.enumeration.RefundJobStatus;
+import com.ridehub.booking.repository.PaymentTransactionRepository;
+import com.ridehub.booking.repository.RefundJobRepository;
+import com.ridehub.booking.repository.TicketRepository;
+import com.ridehub.booking.service.PaymentGatewayService;
+import com.ridehub.booking.service.cluster.ShardAssignment;
+import com.ridehub.booking.service.cluster.ShardLeaseManager;
+import com.ridehub.booking.service.state.StatusTransitionService;
+import com.ridehub.booking.service.ticket.TicketLookupCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class RefundWorkerTest {
+
+    private RefundJobRepository refundJobRepository;
+    private PaymentTransactionRepository paymentTransactionRepository;
+    private PaymentGatewayService paymentGatewayService;
+    private StatusTransitionService statusTransitionService;
+    private RefundWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        refundJobRepository = mock(RefundJobRepository.class);
+        paymentTransactionRepository = mock(PaymentTransactionRepository.class);
+        paymentGatewayService = mock(PaymentGatewayService.class);
+        statusTransitionService = mock(StatusTransitionService.class);
+        ShardLeaseManager shardLeaseManager = mock(ShardLeaseManager.class);
+        when(shardLeaseManager.assignment(RefundWorker.REFUND_JOB)).thenReturn(ShardAssignment.all(RefundWorker.REFUND_SHARDS));
+        when(refundJobRepository.claim(anyLong(), any(), any(), any())).thenReturn(1);
+
+        worker = new RefundWorker(
+            refundJobRepository,
+            mock(TicketRepository.class),
+            paymentTransactionRepository,
+            paymentGatewayService,
+            new RefundConfig(),
+            shardLeaseManager,
+            mock(TicketLookupCache.class),
+            statusTransitionService,
+            mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    @Test
+    void submissionWithoutAnswerIsLookedUpBeforeResubmitting() {
+        RefundJob job = due(job(RefundJobStatus.QUEUED, null));
+        when(paymentGatewayService.processRefund(any(), any(), any(), any())).thenReturn(
+            PaymentGatewayService.RefundResult.outcomeUnknown("Read timed out")
+        );
+
+        worker.processRefundQueue();
+
+        verify(paymentGatewayService).processRefund("ORDER-7", new BigDecimal("150000"), "Trip canceled", "refund-job-7");
+        RefundJob saved = saved();
+        assertThat(saved.getStatus()).isEqualTo(RefundJobStatus.SUBMITTED);
+        assertThat(saved.getGatewayRefundId()).isNull();
+        assertThat(saved.getAttempts()).isEqualTo(1);
+        assertThat(job.getNextAttemptAt()).isAfter(Instant.now());
+    }
+
+    @Test
+    void submissionTheGatewayNeverReceivedIsQueuedAgain() {
+        due(job(RefundJobStatus.SUBMITTED, null));
+        when(paymentGatewayService.checkRefundStatus("refund-job-7")).thenReturn(
+            new PaymentGatewayService.RefundStatus("refund-job-7", PaymentGatewayService.RefundStatus.NOT_FOUND, null)
+        );
+
+        worker.processRefundQueue();
+
+        assertThat(saved().getStatus()).isEqualTo(RefundJobStatus.QUEUED);
+        verify(paymentGatewayService, never()).processRefund(any(), any(), any(), any());
+    }
+
+    @Test
+    void submissionTheGatewayReceivedIsFollowed() {
+        due(job(RefundJobStatus.SUBMITTED, null));
+        when(paymentGatewayService.checkRefundStatus("refund-job-7")).thenReturn(
+            new PaymentGatewayService.RefundStatus("RF-1", "PROCESSING", new BigDecimal("150000"))
+        );
+
+        worker.processRefundQueue();
+
+        RefundJob saved = saved();
+        assertThat(saved.getStatus()).isEqualTo(RefundJobStatus.SUBMITTED);
+        assertThat(saved.getGatewayRefundId()).isEqualTo("RF-1");
+    }
+
+    @Test
+    void paymentConflictDoesNotUndoTheCompletedRefund() {
+        due(job(RefundJobStatus.SUBMITTED, "RF-1"));
+        when(paymentGatewayService.checkRefundStatus("RF-1")).thenReturn(
+            new PaymentGatewayService.RefundStatus("RF-1", "COMPLETED", new BigDecimal("150000"))
+        );
+        PaymentTransactionRepository.StatusVersionView current = mock(PaymentTransactionRepository.StatusVersionView.class);
+        when(current.getStatus()).thenReturn(PaymentStatus.SUCCESS);
+        when(paymentTransactionRepository.findStatusAndVersion(70L)).thenReturn(Optional.of(current));
+        refunded(new BigDecimal("150000"), new BigDecimal("150000"));
+        when(statusTransitionService.transitionPayment(70L, PaymentStatus.SUCCESS, PaymentStatus.REFUNDED)).thenReturn(false);
+
+        worker.processRefundQueue();
+
+        assertThat(saved().getStatus()).isEqualTo(RefundJobStatus.COMPLETED);
+        verify(statusTransitionService).transitionPayment(70L, PaymentStatus.SUCCESS, PaymentStatus.REFUNDED);
+    }
+
+    @Test
+    void partlyRefundedPaymentIsNotMarkedRefunded() {
+        RefundJob job = job(RefundJobStatus.SUBMITTED, "RF-1");
+        job.setTicketId(700L);
+        due(job);
+        when(paymentGatewayService.checkRefundStatus("RF-1")).thenReturn(
+            new PaymentGatewayService.RefundStatus("RF-1", "COMPLETED", new BigDecimal("150000"))
+        );
+        PaymentTransactionRepository.StatusVersionView current = mock(PaymentTransactionRepository.StatusVersionView.class);
+        when(current.getStatus()).thenReturn(PaymentStatus.SUCCESS);
+        when(paymentTransactionRepository.findStatusAndVersion(70L)).thenReturn(Optional.of(current));
+        refunded(new BigDecimal("450000"), new BigDecimal("150000"));
+
+        worker.processRefundQueue();
+
+        assertThat(saved().getStatus()).isEqualTo(RefundJobStatus.COMPLETED);
+        verify(statusTransitionService, never()).transitionPayment(anyLong(), any(), any());
+    }
+
+    @Test
+    void lastTicketRefundMarksThePaymentRefunded() {
+        RefundJob job = job(RefundJobStatus.SUBMITTED, "RF-1");
+        job.setTicketId(700L);
+        due(job);
+        when(paymentGatewayService.checkRefundStatus("RF-1")).thenReturn(
+            new PaymentGatewayService.RefundStatus("RF-1", "COMPLETED", new BigDecimal("150000"))
+        );
+        PaymentTransactionRepository.StatusVersionView current = mock(PaymentTransactionRepository.StatusVersionView.class);
+        when(current.getStatus()).thenReturn(PaymentStatus.SUCCESS);
+        when(paymentTransactionRepository.findStatusAndVersion(70L)).thenReturn(Optional.of(current));
+        refunded(new BigDecimal("450000"), new BigDecimal("450000"));
+        when(statusTransitionService.transitionPayment(70L, PaymentStatus.SUCCESS, PaymentStatus.REFUNDED)).thenReturn(true);
+
+        worker.processRefundQueue();
+
+        verify(statusTransitionService).transitionPayment(70L, PaymentStatus.SUCCESS, PaymentStatus.REFUNDED);
+    }
+
+    private void refunded(BigDecimal paymentAmount, BigDecimal completedAmount) {
+        when(paymentTransactionRepository.findAmountById(70L)).thenReturn(Optional.of(paymentAmount));
+        when(refundJobRepository.sumAmountByPaymentTransactionIdAndStatusIn(70L, List.of(RefundJobStatus.COMPLETED))).thenReturn(
+            completedAmount
+        );
+    }
+
+    private RefundJob due(RefundJob job) {
+        when(refundJobRepository.findDue(eq(job.getStatus()), any(), anyInt(), anyCollection(), any(Pageable.class))).thenReturn(
+            List.of(job)
+        );
+        when(refundJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        return job;
+    }
+
+    private RefundJob saved() {
+        ArgumentCaptor<RefundJob> captor = ArgumentCaptor.forClass(RefundJob.class);
+        verify(refundJobRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private static RefundJob job(RefundJobStatus status, String gatewayRefundId) {
+        RefundJob job = new RefundJob();
+        job.setId(7L);
+        job.setPaymentTransactionId(70L);
+        job.setProvider("VNPAY");
+        job.setOrderRef("ORDER-7");
+        job.setAmount(new BigDecimal("150000"));
+        job.setReason("Trip canceled");
+        job.setStatus(status);
+        job.setGatewayRefundId(gatewayRefundId);
+        job.setAttempts(0);
+        job.setNextAttemptAt(Instant.now());
+        return job;
+    }
+}
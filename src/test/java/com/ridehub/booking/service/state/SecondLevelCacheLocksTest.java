@@ -0,0 +1,88 @@
+package com.ridehub.booking.service.state;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ridehub.booking.domain.Booking;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.ActionQueue;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.metamodel.mapping.EntityMappingType;
+import org.hibernate.metamodel.spi.MappingMetamodelImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class SecondLevelCacheLocksTest {
+
+    private SessionImplementor session;
+    private EntityPersister persister;
+    private EntityDataAccess cache;
+    private ActionQueue actionQueue;
+    private SecondLevelCacheLocks locks;
+
+    @BeforeEach
+    void setUp() {
+        session = mock(SessionImplementor.class);
+        SessionFactoryImplementor factory = mock(SessionFactoryImplementor.class);
+        MappingMetamodelImplementor metamodel = mock(MappingMetamodelImplementor.class);
+        persister = mock(EntityPersister.class);
+        EntityMappingType root = mock(EntityMappingType.class);
+        cache = mock(EntityDataAccess.class);
+        actionQueue = mock(ActionQueue.class);
+
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(SessionImplementor.class)).thenReturn(session);
+        when(session.getFactory()).thenReturn(factory);
+        when(session.getActionQueue()).thenReturn(actionQueue);
+        when(factory.getMappingMetamodel()).thenReturn(metamodel);
+        when(metamodel.getEntityDescriptor(Booking.class)).thenReturn(persister);
+        when(persister.getRootEntityDescriptor()).thenReturn(root);
+        when(root.getEntityPersister()).thenReturn(persister);
+        when(persister.getCacheAccessStrategy()).thenReturn(cache);
+        when(cache.generateCacheKey(any(), any(), any(), isNull())).thenAnswer(invocation -> "key-" + invocation.getArgument(0));
+
+        locks = new SecondLevelCacheLocks(entityManager);
+    }
+
+    @Test
+    void updatedRowsAreLockedUntilTheTransactionCompletes() {
+        when(persister.canWriteToCache()).thenReturn(true);
+        SoftLock lock1 = mock(SoftLock.class);
+        SoftLock lock2 = mock(SoftLock.class);
+        when(cache.lockItem(session, "key-1", null)).thenReturn(lock1);
+        when(cache.lockItem(session, "key-2", null)).thenReturn(lock2);
+
+        locks.lockForUpdate(Booking.class, List.of(1L, 2L));
+
+        verify(cache, never()).unlockItem(any(), any(), any());
+        ArgumentCaptor<AfterTransactionCompletionProcess> processes = ArgumentCaptor.forClass(AfterTransactionCompletionProcess.class);
+        verify(actionQueue, times(2)).registerProcess(processes.capture());
+        processes.getAllValues().forEach(process -> process.doAfterTransactionCompletion(true, session));
+        verify(cache).unlockItem(session, "key-1", lock1);
+        verify(cache).unlockItem(session, "key-2", lock2);
+        // Only the touched keys, never the region
+        verify(cache, never()).removeAll(any());
+    }
+
+    @Test
+    void uncachedEntitiesAreLeftAlone() {
+        when(persister.canWriteToCache()).thenReturn(false);
+
+        locks.lockForUpdate(Booking.class, List.of(1L));
+
+        verify(cache, never()).lockItem(any(), any(), any());
+        verify(actionQueue, never()).registerProcess(any(AfterTransactionCompletionProcess.class));
+    }
+}
@@ -0,0 +1,109 @@
+package com.ridehub.booking.service.state;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ridehub.booking.IntegrationTest;
+import com.ridehub.booking.domain.Booking;
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.repository.BookingRepository;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Versioned conditional updates of {@link StatusTransitionService} against the database: a writer holding a
+ * stale version loses instead of overwriting the row.
+ */
+@IntegrationTest
+@Transactional
+class StatusTransitionServiceIT {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private StatusTransitionService statusTransitionService;
+
+    @Test
+    void currentVersionIsMoved() {
+        Booking booking = detached(persistBooking());
+        Long version = booking.getVersion();
+
+        assertThat(statusTransitionService.transition(booking, BookingStatus.CONFIRMED)).isTrue();
+
+        assertThat(booking.getStatus()).isEqualTo(BookingStatus.CONFIRMED);
+        assertThat(booking.getVersion()).isEqualTo(version + 1);
+        Booking row = reload(booking.getId());
+        assertThat(row.getStatus()).isEqualTo(BookingStatus.CONFIRMED);
+        assertThat(row.getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    void staleVersionIsAConflictAndLeavesTheRowUnchanged() {
+        Long id = persistBooking();
+        Booking stale = detached(id);
+        Long staleVersion = stale.getVersion();
+
+        // Another writer changes the booking after it was read
+        Booking other = em.find(Booking.class, id);
+        other.setQuantity(2);
+        em.flush();
+        em.clear();
+
+        assertThat(bookingRepository.updateStatusIfCurrent(id, BookingStatus.AWAITING_PAYMENT.name(), staleVersion,
+            BookingStatus.CONFIRMED.name(), Instant.now())).isZero();
+        assertThat(statusTransitionService.transition(stale, BookingStatus.CONFIRMED)).isFalse();
+
+        assertThat(stale.getStatus()).isEqualTo(BookingStatus.AWAITING_PAYMENT);
+        assertThat(stale.getVersion()).isEqualTo(staleVersion);
+        Booking row = reload(id);
+        assertThat(row.getStatus()).isEqualTo(BookingStatus.AWAITING_PAYMENT);
+        assertThat(row.getVersion()).isEqualTo(staleVersion + 1);
+        assertThat(row.getQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    void statusChangedConcurrentlyIsAConflict() {
+        Long id = persistBooking();
+        Booking stale = detached(id);
+
+        assertThat(statusTransitionService.transitionBooking(id, BookingStatus.AWAITING_PAYMENT, BookingStatus.CANCELED)).isTrue();
+        em.clear();
+
+        assertThat(statusTransitionService.transition(stale, BookingStatus.CONFIRMED)).isFalse();
+        assertThat(reload(id).getStatus()).isEqualTo(BookingStatus.CANCELED);
+    }
+
+    private Long persistBooking() {
+        Booking booking = new Booking()
+            .bookingCode("B" + UUID.randomUUID().toString().replace("-", "").substring(0, 20))
+            .status(BookingStatus.AWAITING_PAYMENT)
+            .quantity(1)
+            .totalAmount(BigDecimal.TEN)
+            .bookedAt(Instant.now())
+            .tripId(1L)
+            .createdAt(Instant.now());
+        em.persist(booking);
+        em.flush();
+        em.clear();
+        return booking.getId();
+    }
+
+    private Booking detached(Long id) {
+        Booking booking = em.find(Booking.class, id);
+        em.detach(booking);
+        return booking;
+    }
+
+    private Booking reload(Long id) {
+        em.clear();
+        return em.find(Booking.class, id);
+    }
+}
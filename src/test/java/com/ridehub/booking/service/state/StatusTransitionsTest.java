@@ -0,0 +1,102 @@
+package com.ridehub.booking.service.state;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.ridehub.booking.domain.enumeration.BookingStatus;
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class StatusTransitionsTest {
+
+    private static final Map<BookingStatus, Set<BookingStatus>> LEGAL_BOOKING = Map.of(
+        BookingStatus.DRAFT,
+        EnumSet.of(BookingStatus.AWAITING_PAYMENT, BookingStatus.CANCELED),
+        BookingStatus.AWAITING_PAYMENT,
+        EnumSet.of(BookingStatus.PAID, BookingStatus.CONFIRMED, BookingStatus.CANCELED),
+        BookingStatus.PAID,
+        EnumSet.of(BookingStatus.CONFIRMED, BookingStatus.CANCELED, BookingStatus.REFUNDED),
+        BookingStatus.CONFIRMED,
+        EnumSet.of(BookingStatus.CANCELED, BookingStatus.REFUNDED, BookingStatus.RECOVERY_FAILED_SEAT_LOCKS),
+        BookingStatus.CANCELED,
+        EnumSet.of(BookingStatus.CONFIRMED),
+        BookingStatus.RECOVERY_FAILED_SEAT_LOCKS,
+        EnumSet.of(BookingStatus.CONFIRMED, BookingStatus.CANCELED, BookingStatus.REFUNDED),
+        BookingStatus.REFUNDED,
+        EnumSet.noneOf(BookingStatus.class)
+    );
+
+    private static final Map<PaymentStatus, Set<PaymentStatus>> LEGAL_PAYMENT = Map.of(
+        PaymentStatus.INITIATED,
+        EnumSet.of(
+            PaymentStatus.PROCESSING,
+            PaymentStatus.SUCCESS,
+            PaymentStatus.FAILED,
+            PaymentStatus.REFUNDED,
+            PaymentStatus.PAYMENT_SUCCESS_BUT_BOOKING_EXPIRED,
+            PaymentStatus.REQUIRES_MANUAL_REVIEW
+        ),
+        PaymentStatus.PROCESSING,
+        EnumSet.of(
+            PaymentStatus.SUCCESS,
+            PaymentStatus.FAILED,
+            PaymentStatus.REFUNDED,
+            PaymentStatus.PAYMENT_SUCCESS_BUT_BOOKING_EXPIRED,
+            PaymentStatus.REQUIRES_MANUAL_REVIEW
+        ),
+        PaymentStatus.SUCCESS,
+        EnumSet.of(PaymentStatus.REFUNDED),
+        PaymentStatus.PAYMENT_SUCCESS_BUT_BOOKING_EXPIRED,
+        EnumSet.of(PaymentStatus.SUCCESS, PaymentStatus.REFUNDED, PaymentStatus.REQUIRES_MANUAL_REVIEW),
+        PaymentStatus.REQUIRES_MANUAL_REVIEW,
+        EnumSet.of(PaymentStatus.SUCCESS, PaymentStatus.FAILED, PaymentStatus.REFUNDED),
+        PaymentStatus.FAILED,
+        EnumSet.noneOf(PaymentStatus.class),
+        PaymentStatus.REFUNDED,
+        EnumSet.noneOf(PaymentStatus.class)
+    );
+
+    @Test
+    void bookingTransitionsMatchTheStateMachine() {
+        for (BookingStatus from : BookingStatus.values()) {
+            Set<BookingStatus> legal = LEGAL_BOOKING.getOrDefault(from, Set.of());
+            for (BookingStatus to : BookingStatus.values()) {
+                assertThat(StatusTransitions.canTransition(from, to)).as("%s -> %s", from, to).isEqualTo(legal.contains(to));
+            }
+            assertThat(StatusTransitions.isTerminal(from)).as("%s terminal", from).isEqualTo(legal.isEmpty());
+        }
+    }
+
+    @Test
+    void paymentTransitionsMatchTheStateMachine() {
+        for (PaymentStatus from : PaymentStatus.values()) {
+            Set<PaymentStatus> legal = LEGAL_PAYMENT.getOrDefault(from, Set.of());
+            for (PaymentStatus to : PaymentStatus.values()) {
+                assertThat(StatusTransitions.canTransition(from, to)).as("%s -> %s", from, to).isEqualTo(legal.contains(to));
+            }
+            assertThat(StatusTransitions.isTerminal(from)).as("%s terminal", from).isEqualTo(legal.isEmpty());
+        }
+    }
+
+    @Test
+    void missingCurrentStatusAllowsNothing() {
+        assertThat(StatusTransitions.canTransition((BookingStatus) null, BookingStatus.CONFIRMED)).isFalse();
+        assertThat(StatusTransitions.canTransition((PaymentStatus) null, PaymentStatus.SUCCESS)).isFalse();
+    }
+
+    @Test
+    void illegalTransitionIsRejected() {
+        StatusTransitions.requireTransition(BookingStatus.AWAITING_PAYMENT, BookingStatus.CONFIRMED);
+        StatusTransitions.requireTransition(PaymentStatus.SUCCESS, PaymentStatus.REFUNDED);
+
+        assertThatThrownBy(() -> StatusTransitions.requireTransition(BookingStatus.REFUNDED, BookingStatus.CONFIRMED))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Illegal booking status transition REFUNDED -> CONFIRMED");
+        assertThatThrownBy(() -> StatusTransitions.requireTransition(PaymentStatus.FAILED, PaymentStatus.SUCCESS))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Illegal payment status transition FAILED -> SUCCESS");
+    }
+}
@@ -0,0 +1,116 @@
+package com.ridehub.booking.service.ticket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ridehub.booking.domain.enumeration.AvroTicketStatus;
+import com.ridehub.booking.service.dto.TicketDTO;
+import com.ridehub.booking.service.mapper.TicketMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * {@link TicketLookupCache} against a real Redis: an eviction and a fill from a lookup that read the database
+ * before the change, in either order, never leave the old ticket cached.
+ */
+class TicketLookupCacheIT {
+
+    private static final long TOMBSTONE_SECONDS = 1;
+
+    private static GenericContainer<?> container;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redis;
+
+    private TicketLookupCache cache;
+
+    @BeforeAll
+    static void startRedis() {
+        container = new GenericContainer<>("redis:8.0.0").withExposedPorts(6379);
+        container.start();
+        connectionFactory = new LettuceConnectionFactory(container.getHost(), container.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redis = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        connectionFactory.destroy();
+        container.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        cache = new TicketLookupCache(redis, objectMapper, mock(TicketMapper.class), new SimpleMeterRegistry(), 3600, TOMBSTONE_SECONDS);
+    }
+
+    @Test
+    void fillAfterTheEvictionDoesNotBringTheOldTicketBack() {
+        // A lookup misses and reads the ticket before a check-in commits
+        assertThat(cache.getTicket("TK-1")).isEmpty();
+        TicketDTO readBeforeCommit = ticket("TK-1", false);
+
+        // The check-in commits and evicts, then the lookup fills with what it read
+        cache.evictTickets(List.of("TK-1"));
+        cache.putTicket(readBeforeCommit);
+
+        assertThat(cache.getTicket("TK-1")).isEmpty();
+    }
+
+    @Test
+    void evictionAfterTheFillDropsTheOldTicket() {
+        cache.putTicket(ticket("TK-1", false));
+
+        cache.evictTickets(List.of("TK-1"));
+
+        assertThat(cache.getTicket("TK-1")).isEmpty();
+    }
+
+    @Test
+    void staleBookingListIsNotRefilledAfterTheEviction() {
+        List<TicketDTO> readBeforeCommit = List.of(ticket("TK-1", false), ticket("TK-2", false));
+
+        cache.evict(List.of("TK-1"), List.of("BK-1"));
+        cache.putBookingTickets("BK-1", readBeforeCommit);
+
+        assertThat(cache.getBookingTickets("BK-1")).isEmpty();
+        assertThat(cache.getTicket("TK-1")).isEmpty();
+    }
+
+    @Test
+    void lookupsFillAgainOnceTheTombstoneExpired() throws InterruptedException {
+        cache.evictTickets(List.of("TK-1"));
+
+        Thread.sleep(TOMBSTONE_SECONDS * 1000 + 200);
+        cache.putTicket(ticket("TK-1", true));
+
+        assertThat(cache.getTicket("TK-1")).hasValueSatisfying(dto -> assertThat(dto.getCheckedIn()).isTrue());
+    }
+
+    private static TicketDTO ticket(String code, boolean checkedIn) {
+        TicketDTO dto = new TicketDTO();
+        dto.setId(1L);
+        dto.setTicketCode(code);
+        dto.setStatus(AvroTicketStatus.BOOKED);
+        dto.setCheckedIn(checkedIn);
+        return dto;
+    }
+}
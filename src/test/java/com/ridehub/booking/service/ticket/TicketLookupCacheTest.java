@@ -0,0 +1,126 @@
+package com.ridehub.booking.service.ticket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ridehub.booking.service.dto.TicketDTO;
+import com.ridehub.booking.service.mapper.TicketMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class TicketLookupCacheTest {
+
+    private ObjectMapper objectMapper;
+    private StringRedisTemplate redis;
+    private ValueOperations<String, String> values;
+    private SimpleMeterRegistry meterRegistry;
+    private TicketLookupCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        redis = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TicketLookupCache(redis, objectMapper, mock(TicketMapper.class), meterRegistry, 3600, 30);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void cachedTicketIsAHit() throws Exception {
+        when(values.get("ticket:code:TK-1")).thenReturn(objectMapper.writeValueAsString(ticket("TK-1")));
+
+        assertThat(cache.getTicket("TK-1")).hasValueSatisfying(dto -> {
+            assertThat(dto.getTicketCode()).isEqualTo("TK-1");
+            assertThat(dto.getPrice()).isEqualByComparingTo("150000");
+        });
+        assertThat(count("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void bookingIsAMissWhenOneOfItsTicketsWasEvicted() throws Exception {
+        when(values.get("ticket:booking:BK-1")).thenReturn(objectMapper.writeValueAsString(List.of("TK-1", "TK-2")));
+        when(values.multiGet(List.of("ticket:code:TK-1", "ticket:code:TK-2"))).thenReturn(
+            Arrays.asList(objectMapper.writeValueAsString(ticket("TK-1")), null)
+        );
+
+        assertThat(cache.getBookingTickets("BK-1")).isEmpty();
+        assertThat(count("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void tombstoneIsAMiss() {
+        when(values.get("ticket:code:TK-1")).thenReturn(TicketLookupCache.TOMBSTONE);
+
+        assertThat(cache.getTicket("TK-1")).isEmpty();
+        assertThat(count("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void redisFailureFallsBackToTheDatabase() {
+        when(values.get(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(cache.getTicket("TK-1")).isEmpty();
+        assertThat(count("miss")).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void evictionWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evict(Arrays.asList("TK-1", null), List.of("BK-1"));
+
+        verify(redis, never()).executePipelined(any(RedisCallback.class));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        ArgumentCaptor<RedisCallback<Object>> callback = ArgumentCaptor.forClass(RedisCallback.class);
+        verify(redis).executePipelined(callback.capture());
+        StringRedisConnection connection = mock(StringRedisConnection.class);
+        callback.getValue().doInRedis(connection);
+        verify(connection).setEx("ticket:code:TK-1", 30, TicketLookupCache.TOMBSTONE);
+        verify(connection).setEx("ticket:booking:BK-1", 30, TicketLookupCache.TOMBSTONE);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("ticket.lookup.cache").tag("result", result).counter().count();
+    }
+
+    private static TicketDTO ticket(String code) {
+        TicketDTO dto = new TicketDTO();
+        dto.setId(1L);
+        dto.setTicketCode(code);
+        dto.setPrice(new BigDecimal("150000"));
+        dto.setTimeFrom(Instant.parse("2026-01-10T08:00:00Z"));
+        return dto;
+    }
+}
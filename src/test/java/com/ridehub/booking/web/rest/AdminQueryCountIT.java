@@ -0,0 +1,132 @@
+package com.ridehub.booking.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.ridehub.booking.IntegrationTest;
+import com.ridehub.booking.QueryCountInspector;
+import com.ridehub.booking.domain.Booking;
+import com.ridehub.booking.domain.PaymentTransaction;
+import com.ridehub.booking.domain.PaymentWebhookLog;
+import com.ridehub.booking.domain.enumeration.PaymentStatus;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Statement counts of the admin list and detail endpoints: a page must cost the same number of queries
+ * whatever its size, i.e. no per-row loading of associations.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = "ROLE_ADMIN")
+@Transactional
+class AdminQueryCountIT {
+
+    private static final int ROWS = 25;
+    private static final long TRIP_ID = 987_654_321L;
+    private static final String PREFIX = "QC-" + UUID.randomUUID().toString().substring(0, 8);
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private Long bookingId;
+    private Long paymentTransactionId;
+
+    @BeforeEach
+    void seed() {
+        Instant now = Instant.now();
+        for (int i = 0; i < ROWS; i++) {
+            PaymentTransaction payment = PaymentTransactionResourceIT.createEntity()
+                .transactionId(PREFIX + "-PT-" + i)
+                .orderRef(PREFIX + "-" + i)
+                .status(PaymentStatus.REQUIRES_MANUAL_REVIEW)
+                .createdAt(now);
+            em.persist(payment);
+
+            Booking booking = BookingResourceIT.createEntity()
+                .bookingCode(PREFIX + "-BK-" + i)
+                .idempotencyKey(PREFIX + "-IK-" + i)
+                .tripId(TRIP_ID)
+                .createdAt(now);
+            booking.setPaymentTransaction(payment);
+            em.persist(booking);
+
+            PaymentWebhookLog webhookLog = new PaymentWebhookLog()
+                .provider(PREFIX)
+                .payloadHash(PREFIX + "-WH-" + i)
+                .receivedAt(now)
+                .processingStatus("PROCESSED")
+                .createdAt(now)
+                .isDeleted(false);
+            webhookLog.setPaymentTransaction(payment);
+            em.persist(webhookLog);
+
+            bookingId = booking.getId();
+            paymentTransactionId = payment.getId();
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void bookingListQueriesDoNotGrowWithPageSize() throws Exception {
+        assertSameStatementCountForPageSizes("/api/admin/bookings?tripId=" + TRIP_ID);
+    }
+
+    @Test
+    void paymentListQueriesDoNotGrowWithPageSize() throws Exception {
+        assertSameStatementCountForPageSizes("/api/admin/payments?orderRef=" + PREFIX);
+    }
+
+    @Test
+    void webhookListQueriesDoNotGrowWithPageSize() throws Exception {
+        assertSameStatementCountForPageSizes("/api/admin/webhooks?provider=" + PREFIX);
+    }
+
+    @Test
+    void detailEndpointsRunOneQuery() throws Exception {
+        assertThat(statements("/api/admin/bookings/" + bookingId, jsonPath("$.paymentTransactionId").value(paymentTransactionId))).hasSize(1);
+        assertThat(statements("/api/admin/payments/" + paymentTransactionId, jsonPath("$.bookingId").value(bookingId))).hasSize(1);
+    }
+
+    @Test
+    void criticalPaymentsRunOneQuery() throws Exception {
+        List<String> statements = statements("/api/admin/bookings/critical-payments", jsonPath("$.length()").value(greaterThanOrEqualTo(ROWS)));
+        assertThat(statements).hasSize(1);
+    }
+
+    private void assertSameStatementCountForPageSizes(String url) throws Exception {
+        List<String> small = statements(url + "&size=5", jsonPath("$.content.length()").value(5));
+        List<String> large = statements(url + "&size=20", jsonPath("$.content.length()").value(20));
+
+        // the page select and its count query
+        assertThat(small).hasSize(2);
+        assertThat(large).hasSameSizeAs(small);
+    }
+
+    private List<String> statements(String url, ResultMatcher content) throws Exception {
+        QueryCountInspector.start();
+        try {
+            restMockMvc.perform(get(url)).andExpect(status().isOk()).andExpect(content);
+        } finally {
+            em.clear();
+        }
+        return QueryCountInspector.stop();
+    }
+}
@@ -1360,7 +1360,8 @@ class AppliedPromotionResourceIT {
     }
 
     protected long getRepositoryCount() {
-        return appliedPromotionRepository.count();
+        // Count rows directly: repository counts skip soft-deleted rows, and some updates soft-delete
+        return ((Number) em.createNativeQuery("select count(*) from applied_promotion").getSingleResult()).longValue();
     }
 
     protected void assertIncrementedRepositoryCount(long countBefore) {
@@ -4,6 +4,7 @@ import static com.ridehub.booking.domain.BookingAsserts.*;
 import static com.ridehub.booking.web.rest.TestUtil.createUpdateProxyForBean;
 import static com.ridehub.booking.web.rest.TestUtil.sameNumber;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -378,6 +379,43 @@ class BookingResourceIT {
             .andExpect(jsonPath("$.[*].deletedBy").value(hasItem(DEFAULT_DELETED_BY.toString())));
     }
 
+    @Test
+    @Transactional
+    void scrollBookingsFollowsCursor() throws Exception {
+        // Initialize the database: three bookings of a trip of their own, created a minute apart
+        Long tripId = longCount.incrementAndGet();
+        Booking[] bookings = new Booking[3];
+        for (int i = 0; i < bookings.length; i++) {
+            bookings[i] = bookingRepository.saveAndFlush(
+                createEntity().bookingCode("SCROLL-" + i).tripId(tripId).createdAt(DEFAULT_CREATED_AT.plus(i, ChronoUnit.MINUTES))
+            );
+        }
+        String filter = "tripId.equals=" + tripId + "&size=2&sort=createdAt,desc";
+
+        // First slice: the two newest, and a cursor
+        String cursor = restBookingMockMvc
+            .perform(get(ENTITY_API_URL + "/scroll?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(bookings[2].getId().intValue(), bookings[1].getId().intValue())))
+            .andExpect(header().exists(KeysetPaginationUtil.HEADER_NEXT_CURSOR))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andReturn()
+            .getResponse()
+            .getHeader(KeysetPaginationUtil.HEADER_NEXT_CURSOR);
+
+        // Last slice: the oldest, and no further cursor
+        restBookingMockMvc
+            .perform(get(ENTITY_API_URL + "/scroll?" + filter + "&cursor=" + cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(bookings[0].getId().intValue())))
+            .andExpect(header().doesNotExist(KeysetPaginationUtil.HEADER_NEXT_CURSOR));
+
+        // A cursor only fits the sort it was issued for
+        restBookingMockMvc
+            .perform(get(ENTITY_API_URL + "/scroll?tripId.equals=" + tripId + "&size=2&sort=bookedAt,asc&cursor=" + cursor))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getBooking() throws Exception {
@@ -1234,6 +1272,12 @@ class BookingResourceIT {
             .andExpect(jsonPath("$.[*].deletedAt").value(hasItem(DEFAULT_DELETED_AT.toString())))
             .andExpect(jsonPath("$.[*].deletedBy").value(hasItem(DEFAULT_DELETED_BY.toString())));
 
+        // Check, that the keyset scroll also returns it
+        restBookingMockMvc
+            .perform(get(ENTITY_API_URL + "/scroll?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(booking.getId().intValue())));
+
         // Check, that the count call also returns 1
         restBookingMockMvc
             .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
@@ -1253,6 +1297,13 @@ class BookingResourceIT {
             .andExpect(jsonPath("$").isArray())
             .andExpect(jsonPath("$").isEmpty());
 
+        // Check, that the keyset scroll is empty too
+        restBookingMockMvc
+            .perform(get(ENTITY_API_URL + "/scroll?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty())
+            .andExpect(header().doesNotExist(KeysetPaginationUtil.HEADER_NEXT_CURSOR));
+
         // Check, that the count call also returns 0
         restBookingMockMvc
             .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
@@ -1313,6 +1364,56 @@ class BookingResourceIT {
         assertPersistedBookingToMatchAllProperties(updatedBooking);
     }
 
+    @Test
+    @Transactional
+    void putStaleBookingIsAConflict() throws Exception {
+        // Initialize the database
+        insertedBooking = bookingRepository.saveAndFlush(booking);
+
+        // Read the booking, then let another writer change it
+        Booking staleBooking = bookingRepository.findById(booking.getId()).orElseThrow();
+        em.detach(staleBooking);
+        BookingDTO staleBookingDTO = bookingMapper.toDto(staleBooking);
+        Booking currentBooking = bookingRepository.findById(booking.getId()).orElseThrow();
+        currentBooking.setQuantity(UPDATED_QUANTITY);
+        bookingRepository.saveAndFlush(currentBooking);
+
+        restBookingMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, staleBookingDTO.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(staleBookingDTO))
+            )
+            .andExpect(status().isConflict());
+
+        // The other writer's change is kept
+        em.clear();
+        assertThat(em.find(Booking.class, booking.getId()).getQuantity()).isEqualTo(UPDATED_QUANTITY);
+    }
+
+    @Test
+    @Transactional
+    void putBookingWithoutVersion() throws Exception {
+        // Initialize the database
+        insertedBooking = bookingRepository.saveAndFlush(booking);
+        long databaseSizeBeforeUpdate = getRepositoryCount();
+
+        BookingDTO bookingDTO = bookingMapper.toDto(booking);
+        bookingDTO.setVersion(null);
+
+        restBookingMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, bookingDTO.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(bookingDTO))
+            )
+            .andExpect(status().isBadRequest());
+
+        assertSameRepositoryCount(databaseSizeBeforeUpdate);
+    }
+
     @Test
     @Transactional
     void putNonExistingBooking() throws Exception {
@@ -1541,7 +1642,8 @@ class BookingResourceIT {
     }
 
     protected long getRepositoryCount() {
-        return bookingRepository.count();
+        // Count rows directly: repository counts skip soft-deleted rows, and some updates soft-delete
+        return ((Number) em.createNativeQuery("select count(*) from booking").getSingleResult()).longValue();
     }
 
     protected void assertIncrementedRepositoryCount(long countBefore) {
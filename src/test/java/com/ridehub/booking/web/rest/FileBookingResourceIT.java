@@ -1003,7 +1003,8 @@ class FileBookingResourceIT {
     }
 
     protected long getRepositoryCount() {
-        return fileBookingRepository.count();
+        // Count rows directly: repository counts skip soft-deleted rows, and some updates soft-delete
+        return ((Number) em.createNativeQuery("select count(*) from file_booking").getSingleResult()).longValue();
     }
 
     protected void assertIncrementedRepositoryCount(long countBefore) {
@@ -1062,7 +1062,8 @@ class InvoiceResourceIT {
     }
 
     protected long getRepositoryCount() {
-        return invoiceRepository.count();
+        // Count rows directly: repository counts skip soft-deleted rows, and some updates soft-delete
+        return ((Number) em.createNativeQuery("select count(*) from invoice").getSingleResult()).longValue();
     }
 
     protected void assertIncrementedRepositoryCount(long countBefore) {
@@ -996,6 +996,56 @@ class PaymentTransactionResourceIT {
         assertPersistedPaymentTransactionToMatchAllProperties(updatedPaymentTransaction);
     }
 
+    @Test
+    @Transactional
+    void putStalePaymentTransactionIsAConflict() throws Exception {
+        // Initialize the database
+        insertedPaymentTransaction = paymentTransactionRepository.saveAndFlush(paymentTransaction);
+
+        // Read the paymentTransaction, then let another writer change it
+        PaymentTransaction stalePaymentTransaction = paymentTransactionRepository.findById(paymentTransaction.getId()).orElseThrow();
+        em.detach(stalePaymentTransaction);
+        PaymentTransactionDTO stalePaymentTransactionDTO = paymentTransactionMapper.toDto(stalePaymentTransaction);
+        PaymentTransaction currentPaymentTransaction = paymentTransactionRepository.findById(paymentTransaction.getId()).orElseThrow();
+        currentPaymentTransaction.setGatewayNote(UPDATED_GATEWAY_NOTE);
+        paymentTransactionRepository.saveAndFlush(currentPaymentTransaction);
+
+        restPaymentTransactionMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, stalePaymentTransactionDTO.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(stalePaymentTransactionDTO))
+            )
+            .andExpect(status().isConflict());
+
+        // The other writer's change is kept
+        em.clear();
+        assertThat(em.find(PaymentTransaction.class, paymentTransaction.getId()).getGatewayNote()).isEqualTo(UPDATED_GATEWAY_NOTE);
+    }
+
+    @Test
+    @Transactional
+    void putPaymentTransactionWithoutVersion() throws Exception {
+        // Initialize the database
+        insertedPaymentTransaction = paymentTransactionRepository.saveAndFlush(paymentTransaction);
+        long databaseSizeBeforeUpdate = getRepositoryCount();
+
+        PaymentTransactionDTO paymentTransactionDTO = paymentTransactionMapper.toDto(paymentTransaction);
+        paymentTransactionDTO.setVersion(null);
+
+        restPaymentTransactionMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, paymentTransactionDTO.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(paymentTransactionDTO))
+            )
+            .andExpect(status().isBadRequest());
+
+        assertSameRepositoryCount(databaseSizeBeforeUpdate);
+    }
+
     @Test
     @Transactional
     void putNonExistingPaymentTransaction() throws Exception {
@@ -1234,7 +1284,8 @@ class PaymentTransactionResourceIT {
     }
 
     protected long getRepositoryCount() {
-        return paymentTransactionRepository.count();
+        // Count rows directly: repository counts skip soft-deleted rows, and some updates soft-delete
+        return ((Number) em.createNativeQuery("select count(*) from payment_transaction").getSingleResult()).longValue();
     }
 
     protected void assertIncrementedRepositoryCount(long countBefore) {
@@ -1053,7 +1053,8 @@ class PaymentWebhookLogResourceIT {
     }
 
     protected long getRepositoryCount() {
-        return paymentWebhookLogRepository.count();
+        // Count rows directly: repository counts skip soft-deleted rows, and some updates soft-delete
+        return ((Number) em.createNativeQuery("select count(*) from payment_webhook_log").getSingleResult()).longValue();
     }
 
     protected void assertIncrementedRepositoryCount(long countBefore) {
@@ -1359,7 +1359,8 @@ class PricingSnapshotResourceIT {
     }
 
     protected long getRepositoryCount() {
-        return pricingSnapshotRepository.count();
+        // Count rows directly: repository counts skip soft-deleted rows, and some updates soft-delete
+        return ((Number) em.createNativeQuery("select count(*) from pricing_snapshot").getSingleResult()).longValue();
     }
 
     protected void assertIncrementedRepositoryCount(long countBefore) {
@@ -2080,7 +2080,8 @@ class TicketResourceIT {
     }
 
     protected long getRepositoryCount() {
-        return ticketRepository.count();
+        // Count rows directly: repository counts skip soft-deleted rows, and some updates soft-delete
+        return ((Number) em.createNativeQuery("select count(*) from ticket").getSingleResult()).longValue();
     }
 
     protected void assertIncrementedRepositoryCount(long countBefore) {